@@ -0,0 +1,27 @@
+package com.gameaccountshop.config;
+
+import com.gameaccountshop.service.DependencyGuard;
+import com.gameaccountshop.service.PayOSService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One DependencyGuard per outbound provider
+ * Inject with @Qualifier("payOSGuard") / @Qualifier("imgbbGuard"); /admin/metrics lists them all
+ */
+@Configuration
+public class OutboundGuardConfig {
+
+    @Bean
+    public DependencyGuard payOSGuard(OutboundProperties outboundProperties) {
+        return new DependencyGuard("payos", outboundProperties.getPayos(), PayOSService::isProviderFailure);
+    }
+
+    /**
+     * Every ImgBB error counts: ImageUploadService only throws inside the guard for 5xx and 429
+     */
+    @Bean
+    public DependencyGuard imgbbGuard(OutboundProperties outboundProperties) {
+        return new DependencyGuard("imgbb", outboundProperties.getImgbb(), failure -> true);
+    }
+}
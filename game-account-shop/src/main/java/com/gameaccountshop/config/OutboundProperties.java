@@ -0,0 +1,33 @@
+package com.gameaccountshop.config;
+
+import com.gameaccountshop.service.DependencyGuard;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Outbound integration limits (app.outbound.*)
+ * One DependencyGuard.Settings per provider; unset keys keep these defaults
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.outbound")
+public class OutboundProperties {
+
+    private DependencyGuard.Settings payos = new DependencyGuard.Settings();
+
+    private DependencyGuard.Settings imgbb = imgbbDefaults();
+
+    /**
+     * Uploads are large and rare: fewer slots, a longer deadline
+     */
+    private static DependencyGuard.Settings imgbbDefaults() {
+        DependencyGuard.Settings settings = new DependencyGuard.Settings();
+        settings.setMaxConcurrentCalls(4);
+        settings.setDeadline(Duration.ofSeconds(30));
+        settings.setMinimumCalls(5);
+        return settings;
+    }
+}
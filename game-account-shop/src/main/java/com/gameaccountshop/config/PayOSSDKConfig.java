@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import vn.payos.PayOS;
+import vn.payos.core.ClientOptions;
 
 /**
  * PayOS SDK Configuration
@@ -22,12 +23,24 @@ public class PayOSSDKConfig {
     @Value("${payos.checksum-key}")
     private String checksumKey;
 
+    @Value("${payos.base-url:https://api-merchant.payos.vn}")
+    private String baseUrl;
+
     /**
      * Create PayOS SDK bean with credentials from application.yml
      * The SDK handles signature generation automatically
+     * Its HTTP timeout matches the PayOS guard's deadline, and it does not retry on its own:
+     * callers retry on their own schedule (payment outbox relay, reconciler)
      */
     @Bean
-    public PayOS payOS() {
-        return new PayOS(clientId, apiKey, checksumKey);
+    public PayOS payOS(OutboundProperties outboundProperties) {
+        return new PayOS(ClientOptions.builder()
+                .clientId(clientId)
+                .apiKey(apiKey)
+                .checksumKey(checksumKey)
+                .baseURL(baseUrl)
+                .timeoutMs((int) outboundProperties.getPayos().getDeadline().toMillis())
+                .maxRetries(0)
+                .build());
     }
 }
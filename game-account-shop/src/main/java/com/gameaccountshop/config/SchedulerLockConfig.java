@@ -0,0 +1,22 @@
+package com.gameaccountshop.config;
+
+import com.gameaccountshop.scheduled.SchedulerLockPostProcessor;
+import com.gameaccountshop.service.LockProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables @SchedulerLocked on scheduled methods
+ */
+@Configuration
+public class SchedulerLockConfig {
+
+    /**
+     * Static, like every BeanPostProcessor bean; the lock provider is resolved on the first locked run
+     */
+    @Bean
+    static SchedulerLockPostProcessor schedulerLockPostProcessor(ObjectProvider<LockProvider> lockProvider) {
+        return new SchedulerLockPostProcessor(lockProvider::getObject);
+    }
+}
@@ -30,8 +30,12 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .addFilterBefore(sessionRevocationFilter, SecurityContextPersistenceFilter.class)
+            // PayOS posts server-to-server; the webhook is authenticated by its checksum signature instead
+            .csrf(csrf -> csrf.ignoringRequestMatchers("/payment/payos/webhook"))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/", "/home", "/auth/**", "/css/**", "/js/**", "/images/**").permitAll()
+                .requestMatchers("/api/suggest").permitAll()
+                .requestMatchers("/payment/payos/webhook").permitAll()
                 .requestMatchers("/listings/create").hasRole("USER")
                 .requestMatchers("/listings/**").permitAll()
                 .requestMatchers("/admin/**").hasRole("ADMIN")
@@ -0,0 +1,65 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.service.BatchJobRunner;
+import com.gameaccountshop.service.DependencyGuard;
+import com.gameaccountshop.service.HomeListingCache;
+import com.gameaccountshop.service.PaymentReconciler;
+import com.gameaccountshop.service.SellerEarningsVerifier;
+import com.gameaccountshop.service.UserSummaryCache;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin metrics endpoint
+ * Exposes in-process counters (cache hit/miss, last payment reconciliation, seller earnings
+ * verification and batch job runs, outbound circuit breakers and bulkheads) as JSON for monitoring
+ * All endpoints require ADMIN role
+ */
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminMetricsController {
+
+    private final HomeListingCache homeListingCache;
+    private final UserSummaryCache userSummaryCache;
+    private final PaymentReconciler paymentReconciler;
+    private final SellerEarningsVerifier sellerEarningsVerifier;
+    private final BatchJobRunner batchJobRunner;
+    private final List<DependencyGuard> dependencyGuards;
+
+    public AdminMetricsController(HomeListingCache homeListingCache, UserSummaryCache userSummaryCache,
+                                  PaymentReconciler paymentReconciler, SellerEarningsVerifier sellerEarningsVerifier,
+                                  BatchJobRunner batchJobRunner, List<DependencyGuard> dependencyGuards) {
+        this.homeListingCache = homeListingCache;
+        this.userSummaryCache = userSummaryCache;
+        this.paymentReconciler = paymentReconciler;
+        this.sellerEarningsVerifier = sellerEarningsVerifier;
+        this.batchJobRunner = batchJobRunner;
+        this.dependencyGuards = dependencyGuards;
+    }
+
+    /**
+     * GET /admin/metrics
+     */
+    @GetMapping("/metrics")
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("homeListingCache", homeListingCache.stats());
+        metrics.put("userSummaryCache", userSummaryCache.stats());
+        metrics.put("paymentReconciler", paymentReconciler.lastRun());
+        metrics.put("sellerEarningsVerifier", sellerEarningsVerifier.lastRun());
+        metrics.put("batchJobs", batchJobRunner.lastRuns());
+        Map<String, Object> outbound = new LinkedHashMap<>();
+        for (DependencyGuard guard : dependencyGuards) {
+            outbound.put(guard.getName(), guard.stats());
+        }
+        metrics.put("outbound", outbound);
+        return metrics;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.service.PlatformRevenueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * Admin platform revenue controller
+ */
+@Controller
+@Slf4j
+public class AdminRevenueController {
+
+    private final PlatformRevenueService platformRevenueService;
+
+    public AdminRevenueController(PlatformRevenueService platformRevenueService) {
+        this.platformRevenueService = platformRevenueService;
+    }
+
+    /**
+     * Show accrued platform commission
+     * GET /admin/revenue
+     */
+    @GetMapping("/admin/revenue")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public String showRevenue(Model model) {
+        model.addAttribute("revenue", platformRevenueService.getRevenue());
+        return "admin-revenue";
+    }
+}
@@ -0,0 +1,48 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.service.ListingVersionRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ETag / Last-Modified handling shared by the public browse and detail pages
+ *
+ * Only anonymous requests without flash attributes are eligible: for logged-in users the
+ * rendered page also depends on the principal (navbar, buy button, CSRF token), and a
+ * redirect's success/error message must never be swallowed by a 304.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Emit validators and, if the client's copy is current, mark the response 304
+     *
+     * @param version Resolved only for eligible requests, so others never look up a version
+     * @return true if the handler should return null without touching the database or rendering
+     */
+    static boolean isNotModified(ServletWebRequest request, Supplier<ListingVersionRegistry.Version> version) {
+        if (request.getUserPrincipal() != null) {
+            return false;
+        }
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request.getRequest());
+        if (flash != null && !flash.isEmpty()) {
+            return false;
+        }
+
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // Replaces Spring Security's no-store default: clients may keep the page but must revalidate
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        }
+        ListingVersionRegistry.Version current = version.get();
+        return request.checkNotModified(current.etag(), current.lastModified());
+    }
+}
@@ -1,11 +1,14 @@
 package com.gameaccountshop.controller;
 
-import com.gameaccountshop.dto.ListingDisplayDto;
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.dto.ListingPageDto;
 import com.gameaccountshop.service.GameAccountService;
+import com.gameaccountshop.service.ListingVersionRegistry;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -13,27 +16,46 @@ import java.util.List;
 public class HomeController {
 
     private final GameAccountService gameAccountService;
+    private final ListingVersionRegistry listingVersionRegistry;
 
-    public HomeController(GameAccountService gameAccountService) {
+    public HomeController(GameAccountService gameAccountService, ListingVersionRegistry listingVersionRegistry) {
         this.gameAccountService = gameAccountService;
+        this.listingVersionRegistry = listingVersionRegistry;
     }
 
     /**
      * Home page - browse approved listings with optional search and filter
      * Story 2.2: Browse Listings with Search/Filter
-     * GET /?search=...&rank=...
+     * GET /?search=...&rank=...&rank=...&minPrice=...&maxPrice=...&sort=...&after=...|before=...
+     * rank may repeat (any of the prefixes matches); minPrice/maxPrice are inclusive VND bounds
+     * after/before are opaque keyset cursors for the next/previous page
+     * Every result set only changes with the catalog version, so anonymous revalidations
+     * matching the catalog ETag get 304 without a query or render
      */
     @GetMapping("/")
     public String home(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String rank,
+            @RequestParam(required = false) List<String> rank,
+            @RequestParam(required = false) Long minPrice,
+            @RequestParam(required = false) Long maxPrice,
             @RequestParam(required = false) String sort,
-            Model model) {
-
-        List<ListingDisplayDto> listings = gameAccountService.findApprovedListings(search, rank, sort);
-        model.addAttribute("listings", listings);
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            Model model,
+            ServletWebRequest request) {
+
+        if (ConditionalGet.isNotModified(request, listingVersionRegistry::catalogVersion)) {
+            return null;
+        }
+        ListingFilter filter = new ListingFilter(search, rank, minPrice, maxPrice);
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(filter, sort, after, before);
+        model.addAttribute("listings", page.listings());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("prevCursor", page.prevCursor());
         model.addAttribute("search", search);
-        model.addAttribute("rank", rank);
+        model.addAttribute("rank", filter.ranks());
+        model.addAttribute("minPrice", minPrice);
+        model.addAttribute("maxPrice", maxPrice);
         model.addAttribute("sort", sort);
 
         return "home";
@@ -2,11 +2,14 @@ package com.gameaccountshop.controller;
 
 import com.gameaccountshop.dto.ListingDetailDto;
 import com.gameaccountshop.service.GameAccountService;
+import com.gameaccountshop.service.IdempotencyService;
+import com.gameaccountshop.service.ListingVersionRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * Controller for listing detail pages (public browse)
@@ -20,9 +23,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 public class ListingsController {
 
     private final GameAccountService gameAccountService;
+    private final ListingVersionRegistry listingVersionRegistry;
 
-    public ListingsController(GameAccountService gameAccountService) {
+    public ListingsController(GameAccountService gameAccountService,
+                              ListingVersionRegistry listingVersionRegistry) {
         this.gameAccountService = gameAccountService;
+        this.listingVersionRegistry = listingVersionRegistry;
     }
 
     /**
@@ -33,17 +39,24 @@ public class ListingsController {
      * Exception handling: GlobalExceptionHandler catches:
      *   - NumberFormatException (invalid ID format like "/listings/abc")
      *   - IllegalArgumentException (listing not found or not accessible)
+     * Anonymous revalidations matching the listing's ETag get 304 without a query or render
      *
      * @param id Listing ID
      * @param model Spring UI model
-     * @return Template name
+     * @param request Used for conditional GET (If-None-Match / If-Modified-Since)
+     * @return Template name, or null when answered with 304
      */
     @GetMapping("/listings/{id}")
-    public String listingDetail(@PathVariable Long id, Model model) {
+    public String listingDetail(@PathVariable Long id, Model model, ServletWebRequest request) {
+        if (ConditionalGet.isNotModified(request, () -> listingVersionRegistry.listingVersion(id))) {
+            log.debug("Listing detail not modified: id={}", id);
+            return null;
+        }
         log.info("Viewing listing detail: id={}", id);
 
         ListingDetailDto listing = gameAccountService.getListingDetail(id);
         model.addAttribute("listing", listing);
+        model.addAttribute("idempotencyKey", IdempotencyService.newKey()); // Buy form
 
         return "listing-detail";
     }
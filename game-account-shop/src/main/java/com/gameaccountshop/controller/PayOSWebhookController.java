@@ -0,0 +1,56 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.service.PayOSService;
+import com.gameaccountshop.service.PayOSWebhookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import vn.payos.model.webhooks.Webhook;
+import vn.payos.model.webhooks.WebhookData;
+
+import java.util.Map;
+
+/**
+ * PayOS payment webhook (public, signed by PayOS)
+ * Story 3.1: Wallet System - paid top-ups are credited without waiting for an admin
+ *
+ * Answers 2xx once the payment is recorded, even if settling it has to be retried later,
+ * so PayOS only redelivers webhooks that never reached the inbox.
+ */
+@Slf4j
+@RestController
+public class PayOSWebhookController {
+
+    private final PayOSService payOSService;
+    private final PayOSWebhookService payOSWebhookService;
+
+    public PayOSWebhookController(PayOSService payOSService, PayOSWebhookService payOSWebhookService) {
+        this.payOSService = payOSService;
+        this.payOSWebhookService = payOSWebhookService;
+    }
+
+    /**
+     * POST /payment/payos/webhook
+     */
+    @PostMapping("/payment/payos/webhook")
+    public ResponseEntity<Map<String, Object>> receive(@RequestBody Webhook webhook) {
+        WebhookData data;
+        try {
+            data = payOSService.verifyWebhook(webhook);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false));
+        }
+
+        if (payOSWebhookService.record(data)) {
+            try {
+                payOSWebhookService.settle(data.getOrderCode());
+            } catch (Exception e) {
+                // Recorded in the inbox: PayOSWebhookScheduler retries it
+                log.error("Failed to settle PayOS payment for orderCode: {}", data.getOrderCode(), e);
+            }
+        }
+        return ResponseEntity.ok(Map.of("success", true));
+    }
+}
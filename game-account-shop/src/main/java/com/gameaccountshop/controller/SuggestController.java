@@ -0,0 +1,36 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.dto.SuggestionDto;
+import com.gameaccountshop.service.ListingSuggestionIndex;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Search-box typeahead for the home page (public)
+ * Answered from memory by ListingSuggestionIndex, so it is safe to call on every keystroke
+ */
+@RestController
+@RequestMapping("/api")
+public class SuggestController {
+
+    private static final int DEFAULT_LIMIT = 8;
+
+    private final ListingSuggestionIndex listingSuggestionIndex;
+
+    public SuggestController(ListingSuggestionIndex listingSuggestionIndex) {
+        this.listingSuggestionIndex = listingSuggestionIndex;
+    }
+
+    /**
+     * GET /api/suggest?q=...&limit=...
+     */
+    @GetMapping("/suggest")
+    public List<SuggestionDto> suggest(@RequestParam(name = "q", required = false) String query,
+                                       @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        return listingSuggestionIndex.suggest(query, limit);
+    }
+}
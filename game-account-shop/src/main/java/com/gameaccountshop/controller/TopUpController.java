@@ -2,6 +2,8 @@ package com.gameaccountshop.controller;
 
 import com.gameaccountshop.entity.Transaction;
 import com.gameaccountshop.security.CustomUserDetails;
+import com.gameaccountshop.service.IdempotencyService;
+import com.gameaccountshop.service.IdempotencyService.Outcome;
 import com.gameaccountshop.service.TransactionService;
 import com.gameaccountshop.service.WalletService;
 import jakarta.servlet.http.HttpSession;
@@ -27,11 +29,14 @@ public class TopUpController {
 
     private final WalletService walletService;
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
 
     public TopUpController(WalletService walletService,
-                           TransactionService transactionService) {
+                           TransactionService transactionService,
+                           IdempotencyService idempotencyService) {
         this.walletService = walletService;
         this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -48,6 +53,7 @@ public class TopUpController {
         BigDecimal currentBalance = walletService.getBalance(userId);
 
         model.addAttribute("currentBalance", currentBalance);
+        model.addAttribute("idempotencyKey", IdempotencyService.newKey());
         model.addAttribute("presetAmounts", java.util.List.of(
                 new BigDecimal("100000"),
                 new BigDecimal("200000"),
@@ -61,19 +67,32 @@ public class TopUpController {
     /**
      * Process top-up request
      * POST /wallet/topup
+     * A repeated idempotencyKey replays the first redirect without creating another PayOS payment link;
+     * a failed request is not replayed
      */
     @PostMapping("/wallet/topup")
     @PreAuthorize("isAuthenticated()")
     public String processTopUp(
             @RequestParam(required = false) String customAmount,
             @RequestParam(required = false) String presetAmount,
+            @RequestParam(required = false) String idempotencyKey,
             @AuthenticationPrincipal CustomUserDetails userDetails,
             HttpSession session,
             RedirectAttributes redirectAttributes) {
 
-        try {
-            Long userId = userDetails.getId();
+        Long userId = userDetails.getId();
+        return idempotencyService.execute(userId, idempotencyKey, IdempotencyService.TOP_UP,
+                () -> createTopUp(userId, customAmount, presetAmount, session, redirectAttributes),
+                () -> {
+                    redirectAttributes.addFlashAttribute("errorMessage",
+                            "Yêu cầu nạp tiền đang được xử lý. Vui lòng kiểm tra lại sau giây lát.");
+                    return "redirect:/wallet/topup";
+                });
+    }
 
+    private Outcome createTopUp(Long userId, String customAmount, String presetAmount,
+                               HttpSession session, RedirectAttributes redirectAttributes) {
+        try {
             // Parse amount
             BigDecimal amount;
             if (customAmount != null && !customAmount.trim().isEmpty()) {
@@ -81,13 +100,13 @@ public class TopUpController {
                     amount = new BigDecimal(customAmount.trim());
                 } catch (NumberFormatException e) {
                     redirectAttributes.addFlashAttribute("errorMessage", "Số tiền không hợp lệ");
-                    return "redirect:/wallet/topup";
+                    return Outcome.failed("redirect:/wallet/topup");
                 }
             } else if (presetAmount != null) {
                 amount = new BigDecimal(presetAmount);
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Vui lòng nhập số tiền hoặc chọn mệnh giá");
-                return "redirect:/wallet/topup";
+                return Outcome.failed("redirect:/wallet/topup");
             }
 
             log.info("User {} requesting top-up of: {}", userId, amount);
@@ -101,16 +120,16 @@ public class TopUpController {
             session.setAttribute("topUpCheckoutUrl", transaction.getCheckoutUrl());
             session.setAttribute("topUpAmount", amount);
 
-            return "redirect:/wallet/topup/pending";
+            return Outcome.succeeded("redirect:/wallet/topup/pending");
 
         } catch (IllegalArgumentException e) {
             log.warn("Top-up validation failed: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
-            return "redirect:/wallet/topup";
+            return Outcome.failed("redirect:/wallet/topup");
         } catch (Exception e) {
             log.error("Error creating top-up transaction", e);
             redirectAttributes.addFlashAttribute("errorMessage", "Đã xảy ra lỗi. Vui lòng thử lại.");
-            return "redirect:/wallet/topup";
+            return Outcome.failed("redirect:/wallet/topup");
         }
     }
 
@@ -1,16 +1,16 @@
 package com.gameaccountshop.controller;
 
+import com.gameaccountshop.dto.PurchaseReceipt;
 import com.gameaccountshop.entity.GameAccount;
-import com.gameaccountshop.entity.Transaction;
 import com.gameaccountshop.entity.User;
-import com.gameaccountshop.enums.ListingStatus;
-import com.gameaccountshop.enums.TransactionStatus;
-import com.gameaccountshop.enums.TransactionType;
+import com.gameaccountshop.exception.InsufficientBalanceException;
 import com.gameaccountshop.repository.GameAccountRepository;
-import com.gameaccountshop.repository.TransactionRepository;
 import com.gameaccountshop.repository.UserRepository;
 import com.gameaccountshop.security.CustomUserDetails;
 import com.gameaccountshop.service.EmailService;
+import com.gameaccountshop.service.IdempotencyService;
+import com.gameaccountshop.service.IdempotencyService.Outcome;
+import com.gameaccountshop.service.PurchaseService;
 import com.gameaccountshop.service.WalletService;
 import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +21,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
@@ -33,21 +34,26 @@ import java.math.BigDecimal;
 @Controller
 public class TransactionController {
 
+    static final String REQUEST_IN_PROGRESS = "Yêu cầu của bạn đang được xử lý. Vui lòng kiểm tra lại sau giây lát.";
+
     private final WalletService walletService;
+    private final PurchaseService purchaseService;
+    private final IdempotencyService idempotencyService;
     private final EmailService emailService;
     private final GameAccountRepository gameAccountRepository;
-    private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
 
     public TransactionController(WalletService walletService,
+                                  PurchaseService purchaseService,
+                                  IdempotencyService idempotencyService,
                                   EmailService emailService,
                                   GameAccountRepository gameAccountRepository,
-                                  TransactionRepository transactionRepository,
                                   UserRepository userRepository) {
         this.walletService = walletService;
+        this.purchaseService = purchaseService;
+        this.idempotencyService = idempotencyService;
         this.emailService = emailService;
         this.gameAccountRepository = gameAccountRepository;
-        this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
     }
 
@@ -55,100 +61,77 @@ public class TransactionController {
      * Buy listing with wallet balance
      * POST /listings/{id}/buy
      * Story 3.1: Buy with wallet balance - immediate deduction, email sent
+     * The purchase itself runs in PurchaseService as one transaction
+     * A repeated idempotencyKey (double-click, resubmit) replays the first redirect without buying again;
+     * a failed purchase is not replayed, so the duplicate runs and shows its own error
      */
     @PostMapping("/listings/{id}/buy")
     @PreAuthorize("isAuthenticated()")
     public String buyListing(
             @PathVariable Long id,
+            @RequestParam(required = false) String idempotencyKey,
             @AuthenticationPrincipal CustomUserDetails userDetails,
             HttpSession session,
             RedirectAttributes redirectAttributes) {
 
-        try {
-            Long buyerId = userDetails.getId();
+        Long buyerId = userDetails.getId();
+        return idempotencyService.execute(buyerId, idempotencyKey, IdempotencyService.PURCHASE,
+                () -> purchase(id, buyerId, session, redirectAttributes),
+                () -> {
+                    redirectAttributes.addFlashAttribute("errorMessage", REQUEST_IN_PROGRESS);
+                    return "redirect:/listings/" + id;
+                });
+    }
 
+    private Outcome purchase(Long id, Long buyerId, HttpSession session, RedirectAttributes redirectAttributes) {
+        try {
             log.info("User {} initiating purchase for listing {}", buyerId, id);
 
-            // Get listing
-            GameAccount listing = gameAccountRepository.findById(id)
-                    .orElseThrow(() -> new IllegalStateException("Không tìm thấy tài khoản này"));
-
-            // Validate listing status
-            if (listing.getStatus() != ListingStatus.APPROVED) {
-                throw new IllegalStateException("Tài khoản này hiện không có sẵn để mua");
-            }
-
-            // Prevent buying own listing
-            if (listing.getSellerId().equals(buyerId)) {
-                throw new IllegalStateException("Bạn không thể mua tài khoản của chính mình");
-            }
-
-            // Calculate amounts
-            // Buyer pays exact listing price (no extra commission)
-            // Commission is deducted from seller's earnings
-            BigDecimal listingPrice = new BigDecimal(listing.getPrice());
-            BigDecimal commission = listingPrice.multiply(new BigDecimal("0.10"));
-            BigDecimal totalAmount = listingPrice; // Buyer pays only listing price
-
-            // Check wallet balance
-            if (!walletService.hasBalance(buyerId, totalAmount)) {
-                BigDecimal currentBalance = walletService.getBalance(buyerId);
-                log.warn("Insufficient balance for user {}: has={}, needs={}", buyerId, currentBalance, totalAmount);
-                redirectAttributes.addFlashAttribute("errorMessage",
-                    "Số dư không đủ. Bạn cần " + formatMoney(totalAmount) + " VNĐ nhưng chỉ có " + formatMoney(currentBalance) + " VNĐ. " +
-                    "<a href='/wallet/topup' style='color: #3498db; font-weight: bold;'>Nạp thêm tiền</a>");
-                return "redirect:/listings/" + id;
+            // Claim, debit and transaction insert commit together
+            PurchaseReceipt receipt = purchaseService.purchase(id, buyerId);
+            GameAccount listing = receipt.listing();
+
+            // Send account credentials via email immediately; the purchase is already committed
+            try {
+                User buyer = userRepository.findById(buyerId)
+                        .orElseThrow(() -> new IllegalStateException("Không tìm thấy người mua"));
+                emailService.sendAccountCredentialsEmail(
+                        buyer.getEmail(),
+                        listing.getGameName(),
+                        listing.getAccountRank(),
+                        listing.getAccountUsername(),
+                        listing.getAccountPassword(),
+                        listing.getDescription()
+                );
+            } catch (Exception e) {
+                log.error("Failed to send credentials email for transaction: {}", receipt.transactionId(), e);
             }
 
-            // Deduct balance from wallet
-            walletService.deductBalance(buyerId, totalAmount);
-
-            // Mark listing as SOLD
-            listing.setStatus(ListingStatus.SOLD);
-            listing.setSoldAt(java.time.LocalDateTime.now());
-            gameAccountRepository.save(listing);
-            log.info("Listing marked as SOLD: id={}", id);
-
-            // Create PURCHASE transaction
-            Transaction transaction = new Transaction();
-            transaction.setListingId(id);
-            transaction.setBuyerId(buyerId);
-            transaction.setSellerId(listing.getSellerId());
-            transaction.setAmount(listingPrice);
-            transaction.setCommission(commission);
-            transaction.setStatus(TransactionStatus.COMPLETED);
-            transaction.setTransactionType(TransactionType.PURCHASE);
-            transaction = transactionRepository.save(transaction);
-
-            log.info("Transaction completed: {}", transaction.getId());
-
-            // Send account credentials via email immediately
-            User buyer = userRepository.findById(buyerId)
-                    .orElseThrow(() -> new IllegalStateException("Không tìm thấy người mua"));
-            emailService.sendAccountCredentialsEmail(
-                    buyer.getEmail(),
-                    listing.getGameName(),
-                    listing.getAccountRank(),
-                    listing.getAccountUsername(),
-                    listing.getAccountPassword(),
-                    listing.getDescription()
-            );
-
             // Store transaction info in session for success page
-            session.setAttribute("purchaseTransactionId", transaction.getId());
+            session.setAttribute("purchaseTransactionId", receipt.transactionId());
             session.setAttribute("purchaseGameName", listing.getGameName());
-            session.setAttribute("purchaseAmount", listingPrice);
-
-            return "redirect:/purchase-success";
-
+            session.setAttribute("purchaseAmount", receipt.amount());
+
+            return Outcome.succeeded("redirect:/purchase-success");
+
+        } catch (InsufficientBalanceException e) {
+            BigDecimal currentBalance = walletService.getBalance(buyerId);
+            BigDecimal price = gameAccountRepository.findById(id)
+                    .map(listing -> BigDecimal.valueOf(listing.getPrice()))
+                    .orElse(BigDecimal.ZERO);
+            log.warn("Insufficient balance for user {}: has={}, needs={}", buyerId, currentBalance, price);
+            redirectAttributes.addFlashAttribute("errorMessage",
+                "Số dư không đủ. Bạn cần " + formatMoney(price) + " VNĐ nhưng chỉ có " + formatMoney(currentBalance) + " VNĐ. " +
+                "<a href='/wallet/topup' style='color: #3498db; font-weight: bold;'>Nạp thêm tiền</a>");
+            return Outcome.failed("redirect:/listings/" + id);
         } catch (IllegalStateException e) {
             log.warn("Purchase failed: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
-            return "redirect:/listings/" + id;
+            return Outcome.failed("redirect:/listings/" + id);
         } catch (Exception e) {
             log.error("Error processing purchase", e);
             redirectAttributes.addFlashAttribute("errorMessage", "Đã xảy ra lỗi. Vui lòng thử lại.");
-            return "redirect:/listings/" + id;
+            return Outcome.failed("redirect:/listings/" + id);
         }
     }
 
@@ -1,6 +1,6 @@
 package com.gameaccountshop.controller;
 
-import com.gameaccountshop.entity.Transaction;
+import com.gameaccountshop.dto.WalletHistoryPageDto;
 import com.gameaccountshop.security.CustomUserDetails;
 import com.gameaccountshop.service.WalletService;
 import lombok.extern.slf4j.Slf4j;
@@ -10,9 +10,9 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 /**
  * Wallet controller
@@ -23,12 +23,9 @@ import java.util.List;
 public class WalletController {
 
     private final WalletService walletService;
-    private final com.gameaccountshop.repository.TransactionRepository transactionRepository;
 
-    public WalletController(WalletService walletService,
-                            com.gameaccountshop.repository.TransactionRepository transactionRepository) {
+    public WalletController(WalletService walletService) {
         this.walletService = walletService;
-        this.transactionRepository = transactionRepository;
     }
 
     /**
@@ -43,24 +40,29 @@ public class WalletController {
     }
 
     /**
-     * Show wallet page with transaction history
-     * GET /wallet
+     * Show wallet page with one page of transaction history
+     * GET /wallet?after=...|before=...
+     * after/before are opaque keyset cursors for the older/newer page
      */
     @GetMapping("/wallet")
     @PreAuthorize("isAuthenticated()")
     public String showWallet(
             @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             Model model) {
 
         Long userId = userDetails.getId();
         BigDecimal balance = walletService.getBalance(userId);
-
-        // Get user's transaction history
-        List<Transaction> transactions = transactionRepository.findByBuyerIdOrderByCreatedAtDesc(userId);
+        WalletHistoryPageDto page = walletService.getHistoryPage(userId, after, before);
+        long transactionCount = walletService.countHistory(userId);
 
         model.addAttribute("balance", balance);
-        model.addAttribute("transactions", transactions);
-        model.addAttribute("transactionCount", transactions.size());
+        model.addAttribute("transactions", page.transactions());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("prevCursor", page.prevCursor());
+        model.addAttribute("transactionCount", transactionCount);
+        model.addAttribute("transactionCountCapped", transactionCount >= WalletService.HISTORY_COUNT_CAP);
 
         return "wallet";
     }
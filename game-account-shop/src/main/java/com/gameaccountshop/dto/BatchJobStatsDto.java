@@ -0,0 +1,37 @@
+package com.gameaccountshop.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counters of one run of a chunked batch job, exposed on /admin/metrics
+ *
+ * @param jobName Job, e.g. monthly-payouts
+ * @param jobKey Execution of the job, e.g. the payout month
+ * @param startedAt When the run started
+ * @param durationMs Wall time of the whole run
+ * @param resumed Whether an earlier run had already worked on the execution
+ * @param chunks Chunks the execution is split into
+ * @param chunksSkipped Chunks already COMPLETED by an earlier run
+ * @param chunksCompleted Chunks completed by this run
+ * @param chunksFailed Chunks whose transaction rolled back; retried by the next run
+ * @param itemsWritten Rows written by the completed chunks
+ * @param chunkP50Ms Median chunk time
+ * @param chunkP95Ms 95th percentile chunk time
+ * @param chunkMaxMs Slowest chunk
+ */
+public record BatchJobStatsDto(
+        String jobName,
+        String jobKey,
+        LocalDateTime startedAt,
+        long durationMs,
+        boolean resumed,
+        int chunks,
+        int chunksSkipped,
+        int chunksCompleted,
+        int chunksFailed,
+        long itemsWritten,
+        double chunkP50Ms,
+        double chunkP95Ms,
+        double chunkMaxMs
+) {
+}
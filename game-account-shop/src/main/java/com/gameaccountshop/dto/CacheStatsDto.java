@@ -0,0 +1,20 @@
+package com.gameaccountshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Counters of an in-process cache, exposed on /admin/metrics
+ *
+ * @param hits Lookups answered from the cache
+ * @param misses Lookups that had to load from the database
+ * @param evictions Entries dropped by invalidation or size-based eviction
+ * @param size Entries currently held
+ */
+public record CacheStatsDto(long hits, long misses, long evictions, long size) {
+
+    @JsonProperty("hitRatio")
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
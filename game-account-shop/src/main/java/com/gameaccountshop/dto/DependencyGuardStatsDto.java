@@ -0,0 +1,21 @@
+package com.gameaccountshop.dto;
+
+/**
+ * State and counters of an outbound dependency guard, exposed on /admin/metrics
+ *
+ * @param state Circuit breaker state (CLOSED, OPEN, HALF_OPEN)
+ * @param failureRate Failed share of the calls in the rolling window (0 when the window is empty)
+ * @param windowCalls Calls recorded in the rolling window
+ * @param inFlight Calls currently holding a bulkhead slot (including ones past their deadline)
+ * @param maxConcurrentCalls Bulkhead size
+ * @param succeeded Calls that returned, or failed without counting against the dependency, since startup
+ * @param failed Calls that failed with a provider error, since startup
+ * @param timedOut Calls abandoned at their deadline, since startup
+ * @param rejectedByBulkhead Calls refused because every slot was taken, since startup
+ * @param shortCircuited Calls refused because the circuit was open, since startup
+ */
+public record DependencyGuardStatsDto(String state, double failureRate, int windowCalls,
+                                      int inFlight, int maxConcurrentCalls,
+                                      long succeeded, long failed, long timedOut,
+                                      long rejectedByBulkhead, long shortCircuited) {
+}
@@ -0,0 +1,25 @@
+package com.gameaccountshop.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counters of one seller earnings verification run, exposed on /admin/metrics
+ *
+ * @param startedAt When the run started
+ * @param durationMs Wall time of the whole run
+ * @param chunks Seller ID ranges checked
+ * @param failedChunks Ranges whose check failed (their sellers were not verified)
+ * @param sellersChecked Sellers with an aggregate row or source totals
+ * @param drifted Sellers whose aggregate row did not match the source tables
+ * @param repaired Drifted rows overwritten with the recomputed totals
+ */
+public record EarningsVerificationStatsDto(
+        LocalDateTime startedAt,
+        long durationMs,
+        int chunks,
+        int failedChunks,
+        int sellersChecked,
+        int drifted,
+        int repaired
+) {
+}
@@ -0,0 +1,87 @@
+package com.gameaccountshop.dto;
+
+import com.gameaccountshop.enums.ListingSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the browse page
+ * Holds the sort key (createdAt or price) and id of the boundary listing,
+ * encoded as a URL-safe token so clients never depend on its layout
+ */
+public record ListingCursor(ListingSort sort, String key, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Build a cursor pointing at the given listing for the given sort order
+     */
+    public static ListingCursor of(ListingSort sort, ListingDisplayDto listing) {
+        return of(sort, ListingSearchHit.of(listing));
+    }
+
+    /**
+     * Build a cursor pointing at the given search hit for the given sort order
+     */
+    public static ListingCursor of(ListingSort sort, ListingSearchHit hit) {
+        String key = switch (sort) {
+            case NEWEST -> hit.createdAt().toString();
+            case RELEVANCE -> String.valueOf(hit.score() != null ? hit.score() : 0.0);
+            default -> String.valueOf(hit.price());
+        };
+        return new ListingCursor(sort, key, hit.id());
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @return the cursor, or null if the token is blank, malformed or was issued for another sort order
+     */
+    public static ListingCursor decode(String token, ListingSort expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3 || !expectedSort.name().equals(parts[0])) {
+                return null;
+            }
+            ListingCursor cursor = new ListingCursor(expectedSort, parts[1], Long.parseLong(parts[2]));
+            // Validate the key eagerly so a tampered token never reaches the repository
+            cursor.toHit();
+            return cursor;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public LocalDateTime createdAt() {
+        return LocalDateTime.parse(key);
+    }
+
+    public Long price() {
+        return Long.parseLong(key);
+    }
+
+    public Double score() {
+        return Double.parseDouble(key);
+    }
+
+    /**
+     * The boundary row as a search hit, with only the sort key of this cursor's order filled in
+     */
+    public ListingSearchHit toHit() {
+        return switch (sort) {
+            case NEWEST -> new ListingSearchHit(id, null, createdAt(), null);
+            case RELEVANCE -> new ListingSearchHit(id, null, null, score());
+            default -> new ListingSearchHit(id, price(), null, null);
+        };
+    }
+}
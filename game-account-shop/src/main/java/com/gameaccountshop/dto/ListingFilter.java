@@ -0,0 +1,58 @@
+package com.gameaccountshop.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Browse page filters; every field is optional and only the ones set become query predicates
+ *
+ * @param search Keyword (game name, description, rank, seller username); blank means none
+ * @param ranks Account rank prefixes, any of which may match (e.g. "Gold", "Diamond"); empty means all
+ * @param minPrice Lowest price in VND, inclusive
+ * @param maxPrice Highest price in VND, inclusive
+ */
+public record ListingFilter(String search, List<String> ranks, Long minPrice, Long maxPrice) {
+
+    public static final ListingFilter NONE = new ListingFilter(null, List.of(), null, null);
+
+    public ListingFilter {
+        search = search == null || search.isBlank() ? null : search.trim();
+        ranks = ranks == null ? List.of() : ranks.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(rank -> !rank.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Keyword plus a single rank prefix, as used by the original browse form
+     */
+    public static ListingFilter of(String search, String rank) {
+        return new ListingFilter(search, rank == null ? List.of() : List.of(rank), null, null);
+    }
+
+    public ListingFilter withSearch(String search) {
+        return new ListingFilter(search, ranks, minPrice, maxPrice);
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    /**
+     * True when nothing narrows the listing set (the cacheable landing page)
+     */
+    public boolean isEmpty() {
+        return search == null && ranks.isEmpty() && !hasPriceRange();
+    }
+
+    /**
+     * Whether a price passes the min/max bounds
+     */
+    public boolean acceptsPrice(Long price) {
+        return price != null
+                && (minPrice == null || price >= minPrice)
+                && (maxPrice == null || price <= maxPrice);
+    }
+}
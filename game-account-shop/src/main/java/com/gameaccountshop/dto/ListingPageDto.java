@@ -0,0 +1,17 @@
+package com.gameaccountshop.dto;
+
+import java.util.List;
+
+/**
+ * One page of the browse listing with keyset cursors for navigation
+ * nextCursor / prevCursor are null when there is no page in that direction
+ */
+public record ListingPageDto(
+        List<ListingDisplayDto> listings,
+        String nextCursor,
+        String prevCursor
+) {
+    public static ListingPageDto empty() {
+        return new ListingPageDto(List.of(), null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.gameaccountshop.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight search result: just the id and the sort keys needed to order and page the hits
+ * Full listing data is only loaded for the page that is actually displayed
+ *
+ * @param score FULLTEXT relevance score, null when the hit has no relevance (in-memory index)
+ */
+public record ListingSearchHit(Long id, Long price, LocalDateTime createdAt, Double score) {
+
+    public static ListingSearchHit of(ListingDisplayDto listing) {
+        return new ListingSearchHit(listing.getId(), listing.getPrice(), listing.getCreatedAt(), null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.gameaccountshop.dto;
+
+import com.gameaccountshop.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A PENDING transaction with a PayOS payment link, as read by the payment reconciler
+ */
+public record PendingPaymentDto(
+        Long id,
+        Long orderCode,
+        TransactionType transactionType,
+        BigDecimal amount,
+        LocalDateTime createdAt
+) {
+}
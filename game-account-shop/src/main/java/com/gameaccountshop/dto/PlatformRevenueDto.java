@@ -0,0 +1,19 @@
+package com.gameaccountshop.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Platform revenue: sum of all revenue stripes, plus the per-stripe breakdown
+ */
+public record PlatformRevenueDto(
+    BigDecimal totalCommission,
+    long saleCount,
+    List<StripeItem> stripes
+) {
+    public record StripeItem(
+        int stripeId,
+        BigDecimal commissionTotal,
+        long saleCount
+    ) {}
+}
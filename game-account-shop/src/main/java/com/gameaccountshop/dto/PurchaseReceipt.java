@@ -0,0 +1,15 @@
+package com.gameaccountshop.dto;
+
+import com.gameaccountshop.entity.GameAccount;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of a committed wallet purchase
+ *
+ * @param transactionId Id of the PURCHASE transaction
+ * @param listing The purchased listing as read before the claim (carries the credentials to email)
+ * @param amount Amount debited from the buyer's wallet
+ */
+public record PurchaseReceipt(Long transactionId, GameAccount listing, BigDecimal amount) {
+}
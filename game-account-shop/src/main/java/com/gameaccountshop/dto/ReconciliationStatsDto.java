@@ -0,0 +1,35 @@
+package com.gameaccountshop.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counters of one payment reconciliation run, exposed on /admin/metrics
+ *
+ * @param startedAt When the run started
+ * @param durationMs Wall time of the whole run
+ * @param rowsScanned PENDING transactions read
+ * @param callsMade PayOS status calls made
+ * @param callErrors Calls that failed or timed out
+ * @param paid Top-ups credited because PayOS reports them PAID
+ * @param cancelled Transactions rejected because the payment link was CANCELLED
+ * @param expired Transactions rejected because the payment link EXPIRED
+ * @param p50Ms Median PayOS call latency
+ * @param p95Ms 95th percentile PayOS call latency
+ * @param p99Ms 99th percentile PayOS call latency
+ * @param maxMs Slowest PayOS call
+ */
+public record ReconciliationStatsDto(
+        LocalDateTime startedAt,
+        long durationMs,
+        int rowsScanned,
+        int callsMade,
+        int callErrors,
+        int paid,
+        int cancelled,
+        int expired,
+        double p50Ms,
+        double p95Ms,
+        double p99Ms,
+        double maxMs
+) {
+}
@@ -0,0 +1,12 @@
+package com.gameaccountshop.dto;
+
+import com.gameaccountshop.enums.SuggestionType;
+
+/**
+ * One search-box completion
+ *
+ * @param text Text to put in the search box (original casing/diacritics)
+ * @param type Game alias, account rank or seller username
+ */
+public record SuggestionDto(String text, SuggestionType type) {
+}
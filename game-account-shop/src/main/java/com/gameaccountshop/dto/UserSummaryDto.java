@@ -0,0 +1,13 @@
+package com.gameaccountshop.dto;
+
+import com.gameaccountshop.entity.User;
+
+/**
+ * Display fields of a user (seller name / contact) cached by UserSummaryCache
+ */
+public record UserSummaryDto(Long id, String username, String email) {
+
+    public static UserSummaryDto fromEntity(User user) {
+        return new UserSummaryDto(user.getId(), user.getUsername(), user.getEmail());
+    }
+}
@@ -0,0 +1,43 @@
+package com.gameaccountshop.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the wallet history
+ * Holds (createdAt, id) of the boundary transaction, encoded like {@link ListingCursor}
+ */
+public record WalletCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static WalletCursor of(WalletTransactionDto transaction) {
+        return new WalletCursor(transaction.createdAt(), transaction.id());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @return the cursor, or null if the token is blank or malformed
+     */
+    public static WalletCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 2) {
+                return null;
+            }
+            return new WalletCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
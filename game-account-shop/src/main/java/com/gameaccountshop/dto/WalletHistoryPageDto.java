@@ -0,0 +1,17 @@
+package com.gameaccountshop.dto;
+
+import java.util.List;
+
+/**
+ * One page of the wallet history with keyset cursors for navigation
+ * nextCursor (older) / prevCursor (newer) are null when there is no page in that direction
+ */
+public record WalletHistoryPageDto(
+        List<WalletTransactionDto> transactions,
+        String nextCursor,
+        String prevCursor
+) {
+    public static WalletHistoryPageDto empty() {
+        return new WalletHistoryPageDto(List.of(), null, null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.gameaccountshop.dto;
+
+import com.gameaccountshop.enums.TransactionStatus;
+import com.gameaccountshop.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the wallet history page
+ * Story 3.1: Wallet System - Only the columns wallet.html shows; the PayOS payload
+ * (qr_code, checkout_url) and admin fields are never loaded
+ */
+public record WalletTransactionDto(
+        Long id,
+        TransactionType transactionType,
+        TransactionStatus status,
+        BigDecimal amount,
+        LocalDateTime createdAt
+) {
+
+    /**
+     * Get transaction ID with TXN prefix
+     */
+    public String getTransactionId() {
+        return "TXN" + id;
+    }
+
+    /**
+     * Get CSS class for transaction type badge
+     */
+    public String getTransactionTypeClass() {
+        if (transactionType == null) {
+            return "type-refund";
+        }
+        return switch (transactionType) {
+            case TOP_UP -> "type-topup";
+            case PURCHASE -> "type-purchase";
+            case WITHDRAWAL -> "type-withdrawal";
+            case REFUND -> "type-refund";
+        };
+    }
+
+    /**
+     * Get display name for transaction type (in Vietnamese)
+     */
+    public String getTransactionTypeDisplayName() {
+        if (transactionType == null) {
+            return "Không xác định";
+        }
+        return switch (transactionType) {
+            case TOP_UP -> "Nạp tiền";
+            case PURCHASE -> "Mua tài khoản";
+            case WITHDRAWAL -> "Rút tiền";
+            case REFUND -> "Hoàn tiền";
+        };
+    }
+
+    /**
+     * Get CSS class for transaction status badge
+     */
+    public String getStatusClass() {
+        if (status == null) {
+            return "status-pending";
+        }
+        return switch (status) {
+            case PENDING -> "status-pending";
+            case COMPLETED -> "status-completed";
+            case REJECTED -> "status-rejected";
+        };
+    }
+
+    /**
+     * Get display name for transaction status (in Vietnamese)
+     */
+    public String getStatusDisplayName() {
+        if (status == null) {
+            return "⏳ Chờ duyệt";
+        }
+        return switch (status) {
+            case PENDING -> "⏳ Chờ duyệt";
+            case COMPLETED -> "✓ Hoàn thành";
+            case REJECTED -> "✗ Từ chối";
+        };
+    }
+
+    /**
+     * Top-ups and refunds add to the wallet (+), everything else takes from it (-)
+     */
+    public boolean isPositiveAmount() {
+        return transactionType == TransactionType.TOP_UP || transactionType == TransactionType.REFUND;
+    }
+}
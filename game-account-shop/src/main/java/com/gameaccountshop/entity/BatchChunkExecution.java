@@ -0,0 +1,106 @@
+package com.gameaccountshop.entity;
+
+import com.gameaccountshop.enums.BatchStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one id range [fromId, toId) of a BatchJobExecution
+ * Inserted PENDING when the execution is planned; updated with statements (BatchChunkExecutionRepository)
+ */
+@Entity
+@Table(name = "batch_chunk_executions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_job_execution_from_id",
+        columnNames = {"job_execution_id", "from_id"}))
+public class BatchChunkExecution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_execution_id", nullable = false)
+    private Long jobExecutionId;
+
+    @Column(name = "from_id", nullable = false)
+    private Long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private Long toId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BatchStatus status = BatchStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "items_written", nullable = false)
+    private int itemsWritten;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public BatchChunkExecution() {
+    }
+
+    public BatchChunkExecution(Long jobExecutionId, Long fromId, Long toId) {
+        this.jobExecutionId = jobExecutionId;
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJobExecutionId() {
+        return jobExecutionId;
+    }
+
+    public Long getFromId() {
+        return fromId;
+    }
+
+    public Long getToId() {
+        return toId;
+    }
+
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BatchStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getItemsWritten() {
+        return itemsWritten;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,107 @@
+package com.gameaccountshop.entity;
+
+import com.gameaccountshop.enums.BatchStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One execution of a chunked batch job (BatchJobRunner), e.g. the payouts of one month
+ * Its chunks are BatchChunkExecution rows planned when the execution is created.
+ */
+@Entity
+@Table(name = "batch_job_executions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_job_name_key", columnNames = {"job_name", "job_key"}))
+public class BatchJobExecution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 50)
+    private String jobName;
+
+    @Column(name = "job_key", nullable = false, length = 50)
+    private String jobKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BatchStatus status = BatchStatus.PENDING;
+
+    @Column(name = "max_id", nullable = false)
+    private Long maxId;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "runs", nullable = false)
+    private int runs;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public BatchJobExecution() {
+    }
+
+    public BatchJobExecution(String jobName, String jobKey, Long maxId, int chunkSize) {
+        this.jobName = jobName;
+        this.jobKey = jobKey;
+        this.maxId = maxId;
+        this.chunkSize = chunkSize;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getJobKey() {
+        return jobKey;
+    }
+
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BatchStatus status) {
+        this.status = status;
+    }
+
+    public Long getMaxId() {
+        return maxId;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -50,6 +50,10 @@ public class GameAccount {
     @Column(name = "sold_at")
     private LocalDateTime soldAt;
 
+    // Row version, stamped by MySQL on every change (V13_1); never written by the application
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -102,4 +106,7 @@ public class GameAccount {
 
     public LocalDateTime getSoldAt() { return soldAt; }
     public void setSoldAt(LocalDateTime soldAt) { this.soldAt = soldAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
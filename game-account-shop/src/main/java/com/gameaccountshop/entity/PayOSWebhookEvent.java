@@ -0,0 +1,79 @@
+package com.gameaccountshop.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Verified PayOS payment webhook, one per orderCode
+ * Rows are written with native statements (PayOSWebhookEventRepository); the entity is read-only
+ */
+@Entity
+@Table(name = "payos_webhook_events",
+    uniqueConstraints = @UniqueConstraint(name = "uk_order_code", columnNames = "order_code"),
+    indexes = @Index(name = "idx_processed_received", columnList = "processed_at, received_at"))
+public class PayOSWebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_code", nullable = false)
+    private Long orderCode;
+
+    @Column(name = "amount", nullable = false)
+    private Long amount;
+
+    @Column(name = "reference", length = 100)
+    private String reference;
+
+    @Column(name = "received_at", insertable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderCode() {
+        return orderCode;
+    }
+
+    public void setOrderCode(Long orderCode) {
+        this.orderCode = orderCode;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Long amount) {
+        this.amount = amount;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public boolean isProcessed() {
+        return processedAt != null;
+    }
+}
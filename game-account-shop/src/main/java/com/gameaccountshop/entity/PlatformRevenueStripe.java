@@ -0,0 +1,56 @@
+package com.gameaccountshop.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One stripe of the platform revenue account
+ * Commission accrues to a single stripe per sale; the platform revenue is the sum of all stripes
+ */
+@Entity
+@Table(name = "platform_revenue_stripes")
+public class PlatformRevenueStripe {
+
+    @Id
+    @Column(name = "stripe_id")
+    private Integer stripeId;
+
+    @Column(name = "commission_total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal commissionTotal = BigDecimal.ZERO;
+
+    @Column(name = "sale_count", nullable = false)
+    private Long saleCount = 0L;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Integer getStripeId() {
+        return stripeId;
+    }
+
+    public void setStripeId(Integer stripeId) {
+        this.stripeId = stripeId;
+    }
+
+    public BigDecimal getCommissionTotal() {
+        return commissionTotal;
+    }
+
+    public void setCommissionTotal(BigDecimal commissionTotal) {
+        this.commissionTotal = commissionTotal;
+    }
+
+    public Long getSaleCount() {
+        return saleCount;
+    }
+
+    public void setSaleCount(Long saleCount) {
+        this.saleCount = saleCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.gameaccountshop.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a named cluster-wide lock (LockProvider)
+ * Written only through SchedulerLockRepository's statements, timed by the database clock
+ */
+@Entity
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    @Column(name = "token", nullable = false, length = 36)
+    private String token;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "lock_until", nullable = false)
+    private LocalDateTime lockUntil;
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public LocalDateTime getLockUntil() {
+        return lockUntil;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gameaccountshop.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Earnings aggregate of one seller
+ * Written only through SellerEarningsRepository's in-place updates, in the transaction of the sale or
+ * payout transition it reflects; a seller without a row has earned nothing yet.
+ */
+@Entity
+@Table(name = "seller_earnings")
+public class SellerEarnings {
+
+    @Id
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Column(name = "gross_sold", nullable = false)
+    private Long grossSold = 0L;
+
+    @Column(name = "net_earnings", nullable = false, precision = 15, scale = 2)
+    private BigDecimal netEarnings = BigDecimal.ZERO;
+
+    @Column(name = "received_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal receivedAmount = BigDecimal.ZERO;
+
+    @Column(name = "paid_pending_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal paidPendingAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    public SellerEarnings() {
+    }
+
+    public SellerEarnings(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    /**
+     * Net earnings not yet confirmed as received by the seller
+     */
+    public BigDecimal getUnpaidAmount() {
+        return netEarnings.subtract(receivedAmount);
+    }
+
+    // Getters and Setters
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public Long getGrossSold() {
+        return grossSold;
+    }
+
+    public void setGrossSold(Long grossSold) {
+        this.grossSold = grossSold;
+    }
+
+    public BigDecimal getNetEarnings() {
+        return netEarnings;
+    }
+
+    public void setNetEarnings(BigDecimal netEarnings) {
+        this.netEarnings = netEarnings;
+    }
+
+    public BigDecimal getReceivedAmount() {
+        return receivedAmount;
+    }
+
+    public void setReceivedAmount(BigDecimal receivedAmount) {
+        this.receivedAmount = receivedAmount;
+    }
+
+    public BigDecimal getPaidPendingAmount() {
+        return paidPendingAmount;
+    }
+
+    public void setPaidPendingAmount(BigDecimal paidPendingAmount) {
+        this.paidPendingAmount = paidPendingAmount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -39,6 +39,9 @@ public class Transaction {
     @Column(name = "payment_link_id", length = 100)
     private String paymentLinkId;
 
+    @Column(name = "order_code")
+    private Long orderCode;
+
     @Column(name = "checkout_url", length = 500)
     private String checkoutUrl;
 
@@ -137,6 +140,14 @@ public class Transaction {
         this.paymentLinkId = paymentLinkId;
     }
 
+    public Long getOrderCode() {
+        return orderCode;
+    }
+
+    public void setOrderCode(Long orderCode) {
+        this.orderCode = orderCode;
+    }
+
     public String getCheckoutUrl() {
         return checkoutUrl;
     }
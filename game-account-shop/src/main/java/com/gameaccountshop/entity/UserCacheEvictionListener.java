@@ -0,0 +1,27 @@
+package com.gameaccountshop.entity;
+
+import com.gameaccountshop.service.UserSummaryCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that drops a user from UserSummaryCache when it is updated or deleted
+ * Instantiated by Hibernate through Spring's bean container, so the cache is injected
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserSummaryCache> userSummaryCache;
+
+    public UserCacheEvictionListener(ObjectProvider<UserSummaryCache> userSummaryCache) {
+        this.userSummaryCache = userSummaryCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userSummaryCache.ifAvailable(cache -> cache.evict(user.getId()));
+    }
+}
@@ -7,6 +7,10 @@ import java.time.LocalDateTime;
 /**
  * Wallet entity
  * Story 3.1: Wallet System - Store user wallet balance
+ *
+ * balance is the live balance, changed only by the guarded UPDATEs in WalletRepository together with a
+ * wallet_ledger entry; snapshotBalance is the balance as of ledger entry snapshotEntryId, the checkpoint
+ * the snapshot job audits the ledger tail from (see WalletService#foldLedger)
  */
 @Entity
 @Table(name = "wallets")
@@ -22,6 +26,12 @@ public class Wallet {
     @Column(name = "balance", nullable = false, precision = 15, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    @Column(name = "snapshot_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal snapshotBalance = BigDecimal.ZERO;
+
+    @Column(name = "snapshot_entry_id", nullable = false)
+    private Long snapshotEntryId = 0L;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -35,6 +45,12 @@ public class Wallet {
         if (balance == null) {
             balance = BigDecimal.ZERO;
         }
+        if (snapshotBalance == null) {
+            snapshotBalance = BigDecimal.ZERO;
+        }
+        if (snapshotEntryId == null) {
+            snapshotEntryId = 0L;
+        }
     }
 
     @PreUpdate
@@ -67,6 +83,22 @@ public class Wallet {
         this.balance = balance;
     }
 
+    public BigDecimal getSnapshotBalance() {
+        return snapshotBalance;
+    }
+
+    public void setSnapshotBalance(BigDecimal snapshotBalance) {
+        this.snapshotBalance = snapshotBalance;
+    }
+
+    public Long getSnapshotEntryId() {
+        return snapshotEntryId;
+    }
+
+    public void setSnapshotEntryId(Long snapshotEntryId) {
+        this.snapshotEntryId = snapshotEntryId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,92 @@
+package com.gameaccountshop.entity;
+
+import com.gameaccountshop.enums.LedgerEntryType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Wallet ledger entry
+ * Story 3.1: Wallet System - immutable credit/debit row; entries are only ever inserted
+ */
+@Entity
+@Immutable
+@Table(name = "wallet_ledger",
+    indexes = {
+        @Index(name = "idx_user_entry", columnList = "user_id, id"),
+        @Index(name = "idx_transaction_id", columnList = "transaction_id")
+    })
+public class WalletLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 10, updatable = false)
+    private LedgerEntryType entryType;
+
+    /**
+     * Signed amount: positive for CREDIT, negative for DEBIT
+     */
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_id", updatable = false)
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    protected WalletLedgerEntry() {
+    }
+
+    private WalletLedgerEntry(Long userId, LedgerEntryType entryType, BigDecimal amount, Long transactionId) {
+        this.userId = userId;
+        this.entryType = entryType;
+        this.amount = amount;
+        this.transactionId = transactionId;
+    }
+
+    public static WalletLedgerEntry credit(Long userId, BigDecimal amount, Long transactionId) {
+        return new WalletLedgerEntry(userId, LedgerEntryType.CREDIT, amount, transactionId);
+    }
+
+    public static WalletLedgerEntry debit(Long userId, BigDecimal amount, Long transactionId) {
+        return new WalletLedgerEntry(userId, LedgerEntryType.DEBIT, amount.negate(), transactionId);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters only - entries are immutable
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LedgerEntryType getEntryType() {
+        return entryType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.gameaccountshop.enums;
+
+/**
+ * Status of a batch_job_executions or batch_chunk_executions row
+ */
+public enum BatchStatus {
+    /**
+     * Not processed yet, or being processed
+     */
+    PENDING,
+
+    /**
+     * Every row written and committed; never processed again
+     */
+    COMPLETED,
+
+    /**
+     * Last attempt failed (chunk) or ended with failed chunks (job); the next run retries it
+     */
+    FAILED
+}
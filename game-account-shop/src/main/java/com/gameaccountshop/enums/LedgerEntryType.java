@@ -0,0 +1,17 @@
+package com.gameaccountshop.enums;
+
+/**
+ * Wallet ledger entry type
+ * Story 3.1: Wallet System - append-only ledger
+ */
+public enum LedgerEntryType {
+    /**
+     * Money into the wallet (approved top-up), positive amount
+     */
+    CREDIT,
+
+    /**
+     * Money out of the wallet (purchase), negative amount
+     */
+    DEBIT
+}
@@ -0,0 +1,63 @@
+package com.gameaccountshop.enums;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sort orders supported by the browse page
+ * Every order ends with the listing id so keyset pagination has a stable tie-breaker
+ */
+public enum ListingSort {
+    /**
+     * Newest first (default)
+     */
+    NEWEST("newest", Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"))),
+
+    /**
+     * Price: low to high
+     */
+    PRICE_ASC("price_asc", Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "id"))),
+
+    /**
+     * Price: high to low
+     */
+    PRICE_DESC("price_desc", Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"))),
+
+    /**
+     * Best FULLTEXT match first (default when searching in fulltext mode)
+     * The score is computed by MySQL, so there is no entity sort; id DESC is the tie-breaker
+     */
+    RELEVANCE("relevance", Sort.by(Sort.Direction.DESC, "id"));
+
+    private final String param;
+    private final Sort sort;
+
+    ListingSort(String param, Sort sort) {
+        this.param = param;
+        this.sort = sort;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    /**
+     * Spring Data sort for this order, including the id tie-breaker
+     */
+    public Sort toSort() {
+        return sort;
+    }
+
+    /**
+     * Resolve the ?sort= request parameter, falling back to NEWEST for unknown values
+     */
+    public static ListingSort fromParam(String param) {
+        if (param != null) {
+            for (ListingSort value : values()) {
+                if (value.param.equals(param)) {
+                    return value;
+                }
+            }
+        }
+        return NEWEST;
+    }
+}
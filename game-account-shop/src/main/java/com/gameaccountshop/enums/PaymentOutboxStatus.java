@@ -0,0 +1,22 @@
+package com.gameaccountshop.enums;
+
+/**
+ * Status of a payment_outbox row
+ */
+public enum PaymentOutboxStatus {
+    /**
+     * Transaction committed, PayOS link not yet stored on it
+     */
+    PENDING,
+
+    /**
+     * PayOS link created and stored on the transaction
+     */
+    SENT,
+
+    /**
+     * No link stored: PayOS had none (transaction rejected),
+     * or could not be asked after the relay's last attempt (transaction left to the admins)
+     */
+    FAILED
+}
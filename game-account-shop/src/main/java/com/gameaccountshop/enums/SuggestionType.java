@@ -0,0 +1,10 @@
+package com.gameaccountshop.enums;
+
+/**
+ * What a search-box suggestion completes to
+ */
+public enum SuggestionType {
+    GAME,
+    RANK,
+    SELLER
+}
@@ -0,0 +1,14 @@
+package com.gameaccountshop.event;
+
+import com.gameaccountshop.enums.ListingStatus;
+
+/**
+ * Published whenever a listing moves between statuses (approve, reject, sold)
+ * Listeners that keep derived read models in sync (search index, caches) react after commit
+ *
+ * @param listingId Listing whose status changed
+ * @param previousStatus Status before the change
+ * @param newStatus Status after the change
+ */
+public record ListingStatusChangedEvent(Long listingId, ListingStatus previousStatus, ListingStatus newStatus) {
+}
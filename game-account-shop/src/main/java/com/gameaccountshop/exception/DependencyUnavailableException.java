@@ -0,0 +1,42 @@
+package com.gameaccountshop.exception;
+
+/**
+ * An outbound call was not made, or not waited for, because its dependency is unhealthy or saturated
+ * Thrown by DependencyGuard instead of letting the caller's thread wait on the provider
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    public enum Reason {
+        /**
+         * Circuit breaker open: recent calls mostly failed
+         */
+        CIRCUIT_OPEN,
+
+        /**
+         * All of the dependency's call slots are taken
+         */
+        BULKHEAD_FULL,
+
+        /**
+         * The call did not answer within its deadline
+         */
+        DEADLINE_EXCEEDED
+    }
+
+    private final String dependency;
+    private final Reason reason;
+
+    public DependencyUnavailableException(String dependency, Reason reason) {
+        super("Dịch vụ " + dependency + " đang tạm thời gián đoạn, vui lòng thử lại sau (" + reason + ")");
+        this.dependency = dependency;
+        this.reason = reason;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
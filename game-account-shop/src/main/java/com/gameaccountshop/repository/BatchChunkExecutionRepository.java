@@ -0,0 +1,54 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.BatchChunkExecution;
+import com.gameaccountshop.enums.BatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batch chunk checkpoints
+ * Every update is a single statement by primary key
+ */
+@Repository
+public interface BatchChunkExecutionRepository extends JpaRepository<BatchChunkExecution, Long> {
+
+    /**
+     * Chunks of an execution not in the given status, in id order (uk_job_execution_from_id)
+     */
+    List<BatchChunkExecution> findByJobExecutionIdAndStatusNotOrderByFromId(Long jobExecutionId, BatchStatus status);
+
+    /**
+     * Take the chunk: marks it COMPLETED and holds its row lock until the chunk's transaction ends,
+     * so a second run reaching the same chunk waits and then finds it done (or retries it after a rollback)
+     * @return 1 if the chunk was not COMPLETED yet
+     */
+    @Modifying
+    @Query("UPDATE BatchChunkExecution c SET c.status = com.gameaccountshop.enums.BatchStatus.COMPLETED, " +
+           "c.attempts = c.attempts + 1 " +
+           "WHERE c.id = :id AND c.status <> com.gameaccountshop.enums.BatchStatus.COMPLETED")
+    int claim(@Param("id") Long id);
+
+    /**
+     * Record what the claimed chunk wrote, in the same transaction as its rows
+     */
+    @Modifying
+    @Query("UPDATE BatchChunkExecution c SET c.itemsWritten = :itemsWritten, c.durationMs = :durationMs, " +
+           "c.lastError = NULL, c.finishedAt = :finishedAt WHERE c.id = :id")
+    int recordCompletion(@Param("id") Long id, @Param("itemsWritten") int itemsWritten,
+                         @Param("durationMs") long durationMs, @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * The chunk's transaction rolled back: count the attempt and keep the error for the admins
+     */
+    @Modifying
+    @Query("UPDATE BatchChunkExecution c SET c.status = com.gameaccountshop.enums.BatchStatus.FAILED, " +
+           "c.attempts = c.attempts + 1, c.lastError = :error " +
+           "WHERE c.id = :id AND c.status <> com.gameaccountshop.enums.BatchStatus.COMPLETED")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+}
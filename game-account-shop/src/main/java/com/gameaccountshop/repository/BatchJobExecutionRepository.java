@@ -0,0 +1,35 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.BatchJobExecution;
+import com.gameaccountshop.enums.BatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Batch job executions (BatchJobRunner checkpoints)
+ */
+@Repository
+public interface BatchJobExecutionRepository extends JpaRepository<BatchJobExecution, Long> {
+
+    Optional<BatchJobExecution> findByJobNameAndJobKey(String jobName, String jobKey);
+
+    /**
+     * Executions of a job not in the given status, in job key order (uk_job_name_key)
+     */
+    List<BatchJobExecution> findByJobNameAndStatusNotOrderByJobKey(String jobName, BatchStatus status);
+
+    /**
+     * A run ended: COMPLETED once every chunk is, FAILED if chunks are left for the next run
+     */
+    @Modifying
+    @Query("UPDATE BatchJobExecution e SET e.status = :status, e.finishedAt = :finishedAt WHERE e.id = :id")
+    int finish(@Param("id") Long id, @Param("status") BatchStatus status,
+               @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -1,20 +1,24 @@
 package com.gameaccountshop.repository;
 
+import com.gameaccountshop.dto.AdminListingDto;
 import com.gameaccountshop.dto.ListingDetailDto;
 import com.gameaccountshop.dto.ListingDisplayDto;
 import com.gameaccountshop.entity.GameAccount;
 import com.gameaccountshop.enums.ListingStatus;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface GameAccountRepository extends JpaRepository<GameAccount, Long> {
+public interface GameAccountRepository extends JpaRepository<GameAccount, Long>, GameAccountRepositoryCustom {
 
     // Existing methods from Story 2.1
     List<GameAccount> findBySellerId(Long sellerId);
@@ -32,20 +36,62 @@ public interface GameAccountRepository extends JpaRepository<GameAccount, Long>
     // NEW for Story 2.2: Find pending listings (oldest first - FIFO for Story 2.4)
     List<GameAccount> findByStatusOrderByCreatedAtAsc(ListingStatus status);
 
-    // NEW for Story 2.2 Improvements: Robust search with aliases (handled in Service), content search, rank filter, and sorting
-    @Query("SELECT g FROM GameAccount g WHERE g.status = :status " +
+    // WHERE clause of the legacy unpaged browse query (status + optional rank prefix + optional keyword search);
+    // the browse page itself uses findListingCards, which only emits the filters that are set
+    String BROWSE_FILTER = "g.status = :status " +
            "AND (:rank IS NULL OR g.accountRank LIKE CONCAT(:rank, '%')) " +
            "AND (:search IS NULL OR (" +
            "   LOWER(g.gameName) LIKE CONCAT('%', LOWER(:search), '%') " +
            "   OR LOWER(g.description) LIKE CONCAT('%', LOWER(:search), '%') " +
            "   OR LOWER(g.accountRank) LIKE CONCAT('%', LOWER(:search), '%') " +
            "   OR g.sellerId IN (SELECT u.id FROM User u WHERE LOWER(u.username) LIKE CONCAT('%', LOWER(:search), '%'))" +
-           "))")
+           ")) ";
+
+    // NEW for Story 2.2 Improvements: Robust search with aliases (handled in Service), content search, rank filter, and sorting
+    @Query("SELECT g FROM GameAccount g WHERE " + BROWSE_FILTER)
     List<GameAccount> findApprovedListings(@Param("search") String search,
                                            @Param("rank") String rank,
                                            @Param("status") ListingStatus status,
                                            Sort sort);
 
+    // Listing card projection: only the columns a card shows, seller username joined in SQL, and the
+    // description cut to a snippet (one char past the 100 shown, so the card still knows to add "...").
+    // Credentials and the full TEXT column never leave MySQL, and no entities are put in the persistence context.
+    // GameAccountRepositoryCustomImpl builds the same projection with the Criteria API.
+    String LISTING_CARD = "SELECT new com.gameaccountshop.dto.ListingDisplayDto(" +
+           "g.id, g.gameName, g.accountRank, g.price, SUBSTRING(g.description, 1, 101), g.imageUrl, g.createdAt, " +
+           "COALESCE(seller.username, 'Unknown')) " +
+           "FROM GameAccount g LEFT JOIN User seller ON g.sellerId = seller.id ";
+
+    // Cards for search hits (index / FULLTEXT paths), still filtered by status in case a hit went stale
+    @Query(LISTING_CARD + "WHERE g.id IN :ids AND g.status = :status")
+    List<ListingDisplayDto> findListingCardsByIdIn(@Param("ids") Collection<Long> ids,
+                                                   @Param("status") ListingStatus status);
+
+    // Story 2.4: Admin review queue (oldest first); keeps the full description, which the admin reviews
+    @Query("SELECT new com.gameaccountshop.dto.AdminListingDto(" +
+           "g.id, g.gameName, g.accountRank, g.price, g.description, " +
+           "COALESCE(seller.username, 'Unknown'), g.createdAt, g.imageUrl) " +
+           "FROM GameAccount g LEFT JOIN User seller ON g.sellerId = seller.id " +
+           "WHERE g.status = :status " +
+           "ORDER BY g.createdAt ASC")
+    List<AdminListingDto> findReviewCardsByStatus(@Param("status") ListingStatus status);
+
+    // Search-box suggestions: rank and seller of every listing with a given status (counted in memory)
+    @Query("SELECT g.id AS id, g.accountRank AS accountRank, seller.username AS sellerUsername " +
+           "FROM GameAccount g LEFT JOIN User seller ON g.sellerId = seller.id " +
+           "WHERE g.status = :status")
+    List<SuggestionTerm> findSuggestionTerms(@Param("status") ListingStatus status);
+
+    /**
+     * Row shape of findSuggestionTerms
+     */
+    interface SuggestionTerm {
+        Long getId();
+        String getAccountRank();
+        String getSellerUsername();
+    }
+
     // OLD methods kept for reference or legacy compatibility if needed, but the new one supersedes them for the main page
     // NEW for Story 2.2: Filter by account rank (e.g., "Gold", "Diamond") with ORDER BY
     @Query("SELECT g FROM GameAccount g WHERE g.accountRank = :rank AND g.status = :status ORDER BY g.createdAt DESC")
@@ -67,7 +113,26 @@ public interface GameAccountRepository extends JpaRepository<GameAccount, Long>
            "  AND g.status IN ('APPROVED', 'SOLD')")
     Optional<ListingDetailDto> findDetailById(@Param("id") Long id);
 
+    // Purchase claim: APPROVED -> SOLD in one conditional UPDATE; 0 rows means the listing is gone
+    // (sold to a concurrent buyer, or no longer approved), so no read lock is ever taken on the listing
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE GameAccount g SET g.status = com.gameaccountshop.enums.ListingStatus.SOLD, g.soldAt = :soldAt " +
+           "WHERE g.id = :id AND g.status = com.gameaccountshop.enums.ListingStatus.APPROVED")
+    int markSoldIfApproved(@Param("id") Long id, @Param("soldAt") LocalDateTime soldAt);
+
     // Story 3.4: Payout System - Get distinct seller IDs who have sold listings
     @Query("SELECT DISTINCT g.sellerId FROM GameAccount g WHERE g.status = :status")
     List<Long> findDistinctSellerIdsByStatus(@Param("status") ListingStatus status);
+
+    // Catalog version shared by every node: the newest row change, one read at the end of idx_updated_at (V13_1)
+    @Query("SELECT MAX(g.updatedAt) FROM GameAccount g")
+    LocalDateTime findLatestUpdatedAt();
+
+    // Persisted version of one listing, for its detail page ETag
+    @Query("SELECT g.updatedAt FROM GameAccount g WHERE g.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Rows changed since a point in time (any status), for the search index's catch-up; range scan of idx_updated_at
+    @Query("SELECT g FROM GameAccount g WHERE g.updatedAt >= :since")
+    List<GameAccount> findChangedSince(@Param("since") LocalDateTime since);
 }
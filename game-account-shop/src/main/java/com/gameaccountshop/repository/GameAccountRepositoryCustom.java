@@ -0,0 +1,48 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.dto.ListingCursor;
+import com.gameaccountshop.dto.ListingDisplayDto;
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.dto.ListingSearchHit;
+import com.gameaccountshop.enums.ListingSort;
+
+import java.util.List;
+
+/**
+ * Browse queries that are assembled at runtime (JPA Criteria, native SQL) instead of fixed JPQL
+ * Implemented by GameAccountRepositoryCustomImpl and mixed into GameAccountRepository
+ */
+public interface GameAccountRepositoryCustom {
+
+    /**
+     * One keyset page of approved listing cards
+     * Only the filters that are actually set become SQL predicates, so MySQL plans each
+     * combination on its own (idx_account_rank, idx_status_price_id, ...) instead of one
+     * catch-all "(:x IS NULL OR ...)" shape that degrades to a scan.
+     *
+     * @param filter Active filters
+     * @param sort Sort order (id is always the tie-breaker)
+     * @param cursor Boundary listing of the previous page, or null for the first page
+     * @param backward Walk towards the start of the order (rows come back in reverse display order)
+     * @param limit Maximum rows to return
+     */
+    List<ListingDisplayDto> findListingCards(ListingFilter filter, ListingSort sort, ListingCursor cursor,
+                                             boolean backward, int limit);
+
+    /**
+     * One keyset page of FULLTEXT (ngram parser, V14) matches among approved listings: ids, sort keys and score
+     * A listing matches on the keyword or on its seller's username prefix. Each is its own index-driven branch
+     * of a UNION, and the rank prefixes (any of, case-insensitive like the LIKE path) and price range are
+     * predicates inside both, so paging happens in SQL at any depth.
+     *
+     * @param booleanQuery Keyword as a BOOLEAN MODE query (SearchTextNormalizer#toBooleanModeQuery)
+     * @param usernamePrefix Seller username prefix that also matches, taken literally (% and _ are not wildcards)
+     * @param filter Rank and price filters (the keyword itself is {@code booleanQuery})
+     * @param sort Sort order (id is always the tie-breaker); RELEVANCE orders by score
+     * @param cursor Boundary hit of the previous page, or null for the first page
+     * @param backward Walk towards the start of the order (rows come back in reverse display order)
+     * @param limit Maximum hits to return
+     */
+    List<ListingSearchHit> findFulltextHits(String booleanQuery, String usernamePrefix, ListingFilter filter,
+                                            ListingSort sort, ListingCursor cursor, boolean backward, int limit);
+}
@@ -0,0 +1,219 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.dto.ListingCursor;
+import com.gameaccountshop.dto.ListingDisplayDto;
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.dto.ListingSearchHit;
+import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.entity.User;
+import com.gameaccountshop.enums.ListingSort;
+import com.gameaccountshop.enums.ListingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Criteria implementation of the dynamic browse query, native SQL for the FULLTEXT search
+ * Same card projection as GameAccountRepository.LISTING_CARD: seller joined in SQL,
+ * description cut to a 101-char snippet, credentials never selected.
+ */
+public class GameAccountRepositoryCustomImpl implements GameAccountRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private static final String FULLTEXT_MATCH =
+            "MATCH(g.game_name, g.account_rank, g.description) AGAINST(:query IN BOOLEAN MODE)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ListingDisplayDto> findListingCards(ListingFilter filter, ListingSort sort, ListingCursor cursor,
+                                                    boolean backward, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        JpaCriteriaQuery<ListingDisplayDto> query = cb.createQuery(ListingDisplayDto.class);
+        JpaRoot<GameAccount> g = query.from(GameAccount.class);
+        JpaEntityJoin<User> seller = g.join(User.class, SqmJoinType.LEFT);
+        seller.on(cb.equal(seller.get("id"), g.get("sellerId")));
+
+        query.select(cb.construct(ListingDisplayDto.class,
+                g.get("id"), g.get("gameName"), g.get("accountRank"), g.get("price"),
+                cb.substring(g.<String>get("description"), 1, 101), g.get("imageUrl"), g.get("createdAt"),
+                cb.coalesce(seller.<String>get("username"), "Unknown")));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(g.get("status"), ListingStatus.APPROVED));
+
+        if (!filter.ranks().isEmpty()) {
+            // Prefix match keeps each rank a range scan on idx_account_rank
+            List<Predicate> anyRank = new ArrayList<>();
+            for (String rank : filter.ranks()) {
+                anyRank.add(cb.like(g.<String>get("accountRank"), escapeLike(rank) + "%", LIKE_ESCAPE));
+            }
+            where.add(anyRank.size() == 1 ? anyRank.get(0) : cb.or(anyRank.toArray(Predicate[]::new)));
+        }
+        if (filter.minPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(g.<Long>get("price"), filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(g.<Long>get("price"), filter.maxPrice()));
+        }
+        if (filter.search() != null) {
+            String pattern = "%" + escapeLike(filter.search().toLowerCase(Locale.ROOT)) + "%";
+            where.add(cb.or(
+                    cb.like(cb.lower(g.<String>get("gameName")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(g.<String>get("description")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(g.<String>get("accountRank")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(seller.<String>get("username")), pattern, LIKE_ESCAPE)));
+        }
+
+        // Walking backward on one order is walking forward on its reverse
+        List<Sort.Order> orders = sort.toSort().stream()
+                .map(order -> backward ? order.with(order.getDirection().isAscending()
+                        ? Sort.Direction.DESC : Sort.Direction.ASC) : order)
+                .toList();
+        if (cursor != null) {
+            where.add(afterCursor(cb, g, orders.get(0), cursor));
+        }
+
+        List<Order> orderBy = new ArrayList<>(orders.size());
+        for (Sort.Order order : orders) {
+            orderBy.add(order.isAscending() ? cb.asc(g.get(order.getProperty())) : cb.desc(g.get(order.getProperty())));
+        }
+        query.where(where.toArray(Predicate[]::new)).orderBy(orderBy);
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<ListingSearchHit> findFulltextHits(String booleanQuery, String usernamePrefix, ListingFilter filter,
+                                                   ListingSort sort, ListingCursor cursor, boolean backward,
+                                                   int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("query", booleanQuery);
+        params.put("usernamePrefix", escapeLike(usernamePrefix) + "%");
+        params.put("limit", limit);
+        String filters = fulltextFilters(filter, params);
+
+        // One index-driven branch per way of matching instead of an OR across both: the keyword through
+        // ft_listing_search, the seller's username prefix through idx_username. UNION drops listings found twice;
+        // the score is cut to a DECIMAL so a cursor's score compares equal to the row it was taken from.
+        String columns = "SELECT g.id AS id, g.price AS price, g.created_at AS createdAt, CAST(" + FULLTEXT_MATCH
+                + " AS DECIMAL(20, 6)) AS score ";
+        StringBuilder sql = new StringBuilder("SELECT h.id AS id, h.price AS price, h.createdAt AS createdAt, ")
+                .append("h.score AS score FROM (")
+                .append(columns).append("FROM game_accounts g WHERE ").append(FULLTEXT_MATCH)
+                .append(" AND g.status = 'APPROVED'").append(filters)
+                .append(" UNION ")
+                .append(columns).append("FROM users u JOIN game_accounts g ON g.seller_id = u.id ")
+                .append("WHERE u.username LIKE :usernamePrefix AND g.status = 'APPROVED'").append(filters)
+                .append(") h");
+
+        // Walking backward on one order is walking forward on its reverse
+        String key = switch (sort) {
+            case NEWEST -> "h.createdAt";
+            case PRICE_ASC, PRICE_DESC -> "h.price";
+            case RELEVANCE -> "h.score";
+        };
+        boolean ascending = (sort == ListingSort.PRICE_ASC) != backward;
+        if (cursor != null) {
+            String after = ascending ? " > " : " < ";
+            sql.append(" WHERE (").append(key).append(after).append(":cursorKey OR (")
+                    .append(key).append(" = :cursorKey AND h.id").append(after).append(":cursorId))");
+            params.put("cursorKey", switch (sort) {
+                case NEWEST -> cursor.createdAt();
+                case RELEVANCE -> cursor.score();
+                default -> cursor.price();
+            });
+            params.put("cursorId", cursor.id());
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(key).append(direction).append(", h.id").append(direction)
+                .append(" LIMIT :limit");
+
+        return fulltextQuery(sql.toString(), params).stream()
+                .map(row -> new ListingSearchHit((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (Double) row[3]))
+                .toList();
+    }
+
+    /**
+     * Rank (any of) and price predicates of one FULLTEXT branch; only the filters that are set
+     */
+    private static String fulltextFilters(ListingFilter filter, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder();
+        if (!filter.ranks().isEmpty()) {
+            // Same prefix match as findListingCards; the column collation makes it case-insensitive
+            List<String> anyRank = new ArrayList<>();
+            for (int i = 0; i < filter.ranks().size(); i++) {
+                anyRank.add("g.account_rank LIKE :rank" + i);
+                params.put("rank" + i, escapeLike(filter.ranks().get(i)) + "%");
+            }
+            sql.append(" AND (").append(String.join(" OR ", anyRank)).append(')');
+        }
+        if (filter.minPrice() != null) {
+            sql.append(" AND g.price >= :minPrice");
+            params.put("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            sql.append(" AND g.price <= :maxPrice");
+            params.put("maxPrice", filter.maxPrice());
+        }
+        return sql.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> fulltextQuery(String sql, Map<String, Object> params) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("price", StandardBasicTypes.LONG)
+                .addScalar("createdAt", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("score", StandardBasicTypes.DOUBLE);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    /**
+     * Rows strictly after the cursor row in (sort key, id) order
+     */
+    private static Predicate afterCursor(HibernateCriteriaBuilder cb, JpaRoot<GameAccount> g,
+                                         Sort.Order keyOrder, ListingCursor cursor) {
+        Expression<Long> id = g.get("id");
+        boolean ascending = keyOrder.isAscending();
+        Predicate idAfter = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+        return switch (keyOrder.getProperty()) {
+            case "createdAt" -> keyAfter(cb, g.<LocalDateTime>get("createdAt"), cursor.createdAt(), idAfter, ascending);
+            case "price" -> keyAfter(cb, g.<Long>get("price"), cursor.price(), idAfter, ascending);
+            default -> idAfter;
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate keyAfter(HibernateCriteriaBuilder cb, Expression<Y> key,
+                                                                        Y value, Predicate idAfter, boolean ascending) {
+        Predicate strictlyAfter = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        return cb.or(strictlyAfter, cb.and(cb.equal(key, value), idAfter));
+    }
+
+    /**
+     * User input is matched literally: % and _ are not wildcards
+     */
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,62 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Idempotency key repository
+ * Writes are transactional on their own: a claim must commit before the submission runs
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    /**
+     * Claim a key for its first submission
+     * INSERT IGNORE on the (user_id, idempotency_key) unique key: a duplicate is not an error
+     * @return 1 if this call claimed the key, 0 if it was already claimed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (user_id, idempotency_key, action, status) " +
+                   "VALUES (:userId, :idempotencyKey, :action, 'IN_PROGRESS')",
+           nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey,
+              @Param("action") String action);
+
+    Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Record the result of the first submission so duplicates can replay it
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = 'COMPLETED', k.resultRedirect = :resultRedirect, " +
+           "k.completedAt = :completedAt WHERE k.userId = :userId AND k.idempotencyKey = :idempotencyKey")
+    int complete(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey,
+                 @Param("resultRedirect") String resultRedirect, @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Drop an unfinished claim so the submission can be retried
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :idempotencyKey " +
+           "AND k.status = 'IN_PROGRESS'")
+    int release(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Purge keys older than the replay window
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
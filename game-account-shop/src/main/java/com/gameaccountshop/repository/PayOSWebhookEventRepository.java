@@ -0,0 +1,52 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.PayOSWebhookEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PayOS webhook inbox repository
+ */
+@Repository
+public interface PayOSWebhookEventRepository extends JpaRepository<PayOSWebhookEvent, Long> {
+
+    /**
+     * Record a verified payment webhook
+     * INSERT IGNORE on the order_code unique key: a redelivery is not an error
+     * @return 1 if this delivery was the first for the orderCode, 0 for a duplicate
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO payos_webhook_events (order_code, amount, reference) " +
+                   "VALUES (:orderCode, :amount, :reference)",
+           nativeQuery = true)
+    int record(@Param("orderCode") Long orderCode, @Param("amount") Long amount,
+               @Param("reference") String reference);
+
+    Optional<PayOSWebhookEvent> findByOrderCode(Long orderCode);
+
+    /**
+     * Mark the payment as accounted for; joins the settling transaction
+     */
+    @Modifying
+    @Query("UPDATE PayOSWebhookEvent e SET e.processedAt = :processedAt " +
+           "WHERE e.orderCode = :orderCode AND e.processedAt IS NULL")
+    int markProcessed(@Param("orderCode") Long orderCode, @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Order codes received since the given time that are still waiting to be settled, oldest first
+     * Older events are left to the admins (e.g. PayOS's test delivery, which matches no transaction)
+     */
+    @Query("SELECT e.orderCode FROM PayOSWebhookEvent e WHERE e.processedAt IS NULL AND e.receivedAt >= :from " +
+           "ORDER BY e.receivedAt")
+    List<Long> findUnprocessedOrderCodes(@Param("from") LocalDateTime from, Limit limit);
+}
@@ -0,0 +1,65 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.PaymentOutbox;
+import com.gameaccountshop.enums.PaymentOutboxStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PayOS payment outbox repository
+ * Every update is a single statement in its own short transaction, guarded by status = PENDING
+ */
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Long> {
+
+    /**
+     * Rows still PENDING whose next attempt is due, oldest first
+     */
+    @Query("SELECT o FROM PaymentOutbox o " +
+           "WHERE o.status = com.gameaccountshop.enums.PaymentOutboxStatus.PENDING AND o.nextAttemptAt <= :now " +
+           "ORDER BY o.nextAttemptAt")
+    List<PaymentOutbox> findDue(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * The link is stored on the transaction: nothing left to do
+     * @return 1 if the row was still PENDING
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.status = com.gameaccountshop.enums.PaymentOutboxStatus.SENT, " +
+           "o.sentAt = :sentAt " +
+           "WHERE o.transactionId = :transactionId " +
+           "AND o.status = com.gameaccountshop.enums.PaymentOutboxStatus.PENDING")
+    int markSent(@Param("transactionId") Long transactionId, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Count a failed PayOS call and push the next attempt back
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.attempts = o.attempts + 1, o.lastError = :error, " +
+           "o.nextAttemptAt = :nextAttemptAt " +
+           "WHERE o.transactionId = :transactionId " +
+           "AND o.status = com.gameaccountshop.enums.PaymentOutboxStatus.PENDING")
+    int recordFailure(@Param("transactionId") Long transactionId, @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Stop relaying the row
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.status = :status, o.lastError = :error " +
+           "WHERE o.transactionId = :transactionId " +
+           "AND o.status = com.gameaccountshop.enums.PaymentOutboxStatus.PENDING")
+    int close(@Param("transactionId") Long transactionId, @Param("status") PaymentOutboxStatus status,
+              @Param("error") String error);
+}
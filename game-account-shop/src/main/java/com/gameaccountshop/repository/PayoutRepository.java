@@ -3,15 +3,17 @@ package com.gameaccountshop.repository;
 import com.gameaccountshop.entity.Payout;
 import com.gameaccountshop.enums.PayoutStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface PayoutRepository extends JpaRepository<Payout, Long> {
+public interface PayoutRepository extends JpaRepository<Payout, Long>, PayoutRepositoryCustom {
 
     List<Payout> findBySellerIdOrderByCreatedAtDesc(Long sellerId);
 
@@ -23,9 +25,56 @@ public interface PayoutRepository extends JpaRepository<Payout, Long> {
     BigDecimal sumAmountBySellerIdAndStatus(@Param("sellerId") Long sellerId,
                                            @Param("status") PayoutStatus status);
 
-    @Query("SELECT COUNT(p) > 0 FROM Payout p WHERE p.sellerId = :sellerId AND p.status = :status AND MONTH(p.createdAt) = :month AND YEAR(p.createdAt) = :year")
-    boolean existsBySellerIdAndStatusAndMonth(@Param("sellerId") Long sellerId,
-                                              @Param("status") PayoutStatus status,
-                                              @Param("month") int month,
-                                              @Param("year") int year);
+    // Half-open created_at range instead of MONTH()/YEAR(), so the lookup stays a range scan on idx_seller_status_month
+    @Query("SELECT COUNT(p) > 0 FROM Payout p WHERE p.sellerId = :sellerId AND p.status = :status " +
+           "AND p.createdAt >= :from AND p.createdAt < :to")
+    boolean existsBySellerIdAndStatusCreatedBetween(@Param("sellerId") Long sellerId,
+                                                    @Param("status") PayoutStatus status,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    // Admin "Paid": NEEDS_PAYMENT -> PAID in one conditional UPDATE; 0 rows means a concurrent request got there first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payout p SET p.status = com.gameaccountshop.enums.PayoutStatus.PAID, p.paidAt = :paidAt, " +
+           "p.adminId = :adminId " +
+           "WHERE p.id = :id AND p.status = com.gameaccountshop.enums.PayoutStatus.NEEDS_PAYMENT")
+    int markPaidIfNeedsPayment(@Param("id") Long id, @Param("adminId") Long adminId,
+                               @Param("paidAt") LocalDateTime paidAt);
+
+    // Seller "Received": PAID -> RECEIVED for the seller's own payout only, same single-statement guard
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payout p SET p.status = com.gameaccountshop.enums.PayoutStatus.RECEIVED, p.receivedAt = :receivedAt " +
+           "WHERE p.id = :id AND p.sellerId = :sellerId AND p.status = com.gameaccountshop.enums.PayoutStatus.PAID")
+    int markReceivedIfPaid(@Param("id") Long id, @Param("sellerId") Long sellerId,
+                           @Param("receivedAt") LocalDateTime receivedAt);
+
+    /**
+     * Unpaid earnings of every seller in [fromId, toId) with sold listings and no NEEDS_PAYMENT payout created
+     * in [from, to)
+     * Same formula as PayoutService.calculateUnpaidEarnings (90% of sold prices minus RECEIVED payouts), for the
+     * whole seller range in one grouped range scan of idx_seller_status_price; the RECEIVED total and the
+     * duplicate check are lookups on idx_seller_status_month. Plain consistent read: no rows are locked.
+     */
+    @Query(value = "SELECT g.seller_id AS sellerId, " +
+                   "       SUM(g.price) * 0.90 - COALESCE((SELECT SUM(r.amount) FROM payouts r " +
+                   "           WHERE r.seller_id = g.seller_id AND r.status = 'RECEIVED'), 0) AS amount " +
+                   "FROM game_accounts g " +
+                   "WHERE g.seller_id >= :fromId AND g.seller_id < :toId AND g.status = 'SOLD' " +
+                   "  AND NOT EXISTS (SELECT 1 FROM payouts n WHERE n.seller_id = g.seller_id " +
+                   "      AND n.status = 'NEEDS_PAYMENT' AND n.created_at >= :from AND n.created_at < :to) " +
+                   "GROUP BY g.seller_id " +
+                   "HAVING amount > 0",
+           nativeQuery = true)
+    List<SellerAmount> findUnpaidEarningsWithoutPayoutBetween(@Param("from") LocalDateTime from,
+                                                              @Param("to") LocalDateTime to,
+                                                              @Param("fromId") Long fromId,
+                                                              @Param("toId") Long toId);
+
+    /**
+     * Row shape of findUnpaidEarningsWithoutPayoutBetween
+     */
+    interface SellerAmount {
+        Long getSellerId();
+        BigDecimal getAmount();
+    }
 }
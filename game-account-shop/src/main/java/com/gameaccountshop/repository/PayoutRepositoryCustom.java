@@ -0,0 +1,21 @@
+package com.gameaccountshop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk payout writes that bypass the persistence context
+ * Implemented by PayoutRepositoryCustomImpl and mixed into PayoutRepository
+ */
+public interface PayoutRepositoryCustom {
+
+    /**
+     * Insert one NEEDS_PAYMENT payout per row as batched JDBC inserts
+     * Payout ids are IDENTITY, so Hibernate would send these one statement at a time.
+     * Joins the caller's transaction.
+     *
+     * @param amounts Seller and amount of each payout
+     * @param createdAt Creation time stamped on every payout
+     */
+    void insertNeedsPayment(List<PayoutRepository.SellerAmount> amounts, LocalDateTime createdAt);
+}
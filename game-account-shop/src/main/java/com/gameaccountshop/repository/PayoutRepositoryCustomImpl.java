@@ -0,0 +1,37 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.enums.PayoutStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JdbcTemplate implementation of the bulk payout writes
+ * With rewriteBatchedStatements=true on the JDBC URL each batch goes out as one multi-row INSERT.
+ */
+public class PayoutRepositoryCustomImpl implements PayoutRepositoryCustom {
+
+    static final int BATCH_SIZE = 1_000;
+
+    private static final String INSERT_PAYOUT =
+            "INSERT INTO payouts (seller_id, amount, status, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PayoutRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertNeedsPayment(List<PayoutRepository.SellerAmount> amounts, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_PAYOUT, amounts, BATCH_SIZE, (statement, row) -> {
+            statement.setLong(1, row.getSellerId());
+            statement.setBigDecimal(2, row.getAmount());
+            statement.setString(3, PayoutStatus.NEEDS_PAYMENT.name());
+            statement.setTimestamp(4, created);
+        });
+    }
+}
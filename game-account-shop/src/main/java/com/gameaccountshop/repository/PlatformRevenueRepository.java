@@ -0,0 +1,34 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.PlatformRevenueStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Platform revenue stripe repository
+ */
+@Repository
+public interface PlatformRevenueRepository extends JpaRepository<PlatformRevenueStripe, Integer> {
+
+    /**
+     * Add one sale's commission to a stripe in place, creating the stripe row if it does not exist yet
+     * Only this stripe's row lock is taken, and only until the surrounding transaction commits
+     */
+    @Modifying
+    @Query(value = "INSERT INTO platform_revenue_stripes (stripe_id, commission_total, sale_count) " +
+                   "VALUES (:stripeId, :amount, 1) " +
+                   "ON DUPLICATE KEY UPDATE commission_total = commission_total + :amount, sale_count = sale_count + 1",
+           nativeQuery = true)
+    int accrue(@Param("stripeId") int stripeId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Every stripe, in stripe order
+     */
+    List<PlatformRevenueStripe> findAllByOrderByStripeIdAsc();
+}
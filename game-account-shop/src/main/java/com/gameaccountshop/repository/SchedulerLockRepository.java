@@ -0,0 +1,66 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Cluster-wide lock leases (DatabaseLockProvider)
+ * Every statement is a primary-key write in its own short transaction, timed by the database clock
+ * so that clock skew between nodes cannot make two leases overlap
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Take a lock nobody has taken before
+     * @return 1 if the row was created, 0 if it already exists
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_locks (name, locked_by, token, locked_at, lock_until) " +
+                   "VALUES (:name, :lockedBy, :token, NOW(3), TIMESTAMPADD(MICROSECOND, :leaseMillis * 1000, NOW(3)))",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("lockedBy") String lockedBy,
+                       @Param("token") String token, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Take a lock whose lease has run out (released, or its node stopped renewing)
+     * @return 1 if taken, 0 if another lease is still running
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE scheduler_locks SET locked_by = :lockedBy, token = :token, locked_at = NOW(3), " +
+                   "lock_until = TIMESTAMPADD(MICROSECOND, :leaseMillis * 1000, NOW(3)) " +
+                   "WHERE name = :name AND lock_until <= NOW(3)",
+           nativeQuery = true)
+    int takeOverExpired(@Param("name") String name, @Param("lockedBy") String lockedBy,
+                        @Param("token") String token, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Heartbeat: push a held lease forward
+     * @return 0 if the lease was taken over by another node
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE scheduler_locks SET lock_until = TIMESTAMPADD(MICROSECOND, :leaseMillis * 1000, NOW(3)) " +
+                   "WHERE name = :name AND token = :token",
+           nativeQuery = true)
+    int renew(@Param("name") String name, @Param("token") String token, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * End the lease, but not before holdMillis after it was taken (so that work done under it is not
+     * repeated by a node that asks a little later)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE scheduler_locks " +
+                   "SET lock_until = GREATEST(NOW(3), TIMESTAMPADD(MICROSECOND, :holdMillis * 1000, locked_at)) " +
+                   "WHERE name = :name AND token = :token",
+           nativeQuery = true)
+    int release(@Param("name") String name, @Param("token") String token, @Param("holdMillis") long holdMillis);
+}
@@ -0,0 +1,83 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.SellerEarnings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Seller earnings aggregate, plus the source-table totals it is verified against
+ */
+@Repository
+public interface SellerEarningsRepository extends JpaRepository<SellerEarnings, Long> {
+
+    /**
+     * Add deltas to a seller's earnings in place, creating the row on the seller's first change
+     * Only this seller's row lock is taken, and only until the surrounding transaction commits
+     */
+    @Modifying
+    @Query(value = "INSERT INTO seller_earnings (seller_id, gross_sold, net_earnings, received_amount, paid_pending_amount) " +
+                   "VALUES (:sellerId, :gross, :net, :received, :paidPending) " +
+                   "ON DUPLICATE KEY UPDATE gross_sold = gross_sold + :gross, net_earnings = net_earnings + :net, " +
+                   "received_amount = received_amount + :received, paid_pending_amount = paid_pending_amount + :paidPending",
+           nativeQuery = true)
+    int accrue(@Param("sellerId") Long sellerId,
+               @Param("gross") Long gross,
+               @Param("net") BigDecimal net,
+               @Param("received") BigDecimal received,
+               @Param("paidPending") BigDecimal paidPending);
+
+    /**
+     * Replace a seller's earnings with totals recomputed from the source tables
+     * Call with the row locked (accrue with zero deltas), see SellerEarningsService#repair
+     */
+    @Modifying
+    @Query(value = "UPDATE seller_earnings SET gross_sold = :gross, net_earnings = :net, " +
+                   "received_amount = :received, paid_pending_amount = :paidPending " +
+                   "WHERE seller_id = :sellerId",
+           nativeQuery = true)
+    int overwrite(@Param("sellerId") Long sellerId,
+                  @Param("gross") Long gross,
+                  @Param("net") BigDecimal net,
+                  @Param("received") BigDecimal received,
+                  @Param("paidPending") BigDecimal paidPending);
+
+    /**
+     * Aggregate rows of the sellers in [fromId, toId) (primary key range)
+     */
+    @Query("SELECT e FROM SellerEarnings e WHERE e.sellerId >= :fromId AND e.sellerId < :toId")
+    List<SellerEarnings> findBySellerIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * SOLD listing prices per seller in [fromId, toId), from the source table (range on idx_seller_status_price)
+     */
+    @Query(value = "SELECT seller_id AS sellerId, 'SOLD' AS status, SUM(price) AS total FROM game_accounts " +
+                   "WHERE seller_id >= :fromId AND seller_id < :toId AND status = 'SOLD' " +
+                   "GROUP BY seller_id",
+           nativeQuery = true)
+    List<SourceTotal> sumSoldPricesBySellerRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * PAID and RECEIVED payout amounts per seller and status in [fromId, toId), from the source table
+     * (range on idx_seller_status_month)
+     */
+    @Query(value = "SELECT seller_id AS sellerId, status AS status, SUM(amount) AS total FROM payouts " +
+                   "WHERE seller_id >= :fromId AND seller_id < :toId AND status IN ('PAID', 'RECEIVED') " +
+                   "GROUP BY seller_id, status",
+           nativeQuery = true)
+    List<SourceTotal> sumPayoutAmountsBySellerRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Row shape of the source-table totals
+     */
+    interface SourceTotal {
+        Long getSellerId();
+        String getStatus();
+        BigDecimal getTotal();
+    }
+}
@@ -1,12 +1,24 @@
 package com.gameaccountshop.repository;
 
+import com.gameaccountshop.dto.PendingPaymentDto;
+import com.gameaccountshop.dto.WalletTransactionDto;
 import com.gameaccountshop.entity.Transaction;
 import com.gameaccountshop.enums.TransactionStatus;
 import com.gameaccountshop.enums.TransactionType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Transaction repository
@@ -20,9 +32,24 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findBySellerId(Long sellerId);
 
     /**
-     * Find transactions by user ID (as buyer)
+     * Find the transaction of a PayOS payment (uk_order_code, V20)
      */
-    List<Transaction> findByBuyerIdOrderByCreatedAtDesc(Long buyerId);
+    Optional<Transaction> findByOrderCode(Long orderCode);
+
+    /**
+     * Lock a transaction before settling it (admin approval/rejection)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Lock the transaction of a PayOS payment before settling it (webhook)
+     * If the creating transaction has written the code but not committed yet, this waits for it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.orderCode = :orderCode")
+    Optional<Transaction> findByOrderCodeForUpdate(@Param("orderCode") Long orderCode);
 
     /**
      * Find pending top-up transactions
@@ -31,4 +58,81 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             TransactionStatus status,
             TransactionType transactionType
     );
+
+    // Wallet history rows: only what wallet.html shows, newest first on idx_buyer_created_id (V19)
+    String WALLET_ROW = "SELECT new com.gameaccountshop.dto.WalletTransactionDto(" +
+           "t.id, t.transactionType, t.status, t.amount, t.createdAt) " +
+           "FROM Transaction t WHERE t.buyerId = :buyerId ";
+
+    /**
+     * First (newest) page of the wallet history
+     */
+    @Query(WALLET_ROW + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<WalletTransactionDto> findWalletHistory(@Param("buyerId") Long buyerId, Limit limit);
+
+    /**
+     * Wallet history rows older than the cursor row (createdAt, id), newest first
+     */
+    @Query(WALLET_ROW + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<WalletTransactionDto> findWalletHistoryBefore(@Param("buyerId") Long buyerId,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Limit limit);
+
+    /**
+     * Wallet history rows newer than the cursor row (createdAt, id), oldest first (the caller reverses them)
+     */
+    @Query(WALLET_ROW + "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+           "ORDER BY t.createdAt ASC, t.id ASC")
+    List<WalletTransactionDto> findWalletHistoryAfter(@Param("buyerId") Long buyerId,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Limit limit);
+
+    /**
+     * Count a buyer's transactions, stopping at cap so the cost is bounded for long histories
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM transactions WHERE buyer_id = :buyerId LIMIT :cap) t",
+           nativeQuery = true)
+    long countByBuyerIdCapped(@Param("buyerId") Long buyerId, @Param("cap") int cap);
+
+    /**
+     * PayOS payments still in the given status, created before a cutoff, after the cursor row (createdAt, id)
+     * Keyset over idx_status_created (the primary key completes the order)
+     * Payments whose link is not stored yet belong to the payment outbox relay and are skipped
+     */
+    @Query("SELECT new com.gameaccountshop.dto.PendingPaymentDto(" +
+           "t.id, t.orderCode, t.transactionType, t.amount, t.createdAt) " +
+           "FROM Transaction t WHERE t.status = :status AND t.orderCode IS NOT NULL " +
+           "AND t.paymentLinkId IS NOT NULL AND t.createdAt < :before " +
+           "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+           "ORDER BY t.createdAt ASC, t.id ASC")
+    List<PendingPaymentDto> findPaymentsToReconcile(@Param("status") TransactionStatus status,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    @Param("before") LocalDateTime before,
+                                                    Limit limit);
+
+    /**
+     * Reject the given transactions if they are still PENDING, in one statement
+     * @return Number of transactions rejected
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = com.gameaccountshop.enums.TransactionStatus.REJECTED, " +
+           "t.rejectionReason = :reason " +
+           "WHERE t.id IN :ids AND t.status = com.gameaccountshop.enums.TransactionStatus.PENDING")
+    int rejectPending(@Param("ids") Collection<Long> ids, @Param("reason") String reason);
+
+    /**
+     * Store the PayOS link created for a payment, in one short statement
+     * qrCode and checkoutUrl are null when the relay recovers a link PayOS created before a crash
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.paymentLinkId = :paymentLinkId, t.qrCode = :qrCode, " +
+           "t.checkoutUrl = :checkoutUrl WHERE t.id = :id")
+    int attachPaymentLink(@Param("id") Long id, @Param("paymentLinkId") String paymentLinkId,
+                          @Param("qrCode") String qrCode, @Param("checkoutUrl") String checkoutUrl);
 }
@@ -3,6 +3,7 @@ package com.gameaccountshop.repository;
 import com.gameaccountshop.entity.User;
 import com.gameaccountshop.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +22,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return List of users with the specified role
      */
     List<User> findByRole(Role role);
+
+    /**
+     * Highest user ID, 0 when there are no users (upper bound of the seller ID ranges walked by jobs)
+     */
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    Long findMaxId();
 }
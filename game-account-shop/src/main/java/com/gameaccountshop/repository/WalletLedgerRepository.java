@@ -0,0 +1,36 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.entity.WalletLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Wallet ledger repository
+ * Story 3.1: Wallet System - append-only; entries are saved, never updated or deleted
+ */
+@Repository
+public interface WalletLedgerRepository extends JpaRepository<WalletLedgerEntry, Long> {
+
+    /**
+     * Entries after a snapshot, summed and with the last entry ID
+     */
+    interface LedgerTail {
+        BigDecimal getTotal();
+
+        Long getLastEntryId();
+    }
+
+    /**
+     * Sum and last ID of the entries after the snapshot, as a locking read (FOR SHARE)
+     * Waits for entries that are inserted but not yet committed and blocks new ones in the range
+     * until commit, so a fold never misses an entry. Call with the wallet row locked.
+     */
+    @Query(value = "SELECT COALESCE(SUM(amount), 0) AS total, COALESCE(MAX(id), :afterId) AS lastEntryId " +
+                   "FROM wallet_ledger WHERE user_id = :userId AND id > :afterId FOR SHARE",
+           nativeQuery = true)
+    LedgerTail lockTail(@Param("userId") Long userId, @Param("afterId") Long afterId);
+}
@@ -1,9 +1,17 @@
 package com.gameaccountshop.repository;
 
 import com.gameaccountshop.entity.Wallet;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +30,40 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
      * Check if wallet exists for user
      */
     boolean existsByUserId(Long userId);
+
+    /**
+     * Debit the wallet only if it holds at least the amount, in one conditional UPDATE
+     * InnoDB serializes concurrent debits on the row lock of this statement alone, so two
+     * purchases can never both pass the balance check (no SELECT ... FOR UPDATE needed)
+     * @return 1 if debited, 0 if the balance was insufficient or the user has no wallet
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount WHERE w.userId = :userId AND w.balance >= :amount")
+    int debit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Credit the wallet in place (balance = balance + amount), so a credit never overwrites a concurrent debit
+     * @return 1 if credited, 0 if the user has no wallet
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount WHERE w.userId = :userId")
+    int credit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Load the wallet and take its row lock (SELECT ... FOR UPDATE)
+     * Only the background snapshot fold takes it: once held, every debit or credit of the wallet
+     * (each holds the row lock of its UPDATE until commit) has committed its ledger entry
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.userId = :userId")
+    Optional<Wallet> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Users whose wallet has ledger entries newer than its snapshot, in user ID order
+     * @param afterUserId Keyset cursor: only users with a larger ID are returned
+     */
+    @Query("SELECT w.userId FROM Wallet w WHERE w.userId > :afterUserId AND EXISTS " +
+           "(SELECT 1 FROM WalletLedgerEntry e WHERE e.userId = w.userId AND e.id > w.snapshotEntryId) " +
+           "ORDER BY w.userId")
+    List<Long> findUserIdsWithUnfoldedEntries(@Param("afterUserId") Long afterUserId, Limit limit);
 }
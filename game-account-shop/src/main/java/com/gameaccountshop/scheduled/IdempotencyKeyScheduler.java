@@ -0,0 +1,43 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled purge of old idempotency keys
+ * A key only needs to outlive double-clicks and resubmits of its form
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyScheduler {
+
+    static final Duration RETENTION = Duration.ofDays(1);
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyKeyScheduler(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    /**
+     * Delete keys older than one day
+     * Runs every hour at minute 15
+     * Cron: 0 15 * * * ?
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    @SchedulerLocked
+    public void purgeExpiredKeys() {
+        try {
+            int deleted = idempotencyService.purgeOlderThan(RETENTION);
+            if (deleted > 0) {
+                log.info("Scheduled task: Purged {} idempotency keys", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error purging idempotency keys", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.PayOSWebhookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Scheduled retry of PayOS webhooks that could not be settled on delivery
+ * (the webhook overtook the commit of its transaction, or settling failed)
+ */
+@Component
+@Slf4j
+public class PayOSWebhookScheduler {
+
+    static final Duration RETRY_WINDOW = Duration.ofDays(1);
+    static final int BATCH_SIZE = 100;
+
+    private final PayOSWebhookService payOSWebhookService;
+
+    public PayOSWebhookScheduler(PayOSWebhookService payOSWebhookService) {
+        this.payOSWebhookService = payOSWebhookService;
+    }
+
+    /**
+     * Settle recorded payments from the last day that are still pending
+     * Runs every 30 seconds after the previous run finishes
+     */
+    @Scheduled(fixedDelay = 30_000)
+    @SchedulerLocked
+    public void settlePendingWebhooks() {
+        try {
+            List<Long> orderCodes = payOSWebhookService.findUnsettled(RETRY_WINDOW, BATCH_SIZE);
+            int settled = 0;
+            for (Long orderCode : orderCodes) {
+                try {
+                    if (payOSWebhookService.settle(orderCode)) {
+                        settled++;
+                    }
+                } catch (Exception e) {
+                    log.error("Error settling PayOS payment for orderCode: {}", orderCode, e);
+                }
+            }
+            if (settled > 0) {
+                log.info("Scheduled task: Settled {} of {} pending PayOS webhooks", settled, orderCodes.size());
+            }
+        } catch (Exception e) {
+            log.error("Error settling pending PayOS webhooks", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.entity.PaymentOutbox;
+import com.gameaccountshop.service.PaymentOutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Scheduled relay of the PayOS payment outbox
+ * Resolves payment links whose request crashed or failed between creating the transaction and storing the link
+ */
+@Component
+@Slf4j
+public class PaymentOutboxScheduler {
+
+    static final int BATCH_SIZE = 100;
+
+    private final PaymentOutboxService paymentOutboxService;
+
+    public PaymentOutboxScheduler(PaymentOutboxService paymentOutboxService) {
+        this.paymentOutboxService = paymentOutboxService;
+    }
+
+    /**
+     * Relay due outbox rows
+     * Runs every minute after the previous run finishes
+     */
+    @Scheduled(fixedDelay = 60_000)
+    @SchedulerLocked
+    public void relayPaymentOutbox() {
+        try {
+            List<PaymentOutbox> rows = paymentOutboxService.findDue(BATCH_SIZE);
+            int resolved = 0;
+            for (PaymentOutbox row : rows) {
+                try {
+                    if (paymentOutboxService.relay(row)) {
+                        resolved++;
+                    }
+                } catch (Exception e) {
+                    log.error("Error relaying PayOS link of transaction: {}", row.getTransactionId(), e);
+                }
+            }
+            if (resolved > 0) {
+                log.info("Scheduled task: Resolved {} of {} interrupted PayOS payment links", resolved, rows.size());
+            }
+        } catch (Exception e) {
+            log.error("Error relaying the PayOS payment outbox", e);
+        }
+    }
+}
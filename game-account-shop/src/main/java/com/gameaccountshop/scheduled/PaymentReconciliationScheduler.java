@@ -0,0 +1,44 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.dto.ReconciliationStatsDto;
+import com.gameaccountshop.service.PaymentReconciler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled reconciliation of PENDING PayOS payments
+ * Story 3.1: Wallet System
+ */
+@Component
+@Slf4j
+public class PaymentReconciliationScheduler {
+
+    private final PaymentReconciler paymentReconciler;
+
+    public PaymentReconciliationScheduler(PaymentReconciler paymentReconciler) {
+        this.paymentReconciler = paymentReconciler;
+    }
+
+    /**
+     * Reconcile pending payments against PayOS
+     * Runs every 5 minutes after the previous run finished
+     */
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    @SchedulerLocked
+    public void reconcilePendingPayments() {
+        try {
+            ReconciliationStatsDto stats = paymentReconciler.reconcile();
+            if (stats.rowsScanned() > 0) {
+                log.info("Scheduled task: Reconciled {} pending payments with {} PayOS calls " +
+                                "({} errors, p95 {} ms): {} paid, {} cancelled, {} expired",
+                        stats.rowsScanned(), stats.callsMade(), stats.callErrors(), stats.p95Ms(),
+                        stats.paid(), stats.cancelled(), stats.expired());
+            }
+        } catch (Exception e) {
+            log.error("Error reconciling pending PayOS payments", e);
+        }
+    }
+}
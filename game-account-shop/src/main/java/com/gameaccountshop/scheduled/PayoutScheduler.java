@@ -8,6 +8,8 @@ import org.springframework.stereotype.Component;
 /**
  * Scheduled tasks for payout system
  * Story 3.4: Admin Payout System
+ *
+ * Creating and resuming share one lock, so with several nodes a single node works on the month at a time.
  */
 @Component
 @Slf4j
@@ -25,6 +27,7 @@ public class PayoutScheduler {
      * Cron: 0 0 0 1 * ?
      */
     @Scheduled(cron = "0 0 0 1 * ?")
+    @SchedulerLocked(name = "monthly-payouts")
     public void createMonthlyPayouts() {
         log.info("Scheduled task: Creating monthly payouts");
         try {
@@ -33,4 +36,18 @@ public class PayoutScheduler {
             log.error("Error creating monthly payouts", e);
         }
     }
+
+    /**
+     * Resume payout creation for every unfinished month whose run stopped before every seller range was committed
+     * Runs every hour at :15; does nothing once no month's run is left unfinished
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    @SchedulerLocked(name = "monthly-payouts")
+    public void resumeMonthlyPayouts() {
+        try {
+            payoutService.resumeMonthlyPayouts();
+        } catch (Exception e) {
+            log.error("Error resuming monthly payouts", e);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.LockProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a @SchedulerLocked method only while holding its lock; skips the run if another node holds it
+ */
+@Slf4j
+public class SchedulerLockInterceptor implements MethodInterceptor {
+
+    private final Supplier<LockProvider> lockProvider;
+
+    /**
+     * @param lockProvider Looked up on first use, so the post-processor does not initialize it early
+     */
+    public SchedulerLockInterceptor(Supplier<LockProvider> lockProvider) {
+        this.lockProvider = lockProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        SchedulerLocked locked = AnnotatedElementUtils.findMergedAnnotation(method, SchedulerLocked.class);
+        if (locked == null) {
+            return invocation.proceed();
+        }
+        String name = locked.name().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                : locked.name();
+
+        Optional<LockProvider.Lease> lease;
+        try {
+            lease = lockProvider.get().tryAcquire(name, Duration.parse(locked.leaseFor()),
+                    Duration.parse(locked.holdAtLeast()));
+        } catch (Exception e) {
+            // Running without the lock could run the job twice; the next scheduled run tries again
+            log.error("Could not take lock {}; run skipped", name, e);
+            return null;
+        }
+        if (lease.isEmpty()) {
+            log.debug("Lock {} is held by another node; run skipped", name);
+            return null;
+        }
+        try (LockProvider.Lease held = lease.get()) {
+            return invocation.proceed();
+        }
+    }
+}
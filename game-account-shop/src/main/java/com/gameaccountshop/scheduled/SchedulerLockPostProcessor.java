@@ -0,0 +1,24 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.LockProvider;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+import java.util.function.Supplier;
+
+/**
+ * Proxies beans with @SchedulerLocked methods so that SchedulerLockInterceptor wraps each call
+ * Same mechanism as @Async / @Validated: the scheduler invokes the proxy, which takes the lock first.
+ * Class-based proxies, since the schedulers implement no interfaces.
+ */
+public class SchedulerLockPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public SchedulerLockPostProcessor(Supplier<LockProvider> lockProvider) {
+        setProxyTargetClass(true);
+        setBeforeExistingAdvisors(true);
+        this.advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(SchedulerLocked.class),
+                new SchedulerLockInterceptor(lockProvider));
+    }
+}
@@ -0,0 +1,36 @@
+package com.gameaccountshop.scheduled;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Run a @Scheduled method on one node at a time
+ * Every node's schedule still fires; the node that takes the lock (LockProvider) runs the method and the
+ * others skip that run. The lease is renewed while the method runs and expires leaseFor after a node dies.
+ * Applied by SchedulerLockPostProcessor; the method must be public and return void.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SchedulerLocked {
+
+    /**
+     * Lock name; methods sharing a name never run at the same time
+     * Defaults to ClassName.methodName
+     */
+    String name() default "";
+
+    /**
+     * Lease length (ISO-8601); a dead node's lock is free again this long after its last renewal
+     */
+    String leaseFor() default "PT2M";
+
+    /**
+     * Shortest time the lock stays taken (ISO-8601), so that a node whose clock or schedule runs a few
+     * seconds late does not repeat a run that already finished; keep it below the schedule's interval
+     */
+    String holdAtLeast() default "PT10S";
+}
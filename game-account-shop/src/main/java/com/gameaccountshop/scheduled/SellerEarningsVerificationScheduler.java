@@ -0,0 +1,44 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.dto.EarningsVerificationStatsDto;
+import com.gameaccountshop.service.SellerEarningsVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled verification of the seller earnings aggregate
+ * Story 3.3 / 3.4: My Listings profit and payouts
+ */
+@Component
+@Slf4j
+public class SellerEarningsVerificationScheduler {
+
+    private final SellerEarningsVerifier sellerEarningsVerifier;
+
+    public SellerEarningsVerificationScheduler(SellerEarningsVerifier sellerEarningsVerifier) {
+        this.sellerEarningsVerifier = sellerEarningsVerifier;
+    }
+
+    /**
+     * Verify (and repair) seller_earnings against listings and payouts
+     * Runs nightly at 03:30, away from the monthly payout run at midnight
+     * Cron: 0 30 3 * * ?
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    @SchedulerLocked
+    public void verifySellerEarnings() {
+        try {
+            EarningsVerificationStatsDto stats = sellerEarningsVerifier.verify();
+            if (stats.drifted() > 0 || stats.failedChunks() > 0) {
+                log.warn("Scheduled task: Seller earnings drift in {} of {} sellers ({} repaired, {} ranges failed)",
+                        stats.drifted(), stats.sellersChecked(), stats.repaired(), stats.failedChunks());
+            } else {
+                log.info("Scheduled task: Verified earnings of {} sellers in {} ms, no drift",
+                        stats.sellersChecked(), stats.durationMs());
+            }
+        } catch (Exception e) {
+            log.error("Error verifying seller earnings", e);
+        }
+    }
+}
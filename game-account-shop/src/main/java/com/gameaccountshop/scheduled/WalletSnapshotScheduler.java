@@ -0,0 +1,58 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.WalletService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled folding of wallet ledger entries into balance checkpoints
+ * Story 3.1: Wallet System
+ *
+ * Checks each wallet's new ledger entries against its live balance and moves the checkpoint past them,
+ * so every audit only sums the entries written since the last one.
+ */
+@Component
+@Slf4j
+public class WalletSnapshotScheduler {
+
+    static final int BATCH_SIZE = 200;
+
+    private final WalletService walletService;
+
+    public WalletSnapshotScheduler(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    /**
+     * Fold every wallet with new ledger entries, one short transaction per wallet
+     * Runs every 5 minutes after the previous run finished
+     */
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    @SchedulerLocked
+    public void foldLedgerSnapshots() {
+        int folded = 0;
+        long afterUserId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = walletService.findWalletsToFold(afterUserId, BATCH_SIZE);
+            for (Long userId : userIds) {
+                try {
+                    if (walletService.foldLedger(userId)) {
+                        folded++;
+                    }
+                } catch (Exception e) {
+                    log.error("Error folding wallet ledger for user {}", userId, e);
+                }
+                afterUserId = userId;
+            }
+        } while (userIds.size() == BATCH_SIZE);
+
+        if (folded > 0) {
+            log.info("Scheduled task: Folded wallet ledger into {} snapshots", folded);
+        }
+    }
+}
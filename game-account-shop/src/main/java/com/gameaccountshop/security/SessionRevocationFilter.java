@@ -1,6 +1,7 @@
 package com.gameaccountshop.security;
 
 import com.gameaccountshop.repository.UserRepository;
+import com.gameaccountshop.service.UserSummaryCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -31,9 +32,11 @@ import java.io.IOException;
 public class SessionRevocationFilter extends OncePerRequestFilter {
 
     private final UserRepository userRepository;
+    private final UserSummaryCache userSummaryCache;
 
-    public SessionRevocationFilter(UserRepository userRepository) {
+    public SessionRevocationFilter(UserRepository userRepository, UserSummaryCache userSummaryCache) {
         this.userRepository = userRepository;
+        this.userSummaryCache = userSummaryCache;
     }
 
     @Override
@@ -60,6 +63,9 @@ public class SessionRevocationFilter extends OncePerRequestFilter {
         if (!userExists) {
             log.warn("User '{}' no longer exists in database. Invalidating session.", username);
 
+            // Deleted outside the app (no entity callback), so drop any cached seller name too
+            userSummaryCache.evictByUsername(username);
+
             // Clear the security context
             SecurityContextHolder.clearContext();
 
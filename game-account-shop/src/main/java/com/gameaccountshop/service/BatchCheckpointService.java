@@ -0,0 +1,125 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.BatchChunkExecution;
+import com.gameaccountshop.entity.BatchJobExecution;
+import com.gameaccountshop.enums.BatchStatus;
+import com.gameaccountshop.repository.BatchChunkExecutionRepository;
+import com.gameaccountshop.repository.BatchJobExecutionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Transactions of BatchJobRunner: planning an execution, running one chunk, recording the outcome
+ */
+@Service
+public class BatchCheckpointService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final BatchJobExecutionRepository batchJobExecutionRepository;
+    private final BatchChunkExecutionRepository batchChunkExecutionRepository;
+
+    public BatchCheckpointService(BatchJobExecutionRepository batchJobExecutionRepository,
+                                  BatchChunkExecutionRepository batchChunkExecutionRepository) {
+        this.batchJobExecutionRepository = batchJobExecutionRepository;
+        this.batchChunkExecutionRepository = batchChunkExecutionRepository;
+    }
+
+    /**
+     * Start a run on the execution of jobName / jobKey
+     * An existing execution is resumed with the chunks planned when it was created; otherwise one is
+     * created over ids [1, maxId] (read once, here) in chunkSize ranges. A COMPLETED execution is
+     * returned as is.
+     * @param maxId Highest id to process, or null to only resume an existing execution
+     * @return The execution, or null if there is none and maxId is null
+     */
+    @Transactional
+    public BatchJobExecution begin(String jobName, String jobKey, LongSupplier maxId, int chunkSize) {
+        BatchJobExecution execution = batchJobExecutionRepository.findByJobNameAndJobKey(jobName, jobKey).orElse(null);
+        if (execution == null) {
+            if (maxId == null) {
+                return null;
+            }
+            execution = batchJobExecutionRepository.save(
+                    new BatchJobExecution(jobName, jobKey, maxId.getAsLong(), chunkSize));
+            batchChunkExecutionRepository.saveAll(plan(execution));
+        }
+        if (execution.getStatus() != BatchStatus.COMPLETED) {
+            execution.setStatus(BatchStatus.PENDING);
+            execution.setRuns(execution.getRuns() + 1);
+        }
+        return execution;
+    }
+
+    /**
+     * Keys of the job's executions not COMPLETED yet, oldest key first
+     */
+    @Transactional(readOnly = true)
+    public List<String> unfinishedJobKeys(String jobName) {
+        return batchJobExecutionRepository.findByJobNameAndStatusNotOrderByJobKey(jobName, BatchStatus.COMPLETED)
+                .stream()
+                .map(BatchJobExecution::getJobKey)
+                .toList();
+    }
+
+    /**
+     * Chunks of the execution not COMPLETED yet, in id order
+     */
+    @Transactional(readOnly = true)
+    public List<BatchChunkExecution> unfinishedChunks(Long jobExecutionId) {
+        return batchChunkExecutionRepository.findByJobExecutionIdAndStatusNotOrderByFromId(
+                jobExecutionId, BatchStatus.COMPLETED);
+    }
+
+    /**
+     * Process one chunk and mark it COMPLETED in one transaction
+     * The chunk row is locked first: a chunk another run is processing is waited for, then skipped.
+     * If the processor throws, its rows and the checkpoint roll back together.
+     * @return Items the processor wrote, or null if another run had already completed the chunk
+     */
+    @Transactional
+    public Integer runChunk(BatchChunkExecution chunk, BatchJobRunner.ChunkProcessor processor) {
+        if (batchChunkExecutionRepository.claim(chunk.getId()) == 0) {
+            return null;
+        }
+        long begin = System.nanoTime();
+        int items = processor.process(chunk.getFromId(), chunk.getToId());
+        batchChunkExecutionRepository.recordCompletion(chunk.getId(), items,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin), LocalDateTime.now());
+        return items;
+    }
+
+    /**
+     * Mark a chunk whose transaction rolled back FAILED, for the next run to retry
+     */
+    @Transactional
+    public void recordChunkFailure(Long chunkId, Exception e) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        batchChunkExecutionRepository.recordFailure(chunkId,
+                error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+    }
+
+    /**
+     * End the run: COMPLETED if no chunk is left, FAILED otherwise
+     */
+    @Transactional
+    public void finish(Long jobExecutionId, BatchStatus status) {
+        batchJobExecutionRepository.finish(jobExecutionId, status, LocalDateTime.now());
+    }
+
+    private static List<BatchChunkExecution> plan(BatchJobExecution execution) {
+        List<BatchChunkExecution> chunks = new ArrayList<>();
+        long maxId = execution.getMaxId();
+        for (long fromId = 1; fromId <= maxId; fromId += execution.getChunkSize()) {
+            chunks.add(new BatchChunkExecution(execution.getId(), fromId,
+                    Math.min(fromId + execution.getChunkSize(), maxId + 1)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,260 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.BatchJobStatsDto;
+import com.gameaccountshop.entity.BatchChunkExecution;
+import com.gameaccountshop.entity.BatchJobExecution;
+import com.gameaccountshop.enums.BatchStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Restartable, chunked, parallel batch engine
+ * Story 3.4: runs the monthly payout creation (PayoutService#createMonthlyPayouts)
+ *
+ * An execution (job name + key, e.g. monthly-payouts / 2026-10) splits ids [1, maxId] into ranges of
+ * chunk-size, recorded in batch_chunk_executions when it is created. Up to parallelism chunks run at a
+ * time, each in its own transaction together with its checkpoint (BatchCheckpointService#runChunk), so
+ * a failed chunk rolls back alone and a run that died halfway is resumed with only the chunks left.
+ * Per-chunk time is logged, stored on the chunk row and summarized in the run's stats.
+ */
+@Service
+@Slf4j
+public class BatchJobRunner {
+
+    private final BatchCheckpointService batchCheckpointService;
+    private final int chunkSize;
+    private final int parallelism;
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Map<String, BatchJobStatsDto> lastRuns = new ConcurrentHashMap<>();
+
+    public BatchJobRunner(BatchCheckpointService batchCheckpointService,
+                          @Value("${app.batch.chunk-size:1000}") int chunkSize,
+                          @Value("${app.batch.parallelism:4}") int parallelism) {
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("app.batch chunk-size and parallelism must be positive");
+        }
+        this.batchCheckpointService = batchCheckpointService;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Writes the rows of one id range [fromId, toId)
+     * Runs inside the chunk's transaction; throwing rolls the chunk back.
+     */
+    @FunctionalInterface
+    public interface ChunkProcessor {
+        /**
+         * @return Rows written
+         */
+        int process(long fromId, long toId);
+    }
+
+    /**
+     * Stats of the last run of each job, by job name
+     */
+    public Map<String, BatchJobStatsDto> lastRuns() {
+        return Map.copyOf(lastRuns);
+    }
+
+    /**
+     * Run the execution jobName / jobKey: create it over ids [1, maxId] the first time, otherwise
+     * resume it with the chunks not yet COMPLETED
+     * @return Stats of this run, or null if the execution was already COMPLETED or the job is
+     *         already running in this instance
+     */
+    public BatchJobStatsDto run(String jobName, String jobKey, LongSupplier maxId, ChunkProcessor processor) {
+        return execute(jobName, jobKey, maxId, processor);
+    }
+
+    /**
+     * Keys of the job's executions that are not COMPLETED (crashed or failed runs), oldest key first
+     */
+    public List<String> unfinishedJobKeys(String jobName) {
+        return batchCheckpointService.unfinishedJobKeys(jobName);
+    }
+
+    /**
+     * Resume the execution jobName / jobKey if one exists and is not COMPLETED
+     * @return Stats of this run, or null if there was nothing to resume
+     */
+    public BatchJobStatsDto resume(String jobName, String jobKey, ChunkProcessor processor) {
+        return execute(jobName, jobKey, null, processor);
+    }
+
+    private BatchJobStatsDto execute(String jobName, String jobKey, LongSupplier maxId, ChunkProcessor processor) {
+        if (!running.add(jobName)) {
+            log.warn("Batch job {} is already running in this instance; {} skipped", jobName, jobKey);
+            return null;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long begin = System.nanoTime();
+            BatchJobExecution execution = begin(jobName, jobKey, maxId);
+            if (execution == null) {
+                return null;
+            }
+            if (execution.getStatus() == BatchStatus.COMPLETED) {
+                log.info("Batch job {} {} already completed", jobName, jobKey);
+                return null;
+            }
+
+            List<BatchChunkExecution> chunks = batchCheckpointService.unfinishedChunks(execution.getId());
+            int planned = (int) ((execution.getMaxId() + execution.getChunkSize() - 1) / execution.getChunkSize());
+            log.info("Batch job {} {} run {}: {} of {} chunks to process", jobName, jobKey, execution.getRuns(),
+                    chunks.size(), planned);
+
+            RunCounters counters = process(execution, chunks, processor);
+            batchCheckpointService.finish(execution.getId(),
+                    counters.failed == 0 ? BatchStatus.COMPLETED : BatchStatus.FAILED);
+
+            BatchJobStatsDto stats = counters.toStats(execution, startedAt, System.nanoTime() - begin,
+                    planned, planned - chunks.size());
+            lastRuns.put(jobName, stats);
+            return stats;
+        } finally {
+            running.remove(jobName);
+        }
+    }
+
+    private BatchJobExecution begin(String jobName, String jobKey, LongSupplier maxId) {
+        try {
+            return batchCheckpointService.begin(jobName, jobKey, maxId, chunkSize);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the execution first (uk_job_name_key): join it
+            log.info("Batch job {} {} was created concurrently; resuming it", jobName, jobKey);
+            return batchCheckpointService.begin(jobName, jobKey, null, chunkSize);
+        }
+    }
+
+    /**
+     * Run the chunks on a bounded pool and wait for all of them
+     */
+    private RunCounters process(BatchJobExecution execution, List<BatchChunkExecution> chunks,
+                                ChunkProcessor processor) {
+        RunCounters counters = new RunCounters();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, new BatchThreads(execution.getJobName()));
+        try {
+            List<Future<ChunkResult>> results = new ArrayList<>(chunks.size());
+            for (BatchChunkExecution chunk : chunks) {
+                results.add(workers.submit(() -> runChunk(execution, chunk, processor)));
+            }
+            for (Future<ChunkResult> result : results) {
+                try {
+                    ChunkResult chunk = result.get();
+                    if (chunk.items() != null) {
+                        counters.completed++;
+                        counters.itemsWritten += chunk.items();
+                        counters.chunkNanos.add(chunk.nanos());
+                    }
+                } catch (ExecutionException e) {
+                    counters.failed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch job " + execution.getJobName() + " interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        return counters;
+    }
+
+    private ChunkResult runChunk(BatchJobExecution execution, BatchChunkExecution chunk, ChunkProcessor processor) {
+        long begin = System.nanoTime();
+        try {
+            Integer items = batchCheckpointService.runChunk(chunk, processor);
+            long nanos = System.nanoTime() - begin;
+            if (items == null) {
+                log.info("Batch job {} {} chunk [{}, {}) already completed by another run",
+                        execution.getJobName(), execution.getJobKey(), chunk.getFromId(), chunk.getToId());
+            } else {
+                log.info("Batch job {} {} chunk [{}, {}): {} items in {} ms", execution.getJobName(),
+                        execution.getJobKey(), chunk.getFromId(), chunk.getToId(), items,
+                        TimeUnit.NANOSECONDS.toMillis(nanos));
+            }
+            return new ChunkResult(items, nanos);
+        } catch (RuntimeException e) {
+            log.error("Batch job {} {} chunk [{}, {}) failed", execution.getJobName(), execution.getJobKey(),
+                    chunk.getFromId(), chunk.getToId(), e);
+            try {
+                batchCheckpointService.recordChunkFailure(chunk.getId(), e);
+            } catch (RuntimeException recordError) {
+                log.error("Could not record the failure of chunk {}", chunk.getId(), recordError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param items Rows written, or null if another run completed the chunk
+     */
+    private record ChunkResult(Integer items, long nanos) {
+    }
+
+    /**
+     * Counters of one run; only touched by the thread running execute()
+     */
+    private static final class RunCounters {
+        private int completed;
+        private int failed;
+        private long itemsWritten;
+        private final List<Long> chunkNanos = new ArrayList<>();
+
+        BatchJobStatsDto toStats(BatchJobExecution execution, LocalDateTime startedAt, long durationNanos,
+                                 int chunks, int skipped) {
+            long[] sorted = chunkNanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return new BatchJobStatsDto(execution.getJobName(), execution.getJobKey(), startedAt,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), execution.getRuns() > 1,
+                    chunks, skipped, completed, failed, itemsWritten,
+                    percentileMs(sorted, 50), percentileMs(sorted, 95), percentileMs(sorted, 100));
+        }
+
+        /**
+         * Nearest-rank percentile of sorted chunk times, in milliseconds
+         */
+        private static double percentileMs(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+        }
+    }
+
+    private static final class BatchThreads implements ThreadFactory {
+        private final String jobName;
+        private final AtomicInteger count = new AtomicInteger();
+
+        BatchThreads(String jobName) {
+            this.jobName = jobName;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "batch-" + jobName + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.repository.SchedulerLockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LockProvider backed by the scheduler_locks table
+ *
+ * A lock is taken by inserting its row, or by taking over a row whose lease has run out. While the lease
+ * is open a heartbeat thread renews it every third of leaseFor; closing it sets lock_until to now (or to
+ * holdAtLeast after it was taken). Every lease carries its own token, so a node can only renew or release
+ * the lease it took, never a newer one on the same lock. A lease also counts as lost locally once leaseFor has
+ * passed since its last successful renewal, whether renewals failed or the JVM was paused.
+ */
+@Service
+@Slf4j
+public class DatabaseLockProvider implements LockProvider {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String nodeId;
+    private final ScheduledExecutorService heartbeat;
+
+    public DatabaseLockProvider(SchedulerLockRepository schedulerLockRepository,
+                                @Value("${app.scheduler-lock.node-id:}") String nodeId) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        // RuntimeMXBean name is pid@hostname
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "scheduler-lock-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    @Override
+    public Optional<Lease> tryAcquire(String name, Duration leaseFor, Duration holdAtLeast) {
+        if (leaseFor.toMillis() < 3) {
+            throw new IllegalArgumentException("Lease for lock " + name + " is too short: " + leaseFor);
+        }
+        String token = UUID.randomUUID().toString();
+        long leaseMillis = leaseFor.toMillis();
+        // Read before the statement, so the local expiry is never later than lock_until
+        long requestedAt = System.nanoTime();
+        boolean acquired = schedulerLockRepository.insertIfAbsent(name, nodeId, token, leaseMillis) == 1
+                || schedulerLockRepository.takeOverExpired(name, nodeId, token, leaseMillis) == 1;
+        if (!acquired) {
+            return Optional.empty();
+        }
+        DatabaseLease lease = new DatabaseLease(name, token, leaseMillis, holdAtLeast.toMillis(), requestedAt);
+        long renewEvery = leaseMillis / 3;
+        lease.renewal = heartbeat.scheduleAtFixedRate(lease::renew, renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+        return Optional.of(lease);
+    }
+
+    private final class DatabaseLease implements Lease {
+        private final String name;
+        private final String token;
+        private final long leaseMillis;
+        private final long holdMillis;
+        private volatile ScheduledFuture<?> renewal;
+        private volatile boolean held = true;
+        private volatile long expiresAtNanos;
+
+        DatabaseLease(String name, String token, long leaseMillis, long holdMillis, long acquiredAtNanos) {
+            this.name = name;
+            this.token = token;
+            this.leaseMillis = leaseMillis;
+            this.holdMillis = holdMillis;
+            this.expiresAtNanos = acquiredAtNanos + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean isHeld() {
+            return held && System.nanoTime() - expiresAtNanos < 0;
+        }
+
+        void renew() {
+            long requestedAt = System.nanoTime();
+            try {
+                if (schedulerLockRepository.renew(name, token, leaseMillis) == 1) {
+                    expiresAtNanos = requestedAt + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+                } else {
+                    held = false;
+                    renewal.cancel(false);
+                    log.error("Lease on lock {} was lost on node {}: it expired and another node took it", name, nodeId);
+                }
+            } catch (Exception e) {
+                // Keep trying: the lease stays ours as long as one renewal lands before it expires locally
+                log.warn("Could not renew lease on lock {}", name, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            renewal.cancel(false);
+            if (!held) {
+                return;
+            }
+            held = false;
+            try {
+                schedulerLockRepository.release(name, token, holdMillis);
+            } catch (Exception e) {
+                log.warn("Could not release lock {}; it frees itself when the lease expires", name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.DependencyGuardStatsDto;
+import com.gameaccountshop.exception.DependencyUnavailableException;
+import com.gameaccountshop.exception.DependencyUnavailableException.Reason;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Guard around the calls to one outbound dependency (PayOS, ImgBB)
+ *
+ * - Bulkhead: at most maxConcurrentCalls calls in flight; further callers fail fast instead of
+ *   queueing behind a slow provider. A call abandoned at its deadline keeps its slot until it returns.
+ * - Deadline: the call runs on the guard's own threads and the caller waits at most deadline.
+ * - Circuit breaker: failure rate over a rolling window of one-second buckets. Once the window holds
+ *   minimumCalls calls and failureRateThreshold percent of them failed, calls fail fast for
+ *   openDuration; then halfOpenCalls probes go through: all succeed and it closes, one fails and it
+ *   opens again.
+ *
+ * Refused calls throw DependencyUnavailableException, so each caller's existing error path is its fallback.
+ */
+@Slf4j
+public class DependencyGuard {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Tuning of one dependency (app.outbound.*)
+     */
+    @Data
+    public static class Settings {
+        private int maxConcurrentCalls = 16;
+        private Duration deadline = Duration.ofSeconds(10);
+        private int failureRateThreshold = 50;
+        private int minimumCalls = 10;
+        private Duration window = Duration.ofSeconds(60);
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final Predicate<Throwable> isFailure;
+    private final LongSupplier clockMillis;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+
+    // Rolling window, one bucket per second; guarded by this
+    private final long[] bucketSecond;
+    private final int[] bucketCalls;
+    private final int[] bucketFailures;
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    /**
+     * @param name Dependency name, used in thread names, messages and metrics
+     * @param settings Tuning
+     * @param isFailure Whether an exception thrown by a call counts against the dependency
+     *                  (a rejected request, e.g. an unknown order code, does not)
+     */
+    public DependencyGuard(String name, Settings settings, Predicate<Throwable> isFailure) {
+        this(name, settings, isFailure, System::currentTimeMillis);
+    }
+
+    DependencyGuard(String name, Settings settings, Predicate<Throwable> isFailure, LongSupplier clockMillis) {
+        if (settings.getMaxConcurrentCalls() < 1 || settings.getMinimumCalls() < 1 || settings.getHalfOpenCalls() < 1
+                || settings.getFailureRateThreshold() < 1 || settings.getFailureRateThreshold() > 100
+                || settings.getWindow().toSeconds() < 1) {
+            throw new IllegalArgumentException("Invalid app.outbound settings for " + name + ": " + settings);
+        }
+        this.name = name;
+        this.settings = settings;
+        this.isFailure = isFailure;
+        this.clockMillis = clockMillis;
+        this.slots = new Semaphore(settings.getMaxConcurrentCalls());
+        // Slots are taken before submitting, so the queue only absorbs the hand-over between two calls
+        this.executor = Executors.newFixedThreadPool(settings.getMaxConcurrentCalls(), new CallThreads(name));
+
+        int buckets = (int) settings.getWindow().toSeconds();
+        this.bucketSecond = new long[buckets];
+        this.bucketCalls = new int[buckets];
+        this.bucketFailures = new int[buckets];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * How long a caller waits for a call; callers with their own I/O timeout use it so an abandoned call
+     * also gives its bulkhead slot back at the deadline
+     */
+    public Duration getDeadline() {
+        return settings.getDeadline();
+    }
+
+    /**
+     * Run a call through the circuit breaker, the bulkhead and the deadline
+     * @return The call's result
+     * @throws DependencyUnavailableException if the call was refused or not answered in time
+     * @throws Exception whatever the call threw
+     */
+    public <T> T call(Callable<T> call) throws Exception {
+        boolean probe = acquirePermission();
+        if (!slots.tryAcquire()) {
+            releaseProbe(probe);
+            rejectedByBulkhead.increment();
+            throw new DependencyUnavailableException(name, Reason.BULKHEAD_FULL);
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return call.call();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            releaseProbe(probe);
+            throw e;
+        }
+
+        try {
+            T result = future.get(settings.getDeadline().toMillis(), TimeUnit.MILLISECONDS);
+            succeeded.increment();
+            onResult(probe, true);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            onResult(probe, false);
+            log.warn("{} call abandoned after its {} deadline", name, settings.getDeadline());
+            throw new DependencyUnavailableException(name, Reason.DEADLINE_EXCEEDED);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            boolean failure = isFailure.test(cause);
+            (failure ? failed : succeeded).increment();
+            onResult(probe, !failure);
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            releaseProbe(probe);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * Current breaker state and counters
+     */
+    public synchronized DependencyGuardStatsDto stats() {
+        long now = clockMillis.getAsLong();
+        int calls = windowCalls(now);
+        int failures = windowFailures(now);
+        return new DependencyGuardStatsDto(currentState(now).name(),
+                calls == 0 ? 0.0 : (double) failures / calls, calls,
+                settings.getMaxConcurrentCalls() - slots.availablePermits(), settings.getMaxConcurrentCalls(),
+                succeeded.sum(), failed.sum(), timedOut.sum(), rejectedByBulkhead.sum(), shortCircuited.sum());
+    }
+
+    public synchronized State getState() {
+        return currentState(clockMillis.getAsLong());
+    }
+
+    /**
+     * @return true if the call is a half-open probe
+     * @throws DependencyUnavailableException while the circuit is open or all probes are out
+     */
+    private synchronized boolean acquirePermission() {
+        long now = clockMillis.getAsLong();
+        if (state == State.OPEN && now >= openUntil) {
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+            log.info("{} circuit half-open: letting {} probe calls through", name, settings.getHalfOpenCalls());
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && probesStarted < settings.getHalfOpenCalls()) {
+            probesStarted++;
+            return true;
+        }
+        shortCircuited.increment();
+        throw new DependencyUnavailableException(name, Reason.CIRCUIT_OPEN);
+    }
+
+    private synchronized void releaseProbe(boolean probe) {
+        if (probe && state == State.HALF_OPEN) {
+            probesStarted--;
+        }
+    }
+
+    private synchronized void onResult(boolean probe, boolean success) {
+        long now = clockMillis.getAsLong();
+        if (probe) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (!success) {
+                open(now);
+            } else if (++probesSucceeded >= settings.getHalfOpenCalls()) {
+                state = State.CLOSED;
+                clearWindow();
+                log.info("{} circuit closed", name);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            // Started before the circuit opened
+            return;
+        }
+
+        long second = now / 1000;
+        int index = (int) (second % bucketSecond.length);
+        if (bucketSecond[index] != second) {
+            bucketSecond[index] = second;
+            bucketCalls[index] = 0;
+            bucketFailures[index] = 0;
+        }
+        bucketCalls[index]++;
+        if (!success) {
+            bucketFailures[index]++;
+            int calls = windowCalls(now);
+            if (calls >= settings.getMinimumCalls()
+                    && windowFailures(now) * 100L >= (long) settings.getFailureRateThreshold() * calls) {
+                open(now);
+            }
+        }
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openUntil = now + settings.getOpenDuration().toMillis();
+        log.warn("{} circuit open for {}", name, settings.getOpenDuration());
+    }
+
+    private State currentState(long now) {
+        return state == State.OPEN && now >= openUntil ? State.HALF_OPEN : state;
+    }
+
+    private void clearWindow() {
+        Arrays.fill(bucketSecond, 0L);
+        Arrays.fill(bucketCalls, 0);
+        Arrays.fill(bucketFailures, 0);
+    }
+
+    private int windowCalls(long now) {
+        return sumWindow(bucketCalls, now);
+    }
+
+    private int windowFailures(long now) {
+        return sumWindow(bucketFailures, now);
+    }
+
+    private int sumWindow(int[] counts, long now) {
+        long oldest = now / 1000 - bucketSecond.length;
+        int sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (bucketSecond[i] > oldest) {
+                sum += counts[i];
+            }
+        }
+        return sum;
+    }
+
+    private static final class CallThreads implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        CallThreads(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, name + "-call-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -2,17 +2,25 @@ package com.gameaccountshop.service;
 
 import com.gameaccountshop.dto.AdminListingDto;
 import com.gameaccountshop.dto.GameAccountDto;
+import com.gameaccountshop.dto.ListingCursor;
 import com.gameaccountshop.dto.ListingDetailDto;
 import com.gameaccountshop.dto.ListingDisplayDto;
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.dto.ListingPageDto;
+import com.gameaccountshop.dto.ListingSearchHit;
 import com.gameaccountshop.dto.MyListingDto;
+import com.gameaccountshop.dto.UserSummaryDto;
 import com.gameaccountshop.entity.GameAccount;
 import com.gameaccountshop.entity.User;
+import com.gameaccountshop.enums.ListingSort;
 import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
 import com.gameaccountshop.exception.ResourceNotFoundException;
 import com.gameaccountshop.repository.GameAccountRepository;
 import com.gameaccountshop.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,37 +28,70 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class GameAccountService {
 
-    private static final Map<String, String> GAME_ALIASES = Map.of(
+    // Alias keys double as search-box suggestions (ListingSuggestionIndex)
+    static final Map<String, String> GAME_ALIASES = Map.of(
         "lol", "Liên Minh Huyền Thoại",
         "league of legends", "Liên Minh Huyền Thoại",
         "lien minh", "Liên Minh Huyền Thoại",
         "lmht", "Liên Minh Huyền Thoại"
     );
 
+    // Browse page size: 3-column grid, 4 rows
+    private static final int LISTING_PAGE_SIZE = 12;
+
+    private static final String SEARCH_MODE_LIKE = "like";
+    private static final String SEARCH_MODE_INDEX = "index";
+    private static final String SEARCH_MODE_FULLTEXT = "fulltext";
+
     private final GameAccountRepository gameAccountRepository;
     private final UserRepository userRepository;
     private final ImageUploadService imageUploadService;
     private final EmailService emailService;
+    private final ListingSearchIndex listingSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HomeListingCache homeListingCache;
+    private final UserSummaryCache userSummaryCache;
+    private final SellerEarningsService sellerEarningsService;
 
     @Value("${app.base-url}")
     private String baseUrl;
 
+    // Keyword search path: "index" (in-memory ListingSearchIndex), "fulltext" (MySQL ngram FULLTEXT) or "like" (SQL LIKE scan)
+    @Value("${app.search.mode:index}")
+    private String searchMode;
+
     public GameAccountService(GameAccountRepository gameAccountRepository,
                              UserRepository userRepository,
                              ImageUploadService imageUploadService,
-                             EmailService emailService) {
+                             EmailService emailService,
+                             ListingSearchIndex listingSearchIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             HomeListingCache homeListingCache,
+                             UserSummaryCache userSummaryCache,
+                             SellerEarningsService sellerEarningsService) {
         this.gameAccountRepository = gameAccountRepository;
         this.userRepository = userRepository;
         this.imageUploadService = imageUploadService;
         this.emailService = emailService;
+        this.listingSearchIndex = listingSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.homeListingCache = homeListingCache;
+        this.userSummaryCache = userSummaryCache;
+        this.sellerEarningsService = sellerEarningsService;
     }
 
     /**
@@ -128,17 +169,11 @@ public class GameAccountService {
     /**
      * Calculate profit from sold listings (total earnings - 10% platform commission)
      * Story 3.3: My Listings - Filtering & Profit
-     * Profit = Sum of SOLD listing prices * 0.90
+     * Profit = Sum of SOLD listing prices * 0.90, read from the seller_earnings aggregate
      */
     public Long calculateProfit(Long sellerId) {
-        Long totalEarnings = gameAccountRepository.sumPriceBySellerIdAndStatus(
-            sellerId, ListingStatus.SOLD);
-        if (totalEarnings == null || totalEarnings == 0) {
-            return 0L;
-        }
-        // Apply 10% platform commission: profit = total * 0.90
-        // Using Long arithmetic: (total * 90) / 100 = total * 0.9
-        return (totalEarnings * 90) / 100;
+        // Whole VND, rounded down like the former (total * 90) / 100
+        return sellerEarningsService.getEarnings(sellerId).getNetEarnings().longValue();
     }
 
     /**
@@ -166,14 +201,7 @@ public class GameAccountService {
         log.info("Finding approved listings: search={}, rank={}, sort={}", search, rank, sortParam);
 
         // 1. Handle Aliases
-        String effectiveSearch = search;
-        if (search != null && !search.isBlank()) {
-            String lowerSearch = search.toLowerCase().trim();
-            if (GAME_ALIASES.containsKey(lowerSearch)) {
-                effectiveSearch = GAME_ALIASES.get(lowerSearch);
-                log.debug("Mapped alias '{}' to '{}'", search, effectiveSearch);
-            }
-        }
+        String effectiveSearch = resolveSearchAlias(search);
 
         // 2. Handle Sorting
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt"); // Default (newest)
@@ -190,6 +218,222 @@ public class GameAccountService {
         return buildListingDisplayDtos(gameAccounts);
     }
 
+    /**
+     * Find one page of approved listings using keyset (seek) pagination
+     * Each page is a bounded index range scan on (sort key, id), so page N costs the same as page 1
+     *
+     * @param search Optional search keyword (same semantics as findApprovedListings)
+     * @param rank Optional account rank filter (starts with)
+     * @param sortParam Optional sort parameter (price_asc, price_desc, newest, relevance);
+     *                  when searching in fulltext mode, no sort means relevance
+     * @param after Cursor token of the last listing on the previous page (go forward)
+     * @param before Cursor token of the first listing on the next page (go back)
+     * @return Page of listings with next/prev cursor tokens
+     */
+    public ListingPageDto findApprovedListingsPage(String search, String rank, String sortParam,
+                                                   String after, String before) {
+        return findApprovedListingsPage(ListingFilter.of(search, rank), sortParam, after, before);
+    }
+
+    /**
+     * Find one page of approved listings matching any combination of browse filters
+     * Only the filters that are set reach the SQL (see GameAccountRepositoryCustom#findListingCards)
+     *
+     * @param filter Keyword, rank prefixes (any of) and price range; all optional
+     * @param sortParam Optional sort parameter (price_asc, price_desc, newest, relevance)
+     * @param after Cursor token of the last listing on the previous page (go forward)
+     * @param before Cursor token of the first listing on the next page (go back)
+     * @return Page of listings with next/prev cursor tokens
+     */
+    public ListingPageDto findApprovedListingsPage(ListingFilter filter, String sortParam,
+                                                   String after, String before) {
+        ListingFilter effective = filter.withSearch(resolveSearchAlias(filter.search()));
+        String mode = activeSearchMode(effective.search());
+        ListingSort sort = resolveSort(sortParam, mode);
+
+        ListingCursor afterCursor = ListingCursor.decode(after, sort);
+        ListingCursor beforeCursor = afterCursor == null ? ListingCursor.decode(before, sort) : null;
+        boolean backward = beforeCursor != null;
+        ListingCursor cursor = backward ? beforeCursor : afterCursor;
+
+        log.info("Finding approved listings page: filter={}, sort={}, mode={}, backward={}, cursorId={}",
+                effective, sort, mode, backward, cursor != null ? cursor.id() : null);
+
+        // Landing page (first page, no filters) is served from the event-invalidated cache
+        if (cursor == null && effective.isEmpty()) {
+            return homeListingCache.get(sort, () -> loadListingsPage(ListingFilter.NONE, sort, mode, null, false));
+        }
+        return loadListingsPage(effective, sort, mode, cursor, backward);
+    }
+
+    private ListingPageDto loadListingsPage(ListingFilter filter, ListingSort sort, String mode,
+                                            ListingCursor cursor, boolean backward) {
+        // Fetch one extra row to know whether another page exists in the direction we are walking
+        List<ListingDisplayDto> listings;
+        Map<Long, ListingSearchHit> pageHits = Map.of();
+        if (SEARCH_MODE_LIKE.equals(mode)) {
+            listings = new ArrayList<>(gameAccountRepository.findListingCards(filter, sort, cursor, backward,
+                    LISTING_PAGE_SIZE + 1));
+        } else if (SEARCH_MODE_FULLTEXT.equals(mode)) {
+            // FULLTEXT pages in SQL; the hits keep the relevance score the cursors need
+            List<ListingSearchHit> hits = gameAccountRepository.findFulltextHits(
+                    SearchTextNormalizer.toBooleanModeQuery(filter.search()), filter.search(), filter, sort,
+                    cursor, backward, LISTING_PAGE_SIZE + 1);
+            pageHits = hits.stream().collect(Collectors.toMap(ListingSearchHit::id, Function.identity()));
+            listings = new ArrayList<>(hydrateHits(hits));
+        } else {
+            listings = indexPage(filter, sort, cursor, backward, LISTING_PAGE_SIZE + 1);
+        }
+        boolean hasMore = listings.size() > LISTING_PAGE_SIZE;
+        if (hasMore) {
+            listings = new ArrayList<>(listings.subList(0, LISTING_PAGE_SIZE));
+        }
+        if (backward) {
+            // Backward pages are read in reverse order; flip them back to display order
+            Collections.reverse(listings);
+        }
+
+        if (listings.isEmpty()) {
+            return ListingPageDto.empty();
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrev = backward ? hasMore : cursor != null;
+
+        ListingDisplayDto last = listings.get(listings.size() - 1);
+        ListingDisplayDto first = listings.get(0);
+        String nextCursor = hasNext
+                ? ListingCursor.of(sort, pageHits.getOrDefault(last.getId(), ListingSearchHit.of(last))).encode()
+                : null;
+        String prevCursor = hasPrev
+                ? ListingCursor.of(sort, pageHits.getOrDefault(first.getId(), ListingSearchHit.of(first))).encode()
+                : null;
+
+        return new ListingPageDto(listings, nextCursor, prevCursor);
+    }
+
+    /**
+     * Decide which search path answers this request
+     * Falls back to LIKE when there is no keyword, the index is still building,
+     * or the keyword has nothing FULLTEXT can match on
+     */
+    private String activeSearchMode(String search) {
+        if (search == null || search.isBlank()) {
+            return SEARCH_MODE_LIKE;
+        }
+        if (SEARCH_MODE_INDEX.equalsIgnoreCase(searchMode)
+                && listingSearchIndex.isReady()) {
+            return SEARCH_MODE_INDEX;
+        }
+        if (SEARCH_MODE_FULLTEXT.equalsIgnoreCase(searchMode)
+                && SearchTextNormalizer.toBooleanModeQuery(search) != null) {
+            return SEARCH_MODE_FULLTEXT;
+        }
+        return SEARCH_MODE_LIKE;
+    }
+
+    /**
+     * Relevance is only meaningful on the FULLTEXT path, where it is also the default order
+     */
+    private static ListingSort resolveSort(String sortParam, String mode) {
+        boolean fulltext = SEARCH_MODE_FULLTEXT.equals(mode);
+        if (fulltext && (sortParam == null || sortParam.isBlank())) {
+            return ListingSort.RELEVANCE;
+        }
+        ListingSort sort = ListingSort.fromParam(sortParam);
+        return sort == ListingSort.RELEVANCE && !fulltext ? ListingSort.NEWEST : sort;
+    }
+
+    /**
+     * All matches of the keyword in the in-memory index, narrowed by the rank and price filters
+     */
+    private List<ListingSearchHit> indexHits(ListingFilter filter) {
+        List<ListingSearchHit> hits = listingSearchIndex.searchAnyRank(filter.search(), filter.ranks());
+        if (!filter.hasPriceRange()) {
+            return hits;
+        }
+        return hits.stream().filter(hit -> filter.acceptsPrice(hit.price())).toList();
+    }
+
+    /**
+     * The next {@code limit} approved listings of the in-memory index after the cursor, in walking order
+     * A hit that is no longer APPROVED (changed on another node since the index last caught up) is dropped
+     * from the index and the page is topped up with the hits after it, so stale hits never shorten a page.
+     */
+    private List<ListingDisplayDto> indexPage(ListingFilter filter, ListingSort sort, ListingCursor cursor,
+                                              boolean backward, int limit) {
+        List<ListingSearchHit> matches = indexHits(filter);
+        List<ListingDisplayDto> listings = new ArrayList<>(limit);
+        ListingSearchHit boundary = cursor != null ? cursor.toHit() : null;
+        while (listings.size() < limit) {
+            int wanted = limit - listings.size();
+            List<ListingSearchHit> hits = seekHits(matches, sort, boundary, backward, wanted);
+            List<ListingDisplayDto> approved = hydrateHits(hits);
+            listings.addAll(approved);
+            if (hits.size() < wanted || approved.size() == hits.size()) {
+                break;
+            }
+            Set<Long> approvedIds = approved.stream().map(ListingDisplayDto::getId).collect(Collectors.toSet());
+            hits.stream().map(ListingSearchHit::id).filter(id -> !approvedIds.contains(id))
+                    .forEach(listingSearchIndex::remove);
+            boundary = hits.get(hits.size() - 1);
+        }
+        return listings;
+    }
+
+    /**
+     * Order the hits for the requested sort and return the next {@code limit} after the boundary, in walking order
+     */
+    private static List<ListingSearchHit> seekHits(List<ListingSearchHit> hits, ListingSort sort,
+                                                   ListingSearchHit boundary, boolean backward, int limit) {
+        Comparator<ListingSearchHit> order = backward ? hitOrder(sort).reversed() : hitOrder(sort);
+        return hits.stream()
+                .filter(hit -> boundary == null || order.compare(hit, boundary) > 0)
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Load only the listings of the requested page, in hit order;
+     * skip anything that stopped being APPROVED since it was matched
+     */
+    private List<ListingDisplayDto> hydrateHits(List<ListingSearchHit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hits.stream().map(ListingSearchHit::id).toList();
+        Map<Long, ListingDisplayDto> byId = gameAccountRepository.findListingCardsByIdIn(ids, ListingStatus.APPROVED).stream()
+                .collect(Collectors.toMap(ListingDisplayDto::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static Comparator<ListingSearchHit> hitOrder(ListingSort sort) {
+        Comparator<ListingSearchHit> byId = Comparator.comparing(ListingSearchHit::id);
+        return switch (sort) {
+            case NEWEST -> Comparator.comparing(ListingSearchHit::createdAt).reversed().thenComparing(byId.reversed());
+            case PRICE_ASC -> Comparator.comparing(ListingSearchHit::price).thenComparing(byId);
+            case PRICE_DESC -> Comparator.comparing(ListingSearchHit::price).reversed().thenComparing(byId.reversed());
+            case RELEVANCE -> Comparator.comparing((ListingSearchHit hit) -> hit.score() != null ? hit.score() : 0.0)
+                    .reversed().thenComparing(byId.reversed());
+        };
+    }
+
+    /**
+     * Map a known game alias (e.g. "lol", "lmht") to the stored game name
+     */
+    private String resolveSearchAlias(String search) {
+        if (search != null && !search.isBlank()) {
+            String lowerSearch = search.toLowerCase().trim();
+            if (GAME_ALIASES.containsKey(lowerSearch)) {
+                String mapped = GAME_ALIASES.get(lowerSearch);
+                log.debug("Mapped alias '{}' to '{}'", search, mapped);
+                return mapped;
+            }
+        }
+        return search;
+    }
+
     /**
      * Build ListingDisplayDto list from GameAccount entities with seller username lookup
      * Story 2.2: Helper method to add seller usernames
@@ -234,10 +478,9 @@ public class GameAccountService {
                 .distinct()
                 .toList();
 
-        // Fetch all users in one query
-        List<User> sellers = userRepository.findAllById(sellerIds);
-        return sellers.stream()
-                .collect(Collectors.toMap(User::getId, User::getUsername));
+        // Cached sellers are served from memory; the rest are fetched in one query
+        return userSummaryCache.getAll(sellerIds).values().stream()
+                .collect(Collectors.toMap(UserSummaryDto::id, UserSummaryDto::username));
     }
 
     /**
@@ -267,27 +510,7 @@ public class GameAccountService {
      */
     public List<AdminListingDto> findPendingListings() {
         log.info("Finding pending listings for admin review");
-        List<GameAccount> pendingListings = gameAccountRepository.findByStatusOrderByCreatedAtAsc(ListingStatus.PENDING);
-
-        if (pendingListings.isEmpty()) {
-            return List.of();
-        }
-
-        Map<Long, String> sellerUsernameMap = buildSellerUsernameMap(pendingListings);
-
-        // Build AdminListingDto list
-        return pendingListings.stream()
-                .map(ga -> new AdminListingDto(
-                        ga.getId(),
-                        ga.getGameName(),
-                        ga.getAccountRank(),
-                        ga.getPrice(),
-                        ga.getDescription(),
-                        sellerUsernameMap.getOrDefault(ga.getSellerId(), "Unknown"),
-                        ga.getCreatedAt(),
-                        ga.getImageUrl()
-                ))
-                .toList();
+        return gameAccountRepository.findReviewCardsByStatus(ListingStatus.PENDING);
     }
 
     /**
@@ -316,6 +539,7 @@ public class GameAccountService {
 
         listing.setStatus(ListingStatus.APPROVED);
         gameAccountRepository.save(listing);
+        eventPublisher.publishEvent(new ListingStatusChangedEvent(id, ListingStatus.PENDING, ListingStatus.APPROVED));
 
         log.info("Admin approved listing: id={}", id);
 
@@ -367,6 +591,7 @@ public class GameAccountService {
         listing.setStatus(ListingStatus.REJECTED);
         listing.setRejectionReason(reason);
         gameAccountRepository.save(listing);
+        eventPublisher.publishEvent(new ListingStatusChangedEvent(id, ListingStatus.PENDING, ListingStatus.REJECTED));
 
         log.info("Admin rejected listing: id={}, reason={}", id, reason);
 
@@ -410,10 +635,15 @@ public class GameAccountService {
             throw new IllegalArgumentException("Chỉ có thể đánh dấu bán cho tài khoản đang đăng bán (APPROVED)");
         }
 
-        listing.setStatus(ListingStatus.SOLD);
-        listing.setSoldAt(LocalDateTime.now());
-        gameAccountRepository.save(listing);
+        // Same guarded APPROVED -> SOLD claim as a purchase, so racing a buyer records the sale once
+        LocalDateTime soldAt = LocalDateTime.now();
+        if (gameAccountRepository.markSoldIfApproved(id, soldAt) == 0) {
+            log.warn("Listing was sold or changed concurrently, cannot mark as SOLD: id={}", id);
+            throw new IllegalArgumentException("Chỉ có thể đánh dấu bán cho tài khoản đang đăng bán (APPROVED)");
+        }
+        sellerEarningsService.recordSale(listing.getSellerId(), listing.getPrice());
+        eventPublisher.publishEvent(new ListingStatusChangedEvent(id, ListingStatus.APPROVED, ListingStatus.SOLD));
 
-        log.info("Admin marked listing as sold: id={}, soldAt={}", id, listing.getSoldAt());
+        log.info("Admin marked listing as sold: id={}, soldAt={}", id, soldAt);
     }
 }
@@ -0,0 +1,100 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.CacheStatsDto;
+import com.gameaccountshop.dto.ListingPageDto;
+import com.gameaccountshop.enums.ListingSort;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the unfiltered first browse page per sort order (the anonymous landing page)
+ * Each page remembers the catalog version (MAX(updated_at), see ListingVersionRegistry) it was loaded at and
+ * is served only while that is still the current version, so a change committed on another node is picked
+ * up within the version TTL. Committed status changes on this node clear it at once, and app.cache.home-listings.ttl
+ * bounds what the version does not cover (e.g. a seller renamed).
+ */
+@Slf4j
+@Component
+public class HomeListingCache {
+
+    private final ListingVersionRegistry listingVersionRegistry;
+    private final long ttlNanos;
+
+    private final Map<ListingSort, CachedPage> pages = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; a load that raced with one is returned but not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public HomeListingCache(ListingVersionRegistry listingVersionRegistry,
+                            @Value("${app.cache.home-listings.ttl:PT30S}") Duration ttl) {
+        this.listingVersionRegistry = listingVersionRegistry;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    private record CachedPage(ListingPageDto page, ListingVersionRegistry.Version version, long loadedAt) {
+    }
+
+    /**
+     * Return the cached first page for this sort, loading and caching it on a miss
+     */
+    public ListingPageDto get(ListingSort sort, Supplier<ListingPageDto> loader) {
+        // Read before loading: a change committed during the load makes the stored page stale, not current
+        ListingVersionRegistry.Version version = listingVersionRegistry.catalogVersion();
+        CachedPage cached = pages.get(sort);
+        if (cached != null) {
+            if (cached.version().equals(version) && System.nanoTime() - cached.loadedAt() < ttlNanos) {
+                hits.incrementAndGet();
+                return cached.page();
+            }
+            if (pages.remove(sort, cached)) {
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        long loadedAt = generation.get();
+        CachedPage loaded = new CachedPage(loader.get(), version, System.nanoTime());
+        if (generation.get() == loadedAt) {
+            pages.put(sort, loaded);
+            // Re-check: an invalidation may have slipped in between the check and the put
+            if (generation.get() != loadedAt) {
+                pages.remove(sort, loaded);
+            }
+        }
+        return loaded.page();
+    }
+
+    /**
+     * Any approve/reject/sold transition can change which listings the landing page shows
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onListingStatusChanged(ListingStatusChangedEvent event) {
+        invalidate();
+        log.debug("Home listing cache invalidated: listingId={}, {} -> {}",
+                event.listingId(), event.previousStatus(), event.newStatus());
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        int size = pages.size();
+        pages.clear();
+        evictions.addAndGet(size);
+    }
+
+    public CacheStatsDto stats() {
+        return new CacheStatsDto(hits.get(), misses.get(), evictions.get(), pages.size());
+    }
+}
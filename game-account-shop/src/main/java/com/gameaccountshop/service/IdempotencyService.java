@@ -0,0 +1,175 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.IdempotencyKey;
+import com.gameaccountshop.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotent form submissions (buy, top-up)
+ * Every form carries a fresh key. The first submission with a key runs; duplicates (double-clicks,
+ * resubmits) get the first submission's redirect back without running anything.
+ * Only a submission that succeeded is remembered: a failed one releases its key, so a duplicate or a
+ * retry runs again and shows its own error.
+ *
+ * Duplicates on this instance are caught by a bounded in-memory map and wait for the original's
+ * result; the idempotency_keys table (unique per user and key) catches the rest.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String PURCHASE = "PURCHASE";
+    public static final String TOP_UP = "TOP_UP";
+
+    static final int MAX_KEY_LENGTH = 64;
+    private static final long DUPLICATE_WAIT_SECONDS = 30;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final int maxLocalEntries;
+
+    // "userId:key" -> redirect of the first submission (completes when it finishes; exceptionally if it failed)
+    private final ConcurrentHashMap<String, CompletableFuture<String>> recent = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              @Value("${app.idempotency.local-max-entries:10000}") int maxLocalEntries) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.maxLocalEntries = maxLocalEntries;
+    }
+
+    /**
+     * What a submission did: its redirect, and whether it succeeded (only then is it replayed)
+     */
+    public record Outcome(String redirect, boolean succeeded) {
+
+        public static Outcome succeeded(String redirect) {
+            return new Outcome(redirect, true);
+        }
+
+        public static Outcome failed(String redirect) {
+            return new Outcome(redirect, false);
+        }
+    }
+
+    /**
+     * New key for a form
+     */
+    public static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Run a form submission at most once per key
+     * Without a usable key (old form, tampered value) the submission simply runs.
+     * @param userId Submitting user; keys are scoped per user
+     * @param key Key from the form
+     * @param action PURCHASE or TOP_UP
+     * @param handler The submission; returns its redirect view name and whether it succeeded
+     * @param inProgress Result for a duplicate whose original has not finished
+     * @return Redirect view name of this or the original submission
+     */
+    public String execute(Long userId, String key, String action, Supplier<Outcome> handler, Supplier<String> inProgress) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return handler.get().redirect();
+        }
+
+        String localKey = userId + ":" + key;
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> original = recent.putIfAbsent(localKey, mine);
+        if (original != null) {
+            log.info("Duplicate {} submission by user {} (key {}), replaying", action, userId, key);
+            try {
+                String result = original.get(DUPLICATE_WAIT_SECONDS, TimeUnit.SECONDS);
+                return result != null ? result : inProgress.get();
+            } catch (ExecutionException e) {
+                // The original failed and released the key: this submission runs in its own right
+                return execute(userId, key, action, handler, inProgress);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return inProgress.get();
+            } catch (TimeoutException e) {
+                return inProgress.get();
+            }
+        }
+        trimLocal();
+
+        Outcome outcome;
+        try {
+            outcome = runOnce(userId, key, action, handler);
+        } catch (RuntimeException e) {
+            recent.remove(localKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        if (outcome == null) {
+            // Original is running elsewhere; do not remember "in progress" as the answer
+            recent.remove(localKey, mine);
+            mine.complete(null);
+            return inProgress.get();
+        }
+        if (!outcome.succeeded()) {
+            recent.remove(localKey, mine);
+            mine.completeExceptionally(new IllegalStateException(action + " submission failed"));
+            return outcome.redirect();
+        }
+        mine.complete(outcome.redirect());
+        return outcome.redirect();
+    }
+
+    /**
+     * Claim the key in the database, then run; null if another instance holds an unfinished claim
+     * A successful run completes the key with its redirect; a failed or throwing one releases it.
+     */
+    private Outcome runOnce(Long userId, String key, String action, Supplier<Outcome> handler) {
+        if (idempotencyKeyRepository.claim(userId, key, action) == 0) {
+            log.info("Duplicate {} submission by user {} (key {}) found in database", action, userId, key);
+            return idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key)
+                    .filter(IdempotencyKey::isCompleted)
+                    .map(stored -> Outcome.succeeded(stored.getResultRedirect()))
+                    .orElse(null);
+        }
+
+        Outcome outcome;
+        try {
+            outcome = handler.get();
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(userId, key);
+            throw e;
+        }
+        if (outcome.succeeded()) {
+            idempotencyKeyRepository.complete(userId, key, outcome.redirect(), LocalDateTime.now());
+        } else {
+            idempotencyKeyRepository.release(userId, key);
+        }
+        return outcome;
+    }
+
+    /**
+     * Keep the map bounded: once over the limit, forget finished entries (the table still has them)
+     * In-flight entries are never dropped
+     */
+    private void trimLocal() {
+        if (recent.size() > maxLocalEntries) {
+            recent.values().removeIf(CompletableFuture::isDone);
+        }
+    }
+
+    /**
+     * Delete keys older than the given age
+     * @return Number of keys deleted
+     */
+    public int purgeOlderThan(Duration age) {
+        return idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(age));
+    }
+}
@@ -1,6 +1,7 @@
 package com.gameaccountshop.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -12,21 +13,34 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
 
 /**
  * Image Upload Service for ImgBB API integration
  * Story 2.6: Image Upload for Listing
+ *
+ * Uploads go through imgbbGuard: when ImgBB is slow or down the upload fails fast with an IOException
  */
 @Service
 @Slf4j
 public class ImageUploadService {
 
-    @Value("${imgbb.api-key}")
-    private String imgbbApiKey;
-
-    private static final String IMGBB_API_URL = "https://api.imgbb.com/1/upload";
     private static final long MAX_FILE_SIZE = 32 * 1024 * 1024; // 32MB
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final String imgbbApiKey;
+    private final URI imgbbApiUri;
+    private final DependencyGuard imgbbGuard;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+
+    public ImageUploadService(@Value("${imgbb.api-key}") String imgbbApiKey,
+                              @Value("${imgbb.api-url:https://api.imgbb.com/1/upload}") String imgbbApiUrl,
+                              @Qualifier("imgbbGuard") DependencyGuard imgbbGuard) {
+        this.imgbbApiKey = imgbbApiKey;
+        this.imgbbApiUri = URI.create(imgbbApiUrl);
+        this.imgbbGuard = imgbbGuard;
+    }
 
     /**
      * Upload image to ImgBB and return the URL
@@ -58,20 +72,23 @@ public class ImageUploadService {
 
             log.debug("Request body length: {}", requestBody.length());
 
-            // Create HTTP client and request
-            HttpClient client = HttpClient.newHttpClient();
+            // Create request; its timeout is the guard's deadline, so an upload the guard gave up on
+            // is also cancelled then instead of holding its bulkhead slot until ImgBB answers
             HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(IMGBB_API_URL))
+                .uri(imgbbApiUri)
+                .timeout(imgbbGuard.getDeadline())
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                .timeout(java.time.Duration.ofSeconds(30))
                 .build();
 
-            // Send request
-            HttpResponse<String> response = client.send(
-                request,
-                HttpResponse.BodyHandlers.ofString()
-            );
+            // Send request; only ImgBB-side errors count against ImgBB, a rejected image does not
+            HttpResponse<String> response = imgbbGuard.call(() -> {
+                HttpResponse<String> answer = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (answer.statusCode() >= 500 || answer.statusCode() == 429) {
+                    throw new IOException("ImgBB unavailable. Status: " + answer.statusCode());
+                }
+                return answer;
+            });
 
             log.info("ImgBB response status: {}", response.statusCode());
 
@@ -0,0 +1,396 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.ListingSearchHit;
+import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.entity.User;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.repository.GameAccountRepository;
+import com.gameaccountshop.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over APPROVED listings
+ * Tokenizes game name, rank, description and seller username (diacritic-folded) into
+ * sorted long[] postings lists so keyword search never scans game_accounts / users.
+ * Built at startup and every app.search.index.rebuild-interval. Status changes committed on this node are
+ * applied by {@link ListingStatusChangedEvent} after commit; every app.search.index.sync-interval the index
+ * also catches up on rows whose updated_at (V13_1) moved, which covers changes made on other nodes.
+ */
+@Slf4j
+@Service
+public class ListingSearchIndex {
+
+    // Catch-up starting point before the first build has recorded one (older than any row)
+    private static final LocalDateTime BEFORE_ANY_ROW = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final GameAccountRepository gameAccountRepository;
+    private final UserRepository userRepository;
+    private final Duration syncOverlap;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serializes catch-ups, event handling and the swap of a rebuild, so a row read before a change is never
+    // applied after it; searches only take the read lock and never wait on this
+    private final Object syncMonitor = new Object();
+    // Newest updated_at applied to the index (database clock), guarded by syncMonitor
+    private LocalDateTime syncedUpTo;
+
+    // term -> sorted, duplicate-free listing ids
+    private NavigableMap<String, long[]> postings = new TreeMap<>();
+    // listing id -> sort keys and the terms it was indexed under (needed for removal)
+    private Map<Long, IndexedListing> listings = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public ListingSearchIndex(GameAccountRepository gameAccountRepository, UserRepository userRepository,
+                              @Value("${app.search.index.sync-overlap:PT10S}") Duration syncOverlap) {
+        this.gameAccountRepository = gameAccountRepository;
+        this.userRepository = userRepository;
+        this.syncOverlap = syncOverlap;
+    }
+
+    private record IndexedListing(long id, Long price, LocalDateTime createdAt, String foldedRank, Set<String> terms) {
+    }
+
+    /**
+     * Load every approved listing into a fresh index and swap it in
+     * Changes committed while the fresh index was loading went to the old one and are dropped by the swap,
+     * so everything changed since the build started is replayed from the database right after it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime buildFrom = gameAccountRepository.findLatestUpdatedAt();
+        List<GameAccount> approved = gameAccountRepository.findByStatusOrderByCreatedAtDesc(ListingStatus.APPROVED);
+        Map<Long, String> usernames = usernames(approved);
+
+        NavigableMap<String, long[]> newPostings = new TreeMap<>();
+        Map<Long, IndexedListing> newListings = new HashMap<>();
+        for (GameAccount listing : approved) {
+            add(newPostings, newListings, toIndexed(listing, usernames.get(listing.getSellerId())));
+        }
+
+        synchronized (syncMonitor) {
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                listings = newListings;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            syncedUpTo = buildFrom;
+            int replayed = catchUp();
+            log.info("Listing search index built: listings={}, terms={}, replayed={}, took={}ms",
+                    newListings.size(), newPostings.size(), replayed, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Periodic full rebuild, which also drops anything the catch-up cannot see (e.g. deleted rows)
+     */
+    @Scheduled(initialDelayString = "${app.search.index.rebuild-interval:PT1H}",
+               fixedDelayString = "${app.search.index.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding the listing search index", e);
+        }
+    }
+
+    /**
+     * Apply every listing row changed since the index last caught up, on any node
+     */
+    @Scheduled(fixedDelayString = "${app.search.index.sync-interval:PT5S}")
+    public void syncChanges() {
+        if (!ready) {
+            return;
+        }
+        try {
+            synchronized (syncMonitor) {
+                int applied = catchUp();
+                if (applied > 0) {
+                    log.debug("Listing search index caught up: rows={}, upTo={}", applied, syncedUpTo);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error catching the listing search index up", e);
+        }
+    }
+
+    /**
+     * Re-read rows changed since syncedUpTo and apply their current status; caller holds syncMonitor
+     * Starts app.search.index.sync-overlap early: updated_at is stamped when a statement runs, so a
+     * transaction that commits later can show up with a time just before the last catch-up.
+     *
+     * @return Rows applied
+     */
+    private int catchUp() {
+        LocalDateTime since = (syncedUpTo != null ? syncedUpTo : BEFORE_ANY_ROW).minus(syncOverlap);
+        List<GameAccount> changed = gameAccountRepository.findChangedSince(since);
+        Map<Long, String> usernames = usernames(changed.stream()
+                .filter(listing -> listing.getStatus() == ListingStatus.APPROVED)
+                .toList());
+        for (GameAccount listing : changed) {
+            if (listing.getStatus() == ListingStatus.APPROVED) {
+                index(listing, usernames.get(listing.getSellerId()));
+            } else {
+                remove(listing.getId());
+            }
+            if (listing.getUpdatedAt() != null && (syncedUpTo == null || listing.getUpdatedAt().isAfter(syncedUpTo))) {
+                syncedUpTo = listing.getUpdatedAt();
+            }
+        }
+        return changed.size();
+    }
+
+    /**
+     * Keep the index in sync with listing status transitions once they are committed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onListingStatusChanged(ListingStatusChangedEvent event) {
+        synchronized (syncMonitor) {
+            if (event.newStatus() != ListingStatus.APPROVED) {
+                remove(event.listingId());
+                return;
+            }
+            gameAccountRepository.findById(event.listingId())
+                    .filter(listing -> listing.getStatus() == ListingStatus.APPROVED)
+                    .ifPresent(listing -> index(listing, userRepository.findById(listing.getSellerId())
+                            .map(User::getUsername)
+                            .orElse(null)));
+        }
+    }
+
+    private Map<Long, String> usernames(List<GameAccount> listings) {
+        if (listings.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> sellerIds = listings.stream().map(GameAccount::getSellerId).distinct().toList();
+        return userRepository.findAllById(sellerIds).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+    }
+
+    /**
+     * Add or replace a listing in the index
+     */
+    public void index(GameAccount listing, String sellerUsername) {
+        IndexedListing indexed = toIndexed(listing, sellerUsername);
+        lock.writeLock().lock();
+        try {
+            remove(postings, listings, indexed.id());
+            add(postings, listings, indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Indexed listing: id={}, terms={}", indexed.id(), indexed.terms().size());
+    }
+
+    public void remove(Long listingId) {
+        lock.writeLock().lock();
+        try {
+            remove(postings, listings, listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the startup build has finished; until then callers should fall back to the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return listings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find listings containing every query token (the last token matches as a prefix, for search-as-you-type)
+     *
+     * @param query Search keyword, any case / with or without diacritics
+     * @param rank Optional rank prefix filter (same semantics as the browse query)
+     * @return Matching hits in ascending id order
+     */
+    public List<ListingSearchHit> search(String query, String rank) {
+        return searchAnyRank(query, rank == null ? List.of() : List.of(rank));
+    }
+
+    /**
+     * Same as {@link #search(String, String)}, keeping listings whose rank starts with any of the given prefixes
+     */
+    public List<ListingSearchHit> searchAnyRank(String query, Collection<String> ranks) {
+        List<String> tokens = SearchTextNormalizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<String> rankPrefixes = ranks.stream()
+                .filter(rank -> rank != null && !rank.isBlank())
+                .map(SearchTextNormalizer::fold)
+                .toList();
+
+        lock.readLock().lock();
+        try {
+            List<long[]> lists = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                long[] ids = i == tokens.size() - 1 ? prefixPostings(token) : postings.get(token);
+                if (ids == null || ids.length == 0) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+
+            // Intersect smallest-first so each step is bounded by the rarest term
+            lists.sort(Comparator.comparingInt(ids -> ids.length));
+            long[] matches = lists.get(0);
+            for (int i = 1; i < lists.size() && matches.length > 0; i++) {
+                matches = intersect(matches, lists.get(i));
+            }
+
+            List<ListingSearchHit> hits = new ArrayList<>(matches.length);
+            for (long id : matches) {
+                IndexedListing listing = listings.get(id);
+                if (listing != null && (rankPrefixes.isEmpty()
+                        || rankPrefixes.stream().anyMatch(listing.foldedRank()::startsWith))) {
+                    hits.add(new ListingSearchHit(listing.id(), listing.price(), listing.createdAt(), null));
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Union of the postings of every term starting with the given prefix
+     */
+    private long[] prefixPostings(String prefix) {
+        NavigableMap<String, long[]> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return null;
+        }
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        return range.values().stream().flatMapToLong(Arrays::stream).sorted().distinct().toArray();
+    }
+
+    private static IndexedListing toIndexed(GameAccount listing, String sellerUsername) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.addAll(SearchTextNormalizer.tokenize(listing.getGameName()));
+        terms.addAll(SearchTextNormalizer.tokenize(listing.getAccountRank()));
+        terms.addAll(SearchTextNormalizer.tokenize(listing.getDescription()));
+        terms.addAll(SearchTextNormalizer.tokenize(sellerUsername));
+        return new IndexedListing(listing.getId(), listing.getPrice(), listing.getCreatedAt(),
+                SearchTextNormalizer.fold(listing.getAccountRank()), Set.copyOf(terms));
+    }
+
+    private static void add(NavigableMap<String, long[]> postings, Map<Long, IndexedListing> listings,
+                            IndexedListing listing) {
+        listings.put(listing.id(), listing);
+        for (String term : listing.terms()) {
+            postings.put(term, insert(postings.get(term), listing.id()));
+        }
+    }
+
+    private static void remove(NavigableMap<String, long[]> postings, Map<Long, IndexedListing> listings,
+                               Long listingId) {
+        IndexedListing existing = listings.remove(listingId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            long[] ids = delete(postings.get(term), existing.id());
+            if (ids == null || ids.length == 0) {
+                postings.remove(term);
+            } else {
+                postings.put(term, ids);
+            }
+        }
+    }
+
+    static long[] insert(long[] ids, long id) {
+        if (ids == null) {
+            return new long[] {id};
+        }
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        int insertAt = -pos - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = id;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        return grown;
+    }
+
+    static long[] delete(long[] ids, long id) {
+        if (ids == null) {
+            return null;
+        }
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, pos);
+        System.arraycopy(ids, pos + 1, shrunk, pos, ids.length - pos - 1);
+        return shrunk;
+    }
+
+    /**
+     * Intersect two sorted id arrays, galloping through the larger one with binary search
+     */
+    static long[] intersect(long[] small, long[] large) {
+        long[] out = new long[Math.min(small.length, large.length)];
+        int count = 0;
+        int from = 0;
+        for (long id : small) {
+            int pos = Arrays.binarySearch(large, from, large.length, id);
+            if (pos >= 0) {
+                out[count++] = id;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+            if (from >= large.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+}
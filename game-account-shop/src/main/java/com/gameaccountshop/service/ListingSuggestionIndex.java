@@ -0,0 +1,226 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.SuggestionDto;
+import com.gameaccountshop.dto.UserSummaryDto;
+import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.enums.SuggestionType;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.repository.GameAccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search-box typeahead over game aliases, account ranks and seller usernames
+ * Served from an in-memory {@link PrefixTrie}; suggestions are weighted by how many
+ * approved listings they would find, so lookups never query game_accounts.
+ * Built at startup and every app.suggest.ttl. Status changes committed on this node are applied by
+ * {@link ListingStatusChangedEvent} after commit; every app.suggest.sync-interval the index also catches up on
+ * rows whose updated_at moved, which covers changes made on other nodes. Each listing's counted rank and seller
+ * are remembered, so applying a listing's current state is idempotent and only moves the counts that changed.
+ */
+@Slf4j
+@Service
+public class ListingSuggestionIndex {
+
+    // Game aliases always rank above ranks/sellers: there is one game, so they are the most useful completion
+    private static final long ALIAS_WEIGHT = 1_000_000_000L;
+    // Catch-up starting point before the first build has recorded one (older than any row)
+    private static final LocalDateTime BEFORE_ANY_ROW = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final GameAccountRepository gameAccountRepository;
+    private final UserSummaryCache userSummaryCache;
+    private final int maxLimit;
+    private final Duration syncOverlap;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private PrefixTrie trie = new PrefixTrie();
+    // listing id -> the rank and seller it is counted under (approved listings only)
+    private Map<Long, CountedListing> counted = new HashMap<>();
+
+    // Serializes catch-ups, event handling and the swap of a rebuild, like ListingSearchIndex
+    private final Object syncMonitor = new Object();
+    // Newest updated_at applied (database clock), guarded by syncMonitor
+    private LocalDateTime syncedUpTo;
+
+    private volatile boolean ready;
+
+    public ListingSuggestionIndex(GameAccountRepository gameAccountRepository,
+                                  UserSummaryCache userSummaryCache,
+                                  @Value("${app.suggest.max-limit:20}") int maxLimit,
+                                  @Value("${app.suggest.sync-overlap:PT10S}") Duration syncOverlap) {
+        this.gameAccountRepository = gameAccountRepository;
+        this.userSummaryCache = userSummaryCache;
+        this.maxLimit = maxLimit;
+        this.syncOverlap = syncOverlap;
+    }
+
+    private record CountedListing(String rank, String sellerUsername) {
+    }
+
+    /**
+     * Build a fresh trie from the approved listings' ranks and sellers and swap it in
+     * Changes committed while it was loading went to the old trie and are dropped by the swap, so everything
+     * changed since the build started is replayed from the database right after it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime buildFrom = gameAccountRepository.findLatestUpdatedAt();
+        PrefixTrie fresh = new PrefixTrie();
+        GameAccountService.GAME_ALIASES.keySet()
+                .forEach(alias -> fresh.adjust(alias, SuggestionType.GAME, ALIAS_WEIGHT));
+        Map<Long, CountedListing> freshCounted = new HashMap<>();
+        for (GameAccountRepository.SuggestionTerm term : gameAccountRepository.findSuggestionTerms(ListingStatus.APPROVED)) {
+            CountedListing listing = new CountedListing(term.getAccountRank(), term.getSellerUsername());
+            freshCounted.put(term.getId(), listing);
+            count(fresh, listing, 1);
+        }
+
+        synchronized (syncMonitor) {
+            lock.writeLock().lock();
+            try {
+                trie = fresh;
+                counted = freshCounted;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            syncedUpTo = buildFrom;
+            int replayed = catchUp();
+            log.info("Listing suggestion index built: listings={}, replayed={}, took={}ms",
+                    freshCounted.size(), replayed, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Periodic full rebuild, which also drops anything the catch-up cannot see (e.g. deleted rows)
+     */
+    @Scheduled(initialDelayString = "${app.suggest.ttl:PT10M}", fixedDelayString = "${app.suggest.ttl:PT10M}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding the listing suggestion index", e);
+        }
+    }
+
+    /**
+     * Apply every listing row changed since the index last caught up, on any node
+     */
+    @Scheduled(fixedDelayString = "${app.suggest.sync-interval:PT5S}")
+    public void syncChanges() {
+        if (!ready) {
+            return;
+        }
+        try {
+            synchronized (syncMonitor) {
+                int applied = catchUp();
+                if (applied > 0) {
+                    log.debug("Listing suggestion index caught up: rows={}, upTo={}", applied, syncedUpTo);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error catching the listing suggestion index up", e);
+        }
+    }
+
+    /**
+     * Re-read rows changed since syncedUpTo (minus app.suggest.sync-overlap, for commit lag) and apply their
+     * current state; caller holds syncMonitor
+     *
+     * @return Rows applied
+     */
+    private int catchUp() {
+        LocalDateTime since = (syncedUpTo != null ? syncedUpTo : BEFORE_ANY_ROW).minus(syncOverlap);
+        List<GameAccount> changed = gameAccountRepository.findChangedSince(since);
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        Map<Long, UserSummaryDto> sellers = userSummaryCache.getAll(
+                changed.stream().map(GameAccount::getSellerId).distinct().toList());
+        for (GameAccount listing : changed) {
+            apply(listing, sellers.get(listing.getSellerId()));
+            if (listing.getUpdatedAt() != null && (syncedUpTo == null || listing.getUpdatedAt().isAfter(syncedUpTo))) {
+                syncedUpTo = listing.getUpdatedAt();
+            }
+        }
+        return changed.size();
+    }
+
+    /**
+     * A listing entering APPROVED adds one to its rank and seller; leaving APPROVED (sold) removes one
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onListingStatusChanged(ListingStatusChangedEvent event) {
+        if (event.newStatus() != ListingStatus.APPROVED && event.previousStatus() != ListingStatus.APPROVED) {
+            return;
+        }
+        synchronized (syncMonitor) {
+            gameAccountRepository.findById(event.listingId()).ifPresent(listing -> apply(listing,
+                    userSummaryCache.getAll(List.of(listing.getSellerId())).get(listing.getSellerId())));
+        }
+    }
+
+    /**
+     * Count the listing under its current rank and seller if it is APPROVED, otherwise not at all
+     */
+    private void apply(GameAccount listing, UserSummaryDto seller) {
+        CountedListing now = listing.getStatus() == ListingStatus.APPROVED
+                ? new CountedListing(listing.getAccountRank(), seller != null ? seller.username() : null)
+                : null;
+        lock.writeLock().lock();
+        try {
+            CountedListing before = now != null ? counted.put(listing.getId(), now) : counted.remove(listing.getId());
+            if (Objects.equals(before, now)) {
+                return;
+            }
+            if (before != null) {
+                count(trie, before, -1);
+            }
+            if (now != null) {
+                count(trie, now, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void count(PrefixTrie trie, CountedListing listing, int delta) {
+        trie.adjust(listing.rank(), SuggestionType.RANK, delta);
+        trie.adjust(listing.sellerUsername(), SuggestionType.SELLER, delta);
+    }
+
+    /**
+     * Top completions for what the user has typed so far
+     *
+     * @param query Prefix, any case / with or without diacritics
+     * @param limit Maximum suggestions (capped by app.suggest.max-limit)
+     */
+    public List<SuggestionDto> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.complete(query, Math.min(limit, maxLimit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
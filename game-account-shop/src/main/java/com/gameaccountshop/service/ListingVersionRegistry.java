@@ -0,0 +1,89 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.repository.GameAccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Versions for conditional GET on the public browse/detail pages (the catalog one also keys the listing caches)
+ * Both come from the database, so every node hands out the same version for the same data:
+ * a listing's version is its row's updated_at, the catalog's is MAX(updated_at) (V13_1).
+ * The catalog version is re-read at most once per app.cache.catalog-version-ttl; a status change
+ * committed on this node drops it at once, one committed on another node is seen within the TTL.
+ * ETags carry a per-boot nonce so a restart (or deploy with new templates) never matches an old tag.
+ */
+@Slf4j
+@Component
+public class ListingVersionRegistry {
+
+    private final GameAccountRepository gameAccountRepository;
+    private final long catalogTtlNanos;
+
+    private final long bootTime = System.currentTimeMillis();
+    private final String bootNonce = Long.toString(bootTime, 36);
+
+    // Last catalog version read from the database, and when (System.nanoTime)
+    private volatile CatalogRead catalog;
+
+    public ListingVersionRegistry(GameAccountRepository gameAccountRepository,
+                                  @Value("${app.cache.catalog-version-ttl:PT1S}") Duration catalogTtl) {
+        this.gameAccountRepository = gameAccountRepository;
+        this.catalogTtlNanos = catalogTtl.toNanos();
+    }
+
+    /**
+     * Snapshot used for one conditional request
+     *
+     * @param etag Strong entity tag (quoted)
+     * @param lastModified Epoch millis of the last change (boot time if there is no row)
+     */
+    public record Version(String etag, long lastModified) {
+    }
+
+    private record CatalogRead(Version version, long readAt) {
+    }
+
+    /**
+     * This node's own status changes are visible on the next request, not after the TTL
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onListingStatusChanged(ListingStatusChangedEvent event) {
+        catalog = null;
+        log.debug("Catalog version dropped: listingId={}, {} -> {}",
+                event.listingId(), event.previousStatus(), event.newStatus());
+    }
+
+    public Version catalogVersion() {
+        CatalogRead read = catalog;
+        long now = System.nanoTime();
+        if (read == null || now - read.readAt() >= catalogTtlNanos) {
+            read = new CatalogRead(version("c", gameAccountRepository.findLatestUpdatedAt()), now);
+            catalog = read;
+        }
+        return read.version();
+    }
+
+    public Version listingVersion(Long listingId) {
+        return version("l-" + listingId, gameAccountRepository.findUpdatedAtById(listingId).orElse(null));
+    }
+
+    private Version version(String prefix, LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return new Version("\"" + prefix + "-" + bootNonce + "-0\"", bootTime);
+        }
+        Instant changedAt = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, changedAt);
+        return new Version("\"" + prefix + "-" + bootNonce + "-" + Long.toString(micros, 36) + "\"",
+                changedAt.toEpochMilli());
+    }
+}
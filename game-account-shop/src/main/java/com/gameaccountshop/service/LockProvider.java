@@ -0,0 +1,39 @@
+package com.gameaccountshop.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cluster-wide named locks held as expiring leases
+ * Used to lease the PayOS order code node id (OrderCodeGenerator) and by @SchedulerLocked, so that a scheduled
+ * run executes on one node only; implemented by DatabaseLockProvider
+ */
+public interface LockProvider {
+
+    /**
+     * Take the lock if no other lease on it is running; never waits
+     * The lease is renewed in the background until it is closed, and expires leaseFor after the last
+     * renewal if this node dies.
+     * @param leaseFor Lease length; a dead node's lock is free again this long after its last renewal
+     * @param holdAtLeast Shortest time the lock stays taken, even if the lease is closed sooner
+     * @return The lease, or empty if the lock is held elsewhere
+     */
+    Optional<Lease> tryAcquire(String name, Duration leaseFor, Duration holdAtLeast);
+
+    /**
+     * A held lock; close it when the work is done
+     */
+    interface Lease extends AutoCloseable {
+
+        String name();
+
+        /**
+         * False once leaseFor has passed since the last successful renewal, or a renewal found the lease
+         * taken over (it had expired, e.g. after a long pause)
+         */
+        boolean isHeld();
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,150 @@
+package com.gameaccountshop.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * PayOS orderCode generator (Snowflake layout)
+ * Story 3.1: Wallet System & Buy with Balance
+ *
+ * PayOS order codes must be positive and fit in 53 bits (JavaScript's safe integer range):
+ * 40 bits of milliseconds since 2026-01-01 (about 34 years), 4 bits of node id and 9 bits of
+ * sequence, so each node issues up to 512 codes per millisecond and nodes never collide.
+ *
+ * Node ids are claimed as leases in scheduler_locks (lock payos-node-id-N): payos.node-id, when set, must be
+ * free, otherwise the first free id of 0-15 is taken. Startup fails if no id can be claimed, and codes stop
+ * being issued if the lease is ever lost, so two running nodes never share an id.
+ */
+@Component
+@Slf4j
+public class OrderCodeGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 9;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    static final long MAX_ORDER_CODE = (1L << 53) - 1;
+    static final String NODE_LOCK_PREFIX = "payos-node-id-";
+    // Renewed every third of this while the node runs; a dead node's id is free again this long after
+    private static final Duration NODE_LEASE = Duration.ofMinutes(1);
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    // Null when the id is not claimed (unit tests)
+    private final LockProvider.Lease nodeLease;
+
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    /**
+     * @param nodeId payos.node-id, or -1 (unset) to claim the first free id
+     */
+    @Autowired
+    public OrderCodeGenerator(@Value("${payos.node-id:-1}") long nodeId, LockProvider lockProvider) {
+        this(claimNodeId(nodeId, lockProvider), System::currentTimeMillis);
+    }
+
+    OrderCodeGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    OrderCodeGenerator(long nodeId, LongSupplier clock) {
+        this(nodeId, null, clock);
+    }
+
+    private OrderCodeGenerator(LockProvider.Lease nodeLease, LongSupplier clock) {
+        this(Long.parseLong(nodeLease.name().substring(NODE_LOCK_PREFIX.length())), nodeLease, clock);
+    }
+
+    private OrderCodeGenerator(long nodeId, LockProvider.Lease nodeLease, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("payos.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.nodeLease = nodeLease;
+        this.clock = clock;
+    }
+
+    /**
+     * Lease on the configured node id, or on the first free one when none is configured
+     * @throws IllegalStateException if the id is held by another running node, or all ids are
+     */
+    static LockProvider.Lease claimNodeId(long configured, LockProvider lockProvider) {
+        if (configured >= 0) {
+            if (configured > MAX_NODE_ID) {
+                throw new IllegalArgumentException("payos.node-id must be between 0 and " + MAX_NODE_ID);
+            }
+            return lockProvider.tryAcquire(NODE_LOCK_PREFIX + configured, NODE_LEASE, Duration.ZERO)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "payos.node-id " + configured + " is already in use by another running node"));
+        }
+        for (long candidate = 0; candidate <= MAX_NODE_ID; candidate++) {
+            Optional<LockProvider.Lease> lease =
+                    lockProvider.tryAcquire(NODE_LOCK_PREFIX + candidate, NODE_LEASE, Duration.ZERO);
+            if (lease.isPresent()) {
+                log.info("Claimed PayOS order code node id {}", candidate);
+                return lease.get();
+            }
+        }
+        throw new IllegalStateException("All " + (MAX_NODE_ID + 1) + " PayOS order code node ids are in use");
+    }
+
+    @PreDestroy
+    void releaseNodeId() {
+        if (nodeLease != null) {
+            nodeLease.close();
+        }
+    }
+
+    /**
+     * Next order code; unique per node and increasing, even if the wall clock steps back
+     */
+    public synchronized long nextOrderCode() {
+        if (nodeLease != null && !nodeLease.isHeld()) {
+            // The lease expired (e.g. a long pause) and the id may now belong to another node
+            throw new IllegalStateException("PayOS order code node id " + nodeId + " is no longer held");
+        }
+        long now = clock.getAsLong();
+        if (now < lastTimestamp) {
+            // Clock stepped back (NTP): keep issuing from the last timestamp instead of reusing old codes
+            log.warn("Clock moved backwards by {} ms; continuing from the last order code timestamp",
+                    lastTimestamp - now);
+            now = lastTimestamp;
+        }
+        if (now == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // 512 codes already issued this millisecond: wait for the next one
+                now = waitForNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = now;
+
+        long elapsed = now - EPOCH_MILLIS;
+        long code = (elapsed << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        if (elapsed < 0 || code > MAX_ORDER_CODE) {
+            throw new IllegalStateException("Clock is outside the order code range: " + now);
+        }
+        return code;
+    }
+
+    private long waitForNextMillis(long timestamp) {
+        long now = clock.getAsLong();
+        while (now <= timestamp) {
+            Thread.onSpinWait();
+            now = clock.getAsLong();
+        }
+        return now;
+    }
+}
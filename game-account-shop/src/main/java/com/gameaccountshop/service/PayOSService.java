@@ -1,13 +1,20 @@
 package com.gameaccountshop.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import vn.payos.PayOS;
+import vn.payos.exception.APIException;
+import vn.payos.exception.NotFoundException;
 import vn.payos.model.v2.paymentRequests.CreatePaymentLinkRequest;
 import vn.payos.model.v2.paymentRequests.CreatePaymentLinkResponse;
 import vn.payos.model.v2.paymentRequests.PaymentLinkItem;
+import vn.payos.model.webhooks.Webhook;
+import vn.payos.model.webhooks.WebhookData;
 
 import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 /**
  * PayOS payment service using official SDK
@@ -17,31 +24,51 @@ import java.math.BigDecimal;
  * - Automatic signature generation
  * - Proper request serialization
  * - Type-safe response handling
+ *
+ * Every PayOS call goes through payOSGuard; when PayOS is down the methods fail fast
+ * through their usual error path (exception, "ERROR", false)
  */
 @Service
 @Slf4j
 public class PayOSService {
 
+    /**
+     * PayOS error code for an order code it has no payment link for
+     */
+    static final String ORDER_NOT_FOUND = "101";
+
     private final PayOS payOS;
+    private final DependencyGuard payOSGuard;
 
-    public PayOSService(PayOS payOS) {
+    public PayOSService(PayOS payOS, @Qualifier("payOSGuard") DependencyGuard payOSGuard) {
         this.payOS = payOS;
+        this.payOSGuard = payOSGuard;
+    }
+
+    /**
+     * Whether an SDK exception counts against PayOS in the circuit breaker
+     * PayOS answering "no" to a request (4xx other than rate limiting) is not an outage
+     */
+    public static boolean isProviderFailure(Throwable e) {
+        if (e instanceof APIException api && api.getStatusCode().isPresent()) {
+            int status = api.getStatusCode().get();
+            return status >= 500 || status == 429;
+        }
+        return true;
     }
 
     /**
      * Create a payment request with PayOS using official SDK
      *
      * @param amount Total amount to pay (listing price + commission)
+     * @param orderCode Order code already stored on the transaction (OrderCodeGenerator)
      * @param transactionId Transaction ID for logging
      * @param description Payment description (must be <= 25 characters)
-     * @return PayOSData containing QR code, checkout URL, and payment link ID
+     * @return PayOSData containing QR code, checkout URL, payment link ID and order code
      * @throws RuntimeException if payment creation fails
      */
-    public PayOSData createPayment(BigDecimal amount, String transactionId, String description) {
+    public PayOSData createPayment(BigDecimal amount, long orderCode, String transactionId, String description) {
         try {
-            // Generate unique order code (seconds since epoch)
-            long orderCode = System.currentTimeMillis() / 1000;
-
             // Convert amount to long (PayOS uses long, not int)
             long amountLong = amount.longValue();
 
@@ -72,7 +99,7 @@ public class PayOSService {
                     .build();
 
             // Call PayOS API using SDK (handles signature automatically)
-            CreatePaymentLinkResponse response = payOS.paymentRequests().create(paymentData);
+            CreatePaymentLinkResponse response = guarded(() -> payOS.paymentRequests().create(paymentData));
 
             // ==================== DEBUG RESPONSE ====================
             System.out.println("\n==================== PAYOS SDK RESPONSE ====================");
@@ -109,16 +136,14 @@ public class PayOSService {
      * Used for wallet top-ups
      *
      * @param amount Amount to top-up
+     * @param orderCode Order code already stored on the transaction (OrderCodeGenerator)
      * @param transactionId Transaction ID for logging
      * @param description Payment description (must be <= 25 characters)
-     * @return PayOSData containing QR code, checkout URL, and payment link ID
+     * @return PayOSData containing QR code, checkout URL, payment link ID and order code
      * @throws RuntimeException if payment creation fails
      */
-    public PayOSData createTopUpPayment(BigDecimal amount, String transactionId, String description) {
+    public PayOSData createTopUpPayment(BigDecimal amount, long orderCode, String transactionId, String description) {
         try {
-            // Generate unique order code (seconds since epoch)
-            long orderCode = System.currentTimeMillis() / 1000;
-
             // Convert amount to long (PayOS uses long, not int)
             long amountLong = amount.longValue();
 
@@ -141,7 +166,7 @@ public class PayOSService {
                     .build();
 
             // Call PayOS API using SDK (handles signature automatically)
-            CreatePaymentLinkResponse response = payOS.paymentRequests().create(paymentData);
+            CreatePaymentLinkResponse response = guarded(() -> payOS.paymentRequests().create(paymentData));
 
             log.info("PayOS top-up payment created successfully for transaction: {}", transactionId);
 
@@ -163,12 +188,12 @@ public class PayOSService {
     /**
      * Check payment status by order code
      *
-     * @param orderCode The order code from payment creation
+     * @param orderCode The order code stored on the transaction (Transaction#getOrderCode)
      * @return Payment status (PENDING, PAID, CANCELLED, EXPIRED)
      */
     public String checkPaymentStatus(Long orderCode) {
         try {
-            var paymentLink = payOS.paymentRequests().get(orderCode);
+            var paymentLink = guarded(() -> payOS.paymentRequests().get(orderCode));
             return paymentLink.getStatus().toString();
         } catch (Exception e) {
             log.error("Failed to check PayOS payment status for orderCode: {}", orderCode, e);
@@ -176,6 +201,27 @@ public class PayOSService {
         }
     }
 
+    /**
+     * Look up the payment link PayOS holds for an order code
+     * Unlike checkPaymentStatus, a failed call is not folded into the answer
+     *
+     * @param orderCode The order code stored on the transaction
+     * @return The payment link ID, or empty if PayOS has no link for the order code
+     * @throws RuntimeException if PayOS could not be asked
+     */
+    public Optional<String> findPaymentLinkId(Long orderCode) {
+        try {
+            return Optional.of(guarded(() -> payOS.paymentRequests().get(orderCode)).getId());
+        } catch (NotFoundException e) {
+            return Optional.empty();
+        } catch (APIException e) {
+            if (e.getErrorCode().filter(ORDER_NOT_FOUND::equals).isPresent()) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
     /**
      * Cancel a payment link
      *
@@ -185,7 +231,7 @@ public class PayOSService {
      */
     public boolean cancelPayment(Long orderCode, String reason) {
         try {
-            payOS.paymentRequests().cancel(orderCode, reason);
+            guarded(() -> payOS.paymentRequests().cancel(orderCode, reason));
             log.info("Cancelled payment link for orderCode: {}", orderCode);
             return true;
         } catch (Exception e) {
@@ -194,6 +240,36 @@ public class PayOSService {
         }
     }
 
+    /**
+     * Verify a payment webhook's signature against the configured payos.checksum-key
+     *
+     * @param webhook Webhook body as posted by PayOS
+     * @return The signed payment data
+     * @throws IllegalArgumentException if the signature is missing or does not match the data
+     */
+    public WebhookData verifyWebhook(Webhook webhook) {
+        try {
+            return payOS.webhooks().verify(webhook);
+        } catch (Exception e) {
+            log.warn("Rejected PayOS webhook: {}", e.getMessage());
+            throw new IllegalArgumentException("Chữ ký webhook PayOS không hợp lệ", e);
+        }
+    }
+
+    /**
+     * Call PayOS through its guard (circuit breaker, bulkhead, deadline)
+     * @throws com.gameaccountshop.exception.DependencyUnavailableException if the call was refused or timed out
+     */
+    private <T> T guarded(Callable<T> call) {
+        try {
+            return payOSGuard.call(call);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("PayOS call failed: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Simple data holder for PayOS response
      * Contains the essential data needed after payment creation
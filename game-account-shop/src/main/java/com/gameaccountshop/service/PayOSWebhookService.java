@@ -0,0 +1,91 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.PayOSWebhookEvent;
+import com.gameaccountshop.repository.PayOSWebhookEventRepository;
+import com.gameaccountshop.service.WalletService.TopUpSettlement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.payos.model.webhooks.WebhookData;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Settles top-ups from PayOS payment webhooks
+ * Story 3.1: Wallet System - top-ups no longer wait for an admin once PayOS confirms the payment
+ *
+ * Verified webhooks go to the payos_webhook_events inbox first (one row per orderCode), then
+ * are settled. Duplicate deliveries hit the inbox's unique key and the transaction row lock;
+ * a webhook that arrives before its transaction is visible stays in the inbox and is settled
+ * later by PayOSWebhookScheduler.
+ */
+@Service
+@Slf4j
+public class PayOSWebhookService {
+
+    /**
+     * PayOS data.code of a successful payment
+     */
+    static final String CODE_PAID = "00";
+
+    private final PayOSWebhookEventRepository webhookEventRepository;
+    private final WalletService walletService;
+
+    public PayOSWebhookService(PayOSWebhookEventRepository webhookEventRepository,
+                               WalletService walletService) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.walletService = walletService;
+    }
+
+    /**
+     * Record a verified webhook in the inbox
+     * @param data Signed payment data (PayOSService#verifyWebhook)
+     * @return true if it is a payment to settle (including redeliveries of one), false if it is ignored
+     */
+    public boolean record(WebhookData data) {
+        if (!CODE_PAID.equals(data.getCode()) || data.getOrderCode() == null || data.getAmount() == null) {
+            log.info("Ignoring PayOS webhook for orderCode {} with code {}", data.getOrderCode(), data.getCode());
+            return false;
+        }
+        int inserted = webhookEventRepository.record(data.getOrderCode(), data.getAmount(), data.getReference());
+        if (inserted == 0) {
+            log.info("Duplicate PayOS webhook for orderCode {}", data.getOrderCode());
+        }
+        // A redelivery may be PayOS retrying an event that is not settled yet, so it is settled too
+        return true;
+    }
+
+    /**
+     * Settle the recorded payment for an order code
+     * The inbox row is marked processed in the same transaction that credits the wallet
+     * @return false if its transaction is not visible yet and the event should be retried
+     */
+    @Transactional
+    public boolean settle(Long orderCode) {
+        PayOSWebhookEvent event = webhookEventRepository.findByOrderCode(orderCode).orElse(null);
+        if (event == null || event.isProcessed()) {
+            return true;
+        }
+        TopUpSettlement settlement = walletService.settlePaidTopUp(orderCode, event.getAmount());
+        if (settlement == TopUpSettlement.NOT_FOUND) {
+            return false;
+        }
+        if (settlement == TopUpSettlement.AMOUNT_MISMATCH) {
+            // Recorded on the transaction for the admins; retrying would not change the amount
+            log.warn("PayOS payment for orderCode {} does not match its top-up; not credited", orderCode);
+        }
+        webhookEventRepository.markProcessed(orderCode, LocalDateTime.now());
+        return true;
+    }
+
+    /**
+     * Order codes of recorded payments not settled yet, received within the retry window
+     */
+    public List<Long> findUnsettled(Duration window, int batchSize) {
+        return webhookEventRepository.findUnprocessedOrderCodes(LocalDateTime.now().minus(window),
+                Limit.of(batchSize));
+    }
+}
@@ -0,0 +1,158 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.PaymentOutbox;
+import com.gameaccountshop.entity.Transaction;
+import com.gameaccountshop.enums.PaymentOutboxStatus;
+import com.gameaccountshop.repository.PaymentOutboxRepository;
+import com.gameaccountshop.repository.TransactionRepository;
+import com.gameaccountshop.service.PayOSService.PayOSData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Transactional outbox for PayOS payment links
+ * Story 3.1: Wallet System - keeps the PayOS HTTP call out of database transactions
+ *
+ * A PayOS payment is opened in three steps, none of which holds a connection across the HTTP call:
+ * 1. enqueue: one transaction saves the PENDING transaction, with its order code, and an outbox row
+ * 2. dispatch: the payment link is created with no transaction open
+ * 3. the link is stored on the transaction and the row marked SENT (one statement each)
+ *
+ * A crash or a failed call between 1 and 3 leaves the row PENDING. Once it is due the relay
+ * (PaymentOutboxScheduler) asks PayOS whether a link exists for the order code: if so it is stored,
+ * if not the transaction is rejected. Links are never re-created by the relay, since the buyer who
+ * asked for one was shown an error and nobody is waiting for it.
+ */
+@Service
+@Slf4j
+public class PaymentOutboxService {
+
+    /**
+     * How long a row is left to the request that enqueued it (covers the SDK's own timeout and retries)
+     */
+    static final Duration RELAY_DELAY = Duration.ofMinutes(5);
+    static final int MAX_ATTEMPTS = 6;
+    static final String NO_LINK_REASON = "Không tạo được liên kết thanh toán PayOS";
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final TransactionRepository transactionRepository;
+    private final PayOSService payOSService;
+    private final OrderCodeGenerator orderCodeGenerator;
+
+    public PaymentOutboxService(PaymentOutboxRepository paymentOutboxRepository,
+                                TransactionRepository transactionRepository,
+                                PayOSService payOSService,
+                                OrderCodeGenerator orderCodeGenerator) {
+        this.paymentOutboxRepository = paymentOutboxRepository;
+        this.transactionRepository = transactionRepository;
+        this.payOSService = payOSService;
+        this.orderCodeGenerator = orderCodeGenerator;
+    }
+
+    /**
+     * Save a PENDING PayOS transaction with a fresh order code, together with its outbox row
+     * @param pending Transaction to save
+     * @return Saved transaction, with ID and order code
+     */
+    @Transactional
+    public Transaction enqueue(Transaction pending) {
+        pending.setOrderCode(orderCodeGenerator.nextOrderCode());
+        Transaction saved = transactionRepository.save(pending);
+
+        PaymentOutbox row = new PaymentOutbox();
+        row.setTransactionId(saved.getId());
+        row.setOrderCode(saved.getOrderCode());
+        row.setNextAttemptAt(LocalDateTime.now().plus(RELAY_DELAY));
+        paymentOutboxRepository.save(row);
+        return saved;
+    }
+
+    /**
+     * Create the PayOS link of an enqueued transaction and store it
+     * Must not run inside a transaction: the point is to hold no connection during the HTTP call
+     * @param saved Transaction returned by enqueue
+     * @param createLink PayOS call creating the link for the transaction's order code
+     * @return The transaction with payment link ID, QR code and checkout URL
+     * @throws RuntimeException from createLink; the outbox row is left for the relay
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public Transaction dispatch(Transaction saved, Function<Transaction, PayOSData> createLink) {
+        PayOSData link;
+        try {
+            link = createLink.apply(saved);
+        } catch (RuntimeException e) {
+            paymentOutboxRepository.recordFailure(saved.getId(), errorOf(e), LocalDateTime.now().plus(RELAY_DELAY));
+            throw e;
+        }
+
+        transactionRepository.attachPaymentLink(saved.getId(), link.getPaymentLinkId(),
+                link.getQrCode(), link.getCheckoutUrl());
+        paymentOutboxRepository.markSent(saved.getId(), LocalDateTime.now());
+
+        saved.setPaymentLinkId(link.getPaymentLinkId());
+        saved.setQrCode(link.getQrCode());
+        saved.setCheckoutUrl(link.getCheckoutUrl());
+        return saved;
+    }
+
+    /**
+     * Outbox rows whose request never finished, oldest first
+     * @param limit Maximum number of rows
+     */
+    public List<PaymentOutbox> findDue(int limit) {
+        return paymentOutboxRepository.findDue(LocalDateTime.now(), Limit.of(limit));
+    }
+
+    /**
+     * Resolve an interrupted row from what PayOS knows about its order code
+     * Every step is a guarded single statement, so a relay interrupted in turn just repeats it
+     * @param row Row returned by findDue
+     * @return true if the row is resolved, false if it stays PENDING for a later attempt
+     */
+    public boolean relay(PaymentOutbox row) {
+        Long transactionId = row.getTransactionId();
+        Optional<String> paymentLinkId;
+        try {
+            paymentLinkId = payOSService.findPaymentLinkId(row.getOrderCode());
+        } catch (RuntimeException e) {
+            int attempts = row.getAttempts() + 1;
+            if (attempts >= MAX_ATTEMPTS) {
+                // The transaction stays PENDING: the admins can still approve or reject it
+                log.error("Giving up on the PayOS link of transaction {} after {} attempts", transactionId, attempts, e);
+                paymentOutboxRepository.close(transactionId, PaymentOutboxStatus.FAILED, errorOf(e));
+            } else {
+                log.warn("PayOS lookup failed for transaction {} (attempt {}): {}", transactionId, attempts, e.getMessage());
+                paymentOutboxRepository.recordFailure(transactionId, errorOf(e),
+                        LocalDateTime.now().plus(RELAY_DELAY.multipliedBy(1L << attempts)));
+            }
+            return false;
+        }
+
+        if (paymentLinkId.isPresent()) {
+            // Created before the request died; QR code and checkout URL were only ever shown to that request
+            transactionRepository.attachPaymentLink(transactionId, paymentLinkId.get(), null, null);
+            paymentOutboxRepository.markSent(transactionId, LocalDateTime.now());
+            log.info("Recovered PayOS link {} for transaction {}", paymentLinkId.get(), transactionId);
+        } else {
+            transactionRepository.rejectPending(List.of(transactionId), NO_LINK_REASON);
+            paymentOutboxRepository.close(transactionId, PaymentOutboxStatus.FAILED, "No PayOS link for the order code");
+            log.info("No PayOS link was created for transaction {}; rejected", transactionId);
+        }
+        return true;
+    }
+
+    private static String errorOf(Exception e) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,298 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.PendingPaymentDto;
+import com.gameaccountshop.dto.ReconciliationStatsDto;
+import com.gameaccountshop.enums.TransactionStatus;
+import com.gameaccountshop.enums.TransactionType;
+import com.gameaccountshop.repository.TransactionRepository;
+import com.gameaccountshop.service.WalletService.TopUpSettlement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reconciles PENDING PayOS payments against PayOS
+ * Story 3.1: Wallet System - catches payments whose webhook never arrived, and links that were
+ * cancelled or expired without anyone telling us
+ *
+ * Pages through PENDING transactions that have an order code, asks PayOS for each link's status
+ * on a bounded pool (the bulkhead) paced by a rate limit, then applies the outcome per page:
+ * CANCELLED / EXPIRED are rejected in one UPDATE each, PAID top-ups are credited through
+ * WalletService#settlePaidTopUp (idempotent with the webhook); a PAID amount that differs from the top-up
+ * stays PENDING for the admins and is not counted as paid. Anything else stays PENDING.
+ */
+@Service
+@Slf4j
+public class PaymentReconciler {
+
+    static final String PAID = "PAID";
+    static final String CANCELLED = "CANCELLED";
+    static final String EXPIRED = "EXPIRED";
+    static final String ERROR = "ERROR";
+
+    /**
+     * Cursor start: before any transaction
+     */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+    private final PayOSService payOSService;
+    private final WalletService walletService;
+    private final int batchSize;
+    private final int maxConcurrentCalls;
+    private final long callIntervalNanos;
+    private final Duration callTimeout;
+    private final Duration minAge;
+
+    private volatile ReconciliationStatsDto lastRun;
+
+    public PaymentReconciler(TransactionRepository transactionRepository,
+                             PayOSService payOSService,
+                             WalletService walletService,
+                             @Value("${app.reconciler.batch-size:100}") int batchSize,
+                             @Value("${app.reconciler.max-concurrent-calls:8}") int maxConcurrentCalls,
+                             @Value("${app.reconciler.calls-per-second:20}") double callsPerSecond,
+                             @Value("${app.reconciler.call-timeout:PT10S}") Duration callTimeout,
+                             @Value("${app.reconciler.min-age:PT2M}") Duration minAge) {
+        if (batchSize < 1 || maxConcurrentCalls < 1 || callsPerSecond <= 0) {
+            throw new IllegalArgumentException(
+                    "app.reconciler batch-size, max-concurrent-calls and calls-per-second must be positive");
+        }
+        this.transactionRepository = transactionRepository;
+        this.payOSService = payOSService;
+        this.walletService = walletService;
+        this.batchSize = batchSize;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.callIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / callsPerSecond);
+        this.callTimeout = callTimeout;
+        this.minAge = minAge;
+    }
+
+    /**
+     * Counters of the last completed run, or null before the first one
+     */
+    public ReconciliationStatsDto lastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Reconcile every PENDING PayOS payment older than min-age
+     * Younger ones are left to the webhook, which normally arrives within seconds
+     */
+    public ReconciliationStatsDto reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long begin = System.nanoTime();
+        LocalDateTime before = startedAt.minus(minAge);
+        RunCounters counters = new RunCounters();
+        RatePacer pacer = new RatePacer(callIntervalNanos);
+
+        ExecutorService bulkhead = Executors.newFixedThreadPool(maxConcurrentCalls, new ReconcilerThreads());
+        try {
+            LocalDateTime cursorCreatedAt = BEGINNING;
+            Long cursorId = 0L;
+            List<PendingPaymentDto> page;
+            do {
+                page = transactionRepository.findPaymentsToReconcile(TransactionStatus.PENDING,
+                        cursorCreatedAt, cursorId, before, Limit.of(batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                counters.rowsScanned += page.size();
+                applyPage(checkStatuses(page, bulkhead, pacer, counters), counters);
+
+                PendingPaymentDto last = page.get(page.size() - 1);
+                cursorCreatedAt = last.createdAt();
+                cursorId = last.id();
+            } while (page.size() == batchSize);
+        } finally {
+            bulkhead.shutdownNow();
+        }
+
+        ReconciliationStatsDto stats = counters.toStats(startedAt, System.nanoTime() - begin);
+        lastRun = stats;
+        return stats;
+    }
+
+    /**
+     * Ask PayOS for the status of every payment on the page, at most maxConcurrentCalls at a time
+     * The page has one deadline: long enough to pace every call and give each bulkhead wave call-timeout,
+     * and each wait below only gets what is left of it, so slow calls cannot add up to page size x call-timeout.
+     * Calls still unanswered at the deadline count as errors and are retried next run.
+     */
+    private List<CheckResult> checkStatuses(List<PendingPaymentDto> page, ExecutorService bulkhead,
+                                            RatePacer pacer, RunCounters counters) {
+        long submittedAt = System.nanoTime();
+        long waves = (page.size() + maxConcurrentCalls - 1) / maxConcurrentCalls;
+        long deadline = submittedAt + page.size() * callIntervalNanos + waves * callTimeout.toNanos();
+        List<Future<CheckResult>> calls = new ArrayList<>(page.size());
+        for (PendingPaymentDto payment : page) {
+            calls.add(bulkhead.submit(() -> {
+                pacer.acquire();
+                long start = System.nanoTime();
+                String status = payOSService.checkPaymentStatus(payment.orderCode());
+                return new CheckResult(payment, status, System.nanoTime() - start);
+            }));
+        }
+
+        List<CheckResult> results = new ArrayList<>(page.size());
+        for (int i = 0; i < calls.size(); i++) {
+            try {
+                long remaining = Math.max(deadline - System.nanoTime(), 0L);
+                results.add(calls.get(i).get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                calls.get(i).cancel(true);
+                results.add(new CheckResult(page.get(i), ERROR, System.nanoTime() - submittedAt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Payment reconciliation interrupted", e);
+            } catch (ExecutionException e) {
+                log.warn("PayOS status check failed for orderCode {}", page.get(i).orderCode(), e.getCause());
+                results.add(new CheckResult(page.get(i), ERROR, 0L));
+            }
+        }
+        for (CheckResult result : results) {
+            counters.callsMade++;
+            counters.latenciesNanos.add(result.latencyNanos());
+            if (ERROR.equals(result.status())) {
+                counters.callErrors++;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Apply one page of PayOS statuses: one UPDATE per terminal status, one short transaction per paid top-up
+     */
+    private void applyPage(List<CheckResult> results, RunCounters counters) {
+        List<Long> cancelled = new ArrayList<>();
+        List<Long> expired = new ArrayList<>();
+        for (CheckResult result : results) {
+            PendingPaymentDto payment = result.payment();
+            switch (result.status()) {
+                case CANCELLED -> cancelled.add(payment.id());
+                case EXPIRED -> expired.add(payment.id());
+                case PAID -> {
+                    if (payment.transactionType() != TransactionType.TOP_UP) {
+                        log.info("PayOS reports transaction {} PAID; non-top-ups are left to the admins", payment.id());
+                    } else if (credit(payment)) {
+                        counters.paid++;
+                    }
+                }
+                default -> {
+                    // Still PENDING / PROCESSING at PayOS, or the call failed: try again next run
+                }
+            }
+        }
+        if (!cancelled.isEmpty()) {
+            counters.cancelled += transactionRepository.rejectPending(cancelled, "Thanh toán PayOS đã bị hủy");
+        }
+        if (!expired.isEmpty()) {
+            counters.expired += transactionRepository.rejectPending(expired, "Liên kết thanh toán PayOS đã hết hạn");
+        }
+    }
+
+    /**
+     * @return true only if this call credited the top-up
+     */
+    private boolean credit(PendingPaymentDto payment) {
+        try {
+            return walletService.settlePaidTopUp(payment.orderCode(), payment.amount().longValueExact())
+                    == TopUpSettlement.CREDITED;
+        } catch (Exception e) {
+            log.error("Error settling PAID top-up {}", payment.id(), e);
+            return false;
+        }
+    }
+
+    private record CheckResult(PendingPaymentDto payment, String status, long latencyNanos) {
+    }
+
+    /**
+     * Mutable counters of one run; only touched by the thread running reconcile()
+     */
+    private static final class RunCounters {
+        private int rowsScanned;
+        private int callsMade;
+        private int callErrors;
+        private int paid;
+        private int cancelled;
+        private int expired;
+        private final List<Long> latenciesNanos = new ArrayList<>();
+
+        ReconciliationStatsDto toStats(LocalDateTime startedAt, long durationNanos) {
+            long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return new ReconciliationStatsDto(startedAt, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                    rowsScanned, callsMade, callErrors, paid, cancelled, expired,
+                    percentileMs(sorted, 50), percentileMs(sorted, 95), percentileMs(sorted, 99),
+                    percentileMs(sorted, 100));
+        }
+
+        /**
+         * Nearest-rank percentile of sorted latencies, in milliseconds
+         */
+        private static double percentileMs(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Spaces calls at least interval apart across all threads (no bursts)
+     */
+    static final class RatePacer {
+        private final long intervalNanos;
+        private long nextSlot;
+
+        RatePacer(long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+            this.nextSlot = System.nanoTime();
+        }
+
+        void acquire() {
+            long slot;
+            synchronized (this) {
+                slot = Math.max(nextSlot, System.nanoTime());
+                nextSlot = slot + intervalNanos;
+            }
+            long wait;
+            while ((wait = slot - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class ReconcilerThreads implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "payos-reconciler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
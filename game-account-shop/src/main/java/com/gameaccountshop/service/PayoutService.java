@@ -1,13 +1,13 @@
 package com.gameaccountshop.service;
 
 import com.gameaccountshop.dto.AdminPayoutDto;
+import com.gameaccountshop.dto.BatchJobStatsDto;
 import com.gameaccountshop.dto.SellerPayoutSummaryDto;
+import com.gameaccountshop.dto.UserSummaryDto;
 import com.gameaccountshop.entity.Payout;
 import com.gameaccountshop.entity.User;
-import com.gameaccountshop.enums.ListingStatus;
 import com.gameaccountshop.enums.PayoutStatus;
 import com.gameaccountshop.enums.Role;
-import com.gameaccountshop.repository.GameAccountRepository;
 import com.gameaccountshop.repository.PayoutRepository;
 import com.gameaccountshop.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +15,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,82 +29,96 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PayoutService {
 
+    static final String MONTHLY_PAYOUT_JOB = "monthly-payouts";
+
     private final PayoutRepository payoutRepository;
-    private final GameAccountRepository gameAccountRepository;
+    private final SellerEarningsService sellerEarningsService;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final UserSummaryCache userSummaryCache;
+    private final BatchJobRunner batchJobRunner;
 
     public PayoutService(PayoutRepository payoutRepository,
-                         GameAccountRepository gameAccountRepository,
+                         SellerEarningsService sellerEarningsService,
                          UserRepository userRepository,
-                         EmailService emailService) {
+                         EmailService emailService,
+                         UserSummaryCache userSummaryCache,
+                         BatchJobRunner batchJobRunner) {
         this.payoutRepository = payoutRepository;
-        this.gameAccountRepository = gameAccountRepository;
+        this.sellerEarningsService = sellerEarningsService;
         this.userRepository = userRepository;
         this.emailService = emailService;
+        this.userSummaryCache = userSummaryCache;
+        this.batchJobRunner = batchJobRunner;
     }
 
     /**
      * Scheduled task: Create NEEDS_PAYMENT payouts on 1st of month
      * Runs at midnight on the 1st of each month
+     *
+     * Runs as the month's execution of the monthly-payouts batch job: sellers are split into id ranges
+     * processed in parallel, each committed on its own with its checkpoint. Run again (or resumed) in the
+     * same month, only the ranges not yet committed are processed.
      */
-    @Transactional
     public void createMonthlyPayouts() {
-        LocalDate now = LocalDate.now();
-        log.info("Running monthly payout creation for: {}", now);
-
-        // Get all sellers with sold listings
-        List<Long> sellerIds = gameAccountRepository.findDistinctSellerIdsByStatus(ListingStatus.SOLD);
-
-        int created = 0;
-        for (Long sellerId : sellerIds) {
-            // Check if already has NEEDS_PAYMENT for this month
-            if (payoutRepository.existsBySellerIdAndStatusAndMonth(
-                    sellerId, PayoutStatus.NEEDS_PAYMENT, now.getMonthValue(), now.getYear())) {
-                continue;
-            }
+        YearMonth month = YearMonth.now();
+        log.info("Running monthly payout creation for: {}", month);
+        logResult(batchJobRunner.run(MONTHLY_PAYOUT_JOB, month.toString(), userRepository::findMaxId,
+                (fromId, toId) -> createPayoutsForSellers(month, fromId, toId)));
+    }
 
-            // Calculate unpaid amount (total sold - received)
-            BigDecimal unpaidAmount = calculateUnpaidEarnings(sellerId);
-
-            if (unpaidAmount.compareTo(BigDecimal.ZERO) > 0) {
-                Payout payout = new Payout();
-                payout.setSellerId(sellerId);
-                payout.setAmount(unpaidAmount);
-                payout.setStatus(PayoutStatus.NEEDS_PAYMENT);
-                payoutRepository.save(payout);
-                created++;
-                log.info("Created NEEDS_PAYMENT payout for seller: {}, amount: {}", sellerId, unpaidAmount);
-            }
+    /**
+     * Scheduled task: finish every month's payout creation that stopped halfway (instance crashed, or
+     * ranges failed), oldest month first; a run that failed at the end of a month is still finished after
+     * the next one has started. Does nothing once every month is completed.
+     */
+    public void resumeMonthlyPayouts() {
+        for (String jobKey : batchJobRunner.unfinishedJobKeys(MONTHLY_PAYOUT_JOB)) {
+            YearMonth month = YearMonth.parse(jobKey);
+            logResult(batchJobRunner.resume(MONTHLY_PAYOUT_JOB, jobKey,
+                    (fromId, toId) -> createPayoutsForSellers(month, fromId, toId)));
         }
-
-        log.info("Monthly payout creation completed. Created {} payouts.", created);
     }
 
     /**
-     * Calculate unpaid earnings
-     * = Total sold (90%) - RECEIVED payouts
-     * NOTE: PAID payouts do NOT reduce unpaid earnings
+     * One chunk of the monthly payout job, in the chunk's transaction
+     * Unpaid earnings of the sellers in [fromId, toId) come from one grouped query (sellers that already have
+     * a payout this month are left out there) and the payouts are written as one JDBC batch.
+     * A month resumed after it ended also leaves out sellers paid out since then (by a later month's run),
+     * since every payout covers all unpaid earnings so far.
      */
-    public BigDecimal calculateUnpaidEarnings(Long sellerId) {
-        Long totalSold = gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD);
-
-        if (totalSold == null || totalSold == 0) {
-            return BigDecimal.ZERO;
+    private int createPayoutsForSellers(YearMonth month, long fromId, long toId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+        LocalDateTime monthEnd = monthStart.plusMonths(1);
+        List<PayoutRepository.SellerAmount> unpaid = payoutRepository.findUnpaidEarningsWithoutPayoutBetween(
+                monthStart, now.isAfter(monthEnd) ? now : monthEnd, fromId, toId);
+        if (!unpaid.isEmpty()) {
+            payoutRepository.insertNeedsPayment(unpaid, now);
         }
+        return unpaid.size();
+    }
 
-        // Convert Long to BigDecimal and apply 90% commission
-        BigDecimal totalSoldDecimal = BigDecimal.valueOf(totalSold);
-        BigDecimal netEarnings = totalSoldDecimal.multiply(new BigDecimal("0.90"));
-
-        // Only subtract RECEIVED payouts, NOT PAID payouts
-        BigDecimal receivedAmount = payoutRepository.sumAmountBySellerIdAndStatus(sellerId, PayoutStatus.RECEIVED);
-
-        if (receivedAmount == null) {
-            receivedAmount = BigDecimal.ZERO;
+    private static void logResult(BatchJobStatsDto stats) {
+        if (stats == null) {
+            return;
         }
+        if (stats.chunksFailed() > 0) {
+            log.warn("Monthly payout creation for {} incomplete: {} of {} seller ranges failed and will be retried",
+                    stats.jobKey(), stats.chunksFailed(), stats.chunks());
+        } else {
+            log.info("Monthly payout creation for {} completed. Created {} payouts in {} ms",
+                    stats.jobKey(), stats.itemsWritten(), stats.durationMs());
+        }
+    }
 
-        return netEarnings.subtract(receivedAmount);
+    /**
+     * Calculate unpaid earnings
+     * = Total sold (90%) - RECEIVED payouts, read from the seller_earnings aggregate
+     * NOTE: PAID payouts do NOT reduce unpaid earnings
+     */
+    public BigDecimal calculateUnpaidEarnings(Long sellerId) {
+        return sellerEarningsService.getEarnings(sellerId).getUnpaidAmount();
     }
 
     /**
@@ -122,14 +137,13 @@ public class PayoutService {
                 .distinct()
                 .toList();
 
-        Map<Long, User> sellerMap = userRepository.findAllById(sellerIds).stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
+        Map<Long, UserSummaryDto> sellerMap = userSummaryCache.getAll(sellerIds);
 
         return payouts.stream()
                 .map(p -> {
-                    User seller = sellerMap.get(p.getSellerId());
-                    String username = (seller != null) ? seller.getUsername() : "Unknown Seller";
-                    String email = (seller != null) ? seller.getEmail() : "N/A";
+                    UserSummaryDto seller = sellerMap.get(p.getSellerId());
+                    String username = (seller != null) ? seller.username() : "Unknown Seller";
+                    String email = (seller != null) ? seller.email() : "N/A";
                     return AdminPayoutDto.fromEntity(p, username, email);
                 })
                 .toList();
@@ -155,10 +169,12 @@ public class PayoutService {
             throw new IllegalStateException("Payout is not in NEEDS_PAYMENT status");
         }
 
-        payout.setStatus(PayoutStatus.PAID);
-        payout.setPaidAt(java.time.LocalDateTime.now());
-        payout.setAdminId(adminId);
-        payoutRepository.save(payout);
+        // The status check above only picks the error message; the guarded UPDATE decides, so a double
+        // submit applies the earnings delta once
+        if (payoutRepository.markPaidIfNeedsPayment(payoutId, adminId, java.time.LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Payout is not in NEEDS_PAYMENT status");
+        }
+        sellerEarningsService.recordPayoutPaid(payout.getSellerId(), payout.getAmount());
 
         // Send email to seller
         try {
@@ -196,9 +212,10 @@ public class PayoutService {
             throw new IllegalStateException("This payout does not belong to you");
         }
 
-        payout.setStatus(PayoutStatus.RECEIVED);
-        payout.setReceivedAt(java.time.LocalDateTime.now());
-        payoutRepository.save(payout);
+        if (payoutRepository.markReceivedIfPaid(payoutId, sellerId, java.time.LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Payout is not in PAID status");
+        }
+        sellerEarningsService.recordPayoutReceived(sellerId, payout.getAmount());
 
         // Send email to admin
         try {
@@ -0,0 +1,82 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.PlatformRevenueDto;
+import com.gameaccountshop.entity.PlatformRevenueStripe;
+import com.gameaccountshop.repository.PlatformRevenueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Platform revenue account
+ * Commission of every sale accrues here, spread over K stripe rows so concurrent sales
+ * do not all serialize on one row lock; reads sum the stripes.
+ */
+@Service
+@Slf4j
+public class PlatformRevenueService {
+
+    /**
+     * Platform commission: 10% of the listing price, taken from the seller's earnings
+     */
+    public static final BigDecimal COMMISSION_RATE = new BigDecimal("0.10");
+
+    private final PlatformRevenueRepository platformRevenueRepository;
+    private final int stripes;
+
+    public PlatformRevenueService(PlatformRevenueRepository platformRevenueRepository,
+                                  @Value("${app.revenue.stripes:16}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("app.revenue.stripes must be at least 1");
+        }
+        this.platformRevenueRepository = platformRevenueRepository;
+        this.stripes = stripes;
+    }
+
+    /**
+     * Commission for a sale at the given price
+     */
+    public static BigDecimal commissionOf(BigDecimal price) {
+        return price.multiply(COMMISSION_RATE);
+    }
+
+    /**
+     * Accrue one sale's commission
+     * Joins the caller's transaction, so the accrual commits or rolls back with the sale
+     * @param transactionId Sale transaction; consecutive IDs (concurrent sales) land on different stripes
+     * @param commission Commission to add
+     */
+    @Transactional
+    public void accrueCommission(Long transactionId, BigDecimal commission) {
+        int stripe = stripeFor(transactionId);
+        platformRevenueRepository.accrue(stripe, commission);
+        log.debug("Accrued commission {} for transaction {} to revenue stripe {}", commission, transactionId, stripe);
+    }
+
+    int stripeFor(Long transactionId) {
+        return (int) Math.floorMod(transactionId, (long) stripes);
+    }
+
+    /**
+     * Platform revenue summed over all stripes
+     */
+    @Transactional(readOnly = true)
+    public PlatformRevenueDto getRevenue() {
+        List<PlatformRevenueStripe> rows = platformRevenueRepository.findAllByOrderByStripeIdAsc();
+
+        BigDecimal total = BigDecimal.ZERO;
+        long sales = 0;
+        List<PlatformRevenueDto.StripeItem> items = new ArrayList<>(rows.size());
+        for (PlatformRevenueStripe row : rows) {
+            total = total.add(row.getCommissionTotal());
+            sales += row.getSaleCount();
+            items.add(new PlatformRevenueDto.StripeItem(row.getStripeId(), row.getCommissionTotal(), row.getSaleCount()));
+        }
+        return new PlatformRevenueDto(total, sales, items);
+    }
+}
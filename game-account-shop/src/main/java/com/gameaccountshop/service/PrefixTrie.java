@@ -0,0 +1,137 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.SuggestionDto;
+import com.gameaccountshop.enums.SuggestionType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Weighted prefix trie for top-N completion
+ * Keys are folded (see {@link SearchTextNormalizer#fold}); each node caches the best weight in its
+ * subtree so a lookup walks the prefix and then expands best-first, touching only about N paths.
+ * Not thread-safe: the owner guards reads and writes.
+ */
+final class PrefixTrie {
+
+    private final Node root = new Node();
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        // One entry per suggestion type ending here, e.g. a rank and a username spelled alike
+        private Map<SuggestionType, Entry> entries;
+        private long maxWeight;
+    }
+
+    private record Entry(String text, SuggestionType type, long weight) {
+    }
+
+    // Either a subtree (node != null) or a finished entry, ordered by weight then text
+    private record Candidate(long weight, Node node, Entry entry) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingLong(Candidate::weight).reversed()
+            .thenComparing(c -> c.entry() == null ? 1 : 0)
+            .thenComparing(c -> c.entry() == null ? "" : c.entry().text());
+
+    /**
+     * Add delta to the weight of a suggestion (creating it if needed); weight <= 0 hides it
+     */
+    void adjust(String text, SuggestionType type, long delta) {
+        String key = key(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.add(node);
+        }
+        if (node.entries == null) {
+            node.entries = new EnumMap<>(SuggestionType.class);
+        }
+        Entry current = node.entries.get(type);
+        long weight = (current == null ? 0 : current.weight()) + delta;
+        if (weight > 0) {
+            node.entries.put(type, new Entry(current == null ? text : current.text(), type, weight));
+        } else {
+            node.entries.remove(type);
+        }
+
+        // Recompute cached subtree maxima bottom-up; prune nodes that no longer lead anywhere
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node n = path.get(i);
+            long max = 0;
+            if (n.entries != null) {
+                for (Entry entry : n.entries.values()) {
+                    max = Math.max(max, entry.weight());
+                }
+            }
+            for (Node child : n.children.values()) {
+                max = Math.max(max, child.maxWeight);
+            }
+            n.maxWeight = max;
+            if (i > 0 && max == 0 && n.children.isEmpty()) {
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+            }
+        }
+    }
+
+    /**
+     * Highest-weighted suggestions whose folded text starts with the folded prefix
+     */
+    List<SuggestionDto> complete(String prefix, int limit) {
+        String key = key(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null || node.maxWeight == 0) {
+            return List.of();
+        }
+
+        List<SuggestionDto> results = new ArrayList<>(limit);
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        queue.add(new Candidate(node.maxWeight, node, null));
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate best = queue.poll();
+            if (best.entry() != null) {
+                results.add(new SuggestionDto(best.entry().text(), best.entry().type()));
+                continue;
+            }
+            if (best.node().entries != null) {
+                for (Entry entry : best.node().entries.values()) {
+                    queue.add(new Candidate(entry.weight(), null, entry));
+                }
+            }
+            for (Node child : best.node().children.values()) {
+                if (child.maxWeight > 0) {
+                    queue.add(new Candidate(child.maxWeight, child, null));
+                }
+            }
+        }
+        return results;
+    }
+
+    boolean isEmpty() {
+        return root.maxWeight == 0;
+    }
+
+    /**
+     * Folded, whitespace-collapsed key so "Kim  Cương" and "kim cuong" share a path
+     */
+    static String key(String text) {
+        return SearchTextNormalizer.fold(text).trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,110 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.PurchaseReceipt;
+import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.entity.Transaction;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.enums.TransactionStatus;
+import com.gameaccountshop.enums.TransactionType;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.exception.InsufficientBalanceException;
+import com.gameaccountshop.repository.GameAccountRepository;
+import com.gameaccountshop.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Purchase with wallet balance
+ * Story 3.1: Buy with wallet balance
+ *
+ * Claim, PURCHASE insert, wallet debit, commission and seller earnings commit or roll back together
+ * in one short transaction.
+ * Both the claim and the debit are conditional UPDATEs, so racing buyers never hold a
+ * SELECT ... FOR UPDATE lock; a loser just sees 0 affected rows.
+ */
+@Service
+@Slf4j
+public class PurchaseService {
+
+    private final GameAccountRepository gameAccountRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletService walletService;
+    private final PlatformRevenueService platformRevenueService;
+    private final SellerEarningsService sellerEarningsService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PurchaseService(GameAccountRepository gameAccountRepository,
+                           TransactionRepository transactionRepository,
+                           WalletService walletService,
+                           PlatformRevenueService platformRevenueService,
+                           SellerEarningsService sellerEarningsService,
+                           ApplicationEventPublisher eventPublisher) {
+        this.gameAccountRepository = gameAccountRepository;
+        this.transactionRepository = transactionRepository;
+        this.walletService = walletService;
+        this.platformRevenueService = platformRevenueService;
+        this.sellerEarningsService = sellerEarningsService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Buy a listing with the buyer's wallet balance
+     * Buyer pays the listing price; the 10% commission is taken from the seller's earnings
+     * @param listingId Listing to buy
+     * @param buyerId Buyer user ID
+     * @return Receipt for the committed purchase
+     * @throws IllegalStateException if the listing does not exist, is not for sale, or belongs to the buyer
+     * @throws InsufficientBalanceException if the wallet cannot cover the price (nothing is changed)
+     */
+    @Transactional
+    public PurchaseReceipt purchase(Long listingId, Long buyerId) {
+        GameAccount listing = gameAccountRepository.findById(listingId)
+                .orElseThrow(() -> new IllegalStateException("Không tìm thấy tài khoản này"));
+
+        // Cheap early exits; the claim below is what actually decides
+        if (listing.getStatus() != ListingStatus.APPROVED) {
+            throw new IllegalStateException("Tài khoản này hiện không có sẵn để mua");
+        }
+        if (listing.getSellerId().equals(buyerId)) {
+            throw new IllegalStateException("Bạn không thể mua tài khoản của chính mình");
+        }
+
+        // 1. Claim the listing: only one concurrent buyer can flip it from APPROVED
+        LocalDateTime soldAt = LocalDateTime.now();
+        if (gameAccountRepository.markSoldIfApproved(listingId, soldAt) == 0) {
+            log.info("Listing {} was claimed by another buyer before user {}", listingId, buyerId);
+            throw new IllegalStateException("Tài khoản này hiện không có sẵn để mua");
+        }
+
+        // 2. Record the purchase
+        BigDecimal price = BigDecimal.valueOf(listing.getPrice());
+        Transaction transaction = new Transaction();
+        transaction.setListingId(listingId);
+        transaction.setBuyerId(buyerId);
+        transaction.setSellerId(listing.getSellerId());
+        transaction.setAmount(price);
+        transaction.setCommission(PlatformRevenueService.commissionOf(price));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTransactionType(TransactionType.PURCHASE);
+        transaction = transactionRepository.save(transaction);
+
+        // 3. Debit the wallet against it; an InsufficientBalanceException rolls back the claim and the row
+        walletService.deductBalance(buyerId, price, transaction.getId());
+
+        // 4. Accrue the commission to one platform revenue stripe
+        platformRevenueService.accrueCommission(transaction.getId(), transaction.getCommission());
+
+        // 5. Add the sale to the seller's earnings
+        sellerEarningsService.recordSale(listing.getSellerId(), listing.getPrice());
+
+        eventPublisher.publishEvent(new ListingStatusChangedEvent(listingId, ListingStatus.APPROVED, ListingStatus.SOLD));
+
+        log.info("User {} bought listing {} for {} (transaction {})", buyerId, listingId, price, transaction.getId());
+        return new PurchaseReceipt(transaction.getId(), listing, price);
+    }
+}
@@ -0,0 +1,72 @@
+package com.gameaccountshop.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text folding for listing search
+ * Lowercases and strips Vietnamese diacritics so "lien minh" matches "Liên Minh"
+ */
+final class SearchTextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Matches ngram_token_size: shorter terms are never indexed by the ngram parser
+    private static final int MIN_FULLTEXT_TERM_LENGTH = 2;
+
+    private SearchTextNormalizer() {
+    }
+
+    /**
+     * Lowercase and remove diacritics (đ/Đ are separate letters, not combining marks, so map them explicitly)
+     */
+    static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fold and split into word tokens (letters and digits only)
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Build a MATCH ... AGAINST boolean mode query requiring every word of the keyword
+     * Words keep their diacritics (the column collation is accent-insensitive); boolean operators are stripped
+     *
+     * @return e.g. "+lien +minh", or null if no word is long enough to be indexed
+     */
+    static String toBooleanModeQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        String composed = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        for (String word : NON_WORD.split(composed)) {
+            if (word.length() >= MIN_FULLTEXT_TERM_LENGTH) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append('+').append(word);
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+}
@@ -0,0 +1,181 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.SellerEarnings;
+import com.gameaccountshop.repository.SellerEarningsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Seller earnings aggregate (seller_earnings)
+ * Story 3.3 / 3.4: profit and unpaid earnings on "My Listings" are one primary-key read
+ *
+ * Each sale and payout transition adds its delta to the seller's row in the caller's transaction,
+ * so the aggregate commits or rolls back with the change it reflects:
+ * - sale: gross += price, net += price * 0.90
+ * - payout NEEDS_PAYMENT -> PAID: paid pending += amount
+ * - payout PAID -> RECEIVED: paid pending -= amount, received += amount
+ * SellerEarningsVerifier compares the rows with the source tables and repairs drift.
+ */
+@Service
+@Slf4j
+public class SellerEarningsService {
+
+    /**
+     * Seller's share of a sale once the platform commission is taken
+     */
+    static final BigDecimal NET_SHARE = BigDecimal.ONE.subtract(PlatformRevenueService.COMMISSION_RATE);
+
+    private static final String SOLD = "SOLD";
+    private static final String PAID = "PAID";
+    private static final String RECEIVED = "RECEIVED";
+
+    private final SellerEarningsRepository sellerEarningsRepository;
+
+    public SellerEarningsService(SellerEarningsRepository sellerEarningsRepository) {
+        this.sellerEarningsRepository = sellerEarningsRepository;
+    }
+
+    /**
+     * Net earnings of a sale at the given price
+     */
+    public static BigDecimal netOf(long price) {
+        return BigDecimal.valueOf(price).multiply(NET_SHARE);
+    }
+
+    /**
+     * Earnings of a seller; all zero if the seller has not sold anything yet
+     */
+    @Transactional(readOnly = true)
+    public SellerEarnings getEarnings(Long sellerId) {
+        return sellerEarningsRepository.findById(sellerId).orElseGet(() -> new SellerEarnings(sellerId));
+    }
+
+    /**
+     * A listing of the seller was sold (purchase or admin mark-as-sold)
+     * Joins the caller's transaction
+     */
+    @Transactional
+    public void recordSale(Long sellerId, Long price) {
+        sellerEarningsRepository.accrue(sellerId, price, netOf(price), BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /**
+     * A payout of the seller moved NEEDS_PAYMENT -> PAID
+     * Joins the caller's transaction
+     */
+    @Transactional
+    public void recordPayoutPaid(Long sellerId, BigDecimal amount) {
+        sellerEarningsRepository.accrue(sellerId, 0L, BigDecimal.ZERO, BigDecimal.ZERO, amount);
+    }
+
+    /**
+     * A payout of the seller moved PAID -> RECEIVED
+     * Joins the caller's transaction
+     */
+    @Transactional
+    public void recordPayoutReceived(Long sellerId, BigDecimal amount) {
+        sellerEarningsRepository.accrue(sellerId, 0L, BigDecimal.ZERO, amount, amount.negate());
+    }
+
+    /**
+     * Compare the aggregate rows of the sellers in [fromId, toId) with totals recomputed from
+     * game_accounts and payouts
+     * Runs in one read-only transaction, so both sides come from the same snapshot and changes
+     * committing meanwhile cannot show up as drift.
+     */
+    @Transactional(readOnly = true)
+    public RangeCheck checkRange(Long fromId, Long toId) {
+        Map<Long, SellerEarnings> expected = recompute(fromId, toId);
+        Map<Long, SellerEarnings> stored = new HashMap<>();
+        for (SellerEarnings row : sellerEarningsRepository.findBySellerIdRange(fromId, toId)) {
+            stored.put(row.getSellerId(), row);
+        }
+
+        TreeSet<Long> sellerIds = new TreeSet<>(expected.keySet());
+        sellerIds.addAll(stored.keySet());
+        List<Drift> drifted = new ArrayList<>();
+        for (Long sellerId : sellerIds) {
+            SellerEarnings storedRow = stored.getOrDefault(sellerId, new SellerEarnings(sellerId));
+            SellerEarnings expectedRow = expected.getOrDefault(sellerId, new SellerEarnings(sellerId));
+            if (!sameTotals(storedRow, expectedRow)) {
+                drifted.add(new Drift(sellerId, storedRow, expectedRow));
+            }
+        }
+        return new RangeCheck(sellerIds.size(), drifted);
+    }
+
+    /**
+     * Recompute one seller's row from the source tables and overwrite it
+     * The row is locked first (zero-delta accrue), which waits out any sale or payout transition of the
+     * seller in flight; the source totals read afterwards then include every committed change, and
+     * changes not yet committed add their delta on top of the repaired row.
+     * @return The repaired totals
+     */
+    @Transactional
+    public SellerEarnings repair(Long sellerId) {
+        sellerEarningsRepository.accrue(sellerId, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        SellerEarnings expected = recompute(sellerId, sellerId + 1).getOrDefault(sellerId, new SellerEarnings(sellerId));
+        sellerEarningsRepository.overwrite(sellerId, expected.getGrossSold(), expected.getNetEarnings(),
+                expected.getReceivedAmount(), expected.getPaidPendingAmount());
+        log.info("Repaired seller earnings for seller {}: {}", sellerId, describe(expected));
+        return expected;
+    }
+
+    /**
+     * Source-table totals of the sellers in [fromId, toId) that have any
+     */
+    private Map<Long, SellerEarnings> recompute(Long fromId, Long toId) {
+        Map<Long, SellerEarnings> totals = new HashMap<>();
+        for (SellerEarningsRepository.SourceTotal total : sellerEarningsRepository.sumSoldPricesBySellerRange(fromId, toId)) {
+            SellerEarnings row = totals.computeIfAbsent(total.getSellerId(), SellerEarnings::new);
+            long gross = total.getTotal().longValueExact();
+            row.setGrossSold(gross);
+            row.setNetEarnings(netOf(gross));
+        }
+        for (SellerEarningsRepository.SourceTotal total : sellerEarningsRepository.sumPayoutAmountsBySellerRange(fromId, toId)) {
+            SellerEarnings row = totals.computeIfAbsent(total.getSellerId(), SellerEarnings::new);
+            switch (total.getStatus()) {
+                case RECEIVED -> row.setReceivedAmount(total.getTotal());
+                case PAID -> row.setPaidPendingAmount(total.getTotal());
+                default -> throw new IllegalStateException("Unexpected payout status " + total.getStatus());
+            }
+        }
+        return totals;
+    }
+
+    private static boolean sameTotals(SellerEarnings a, SellerEarnings b) {
+        return a.getGrossSold().equals(b.getGrossSold())
+                && a.getNetEarnings().compareTo(b.getNetEarnings()) == 0
+                && a.getReceivedAmount().compareTo(b.getReceivedAmount()) == 0
+                && a.getPaidPendingAmount().compareTo(b.getPaidPendingAmount()) == 0;
+    }
+
+    static String describe(SellerEarnings row) {
+        return "gross=" + row.getGrossSold() + ", net=" + row.getNetEarnings()
+                + ", received=" + row.getReceivedAmount() + ", paidPending=" + row.getPaidPendingAmount();
+    }
+
+    /**
+     * A seller whose aggregate row does not match the source tables
+     * @param stored Row as stored (all zero if missing)
+     * @param expected Totals recomputed from the source tables
+     */
+    public record Drift(Long sellerId, SellerEarnings stored, SellerEarnings expected) {
+    }
+
+    /**
+     * Outcome of checkRange
+     * @param sellersChecked Sellers with a row or source totals in the range
+     * @param drifted Sellers whose row does not match
+     */
+    public record RangeCheck(int sellersChecked, List<Drift> drifted) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.EarningsVerificationStatsDto;
+import com.gameaccountshop.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies the seller_earnings aggregate against game_accounts and payouts, and repairs drift
+ *
+ * Splits the seller IDs into ranges of chunk-size and checks up to parallelism ranges at a time,
+ * each in its own read-only snapshot (SellerEarningsService#checkRange). Every drifted seller is
+ * logged with both sides; with repair on, its row is then recomputed under the row lock.
+ */
+@Service
+@Slf4j
+public class SellerEarningsVerifier {
+
+    private final SellerEarningsService sellerEarningsService;
+    private final UserRepository userRepository;
+    private final int chunkSize;
+    private final int parallelism;
+    private final boolean repair;
+
+    private volatile EarningsVerificationStatsDto lastRun;
+
+    public SellerEarningsVerifier(SellerEarningsService sellerEarningsService,
+                                  UserRepository userRepository,
+                                  @Value("${app.earnings.verify.chunk-size:1000}") int chunkSize,
+                                  @Value("${app.earnings.verify.parallelism:4}") int parallelism,
+                                  @Value("${app.earnings.verify.repair:true}") boolean repair) {
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("app.earnings.verify chunk-size and parallelism must be positive");
+        }
+        this.sellerEarningsService = sellerEarningsService;
+        this.userRepository = userRepository;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.repair = repair;
+    }
+
+    /**
+     * Counters of the last completed run, or null before the first one
+     */
+    public EarningsVerificationStatsDto lastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Check every seller's aggregate row, repairing drifted rows if app.earnings.verify.repair is on
+     */
+    public EarningsVerificationStatsDto verify() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long begin = System.nanoTime();
+        long maxId = userRepository.findMaxId();
+
+        int chunks = 0;
+        int failedChunks = 0;
+        int sellersChecked = 0;
+        int drifted = 0;
+        int repaired = 0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, new VerifierThreads());
+        try {
+            List<Future<ChunkResult>> results = new ArrayList<>();
+            for (long fromId = 1; fromId <= maxId; fromId += chunkSize) {
+                long from = fromId;
+                long to = Math.min(fromId + chunkSize, maxId + 1);
+                results.add(workers.submit(() -> verifyChunk(from, to)));
+            }
+            for (Future<ChunkResult> result : results) {
+                chunks++;
+                try {
+                    ChunkResult chunk = result.get();
+                    sellersChecked += chunk.sellersChecked();
+                    drifted += chunk.drifted();
+                    repaired += chunk.repaired();
+                } catch (ExecutionException e) {
+                    failedChunks++;
+                    log.error("Seller earnings check failed for one seller range", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seller earnings verification interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        EarningsVerificationStatsDto stats = new EarningsVerificationStatsDto(startedAt,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin),
+                chunks, failedChunks, sellersChecked, drifted, repaired);
+        lastRun = stats;
+        return stats;
+    }
+
+    private ChunkResult verifyChunk(long fromId, long toId) {
+        SellerEarningsService.RangeCheck check = sellerEarningsService.checkRange(fromId, toId);
+        int repaired = 0;
+        for (SellerEarningsService.Drift drift : check.drifted()) {
+            log.warn("Seller earnings drift for seller {}: stored [{}], source [{}]", drift.sellerId(),
+                    SellerEarningsService.describe(drift.stored()), SellerEarningsService.describe(drift.expected()));
+            if (!repair) {
+                continue;
+            }
+            try {
+                sellerEarningsService.repair(drift.sellerId());
+                repaired++;
+            } catch (Exception e) {
+                log.error("Error repairing seller earnings for seller {}", drift.sellerId(), e);
+            }
+        }
+        return new ChunkResult(check.sellersChecked(), check.drifted().size(), repaired);
+    }
+
+    private record ChunkResult(int sellersChecked, int drifted, int repaired) {
+    }
+
+    private static final class VerifierThreads implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "earnings-verifier-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
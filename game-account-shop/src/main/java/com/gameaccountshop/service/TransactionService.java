@@ -9,7 +9,6 @@ import com.gameaccountshop.repository.GameAccountRepository;
 import com.gameaccountshop.repository.TransactionRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -25,13 +24,16 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final GameAccountRepository gameAccountRepository;
     private final PayOSService payOSService;
+    private final PaymentOutboxService paymentOutboxService;
 
     public TransactionService(TransactionRepository transactionRepository,
                               GameAccountRepository gameAccountRepository,
-                              PayOSService payOSService) {
+                              PayOSService payOSService,
+                              PaymentOutboxService paymentOutboxService) {
         this.transactionRepository = transactionRepository;
         this.gameAccountRepository = gameAccountRepository;
         this.payOSService = payOSService;
+        this.paymentOutboxService = paymentOutboxService;
     }
 
     /**
@@ -44,13 +46,13 @@ public class TransactionService {
 
     /**
      * Create a new transaction for buying a listing
+     * Not transactional: the PayOS call runs between two short transactions (PaymentOutboxService)
      * @param listingId ID of the listing being purchased
      * @param buyerId ID of the buyer
      * @return Created transaction
      * @throws ResourceNotFoundException if listing not found
      * @throws IllegalStateException if listing is not available for purchase
      */
-    @Transactional
     public Transaction createTransaction(Long listingId, Long buyerId) {
         log.info("Creating transaction for listing: {} by buyer: {}", listingId, buyerId);
 
@@ -77,7 +79,7 @@ public class TransactionService {
         BigDecimal listingPrice = new BigDecimal(listing.getPrice());
 
         // Calculate commission (10%)
-        BigDecimal commission = listingPrice.multiply(new BigDecimal("0.10"));
+        BigDecimal commission = PlatformRevenueService.commissionOf(listingPrice);
 
         // Create transaction
         Transaction transaction = new Transaction();
@@ -88,24 +90,18 @@ public class TransactionService {
         transaction.setCommission(commission);
         transaction.setStatus(TransactionStatus.PENDING);
 
-        // Save transaction first to get the transaction ID
-        Transaction saved = transactionRepository.save(transaction);
+        // Commit the transaction with its order code and outbox row before calling PayOS
+        Transaction saved = paymentOutboxService.enqueue(transaction);
         log.info("Transaction created with ID: {}", saved.getId());
 
         // Create PayOS payment and store payment link ID, QR code, and checkout URL
         // Description must be <= 25 characters and ASCII-only for PayOS
-        String description = "DH" + saved.getId();
-        var payOSData = payOSService.createPayment(
-            saved.getTotalAmount(),
-            "TXN" + saved.getId(),
-            description
-        );
-
-        // Update transaction with PayOS data
-        saved.setPaymentLinkId(payOSData.getPaymentLinkId());
-        saved.setQrCode(payOSData.getQrCode());
-        saved.setCheckoutUrl(payOSData.getCheckoutUrl());
-        saved = transactionRepository.save(saved);
+        saved = paymentOutboxService.dispatch(saved, pending -> payOSService.createPayment(
+            pending.getTotalAmount(),
+            pending.getOrderCode(),
+            "TXN" + pending.getId(),
+            "DH" + pending.getId()
+        ));
 
         log.info("PayOS payment created for transaction: {}", saved.getId());
 
@@ -126,6 +122,34 @@ public class TransactionService {
             });
     }
 
+    /**
+     * Find the transaction a PayOS payment belongs to
+     * @param orderCode Order code sent to PayOS when the payment link was created
+     * @return Transaction
+     * @throws ResourceNotFoundException if no transaction has that order code
+     */
+    public Transaction getTransactionByOrderCode(Long orderCode) {
+        return transactionRepository.findByOrderCode(orderCode)
+            .orElseThrow(() -> {
+                log.warn("Transaction not found for orderCode: {}", orderCode);
+                return new ResourceNotFoundException("Không tìm thấy giao dịch này");
+            });
+    }
+
+    /**
+     * Ask PayOS for the payment status of a transaction, by its stored order code
+     * @param transactionId Transaction ID
+     * @return PayOS status (PENDING, PAID, CANCELLED, EXPIRED), or "ERROR" if PayOS could not be reached
+     * @throws IllegalStateException if the transaction has no PayOS payment
+     */
+    public String getPaymentStatus(Long transactionId) {
+        Transaction transaction = getTransaction(transactionId);
+        if (transaction.getOrderCode() == null) {
+            throw new IllegalStateException("Giao dịch này không có thanh toán PayOS");
+        }
+        return payOSService.checkPaymentStatus(transaction.getOrderCode());
+    }
+
     /**
      * Get all pending transactions
      * @return List of pending transactions ordered by creation date (newest first)
@@ -0,0 +1,122 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.CacheStatsDto;
+import com.gameaccountshop.dto.UserSummaryDto;
+import com.gameaccountshop.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of user id -> (username, email)
+ * Seller names are shown on every listing and payout page but almost never change,
+ * so bulk lookups only query the ids that are not cached yet.
+ * Evicted when a user is updated or deleted (UserCacheEvictionListener, SessionRevocationFilter).
+ */
+@Slf4j
+@Component
+public class UserSummaryCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+
+    // Access-ordered LinkedHashMap = LRU; guarded by "this"
+    private final LinkedHashMap<Long, UserSummaryDto> entries;
+
+    // Bumped on every eviction; a load that raced with one is returned but not stored
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public UserSummaryCache(UserRepository userRepository,
+                            @Value("${app.cache.user-summary.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserSummaryDto> eldest) {
+                if (size() > UserSummaryCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Look up many users at once, loading only the ids missing from the cache in one query
+     *
+     * @param ids User ids (duplicates and nulls are ignored)
+     * @return Map of id to summary; ids with no user are absent
+     */
+    public Map<Long, UserSummaryDto> getAll(Collection<Long> ids) {
+        Map<Long, UserSummaryDto> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long loadedAt;
+        synchronized (this) {
+            for (Long id : ids) {
+                if (id == null || result.containsKey(id) || missing.contains(id)) {
+                    continue;
+                }
+                UserSummaryDto cached = entries.get(id);
+                if (cached != null) {
+                    result.put(id, cached);
+                    hits++;
+                } else {
+                    missing.add(id);
+                    misses++;
+                }
+            }
+            loadedAt = generation;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        List<UserSummaryDto> loaded = userRepository.findAllById(missing).stream()
+                .map(UserSummaryDto::fromEntity)
+                .toList();
+        synchronized (this) {
+            boolean fresh = generation == loadedAt;
+            for (UserSummaryDto user : loaded) {
+                result.put(user.id(), user);
+                if (fresh) {
+                    entries.put(user.id(), user);
+                }
+            }
+        }
+        log.debug("User summary cache: {} cached, {} loaded", result.size() - loaded.size(), loaded.size());
+        return result;
+    }
+
+    public synchronized void evict(Long userId) {
+        generation++;
+        if (entries.remove(userId) != null) {
+            evictions++;
+        }
+    }
+
+    /**
+     * Evict by username, for callers that only know the authenticated principal
+     */
+    public synchronized void evictByUsername(String username) {
+        generation++;
+        int before = entries.size();
+        entries.values().removeIf(user -> user.username().equals(username));
+        evictions += before - entries.size();
+    }
+
+    public synchronized CacheStatsDto stats() {
+        return new CacheStatsDto(hits, misses, evictions, entries.size());
+    }
+}
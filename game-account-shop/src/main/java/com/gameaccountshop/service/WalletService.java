@@ -1,43 +1,65 @@
 package com.gameaccountshop.service;
 
+import com.gameaccountshop.dto.WalletCursor;
+import com.gameaccountshop.dto.WalletHistoryPageDto;
+import com.gameaccountshop.dto.WalletTransactionDto;
 import com.gameaccountshop.entity.Transaction;
 import com.gameaccountshop.entity.User;
 import com.gameaccountshop.entity.Wallet;
+import com.gameaccountshop.entity.WalletLedgerEntry;
 import com.gameaccountshop.enums.TransactionStatus;
 import com.gameaccountshop.enums.TransactionType;
 import com.gameaccountshop.exception.InsufficientBalanceException;
 import com.gameaccountshop.exception.ResourceNotFoundException;
 import com.gameaccountshop.repository.TransactionRepository;
 import com.gameaccountshop.repository.UserRepository;
+import com.gameaccountshop.repository.WalletLedgerRepository;
+import com.gameaccountshop.repository.WalletLedgerRepository.LedgerTail;
 import com.gameaccountshop.repository.WalletRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Wallet service
  * Story 3.1: Wallet System - Manage user wallet balance
  * Story 3.2: Top-up Approval Email Notifications - Email notifications for top-up approval/rejection
+ *
+ * Every balance change is a guarded UPDATE of wallets.balance plus a wallet_ledger entry in the same
+ * transaction; the ledger is the audit trail, checked against the balance by foldLedger
  */
 @Service
 @Slf4j
 public class WalletService {
 
+    static final int HISTORY_PAGE_SIZE = 20;
+    public static final int HISTORY_COUNT_CAP = 1000;
+
     private final WalletRepository walletRepository;
+    private final WalletLedgerRepository walletLedgerRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;  // Story 3.2
     private final EmailService emailService;      // Story 3.2
+    private final PaymentOutboxService paymentOutboxService;
 
     public WalletService(WalletRepository walletRepository,
+                          WalletLedgerRepository walletLedgerRepository,
                           TransactionRepository transactionRepository,
                           UserRepository userRepository,      // Story 3.2
-                          EmailService emailService) {       // Story 3.2
+                          EmailService emailService,         // Story 3.2
+                          PaymentOutboxService paymentOutboxService) {
         this.walletRepository = walletRepository;
+        this.walletLedgerRepository = walletLedgerRepository;
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;                 // Story 3.2
         this.emailService = emailService;                     // Story 3.2
+        this.paymentOutboxService = paymentOutboxService;
     }
 
     /**
@@ -59,12 +81,12 @@ public class WalletService {
 
     /**
      * Get wallet balance for user
+     * A single read of the live balance column, so it never mixes two read views
      * @param userId User ID
      * @return Current balance
      */
     public BigDecimal getBalance(Long userId) {
-        Wallet wallet = getOrCreateWallet(userId);
-        return wallet.getBalance();
+        return getOrCreateWallet(userId).getBalance();
     }
 
     /**
@@ -79,51 +101,102 @@ public class WalletService {
     }
 
     /**
-     * Deduct balance from wallet (for purchases)
+     * Deduct balance from wallet (for purchases) and append a DEBIT ledger entry
+     * The balance check and the debit are one conditional UPDATE, so concurrent purchases
+     * by the same buyer cannot overdraw the wallet; the entry commits or rolls back with it
      * @param userId User ID
      * @param amount Amount to deduct
+     * @param transactionId PURCHASE transaction the debit pays for
      * @throws InsufficientBalanceException if insufficient balance
      */
     @Transactional
-    public void deductBalance(Long userId, BigDecimal amount) {
-        Wallet wallet = getOrCreateWallet(userId);
+    public void deductBalance(Long userId, BigDecimal amount, Long transactionId) {
+        requirePositive(amount);
 
-        if (wallet.getBalance().compareTo(amount) < 0) {
-            log.warn("Insufficient balance for user {}: has={}, needs={}", userId, wallet.getBalance(), amount);
-            throw new InsufficientBalanceException("Số dư không đủ. Vui lòng nạp thêm tiền vào ví.");
+        if (walletRepository.debit(userId, amount) == 0) {
+            throw insufficientBalance(userId, amount);
         }
 
-        BigDecimal newBalance = wallet.getBalance().subtract(amount);
-        wallet.setBalance(newBalance);
-        walletRepository.save(wallet);
-
-        log.info("Deducted {} from wallet for user {}, new balance: {}", amount, userId, newBalance);
+        walletLedgerRepository.save(WalletLedgerEntry.debit(userId, amount, transactionId));
+        log.info("Deducted {} from wallet for user {}", amount, userId);
     }
 
     /**
-     * Add balance to wallet (for approved top-ups)
+     * Add balance to wallet (for approved top-ups) and append a CREDIT ledger entry
      * @param userId User ID
      * @param amount Amount to add
+     * @param transactionId TOP_UP transaction being credited
+     */
+    @Transactional
+    public void addBalance(Long userId, BigDecimal amount, Long transactionId) {
+        requirePositive(amount);
+        getOrCreateWallet(userId);
+
+        // In-place increment: a read-modify-write save here could overwrite a concurrent debit
+        walletRepository.credit(userId, amount);
+        walletLedgerRepository.save(WalletLedgerEntry.credit(userId, amount, transactionId));
+
+        log.info("Added {} to wallet for user {}", amount, userId);
+    }
+
+    /**
+     * Move the wallet's ledger checkpoint past the entries written since the last one, checking that
+     * checkpoint plus entries still equals the live balance
+     * Background only: takes the wallet row lock for one short transaction, never on the purchase path
+     * @param userId User ID
+     * @return true if the checkpoint moved forward
      */
     @Transactional
-    public void addBalance(Long userId, BigDecimal amount) {
-        Wallet wallet = getOrCreateWallet(userId);
+    public boolean foldLedger(Long userId) {
+        Wallet wallet = walletRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (wallet == null) {
+            return false;
+        }
+        LedgerTail tail = walletLedgerRepository.lockTail(userId, wallet.getSnapshotEntryId());
+        if (tail.getLastEntryId().equals(wallet.getSnapshotEntryId())) {
+            return false;
+        }
+
+        BigDecimal ledgerBalance = wallet.getSnapshotBalance().add(tail.getTotal());
+        if (ledgerBalance.compareTo(wallet.getBalance()) != 0) {
+            log.error("Wallet of user {} has balance {} but its ledger adds up to {}",
+                    userId, wallet.getBalance(), ledgerBalance);
+        }
 
-        BigDecimal newBalance = wallet.getBalance().add(amount);
-        wallet.setBalance(newBalance);
+        wallet.setSnapshotBalance(wallet.getBalance());
+        wallet.setSnapshotEntryId(tail.getLastEntryId());
         walletRepository.save(wallet);
+        return true;
+    }
 
-        log.info("Added {} to wallet for user {}, new balance: {}", amount, userId, newBalance);
+    /**
+     * Users whose wallet has entries to fold, in user ID order
+     * @param afterUserId Keyset cursor (0 to start)
+     * @param batchSize Maximum number of users returned
+     */
+    public List<Long> findWalletsToFold(Long afterUserId, int batchSize) {
+        return walletRepository.findUserIdsWithUnfoldedEntries(afterUserId, Limit.of(batchSize));
+    }
+
+    private static InsufficientBalanceException insufficientBalance(Long userId, BigDecimal amount) {
+        log.warn("Insufficient balance for user {}: needs={}", userId, amount);
+        return new InsufficientBalanceException("Số dư không đủ. Vui lòng nạp thêm tiền vào ví.");
+    }
+
+    private static void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Số tiền không hợp lệ");
+        }
     }
 
     /**
      * Create a top-up transaction with PayOS QR code
+     * Not transactional: the PayOS call runs between two short transactions (PaymentOutboxService)
      * @param userId User ID requesting top-up
      * @param amount Amount to top-up
      * @param transactionService TransactionService for PayOS integration
      * @return Created transaction with PayOS data
      */
-    @Transactional
     public Transaction createTopUpTransaction(Long userId, BigDecimal amount, TransactionService transactionService) {
         log.info("Creating top-up transaction for user: {}, amount: {}", userId, amount);
 
@@ -145,23 +218,19 @@ public class WalletService {
         transaction.setStatus(TransactionStatus.PENDING);
         transaction.setTransactionType(TransactionType.TOP_UP);
 
-        // Save transaction first to get the ID
-        Transaction saved = transactionRepository.save(transaction);
+        // Commit the transaction with its order code and outbox row before calling PayOS
+        Transaction saved = paymentOutboxService.enqueue(transaction);
 
         // Create PayOS payment for top-up
         // Description format: "Nap vi {amount}" - must be ASCII, <= 25 chars
         String description = "Nap vi " + amount.intValue();
-        var payOSData = transactionService.getPayOSService().createTopUpPayment(
+        PayOSService payOSService = transactionService.getPayOSService();
+        saved = paymentOutboxService.dispatch(saved, pending -> payOSService.createTopUpPayment(
                 amount,
-                "TOPUP" + saved.getId(),
+                pending.getOrderCode(),
+                "TOPUP" + pending.getId(),
                 description
-        );
-
-        // Update transaction with PayOS data
-        saved.setPaymentLinkId(payOSData.getPaymentLinkId());
-        saved.setQrCode(payOSData.getQrCode());
-        saved.setCheckoutUrl(payOSData.getCheckoutUrl());
-        saved = transactionRepository.save(saved);
+        ));
 
         log.info("Top-up transaction created with ID: {}", saved.getId());
 
@@ -178,7 +247,8 @@ public class WalletService {
     public void approveTopUp(Long transactionId, Long adminId) {
         log.info("Admin {} approving top-up transaction: {}", adminId, transactionId);
 
-        Transaction transaction = transactionRepository.findById(transactionId)
+        // Row lock: an admin and a PayOS webhook settling the same top-up take turns
+        Transaction transaction = transactionRepository.findByIdForUpdate(transactionId)
                 .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy giao dịch này"));
 
         if (transaction.getTransactionType() != TransactionType.TOP_UP) {
@@ -189,14 +259,94 @@ public class WalletService {
             throw new IllegalArgumentException("Giao dịch này đã được xử lý");
         }
 
+        completeTopUp(transaction, adminId);
+
+        log.info("Top-up transaction {} approved, balance added for user: {}", transactionId, transaction.getBuyerId());
+    }
+
+    /**
+     * Settle a top-up that PayOS reports as paid (webhook)
+     * Locks the transaction row, so a redelivered webhook or an admin approving at the same time
+     * finds it COMPLETED and credits nothing
+     * @param orderCode PayOS order code stored on the transaction
+     * @param paidAmount Amount PayOS received (VND)
+     * @return NOT_FOUND if no transaction has this order code yet (the webhook overtook the commit that stores it)
+     */
+    @Transactional
+    public TopUpSettlement settlePaidTopUp(Long orderCode, long paidAmount) {
+        Transaction transaction = transactionRepository.findByOrderCodeForUpdate(orderCode).orElse(null);
+        if (transaction == null) {
+            log.info("No transaction for PayOS orderCode {} yet; will retry", orderCode);
+            return TopUpSettlement.NOT_FOUND;
+        }
+        if (transaction.getTransactionType() != TransactionType.TOP_UP) {
+            log.info("PayOS payment for non-top-up transaction {} is left to the admins", transaction.getId());
+            return TopUpSettlement.NOT_CREDITED;
+        }
+        if (transaction.getStatus() == TransactionStatus.REJECTED) {
+            log.warn("Top-up {} was paid after it had been rejected; it needs a manual refund", transaction.getId());
+            return TopUpSettlement.NOT_CREDITED;
+        }
+        if (transaction.getStatus() != TransactionStatus.PENDING) {
+            log.info("Top-up {} already settled; ignoring repeated PayOS payment", transaction.getId());
+            return TopUpSettlement.NOT_CREDITED;
+        }
+        if (transaction.getAmount().compareTo(BigDecimal.valueOf(paidAmount)) != 0) {
+            log.warn("Top-up {} expected {} but PayOS received {}; left pending for the admins",
+                    transaction.getId(), transaction.getAmount(), paidAmount);
+            // Shown in the admin queue; the admin approves or rejects it after checking the payment
+            transaction.setRejectionReason("PayOS nhận " + paidAmount + " VNĐ, khác số tiền yêu cầu nạp "
+                    + transaction.getAmount().toBigInteger() + " VNĐ");
+            transactionRepository.save(transaction);
+            return TopUpSettlement.AMOUNT_MISMATCH;
+        }
+
+        transaction.setVerifiedAt(java.time.LocalDateTime.now());
+        completeTopUp(transaction, null);
+        log.info("Top-up transaction {} settled by PayOS webhook for user: {}", transaction.getId(), transaction.getBuyerId());
+        return TopUpSettlement.CREDITED;
+    }
+
+    /**
+     * Outcome of settlePaidTopUp
+     */
+    public enum TopUpSettlement {
+        /**
+         * No transaction has the order code yet; retry later
+         */
+        NOT_FOUND,
+
+        /**
+         * The top-up was credited now
+         */
+        CREDITED,
+
+        /**
+         * Nothing to credit: settled earlier, rejected, or not a top-up
+         */
+        NOT_CREDITED,
+
+        /**
+         * PayOS received a different amount; left PENDING with the difference noted for the admins
+         */
+        AMOUNT_MISMATCH
+    }
+
+    /**
+     * Credit a locked PENDING top-up, mark it COMPLETED and email the user
+     * @param adminId Approving admin, or null when PayOS confirmed the payment
+     */
+    private void completeTopUp(Transaction transaction, Long adminId) {
         // Add balance to user's wallet
-        addBalance(transaction.getBuyerId(), transaction.getAmount());
+        addBalance(transaction.getBuyerId(), transaction.getAmount(), transaction.getId());
 
         // Get new balance for email
         BigDecimal newBalance = getBalance(transaction.getBuyerId());
 
         // Update transaction status
         transaction.setStatus(TransactionStatus.COMPLETED);
+        // Drop an amount-mismatch note once an admin has approved it anyway
+        transaction.setRejectionReason(null);
         transaction.setApprovedBy(adminId);
         transaction.setApprovedAt(java.time.LocalDateTime.now());
         transactionRepository.save(transaction);
@@ -215,11 +365,9 @@ public class WalletService {
             );
             log.info("Top-up approval email sent to user: {}", transaction.getBuyerId());
         } catch (Exception e) {
-            log.error("Failed to send top-up approval email for transaction: {}", transactionId, e);
+            log.error("Failed to send top-up approval email for transaction: {}", transaction.getId(), e);
             // Don't throw - transaction is already approved
         }
-
-        log.info("Top-up transaction {} approved, balance added for user: {}", transactionId, transaction.getBuyerId());
     }
 
     /**
@@ -233,7 +381,8 @@ public class WalletService {
     public void rejectTopUp(Long transactionId, Long adminId, String reason) {
         log.info("Admin {} rejecting top-up transaction: {}, reason: {}", adminId, transactionId, reason);
 
-        Transaction transaction = transactionRepository.findById(transactionId)
+        // Row lock: an admin and a PayOS webhook settling the same top-up take turns
+        Transaction transaction = transactionRepository.findByIdForUpdate(transactionId)
                 .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy giao dịch này"));
 
         if (transaction.getTransactionType() != TransactionType.TOP_UP) {
@@ -276,10 +425,61 @@ public class WalletService {
      * Get all pending top-up transactions
      * @return List of pending top-up transactions
      */
-    public java.util.List<Transaction> getPendingTopUps() {
+    public List<Transaction> getPendingTopUps() {
         return transactionRepository.findByStatusAndTransactionTypeOrderByCreatedAtDesc(
                 TransactionStatus.PENDING,
                 TransactionType.TOP_UP
         );
     }
+
+    /**
+     * One page of the user's wallet history using keyset (seek) pagination on (created_at, id)
+     * Each page is a bounded range scan on idx_buyer_created_id, so a long history costs the same as a new one
+     *
+     * @param userId User ID (buyer)
+     * @param after Cursor token of the last row on the previous page (go to older rows)
+     * @param before Cursor token of the first row on the next page (go back to newer rows)
+     * @return Page of history rows with next/prev cursor tokens
+     */
+    public WalletHistoryPageDto getHistoryPage(Long userId, String after, String before) {
+        WalletCursor afterCursor = WalletCursor.decode(after);
+        WalletCursor beforeCursor = afterCursor == null ? WalletCursor.decode(before) : null;
+        boolean backward = beforeCursor != null;
+        WalletCursor cursor = backward ? beforeCursor : afterCursor;
+
+        // Fetch one extra row to know whether another page exists in the direction we are walking
+        Limit limit = Limit.of(HISTORY_PAGE_SIZE + 1);
+        List<WalletTransactionDto> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findWalletHistory(userId, limit);
+        } else if (backward) {
+            rows = transactionRepository.findWalletHistoryAfter(userId, cursor.createdAt(), cursor.id(), limit);
+        } else {
+            rows = transactionRepository.findWalletHistoryBefore(userId, cursor.createdAt(), cursor.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > HISTORY_PAGE_SIZE;
+        rows = new ArrayList<>(hasMore ? rows.subList(0, HISTORY_PAGE_SIZE) : rows);
+        if (backward) {
+            // Newer rows are read oldest first; flip them back to display order
+            Collections.reverse(rows);
+        }
+        if (rows.isEmpty()) {
+            return WalletHistoryPageDto.empty();
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrev = backward ? hasMore : cursor != null;
+        String nextCursor = hasNext ? WalletCursor.of(rows.get(rows.size() - 1)).encode() : null;
+        String prevCursor = hasPrev ? WalletCursor.of(rows.get(0)).encode() : null;
+        return new WalletHistoryPageDto(rows, nextCursor, prevCursor);
+    }
+
+    /**
+     * Number of transactions in the user's wallet history, counted up to HISTORY_COUNT_CAP
+     * @return the count, or HISTORY_COUNT_CAP when there are at least that many
+     */
+    public long countHistory(Long userId) {
+        return transactionRepository.countByBuyerIdCapped(userId, HISTORY_COUNT_CAP);
+    }
 }
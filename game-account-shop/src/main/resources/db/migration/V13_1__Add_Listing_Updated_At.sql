@@ -0,0 +1,10 @@
+-- Persisted version of every listing row, shared by all app nodes
+-- MySQL stamps updated_at on every UPDATE that changes the row (entity saves and bulk UPDATEs alike), so
+-- any node can find the listings changed since a point in time with a range scan of idx_updated_at.
+-- Microseconds keep two changes in the same millisecond apart.
+
+ALTER TABLE game_accounts
+ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+ALTER TABLE game_accounts
+ADD INDEX idx_updated_at (updated_at);
@@ -0,0 +1,11 @@
+-- Keyset pagination for the home page browse query
+-- Each sort order seeks on (status, sort key, id), so every page is a short index range scan
+-- instead of loading and sorting every APPROVED listing
+
+-- Newest first: ORDER BY created_at DESC, id DESC
+ALTER TABLE game_accounts
+ADD INDEX idx_status_created_id (status, created_at, id);
+
+-- Price low-high / high-low: ORDER BY price, id
+ALTER TABLE game_accounts
+ADD INDEX idx_status_price_id (status, price, id);
@@ -0,0 +1,6 @@
+-- FULLTEXT search over listing text (app.search.mode=fulltext)
+-- The ngram parser indexes every 2-character sequence (ngram_token_size), so partial words
+-- and Vietnamese syllables match without the leading-wildcard LIKE full table scans
+
+ALTER TABLE game_accounts
+ADD FULLTEXT INDEX ft_listing_search (game_name, account_rank, description) WITH PARSER ngram;
@@ -0,0 +1,44 @@
+-- Composite indexes matching the repository access paths (equality columns first, then the ORDER BY / range column)
+-- so the hot lookups are index range scans without a filesort.
+-- Checked by RepositoryQueryPlanTest (EXPLAIN FORMAT=JSON over every repository query).
+
+-- game_accounts
+-- findBySellerIdAndStatus, sumPriceBySellerIdAndStatus (covering), findDistinctSellerIdsByStatus (index scan)
+ALTER TABLE game_accounts
+ADD INDEX idx_seller_status_price (seller_id, status, price);
+
+-- My listings: findBySellerIdOrderByCreatedAtDesc
+ALTER TABLE game_accounts
+ADD INDEX idx_seller_created (seller_id, created_at);
+
+-- findByStatusAndAccountRank: exact rank within a status, newest first
+ALTER TABLE game_accounts
+ADD INDEX idx_status_rank_created (status, account_rank, created_at);
+
+-- transactions
+-- Wallet history: findByBuyerIdOrderByCreatedAtDesc
+ALTER TABLE transactions
+ADD INDEX idx_buyer_created (buyer_id, created_at);
+
+-- Admin queues: findByStatusOrderByCreatedAtDesc
+ALTER TABLE transactions
+ADD INDEX idx_status_created (status, created_at);
+
+-- Pending top-ups: findByStatusAndTransactionTypeOrderByCreatedAtDesc
+ALTER TABLE transactions
+ADD INDEX idx_status_type_created (status, transaction_type, created_at);
+
+-- payouts
+-- Seller payout history: findBySellerIdOrderByCreatedAtDesc
+-- (the monthly duplicate check is a created_at range on the existing idx_seller_status_month)
+ALTER TABLE payouts
+ADD INDEX idx_seller_created (seller_id, created_at);
+
+-- Admin payout list: findByStatusOrderByCreatedAtDesc
+ALTER TABLE payouts
+ADD INDEX idx_status_created (status, created_at);
+
+-- users
+-- findByRole (admin notification recipients)
+ALTER TABLE users
+ADD INDEX idx_role (role);
@@ -0,0 +1,32 @@
+-- Wallet ledger
+-- Every credit and debit also writes an immutable row, in the same transaction as the guarded UPDATE of
+-- wallets.balance, which stays the live balance. wallets.snapshot_balance is the balance as of
+-- wallets.snapshot_entry_id; the snapshot job audits snapshot_balance + later entries against balance.
+
+CREATE TABLE wallet_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    entry_type VARCHAR(10) NOT NULL,
+    amount DECIMAL(15,2) NOT NULL COMMENT 'Signed: credits positive, debits negative',
+    transaction_id BIGINT NULL COMMENT 'TOP_UP or PURCHASE transaction behind the entry',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_user_entry (user_id, id),
+    INDEX idx_transaction_id (transaction_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (transaction_id) REFERENCES transactions(id) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE wallet_ledger ADD CONSTRAINT chk_ledger_entry
+    CHECK ((entry_type = 'CREDIT' AND amount > 0) OR (entry_type = 'DEBIT' AND amount < 0));
+
+ALTER TABLE wallets
+    ADD COLUMN snapshot_balance DECIMAL(15,2) NOT NULL DEFAULT 0 AFTER balance,
+    ADD COLUMN snapshot_entry_id BIGINT NOT NULL DEFAULT 0 AFTER snapshot_balance;
+
+-- Opening entries, so the ledger explains every existing balance
+INSERT INTO wallet_ledger (user_id, entry_type, amount)
+SELECT user_id, 'CREDIT', balance FROM wallets WHERE balance > 0;
+
+UPDATE wallets w
+JOIN (SELECT user_id, MAX(id) AS last_entry_id FROM wallet_ledger GROUP BY user_id) l ON l.user_id = w.user_id
+SET w.snapshot_balance = w.balance, w.snapshot_entry_id = l.last_entry_id;
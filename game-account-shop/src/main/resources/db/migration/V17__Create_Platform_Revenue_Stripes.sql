@@ -0,0 +1,22 @@
+-- Platform revenue account for commission accrual
+-- Split into stripes so concurrent sales update different rows; the revenue is the sum of all stripes.
+
+CREATE TABLE platform_revenue_stripes (
+    stripe_id INT PRIMARY KEY,
+    commission_total DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    sale_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Pre-create the default 16 stripes (app.revenue.stripes); extra stripes are created on first accrual
+INSERT INTO platform_revenue_stripes (stripe_id) VALUES
+    (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15);
+
+-- Opening balance: commission of every completed purchase so far goes to stripe 0
+UPDATE platform_revenue_stripes s
+JOIN (SELECT COALESCE(SUM(commission), 0) AS total, COUNT(*) AS sales
+      FROM transactions
+      WHERE status = 'COMPLETED'
+        AND (transaction_type = 'PURCHASE' OR (transaction_type IS NULL AND listing_id IS NOT NULL))) t
+SET s.commission_total = t.total, s.sale_count = t.sales
+WHERE s.stripe_id = 0;
@@ -0,0 +1,19 @@
+-- Idempotency keys for purchase and top-up form submissions
+-- One row per (user, key): the first submission claims it, duplicates replay result_redirect
+
+CREATE TABLE idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    action VARCHAR(20) NOT NULL COMMENT 'PURCHASE or TOP_UP',
+    status VARCHAR(20) NOT NULL DEFAULT 'IN_PROGRESS',
+    result_redirect VARCHAR(255) NULL COMMENT 'View name returned to the first submission',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP NULL,
+    UNIQUE KEY uk_user_key (user_id, idempotency_key),
+    INDEX idx_created_at (created_at),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE idempotency_keys ADD CONSTRAINT chk_idempotency_status
+    CHECK (status IN ('IN_PROGRESS', 'COMPLETED'));
@@ -0,0 +1,6 @@
+-- Wallet history keyset pagination: WHERE buyer_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+-- InnoDB already appends the primary key to secondary indexes, but the seek compares on id as well,
+-- so name it explicitly; the old two-column index becomes a redundant prefix of the new one.
+ALTER TABLE transactions
+ADD INDEX idx_buyer_created_id (buyer_id, created_at, id),
+DROP INDEX idx_buyer_created;
@@ -0,0 +1,11 @@
+-- Cluster-wide named locks held as expiring leases (first user: the PayOS order code node ids)
+-- A node holds a lock while lock_until is in the future and renews it while it needs it; a node that
+-- dies stops renewing and the lease expires. All times come from the database clock (NOW(3)).
+
+CREATE TABLE scheduler_locks (
+    name VARCHAR(100) PRIMARY KEY,
+    locked_by VARCHAR(255) NOT NULL COMMENT 'Node that took the lease',
+    token CHAR(36) NOT NULL COMMENT 'Identifies one lease; renew and release require it',
+    locked_at TIMESTAMP(3) NOT NULL,
+    lock_until TIMESTAMP(3) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
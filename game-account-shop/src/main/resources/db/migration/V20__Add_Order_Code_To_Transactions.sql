@@ -0,0 +1,6 @@
+-- PayOS orderCode sent when the payment link was created (OrderCodeGenerator)
+-- Stored so webhooks, status checks and cancellations look the transaction up by code.
+-- NULL for wallet purchases and for payments created before this column existed.
+ALTER TABLE transactions
+ADD COLUMN order_code BIGINT NULL COMMENT 'PayOS orderCode' AFTER payment_link_id,
+ADD UNIQUE INDEX uk_order_code (order_code);
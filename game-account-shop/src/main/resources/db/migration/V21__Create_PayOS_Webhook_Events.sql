@@ -0,0 +1,15 @@
+-- Inbox of verified PayOS payment webhooks
+-- One row per orderCode: duplicate deliveries hit the unique key and are ignored.
+-- processed_at stays NULL until the payment is accounted for, so a webhook that arrives
+-- before its transaction is visible is settled later by PayOSWebhookScheduler.
+
+CREATE TABLE payos_webhook_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_code BIGINT NOT NULL,
+    amount BIGINT NOT NULL COMMENT 'Amount PayOS reports as paid (VND)',
+    reference VARCHAR(100) NULL COMMENT 'Bank transfer reference',
+    received_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL,
+    UNIQUE KEY uk_order_code (order_code),
+    INDEX idx_processed_received (processed_at, received_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,23 @@
+-- Outbox of PayOS payment links to create, one row per PENDING PayOS transaction
+-- The transaction and its row commit together before PayOS is called; the link is created with
+-- no transaction open and the row is marked SENT once the link is stored on the transaction.
+-- Rows still PENDING after next_attempt_at were interrupted (crash, timeout) and are resolved
+-- by PaymentOutboxScheduler, which asks PayOS whether the link for order_code exists.
+
+CREATE TABLE payment_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    order_code BIGINT NOT NULL COMMENT 'PayOS orderCode, also on the transaction',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0 COMMENT 'Relay lookups that failed',
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(255) NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL,
+    UNIQUE KEY uk_transaction_id (transaction_id),
+    INDEX idx_status_next_attempt (status, next_attempt_at),
+    FOREIGN KEY (transaction_id) REFERENCES transactions(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE payment_outbox ADD CONSTRAINT chk_payment_outbox_status
+    CHECK (status IN ('PENDING', 'SENT', 'FAILED'));
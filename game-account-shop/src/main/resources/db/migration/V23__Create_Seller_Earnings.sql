@@ -0,0 +1,29 @@
+-- Per-seller earnings aggregate, kept up to date in the same transaction as each sale and payout transition
+-- so /my-listings reads one row by primary key instead of summing listings and payouts.
+-- Checked and repaired against the source tables by SellerEarningsVerifier.
+
+CREATE TABLE seller_earnings (
+    seller_id BIGINT PRIMARY KEY,
+    gross_sold BIGINT NOT NULL DEFAULT 0 COMMENT 'Sum of SOLD listing prices',
+    net_earnings DECIMAL(15,2) NOT NULL DEFAULT 0.00 COMMENT 'gross_sold after the 10% platform commission',
+    received_amount DECIMAL(15,2) NOT NULL DEFAULT 0.00 COMMENT 'Sum of RECEIVED payouts',
+    paid_pending_amount DECIMAL(15,2) NOT NULL DEFAULT 0.00 COMMENT 'Sum of PAID payouts not yet confirmed by the seller',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (seller_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Opening balances from the current listings and payouts
+INSERT INTO seller_earnings (seller_id, gross_sold, net_earnings, received_amount, paid_pending_amount)
+SELECT u.id,
+       COALESCE(g.gross_sold, 0),
+       COALESCE(g.gross_sold, 0) * 0.90,
+       COALESCE(p.received_amount, 0),
+       COALESCE(p.paid_pending_amount, 0)
+FROM users u
+LEFT JOIN (SELECT seller_id, SUM(price) AS gross_sold
+           FROM game_accounts WHERE status = 'SOLD' GROUP BY seller_id) g ON g.seller_id = u.id
+LEFT JOIN (SELECT seller_id,
+                  SUM(CASE WHEN status = 'RECEIVED' THEN amount ELSE 0 END) AS received_amount,
+                  SUM(CASE WHEN status = 'PAID' THEN amount ELSE 0 END) AS paid_pending_amount
+           FROM payouts GROUP BY seller_id) p ON p.seller_id = u.id
+WHERE g.seller_id IS NOT NULL OR p.seller_id IS NOT NULL;
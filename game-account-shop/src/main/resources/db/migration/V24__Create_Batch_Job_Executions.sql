@@ -0,0 +1,38 @@
+-- Checkpoints of chunked batch jobs (BatchJobRunner), e.g. the monthly payout run
+-- One execution per job and key (the payout month); its id range is split into chunks when it starts.
+-- A chunk is marked COMPLETED in the same transaction as the rows it wrote, so a run that stopped
+-- halfway is resumed by processing only the chunks that are not COMPLETED.
+
+CREATE TABLE batch_job_executions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_name VARCHAR(50) NOT NULL,
+    job_key VARCHAR(50) NOT NULL COMMENT 'Run of the job, e.g. the payout month 2026-10',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    max_id BIGINT NOT NULL COMMENT 'Highest id partitioned when the execution was created',
+    chunk_size INT NOT NULL,
+    runs INT NOT NULL DEFAULT 0 COMMENT 'Runs that worked on the execution, 1 unless resumed',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP NULL,
+    UNIQUE KEY uk_job_name_key (job_name, job_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE batch_chunk_executions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_execution_id BIGINT NOT NULL,
+    from_id BIGINT NOT NULL COMMENT 'Inclusive',
+    to_id BIGINT NOT NULL COMMENT 'Exclusive',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    items_written INT NOT NULL DEFAULT 0,
+    duration_ms BIGINT NULL COMMENT 'Wall time of the attempt that completed the chunk',
+    last_error VARCHAR(255) NULL,
+    finished_at TIMESTAMP NULL,
+    UNIQUE KEY uk_job_execution_from_id (job_execution_id, from_id),
+    FOREIGN KEY (job_execution_id) REFERENCES batch_job_executions(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE batch_job_executions ADD CONSTRAINT chk_batch_job_status
+    CHECK (status IN ('PENDING', 'COMPLETED', 'FAILED'));
+
+ALTER TABLE batch_chunk_executions ADD CONSTRAINT chk_batch_chunk_status
+    CHECK (status IN ('PENDING', 'COMPLETED', 'FAILED'));
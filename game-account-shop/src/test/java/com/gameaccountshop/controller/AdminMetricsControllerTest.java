@@ -0,0 +1,144 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.dto.BatchJobStatsDto;
+import com.gameaccountshop.dto.CacheStatsDto;
+import com.gameaccountshop.dto.DependencyGuardStatsDto;
+import com.gameaccountshop.dto.EarningsVerificationStatsDto;
+import com.gameaccountshop.dto.ReconciliationStatsDto;
+import com.gameaccountshop.service.BatchJobRunner;
+import com.gameaccountshop.service.DependencyGuard;
+import com.gameaccountshop.service.HomeListingCache;
+import com.gameaccountshop.service.PaymentReconciler;
+import com.gameaccountshop.service.SellerEarningsVerifier;
+import com.gameaccountshop.service.UserSummaryCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for AdminMetricsController
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminMetricsControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private HomeListingCache homeListingCache;
+
+    @Mock
+    private UserSummaryCache userSummaryCache;
+
+    @Mock
+    private PaymentReconciler paymentReconciler;
+
+    @Mock
+    private SellerEarningsVerifier sellerEarningsVerifier;
+
+    @Mock
+    private BatchJobRunner batchJobRunner;
+
+    @Mock
+    private DependencyGuard payOSGuard;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(payOSGuard.getName()).thenReturn("payos");
+        AdminMetricsController adminMetricsController = new AdminMetricsController(homeListingCache, userSummaryCache,
+                paymentReconciler, sellerEarningsVerifier, batchJobRunner, List.of(payOSGuard));
+        mockMvc = MockMvcBuilders.standaloneSetup(adminMetricsController).build();
+    }
+
+    @Test
+    void metrics_ReturnsCacheCounters() throws Exception {
+        // Given
+        when(homeListingCache.stats()).thenReturn(new CacheStatsDto(3, 1, 2, 1));
+        when(userSummaryCache.stats()).thenReturn(new CacheStatsDto(10, 5, 0, 5));
+
+        // When & Then
+        mockMvc.perform(get("/admin/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.homeListingCache.hits").value(3))
+                .andExpect(jsonPath("$.homeListingCache.misses").value(1))
+                .andExpect(jsonPath("$.homeListingCache.hitRatio").value(0.75))
+                .andExpect(jsonPath("$.userSummaryCache.size").value(5));
+    }
+
+    @Test
+    void metrics_ReturnsLastReconciliationRun() throws Exception {
+        // Given
+        when(homeListingCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(userSummaryCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(paymentReconciler.lastRun()).thenReturn(new ReconciliationStatsDto(
+                LocalDateTime.of(2026, 1, 18, 14, 30), 1200, 40, 40, 1, 3, 2, 5, 35.0, 120.0, 180.0, 210.0));
+
+        // When & Then
+        mockMvc.perform(get("/admin/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentReconciler.rowsScanned").value(40))
+                .andExpect(jsonPath("$.paymentReconciler.callsMade").value(40))
+                .andExpect(jsonPath("$.paymentReconciler.p95Ms").value(120.0));
+    }
+
+    @Test
+    void metrics_ReturnsLastEarningsVerificationRun() throws Exception {
+        // Given
+        when(homeListingCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(userSummaryCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(sellerEarningsVerifier.lastRun()).thenReturn(new EarningsVerificationStatsDto(
+                LocalDateTime.of(2026, 1, 18, 3, 30), 850, 12, 0, 4200, 2, 2));
+
+        // When & Then
+        mockMvc.perform(get("/admin/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sellerEarningsVerifier.sellersChecked").value(4200))
+                .andExpect(jsonPath("$.sellerEarningsVerifier.drifted").value(2))
+                .andExpect(jsonPath("$.sellerEarningsVerifier.repaired").value(2));
+    }
+
+    @Test
+    void metrics_ReturnsLastBatchJobRuns() throws Exception {
+        // Given
+        when(homeListingCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(userSummaryCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(batchJobRunner.lastRuns()).thenReturn(Map.of("monthly-payouts", new BatchJobStatsDto("monthly-payouts",
+                "2026-02", LocalDateTime.of(2026, 2, 1, 0, 0), 5400, true, 100, 60, 39, 1, 38000, 45.0, 90.0, 140.0)));
+
+        // When & Then
+        mockMvc.perform(get("/admin/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchJobs['monthly-payouts'].resumed").value(true))
+                .andExpect(jsonPath("$.batchJobs['monthly-payouts'].chunksSkipped").value(60))
+                .andExpect(jsonPath("$.batchJobs['monthly-payouts'].chunksFailed").value(1))
+                .andExpect(jsonPath("$.batchJobs['monthly-payouts'].chunkP95Ms").value(90.0));
+    }
+
+    @Test
+    void metrics_ReturnsOutboundGuardState() throws Exception {
+        // Given
+        when(homeListingCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(userSummaryCache.stats()).thenReturn(new CacheStatsDto(0, 0, 0, 0));
+        when(payOSGuard.stats()).thenReturn(new DependencyGuardStatsDto("OPEN", 0.8, 10, 2, 16, 40, 6, 2, 0, 25));
+
+        // When & Then
+        mockMvc.perform(get("/admin/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outbound.payos.state").value("OPEN"))
+                .andExpect(jsonPath("$.outbound.payos.failureRate").value(0.8))
+                .andExpect(jsonPath("$.outbound.payos.shortCircuited").value(25));
+    }
+}
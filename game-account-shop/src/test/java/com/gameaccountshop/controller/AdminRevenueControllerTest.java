@@ -0,0 +1,44 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.dto.PlatformRevenueDto;
+import com.gameaccountshop.service.PlatformRevenueService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ui.Model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminRevenueControllerTest {
+
+    @Mock
+    private PlatformRevenueService platformRevenueService;
+
+    @InjectMocks
+    private AdminRevenueController controller;
+
+    @Mock
+    private Model model;
+
+    @Test
+    void showRevenue_AddsAggregatedRevenueToModel() {
+        // Given
+        PlatformRevenueDto revenue = new PlatformRevenueDto(new BigDecimal("170000"), 4,
+                List.of(new PlatformRevenueDto.StripeItem(0, new BigDecimal("170000"), 4)));
+        when(platformRevenueService.getRevenue()).thenReturn(revenue);
+
+        // When
+        String view = controller.showRevenue(model);
+
+        // Then
+        assertEquals("admin-revenue", view);
+        verify(model).addAttribute("revenue", revenue);
+    }
+}
@@ -0,0 +1,88 @@
+package com.gameaccountshop.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import vn.payos.crypto.CryptoProviderImpl;
+import vn.payos.model.webhooks.Webhook;
+import vn.payos.model.webhooks.WebhookData;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Local stand-in for PayOS delivering payment webhooks
+ * Signs the payment data the way PayOS does (SDK CryptoProvider, HMAC-SHA256 over the sorted fields)
+ * and posts it to the webhook endpoint, so tests can replay, tamper with and reorder deliveries
+ */
+class FakePayOSWebhookSender {
+
+    static final String WEBHOOK_PATH = "/payment/payos/webhook";
+
+    private final MockMvc mockMvc;
+    private final String checksumKey;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    FakePayOSWebhookSender(MockMvc mockMvc, String checksumKey) {
+        this.mockMvc = mockMvc;
+        this.checksumKey = checksumKey;
+    }
+
+    /**
+     * Payment data of a successful transfer for the given order
+     */
+    static WebhookData paid(long orderCode, long amount) {
+        return WebhookData.builder()
+                .orderCode(orderCode)
+                .amount(amount)
+                .description("Nap vi " + amount)
+                .accountNumber("12345678")
+                .reference("FT" + orderCode)
+                .transactionDateTime("2026-01-18 14:30:00")
+                .currency("VND")
+                .paymentLinkId("link-" + orderCode)
+                .code("00")
+                .desc("success")
+                .build();
+    }
+
+    /**
+     * Deliver the data signed with this sender's checksum key
+     */
+    ResultActions send(WebhookData data) throws Exception {
+        return deliver(data, sign(data, checksumKey));
+    }
+
+    /**
+     * Deliver the data with a signature computed over different data (tampered in transit)
+     */
+    ResultActions sendTampered(WebhookData data, long tamperedAmount) throws Exception {
+        String signature = sign(data, checksumKey);
+        data.setAmount(tamperedAmount);
+        return deliver(data, signature);
+    }
+
+    /**
+     * Deliver the data signed with another key (a sender that does not know our checksum key)
+     */
+    ResultActions sendSignedWith(String otherKey, WebhookData data) throws Exception {
+        return deliver(data, sign(data, otherKey));
+    }
+
+    private static String sign(WebhookData data, String key) {
+        return new CryptoProviderImpl().createSignatureFromObj(data, key);
+    }
+
+    private ResultActions deliver(WebhookData data, String signature) throws Exception {
+        Webhook webhook = Webhook.builder()
+                .code("00")
+                .desc("success")
+                .success(true)
+                .data(data)
+                .signature(signature)
+                .build();
+        return mockMvc.perform(post(WEBHOOK_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(webhook)));
+    }
+}
@@ -1,16 +1,23 @@
 package com.gameaccountshop.controller;
 
 import com.gameaccountshop.dto.ListingDisplayDto;
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.dto.ListingPageDto;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.repository.GameAccountRepository;
 import com.gameaccountshop.service.GameAccountService;
+import com.gameaccountshop.service.ListingVersionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,10 +32,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class HomeControllerTest {
 
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2026, 1, 18, 10, 0);
+
     @Mock
     private GameAccountService gameAccountService;
 
-    @InjectMocks
+    @Mock
+    private GameAccountRepository gameAccountRepository;
+
+    private ListingVersionRegistry listingVersionRegistry;
+
     private HomeController homeController;
 
     private MockMvc mockMvc;
@@ -37,6 +50,10 @@ class HomeControllerTest {
 
     @BeforeEach
     void setUp() {
+        // Versions come from the (mocked) persisted updated_at; TTL 0 re-reads it on every request
+        lenient().when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(CHANGED_AT);
+        listingVersionRegistry = new ListingVersionRegistry(gameAccountRepository, Duration.ZERO);
+        homeController = new HomeController(gameAccountService, listingVersionRegistry);
         mockMvc = MockMvcBuilders.standaloneSetup(homeController).build();
 
         // Create mock listings for testing
@@ -67,8 +84,8 @@ class HomeControllerTest {
     @Test
     void home_NoParameters_ReturnsAllApprovedListings() throws Exception {
         // Given
-        when(gameAccountService.findApprovedListings(isNull(), isNull(), isNull()))
-            .thenReturn(mockListings);
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
 
         // When & Then
         mockMvc.perform(get("/"))
@@ -76,15 +93,15 @@ class HomeControllerTest {
             .andExpect(view().name("home"))
             .andExpect(model().attributeExists("listings"));
 
-        verify(gameAccountService, times(1)).findApprovedListings(isNull(), isNull(), isNull());
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull());
     }
 
     @Test
     void home_WithSearchParameter_PassesSearchToService() throws Exception {
         // Given
         String searchTerm = "Liên Minh";
-        when(gameAccountService.findApprovedListings(eq(searchTerm), isNull(), isNull()))
-            .thenReturn(mockListings);
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.of(searchTerm, null)), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
 
         // When & Then
         mockMvc.perform(get("/").param("search", searchTerm))
@@ -93,24 +110,24 @@ class HomeControllerTest {
             .andExpect(model().attributeExists("listings"))
             .andExpect(model().attribute("search", searchTerm));
 
-        verify(gameAccountService, times(1)).findApprovedListings(eq(searchTerm), isNull(), isNull());
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(ListingFilter.of(searchTerm, null)), isNull(), isNull(), isNull());
     }
 
     @Test
     void home_WithRankParameter_PassesRankToService() throws Exception {
         // Given
         String rank = "Gold";
-        when(gameAccountService.findApprovedListings(isNull(), eq(rank), isNull()))
-            .thenReturn(List.of(mockListings.get(0)));
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.of(null, rank)), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(List.of(mockListings.get(0)), null, null));
 
         // When & Then
         mockMvc.perform(get("/").param("rank", rank))
             .andExpect(status().isOk())
             .andExpect(view().name("home"))
             .andExpect(model().attributeExists("listings"))
-            .andExpect(model().attribute("rank", rank));
+            .andExpect(model().attribute("rank", List.of(rank)));
 
-        verify(gameAccountService, times(1)).findApprovedListings(isNull(), eq(rank), isNull());
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(ListingFilter.of(null, rank)), isNull(), isNull(), isNull());
     }
 
     @Test
@@ -118,8 +135,8 @@ class HomeControllerTest {
         // Given
         String searchTerm = "Liên Minh";
         String rank = "Gold";
-        when(gameAccountService.findApprovedListings(eq(searchTerm), eq(rank), isNull()))
-            .thenReturn(List.of(mockListings.get(0)));
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.of(searchTerm, rank)), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(List.of(mockListings.get(0)), null, null));
 
         // When & Then
         mockMvc.perform(get("/")
@@ -129,16 +146,16 @@ class HomeControllerTest {
             .andExpect(view().name("home"))
             .andExpect(model().attributeExists("listings"))
             .andExpect(model().attribute("search", searchTerm))
-            .andExpect(model().attribute("rank", rank));
+            .andExpect(model().attribute("rank", List.of(rank)));
 
-        verify(gameAccountService, times(1)).findApprovedListings(eq(searchTerm), eq(rank), isNull());
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(ListingFilter.of(searchTerm, rank)), isNull(), isNull(), isNull());
     }
 
     @Test
     void home_EmptyListings_ReturnsEmptyList() throws Exception {
         // Given
-        when(gameAccountService.findApprovedListings(isNull(), isNull(), isNull()))
-            .thenReturn(List.of());
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull()))
+            .thenReturn(ListingPageDto.empty());
 
         // When & Then
         mockMvc.perform(get("/"))
@@ -146,21 +163,138 @@ class HomeControllerTest {
             .andExpect(view().name("home"))
             .andExpect(model().attributeExists("listings"));
 
-        verify(gameAccountService, times(1)).findApprovedListings(isNull(), isNull(), isNull());
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull());
     }
 
     @Test
     void home_CaseInsensitiveSearch_WorksCorrectly() throws Exception {
         // Given - test lowercase search
         String searchTermLower = "liên minh"; // lowercase
-        when(gameAccountService.findApprovedListings(eq(searchTermLower), isNull(), isNull()))
-            .thenReturn(mockListings);
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.of(searchTermLower, null)), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
 
         // When & Then
         mockMvc.perform(get("/").param("search", searchTermLower))
             .andExpect(status().isOk())
             .andExpect(model().attribute("search", searchTermLower));
 
-        verify(gameAccountService, times(1)).findApprovedListings(eq(searchTermLower), isNull(), isNull());
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(ListingFilter.of(searchTermLower, null)), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    void home_WithCursor_PassesCursorAndExposesPageLinks() throws Exception {
+        // Given
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), eq("price_asc"), eq("abc"), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, "next-token", "prev-token"));
+
+        // When & Then
+        mockMvc.perform(get("/").param("sort", "price_asc").param("after", "abc"))
+            .andExpect(status().isOk())
+            .andExpect(view().name("home"))
+            .andExpect(model().attribute("nextCursor", "next-token"))
+            .andExpect(model().attribute("prevCursor", "prev-token"));
+
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(ListingFilter.NONE), eq("price_asc"), eq("abc"), isNull());
+    }
+
+    @Test
+    void home_WithMultipleRanksAndPriceRange_PassesFilterToService() throws Exception {
+        // Given
+        ListingFilter filter = new ListingFilter(null, List.of("Gold", "Diamond"), 100000L, 2000000L);
+        when(gameAccountService.findApprovedListingsPage(eq(filter), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
+
+        // When & Then
+        mockMvc.perform(get("/")
+                .param("rank", "Gold", "Diamond")
+                .param("minPrice", "100000")
+                .param("maxPrice", "2000000"))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("rank", List.of("Gold", "Diamond")))
+            .andExpect(model().attribute("minPrice", 100000L))
+            .andExpect(model().attribute("maxPrice", 2000000L));
+
+        verify(gameAccountService, times(1)).findApprovedListingsPage(eq(filter), isNull(), isNull(), isNull());
+    }
+
+    // ========================================================================
+    // Conditional GET
+    // ========================================================================
+
+    @Test
+    void home_Anonymous_EmitsCatalogETagAndRevalidationHeaders() throws Exception {
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
+
+        mockMvc.perform(get("/"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", listingVersionRegistry.catalogVersion().etag()))
+            .andExpect(header().exists("Last-Modified"))
+            .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void home_AnonymousWithMatchingETag_Returns304WithoutQuerying() throws Exception {
+        mockMvc.perform(get("/").header("If-None-Match", listingVersionRegistry.catalogVersion().etag()))
+            .andExpect(status().isNotModified());
+
+        verifyNoInteractions(gameAccountService);
+    }
+
+    @Test
+    void home_ETagFromBeforeStatusChange_RendersAgain() throws Exception {
+        String staleETag = listingVersionRegistry.catalogVersion().etag();
+        listingVersionRegistry.onListingStatusChanged(
+            new ListingStatusChangedEvent(1L, ListingStatus.APPROVED, ListingStatus.SOLD));
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(CHANGED_AT.plusSeconds(1));
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
+
+        mockMvc.perform(get("/").header("If-None-Match", staleETag))
+            .andExpect(status().isOk())
+            .andExpect(view().name("home"));
+    }
+
+    @Test
+    void home_CatalogChangedOnAnotherNode_RendersAgain() throws Exception {
+        // Given - no event on this node, only a newer row in the shared database
+        String staleETag = listingVersionRegistry.catalogVersion().etag();
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(CHANGED_AT.plusNanos(1_000));
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
+
+        // When & Then
+        mockMvc.perform(get("/").header("If-None-Match", staleETag))
+            .andExpect(status().isOk())
+            .andExpect(view().name("home"));
+    }
+
+    @Test
+    void home_Authenticated_NeverReturns304() throws Exception {
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
+        String etag = listingVersionRegistry.catalogVersion().etag();
+        clearInvocations(gameAccountRepository);
+
+        mockMvc.perform(get("/")
+                .principal(new UsernamePasswordAuthenticationToken("buyer", null, List.of()))
+                .header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("ETag"));
+
+        // Not eligible, so the catalog version is never looked up
+        verify(gameAccountRepository, never()).findLatestUpdatedAt();
+    }
+
+    @Test
+    void home_WithFlashMessage_NeverReturns304() throws Exception {
+        when(gameAccountService.findApprovedListingsPage(eq(ListingFilter.NONE), isNull(), isNull(), isNull()))
+            .thenReturn(new ListingPageDto(mockListings, null, null));
+
+        mockMvc.perform(get("/")
+                .flashAttr("errorMessage", "Không tìm thấy tài khoản")
+                .header("If-None-Match", listingVersionRegistry.catalogVersion().etag()))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("errorMessage", "Không tìm thấy tài khoản"));
     }
 }
@@ -3,17 +3,21 @@ package com.gameaccountshop.controller;
 import com.gameaccountshop.config.GlobalExceptionHandler;
 import com.gameaccountshop.dto.ListingDetailDto;
 import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.repository.GameAccountRepository;
 import com.gameaccountshop.service.GameAccountService;
+import com.gameaccountshop.service.ListingVersionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -29,16 +33,26 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class ListingsControllerTest {
 
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2026, 1, 18, 10, 0);
+
     @Mock
     private GameAccountService gameAccountService;
 
-    @InjectMocks
+    @Mock
+    private GameAccountRepository gameAccountRepository;
+
+    private ListingVersionRegistry listingVersionRegistry;
+
     private ListingsController listingsController;
 
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
+        // Versions come from the (mocked) persisted updated_at; TTL 0 re-reads it on every request
+        lenient().when(gameAccountRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(CHANGED_AT));
+        listingVersionRegistry = new ListingVersionRegistry(gameAccountRepository, Duration.ZERO);
+        listingsController = new ListingsController(gameAccountService, listingVersionRegistry);
         mockMvc = MockMvcBuilders.standaloneSetup(listingsController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -72,7 +86,8 @@ class ListingsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("listing-detail"))
                 .andExpect(model().attributeExists("listing"))
-                .andExpect(model().attribute("listing", detailDto));
+                .andExpect(model().attribute("listing", detailDto))
+                .andExpect(model().attributeExists("idempotencyKey"));
 
         verify(gameAccountService, times(1)).getListingDetail(listingId);
     }
@@ -240,4 +255,48 @@ class ListingsControllerTest {
         verify(gameAccountService, times(1)).getListingDetail(1L);
         verify(gameAccountService, times(1)).getListingDetail(2L);
     }
+
+    // ========================================================================
+    // Conditional GET
+    // ========================================================================
+
+    @Test
+    void listingDetail_AnonymousWithMatchingETag_Returns304WithoutQuerying() throws Exception {
+        String etag = listingVersionRegistry.listingVersion(1L).etag();
+
+        mockMvc.perform(get("/listings/{id}", 1L).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        verifyNoInteractions(gameAccountService);
+    }
+
+    @Test
+    void listingDetail_Authenticated_RendersWithoutLookingUpVersion() throws Exception {
+        ListingDetailDto detail = new ListingDetailDto(1L, "Liên Minh Huyền Thoại", "Gold", 100000L,
+                "desc", ListingStatus.APPROVED, LocalDateTime.now(), null, 1L, "seller", "seller@ex.com");
+        when(gameAccountService.getListingDetail(1L)).thenReturn(detail);
+
+        mockMvc.perform(get("/listings/{id}", 1L)
+                        .principal(new UsernamePasswordAuthenticationToken("buyer", null, List.of())))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+
+        verify(gameAccountRepository, never()).findUpdatedAtById(any());
+    }
+
+    @Test
+    void listingDetail_ListingSoldSinceETag_RendersAgain() throws Exception {
+        // Given - sold on any node: the row's updated_at moved
+        String staleETag = listingVersionRegistry.listingVersion(1L).etag();
+        when(gameAccountRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(CHANGED_AT.plusSeconds(1)));
+        ListingDetailDto sold = new ListingDetailDto(1L, "Liên Minh Huyền Thoại", "Gold", 100000L,
+                "desc", ListingStatus.SOLD, LocalDateTime.now(), null, 1L, "seller", "seller@ex.com");
+        when(gameAccountService.getListingDetail(1L)).thenReturn(sold);
+
+        mockMvc.perform(get("/listings/{id}", 1L).header("If-None-Match", staleETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", listingVersionRegistry.listingVersion(1L).etag()))
+                .andExpect(model().attribute("listing", sold));
+    }
 }
@@ -0,0 +1,125 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.service.DependencyGuard;
+import com.gameaccountshop.service.PayOSService;
+import com.gameaccountshop.service.PayOSWebhookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import vn.payos.PayOS;
+import vn.payos.model.webhooks.WebhookData;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for PayOSWebhookController
+ * Signatures are checked for real (PayOS SDK with a test checksum key); deliveries come from FakePayOSWebhookSender
+ */
+@ExtendWith(MockitoExtension.class)
+class PayOSWebhookControllerTest {
+
+    private static final String CHECKSUM_KEY = "test-checksum-key";
+
+    @Mock
+    private PayOSWebhookService payOSWebhookService;
+
+    private FakePayOSWebhookSender payOS;
+
+    @BeforeEach
+    void setUp() {
+        PayOSService payOSService = new PayOSService(new PayOS("test-client", "test-api-key", CHECKSUM_KEY),
+                mock(DependencyGuard.class));
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new PayOSWebhookController(payOSService, payOSWebhookService))
+                .build();
+        payOS = new FakePayOSWebhookSender(mockMvc, CHECKSUM_KEY);
+    }
+
+    @Test
+    void receive_SignedPayment_ShouldRecordAndSettle() throws Exception {
+        // Arrange
+        when(payOSWebhookService.record(any())).thenReturn(true);
+        when(payOSWebhookService.settle(9001L)).thenReturn(true);
+
+        // Act
+        payOS.send(FakePayOSWebhookSender.paid(9001L, 500000L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        // Assert
+        ArgumentCaptor<WebhookData> data = ArgumentCaptor.forClass(WebhookData.class);
+        verify(payOSWebhookService).record(data.capture());
+        assertEquals(9001L, data.getValue().getOrderCode());
+        assertEquals(500000L, data.getValue().getAmount());
+        verify(payOSWebhookService).settle(9001L);
+    }
+
+    @Test
+    void receive_TamperedAmount_ShouldRejectWithoutRecording() throws Exception {
+        // Act
+        payOS.sendTampered(FakePayOSWebhookSender.paid(9001L, 10000L), 10000000L)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        // Assert
+        verifyNoInteractions(payOSWebhookService);
+    }
+
+    @Test
+    void receive_SignedWithAnotherKey_ShouldReject() throws Exception {
+        // Act
+        payOS.sendSignedWith("not-our-key", FakePayOSWebhookSender.paid(9001L, 500000L))
+                .andExpect(status().isBadRequest());
+
+        // Assert
+        verifyNoInteractions(payOSWebhookService);
+    }
+
+    @Test
+    void receive_DuplicateDelivery_ShouldAcknowledgeBoth() throws Exception {
+        // Arrange - the service dedupes; the endpoint acknowledges every verified delivery
+        when(payOSWebhookService.record(any())).thenReturn(true);
+        when(payOSWebhookService.settle(9001L)).thenReturn(true);
+        WebhookData data = FakePayOSWebhookSender.paid(9001L, 500000L);
+
+        // Act
+        payOS.send(data).andExpect(status().isOk());
+        payOS.send(data).andExpect(status().isOk());
+
+        // Assert
+        verify(payOSWebhookService, times(2)).settle(9001L);
+    }
+
+    @Test
+    void receive_SettleFails_ShouldStillAcknowledgeRecordedPayment() throws Exception {
+        // Arrange - recorded in the inbox, the scheduler retries it
+        when(payOSWebhookService.record(any())).thenReturn(true);
+        when(payOSWebhookService.settle(9001L)).thenThrow(new RuntimeException("Lock wait timeout"));
+
+        // Act & Assert
+        payOS.send(FakePayOSWebhookSender.paid(9001L, 500000L))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void receive_NotAPayment_ShouldAcknowledgeWithoutSettling() throws Exception {
+        // Arrange
+        when(payOSWebhookService.record(any())).thenReturn(false);
+        WebhookData data = FakePayOSWebhookSender.paid(9001L, 500000L);
+        data.setCode("01");
+
+        // Act
+        payOS.send(data).andExpect(status().isOk());
+
+        // Assert
+        verify(payOSWebhookService, never()).settle(any());
+    }
+}
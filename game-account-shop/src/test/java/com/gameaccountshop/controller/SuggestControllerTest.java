@@ -0,0 +1,63 @@
+package com.gameaccountshop.controller;
+
+import com.gameaccountshop.dto.SuggestionDto;
+import com.gameaccountshop.enums.SuggestionType;
+import com.gameaccountshop.service.ListingSuggestionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for SuggestController (search-box typeahead)
+ */
+@ExtendWith(MockitoExtension.class)
+class SuggestControllerTest {
+
+    @Mock
+    private ListingSuggestionIndex listingSuggestionIndex;
+
+    @InjectMocks
+    private SuggestController suggestController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(suggestController).build();
+    }
+
+    @Test
+    void suggest_ReturnsCompletionsAsJson() throws Exception {
+        when(listingSuggestionIndex.suggest("kim", 8)).thenReturn(List.of(
+                new SuggestionDto("Kim Cương I", SuggestionType.RANK),
+                new SuggestionDto("kimseller", SuggestionType.SELLER)));
+
+        mockMvc.perform(get("/api/suggest").param("q", "kim"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Kim Cương I"))
+                .andExpect(jsonPath("$[0].type").value("RANK"))
+                .andExpect(jsonPath("$[1].type").value("SELLER"));
+    }
+
+    @Test
+    void suggest_PassesRequestedLimit() throws Exception {
+        when(listingSuggestionIndex.suggest("g", 3)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/suggest").param("q", "g").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(listingSuggestionIndex).suggest("g", 3);
+    }
+}
@@ -0,0 +1,189 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.dto.ListingCursor;
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.enums.ListingSort;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+
+/**
+ * EXPLAIN checks for GameAccountRepositoryCustom#findListingCards and #findFulltextHits
+ * Every filter combination must be answered through an index, never a full scan of game_accounts.
+ *
+ * Criteria values are inlined so the captured SQL can be EXPLAINed as-is; the native FULLTEXT query is
+ * captured with its bound values by RepositoryQueryPlanTest's SqlCapture. The seed rows are
+ * committed (ANALYZE TABLE commits implicitly) and deleted afterwards.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.gameaccountshop.repository.ListingBrowsePlanTest$CapturingInspector"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(RepositoryQueryPlanTest.SqlCaptureConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListingBrowsePlanTest {
+
+    private static final int ROWS = 5_000;
+    private static final String SELLER = "plan_browse_seller";
+    private static final String[] RANKS = {"Iron IV", "Bronze II", "Silver I", "Gold III", "Platinum II",
+            "Diamond IV", "Master", "Challenger"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameAccountRepository gameAccountRepository;
+
+    private Long sellerId;
+
+    /**
+     * Remembers the last statement Hibernate prepared on this thread
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            LAST_SQL.set(sql);
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT IGNORE INTO users (username, password, email, role) VALUES (?, 'x', ?, 'USER')",
+                SELLER, SELLER + "@plan.local");
+        sellerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, SELLER);
+
+        // Mostly sold stock, as in production: APPROVED is the selective part of every index
+        Random random = new Random(7);
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] {RANKS[random.nextInt(RANKS.length)], 50_000L + random.nextInt(5_000_000),
+                    "plan seed " + i, i % 10 == 0 ? "APPROVED" : "SOLD", sellerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO game_accounts (game_name, account_rank, price, description, status, seller_id) " +
+                "VALUES ('Liên Minh Huyền Thoại', ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE TABLE game_accounts");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM game_accounts WHERE seller_id = ?", sellerId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", sellerId);
+    }
+
+    @Test
+    void findListingCards_EveryFilterCombination_UsesAnIndex() {
+        List<ListingFilter> filters = List.of(
+                ListingFilter.NONE,
+                ListingFilter.of(null, "Gold"),
+                new ListingFilter(null, List.of("Gold", "Diamond"), null, null),
+                new ListingFilter(null, List.of(), 100_000L, 900_000L),
+                new ListingFilter(null, List.of(), 1_000_000L, null),
+                new ListingFilter(null, List.of("Gold"), 100_000L, 2_000_000L),
+                ListingFilter.of("yasuo", null),
+                ListingFilter.of("yasuo", "Master"),
+                new ListingFilter("100%_off", List.of("Gold", "Master"), 100_000L, 2_000_000L));
+
+        for (ListingSort sort : List.of(ListingSort.NEWEST, ListingSort.PRICE_ASC, ListingSort.PRICE_DESC)) {
+            ListingCursor cursor = sort == ListingSort.NEWEST
+                    ? new ListingCursor(sort, "2026-01-18T10:00", 1_000L)
+                    : new ListingCursor(sort, "500000", 1_000L);
+            for (ListingFilter filter : filters) {
+                assertIndexed(filter, sort, null);
+                assertIndexed(filter, sort, cursor);
+            }
+        }
+    }
+
+    @Test
+    void findFulltextHits_EveryFilterCombination_UsesAnIndexInBothBranches() {
+        List<ListingFilter> filters = List.of(
+                ListingFilter.of("yasuo", null),
+                new ListingFilter("yasuo", List.of("Gold", "Diamond"), null, null),
+                new ListingFilter("yasuo", List.of("Gold"), 100_000L, 2_000_000L),
+                new ListingFilter("100%_off", List.of(), 1_000_000L, null));
+
+        for (ListingSort sort : ListingSort.values()) {
+            ListingCursor cursor = switch (sort) {
+                case NEWEST -> new ListingCursor(sort, "2026-01-18T10:00", 1_000L);
+                case RELEVANCE -> new ListingCursor(sort, "0.5", 1_000L);
+                default -> new ListingCursor(sort, "500000", 1_000L);
+            };
+            for (ListingFilter filter : filters) {
+                for (ListingCursor boundary : Arrays.asList(null, cursor)) {
+                    RepositoryQueryPlanTest.SqlCapture.start();
+                    List<String> statements;
+                    try {
+                        gameAccountRepository.findFulltextHits("+" + filter.search(), filter.search(), filter, sort,
+                                boundary, false, 13);
+                    } finally {
+                        statements = RepositoryQueryPlanTest.SqlCapture.stop();
+                    }
+                    assertEquals(1, statements.size());
+                    assertNotNull(statements.get(0), "driver did not render the bound SQL");
+
+                    // The UNION is materialized and sorted by design (the page is cut from its result);
+                    // each branch it reads from must still be an index access
+                    for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + statements.get(0))) {
+                        if (String.valueOf(row.get("table")).startsWith("<")) {
+                            continue;
+                        }
+                        String where = filter + " / " + sort + (boundary != null ? " / cursor" : "") + ": " + row;
+                        assertNotEquals("ALL", row.get("type"), "full scan for " + where);
+                        assertNotNull(row.get("key"), "no index chosen for " + where);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void findFulltextHits_UsernameWildcards_MatchedLiterally() {
+        // "plan%" would match the seed seller as a LIKE pattern; escaped it matches no username
+        List<?> hits = gameAccountRepository.findFulltextHits("+zzzzqq", "plan%", ListingFilter.NONE,
+                ListingSort.NEWEST, null, false, 13);
+
+        assertTrue(hits.isEmpty());
+    }
+
+    private void assertIndexed(ListingFilter filter, ListingSort sort, ListingCursor cursor) {
+        CapturingInspector.LAST_SQL.remove();
+        gameAccountRepository.findListingCards(filter, sort, cursor, false, 13);
+        String sql = CapturingInspector.LAST_SQL.get();
+        assertNotNull(sql, "browse query was not captured");
+
+        // setMaxResults is always bound, never inlined
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql.replace("?", "13"));
+        for (Map<String, Object> row : plan) {
+            String where = filter + " / " + sort + (cursor != null ? " / cursor" : "") + ": " + row;
+            assertNotEquals("ALL", row.get("type"), "full scan for " + where);
+            assertNotNull(row.get("key"), "no index chosen for " + where);
+        }
+    }
+}
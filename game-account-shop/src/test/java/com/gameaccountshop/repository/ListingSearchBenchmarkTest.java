@@ -0,0 +1,121 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.enums.ListingSort;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+
+/**
+ * LIKE vs FULLTEXT (ngram) search on a 500k-row synthetic game_accounts table
+ * Run with: mvn test -Pbenchmark -Dtest=ListingSearchBenchmarkTest
+ *
+ * Not transactional: InnoDB only exposes committed rows to FULLTEXT search,
+ * so the seed rows are committed up front and deleted afterwards.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListingSearchBenchmarkTest {
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH = 5_000;
+    private static final int RUNS = 20;
+    private static final String SEED_MARKER = "[bench-seed]";
+    private static final String SELLER = "bench_search_seller";
+
+    private static final String[] RANKS = {"Iron IV", "Bronze II", "Silver I", "Gold III", "Platinum II",
+            "Emerald I", "Diamond IV", "Master", "Grandmaster", "Challenger"};
+    private static final String[] WORDS = {"tướng", "trang phục", "skin hiếm", "full ngọc", "acc trắng thông tin",
+            "đổi được email", "rank cao", "Yasuo", "Lee Sin", "Ahri", "Zed", "hàng hiệu", "mùa 2024", "chính chủ"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameAccountRepository gameAccountRepository;
+
+    private Long sellerId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT IGNORE INTO users (username, password, email, role) VALUES (?, 'x', ?, 'USER')",
+                SELLER, SELLER + "@bench.local");
+        sellerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, SELLER);
+
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM game_accounts WHERE seller_id = ?", Integer.class, sellerId);
+        Random random = new Random(42);
+        for (int done = existing; done < ROWS; done += BATCH) {
+            List<Object[]> batch = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                String description = SEED_MARKER + " " + WORDS[random.nextInt(WORDS.length)] + ", "
+                        + (10 + random.nextInt(150)) + " tướng, " + WORDS[random.nextInt(WORDS.length)];
+                batch.add(new Object[] {RANKS[random.nextInt(RANKS.length)], 50_000L + random.nextInt(5_000_000),
+                        description, sellerId});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO game_accounts (game_name, account_rank, price, description, status, seller_id) " +
+                    "VALUES ('Liên Minh Huyền Thoại', ?, ?, ?, 'APPROVED', ?)", batch);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE game_accounts");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM game_accounts WHERE seller_id = ?", sellerId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", sellerId);
+    }
+
+    @Test
+    void likeVersusFulltext() {
+        for (String keyword : List.of("yasuo", "skin hiếm", "đổi được email", "grandmaster")) {
+            long[] like = time(() -> gameAccountRepository.findListingCards(ListingFilter.of(keyword, null),
+                    ListingSort.NEWEST, null, false, 13).size());
+            String booleanQuery = Arrays.stream(keyword.split("\\s+")).map(w -> "+" + w)
+                    .reduce((a, b) -> a + " " + b).orElseThrow();
+            long[] fulltext = time(() -> gameAccountRepository.findFulltextHits(booleanQuery, keyword,
+                    ListingFilter.of(keyword, null), ListingSort.RELEVANCE, null, false, 13).size());
+
+            System.out.printf("%-16s LIKE p50=%5dms p95=%5dms | FULLTEXT p50=%5dms p95=%5dms%n",
+                    keyword, like[RUNS / 2], like[RUNS * 95 / 100], fulltext[RUNS / 2], fulltext[RUNS * 95 / 100]);
+            assertTrue(fulltext[RUNS / 2] <= like[RUNS / 2],
+                    "FULLTEXT should not be slower than the LIKE scan for '" + keyword + "'");
+        }
+    }
+
+    /**
+     * Run the query RUNS times after one warm-up and return sorted latencies in ms
+     */
+    private long[] time(IntSupplier query) {
+        assertTrue(query.getAsInt() > 0, "benchmark keyword should match seeded rows");
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.getAsInt();
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+}
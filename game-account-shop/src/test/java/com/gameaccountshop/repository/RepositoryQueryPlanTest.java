@@ -0,0 +1,455 @@
+package com.gameaccountshop.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gameaccountshop.enums.BatchStatus;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.enums.PaymentOutboxStatus;
+import com.gameaccountshop.enums.PayoutStatus;
+import com.gameaccountshop.enums.Role;
+import com.gameaccountshop.enums.TransactionStatus;
+import com.gameaccountshop.enums.TransactionType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+
+/**
+ * Query plan regression suite for every derived and @Query method declared in com.gameaccountshop.repository
+ * Each method is invoked against a seeded database, the SQL it sends (with bound values, as rendered by
+ * MySQL Connector/J) is captured, and EXPLAIN FORMAT=JSON must show neither a full table scan nor a filesort.
+ *
+ * The dynamic browse query (GameAccountRepositoryCustom) is covered per filter combination by ListingBrowsePlanTest.
+ * Seed rows are committed (ANALYZE TABLE commits implicitly) and removed with their users afterwards.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(RepositoryQueryPlanTest.SqlCaptureConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final String REPOSITORY_PACKAGE = "com.gameaccountshop.repository";
+    private static final String SEED_PREFIX = "plan_";
+    private static final int USERS = 2_000;
+    private static final int LISTINGS = 6_000;
+    private static final int TRANSACTIONS = 6_000;
+    private static final int PAYOUTS = 3_000;
+    private static final String PLAN_JOB_KEY = "plan-month";
+
+    // Plans that are full scans or filesorts by design, with the reason
+    private static final Map<String, String> ACCEPTED = Map.of(
+            "GameAccountRepository.findApprovedListings",
+            "legacy catch-all search: the leading-wildcard username subquery scans users; browse uses findListingCards",
+            "PlatformRevenueRepository.findAllByOrderByStripeIdAsc",
+            "reads every revenue stripe by design; the table holds app.revenue.stripes rows");
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TransactionTemplate transactionTemplate;
+    private List<Long> userIds;
+    private Long listingId;
+    private Long jobExecutionId;
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor sqlCapturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? SqlCapture.wrap(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Records the statements executed on this thread while capturing is on
+     * DataSource -> Connection -> PreparedStatement are proxied; everything else passes through.
+     */
+    static final class SqlCapture implements InvocationHandler {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+        private static final String RENDERED_MARKER = "PreparedStatement: ";
+
+        private final Object target;
+
+        private SqlCapture(Object target) {
+            this.target = target;
+        }
+
+        static <T> T wrap(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new SqlCapture(target)));
+        }
+
+        static void start() {
+            CAPTURED.set(new ArrayList<>());
+        }
+
+        static List<String> stop() {
+            List<String> statements = CAPTURED.get();
+            CAPTURED.remove();
+            return statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                return wrap(Connection.class, connection);
+            }
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrap(PreparedStatement.class, statement);
+            }
+            List<String> captured = CAPTURED.get();
+            if (captured != null && target instanceof PreparedStatement && method.getName().startsWith("execute")) {
+                // Connector/J renders the statement with its bound values after the class name
+                String rendered = target.toString();
+                int at = rendered.indexOf(RENDERED_MARKER);
+                captured.add(at >= 0 ? rendered.substring(at + RENDERED_MARKER.length()) : null);
+            }
+            return result;
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cleanUp();
+        Random random = new Random(11);
+
+        List<Object[]> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[] {SEED_PREFIX + i, SEED_PREFIX + i + "@plan.local", i % 200 == 0 ? "ADMIN" : "USER"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email, role) VALUES (?, 'x', ?, ?)", users);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class,
+                SEED_PREFIX + "%");
+
+        // Skewed like production: most listings sold, most transactions completed, most payouts received
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> listings = new ArrayList<>(LISTINGS);
+        for (int i = 0; i < LISTINGS; i++) {
+            int roll = random.nextInt(100);
+            String status = roll < 10 ? "APPROVED" : roll < 13 ? "PENDING" : roll < 16 ? "REJECTED" : "SOLD";
+            listings.add(new Object[] {i % 7 == 0 ? "Gold III" : "Rank " + random.nextInt(40),
+                    50_000L + random.nextInt(5_000_000), "plan seed " + i, status, randomUser(random),
+                    now.minusMinutes(random.nextInt(500_000))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO game_accounts (game_name, account_rank, price, description, status, " +
+                "seller_id, created_at) VALUES ('Liên Minh Huyền Thoại', ?, ?, ?, ?, ?, ?)", listings);
+        listingId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM game_accounts", Long.class);
+
+        List<Object[]> transactions = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            int roll = random.nextInt(100);
+            String status = roll < 5 ? "PENDING" : roll < 10 ? "REJECTED" : "COMPLETED";
+            transactions.add(new Object[] {randomUser(random), randomUser(random), status,
+                    roll % 10 == 0 ? "TOP_UP" : "PURCHASE", now.minusMinutes(random.nextInt(500_000))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (buyer_id, seller_id, amount, commission, status, " +
+                "transaction_type, created_at) VALUES (?, ?, 100000, 10000, ?, ?, ?)", transactions);
+
+        List<Object[]> payouts = new ArrayList<>(PAYOUTS);
+        for (int i = 0; i < PAYOUTS; i++) {
+            int roll = random.nextInt(100);
+            String status = roll < 10 ? "NEEDS_PAYMENT" : roll < 20 ? "PAID" : "RECEIVED";
+            payouts.add(new Object[] {randomUser(random), status, now.minusDays(random.nextInt(730))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payouts (seller_id, amount, status, created_at) VALUES (?, 90000, ?, ?)",
+                payouts);
+
+        jdbcTemplate.batchUpdate("INSERT INTO wallets (user_id, balance) VALUES (?, 0)",
+                userIds.stream().map(id -> new Object[] {id}).toList());
+
+        List<Object[]> ledger = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            boolean credit = random.nextInt(3) == 0;
+            ledger.add(new Object[] {randomUser(random), credit ? "CREDIT" : "DEBIT", credit ? 100_000 : -100_000});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO wallet_ledger (user_id, entry_type, amount) VALUES (?, ?, ?)", ledger);
+
+        jdbcTemplate.update("INSERT INTO seller_earnings (seller_id, gross_sold, net_earnings) " +
+                "SELECT id, 1000000, 900000 FROM users WHERE username LIKE ?", SEED_PREFIX + "%");
+
+        jdbcTemplate.update("INSERT INTO batch_job_executions (job_name, job_key, max_id, chunk_size) " +
+                "VALUES ('monthly-payouts', ?, 2000, 100)", PLAN_JOB_KEY);
+        jobExecutionId = jdbcTemplate.queryForObject("SELECT id FROM batch_job_executions WHERE job_key = ?",
+                Long.class, PLAN_JOB_KEY);
+        List<Object[]> chunks = new ArrayList<>();
+        for (long fromId = 1; fromId <= 2000; fromId += 100) {
+            chunks.add(new Object[] {jobExecutionId, fromId, fromId + 100, fromId < 1500 ? "COMPLETED" : "PENDING"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO batch_chunk_executions (job_execution_id, from_id, to_id, status) " +
+                "VALUES (?, ?, ?, ?)", chunks);
+
+        jdbcTemplate.execute("ANALYZE TABLE users, game_accounts, transactions, payouts, wallets, wallet_ledger, " +
+                "seller_earnings, batch_job_executions, batch_chunk_executions");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        // game_accounts, transactions, payouts, wallets, wallet_ledger and seller_earnings cascade from users
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", SEED_PREFIX + "%");
+        // batch_chunk_executions cascade from their execution
+        jdbcTemplate.update("DELETE FROM batch_job_executions WHERE job_key = ?", PLAN_JOB_KEY);
+    }
+
+    private Long randomUser(Random random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    @Test
+    void everyRepositoryQuery_UsesIndexesWithoutFilesort() throws Exception {
+        List<String> failures = new ArrayList<>();
+        int explained = 0;
+
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Class<?> repositoryInterface = repositories.getRepositoryInformationFor(domainType)
+                    .orElseThrow().getRepositoryInterface();
+            if (!repositoryInterface.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                continue;
+            }
+            Object repository = applicationContext.getBean(repositoryInterface);
+
+            List<Method> methods = new ArrayList<>(List.of(repositoryInterface.getDeclaredMethods()));
+            methods.sort(Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+
+                Object[] args = arguments(method);
+                SqlCapture.start();
+                try {
+                    if (method.isAnnotationPresent(Modifying.class)) {
+                        // Writes run in a transaction that is rolled back; only their plan matters
+                        transactionTemplate.executeWithoutResult(status -> {
+                            invoke(method, repository, args);
+                            status.setRollbackOnly();
+                        });
+                    } else {
+                        invoke(method, repository, args);
+                    }
+                } finally {
+                    List<String> statements = SqlCapture.stop();
+                    assertFalse(statements.isEmpty(), name + " did not reach the database");
+                    for (String sql : statements) {
+                        assertNotNull(sql, name + ": driver did not render the bound SQL (MySQL Connector/J required)");
+                        List<String> problems = planProblems(sql);
+                        explained++;
+                        if (!problems.isEmpty() && !ACCEPTED.containsKey(name)) {
+                            failures.add(name + " " + problems + "\n    " + sql);
+                        }
+                    }
+                }
+            }
+        }
+
+        assertTrue(explained > 0, "no repository queries were explained");
+        assertTrue(failures.isEmpty(), "Query plans with full scans or filesorts:\n" + String.join("\n", failures));
+    }
+
+    private static void invoke(Method method, Object repository, Object[] args) {
+        try {
+            method.invoke(repository, args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(method + " failed", e.getTargetException());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Full scans and filesorts anywhere in the EXPLAIN FORMAT=JSON tree
+     */
+    private List<String> planProblems(String sql) throws Exception {
+        String json = jdbcTemplate.queryForObject("EXPLAIN FORMAT=JSON " + sql, String.class);
+        List<String> problems = new ArrayList<>();
+        collectProblems(objectMapper.readTree(json), problems);
+        return problems;
+    }
+
+    private void collectProblems(JsonNode node, List<String> problems) {
+        if (node.isObject()) {
+            String table = node.path("table_name").asText("?");
+            if ("ALL".equals(node.path("access_type").asText())) {
+                problems.add("full scan of " + table);
+            }
+            // MySQL marks "using_filesort": true; MariaDB nests a "filesort" block
+            if (node.path("using_filesort").asBoolean(false) || node.has("filesort")) {
+                problems.add("filesort");
+            }
+            for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+                collectProblems(children.next(), problems);
+            }
+        } else if (node.isArray()) {
+            node.forEach(child -> collectProblems(child, problems));
+        }
+    }
+
+    /**
+     * Representative, selective arguments for a repository method, chosen by parameter name then type
+     */
+    private Object[] arguments(Method method) {
+        Parameter[] parameters = method.getParameters();
+        Object[] args = new Object[parameters.length];
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Param param = parameter.getAnnotation(Param.class);
+            String name = param != null ? param.value() : parameter.getName();
+            Class<?> type = parameter.getType();
+
+            args[i] = switch (name) {
+                case "sellerId", "buyerId", "userId", "adminId" -> userIds.get(userIds.size() / 2);
+                case "id" -> listingId;
+                case "ids" -> List.of(listingId, listingId - 1, listingId - 2);
+                case "username" -> SEED_PREFIX + 7;
+                case "email" -> SEED_PREFIX + 7 + "@plan.local";
+                case "usernamePrefix" -> SEED_PREFIX + 7;
+                case "search" -> "gold";
+                case "query" -> "+gold";
+                case "rank" -> "Gold III";
+                case "amount" -> type == Long.class ? 1L : BigDecimal.ONE;
+                case "from" -> monthStart;
+                case "to" -> monthStart.plusMonths(1);
+                case "soldAt" -> LocalDateTime.now();
+                case "afterId", "afterUserId" -> 0L;
+                case "stripeId" -> 3;
+                case "idempotencyKey" -> "plan-key";
+                case "action" -> "PURCHASE";
+                case "resultRedirect" -> "redirect:/purchase-success";
+                case "completedAt" -> LocalDateTime.now();
+                case "before" -> LocalDateTime.now().minusDays(1);
+                case "createdAt" -> LocalDateTime.now().minusHours(1);
+                case "cap" -> 1000;
+                case "orderCode" -> 1L;
+                case "reference" -> "plan-ref";
+                case "reason" -> "plan-reason";
+                case "transactionId" -> 1L;
+                case "now", "sentAt", "nextAttemptAt", "paidAt", "receivedAt" -> LocalDateTime.now();
+                case "error" -> "plan-error";
+                case "paymentLinkId" -> "plan-link";
+                case "qrCode", "checkoutUrl" -> "plan-payment";
+                case "gross" -> 0L;
+                case "net", "received", "paidPending" -> BigDecimal.ZERO;
+                case "fromId" -> userIds.get(userIds.size() / 2);
+                case "toId" -> userIds.get(userIds.size() / 2) + 50;
+                case "jobName" -> "monthly-payouts";
+                case "jobKey" -> PLAN_JOB_KEY;
+                case "jobExecutionId" -> jobExecutionId;
+                case "itemsWritten" -> 10;
+                case "durationMs" -> 100L;
+                case "finishedAt" -> LocalDateTime.now();
+                case "name" -> "plan-lock";
+                case "lockedBy" -> "plan-node";
+                case "token" -> "00000000-0000-0000-0000-000000000000";
+                case "leaseMillis", "holdMillis" -> 60_000L;
+                case "since" -> LocalDateTime.now().plusMinutes(1);
+                default -> byType(type, name, method);
+            };
+        }
+        return args;
+    }
+
+    private static Object byType(Class<?> type, String name, Method method) {
+        if (type == ListingStatus.class) {
+            return ListingStatus.APPROVED;
+        }
+        if (type == TransactionStatus.class) {
+            return TransactionStatus.PENDING;
+        }
+        if (type == PayoutStatus.class) {
+            return PayoutStatus.NEEDS_PAYMENT;
+        }
+        if (type == PaymentOutboxStatus.class) {
+            return PaymentOutboxStatus.FAILED;
+        }
+        if (type == BatchStatus.class) {
+            return BatchStatus.COMPLETED;
+        }
+        if (type == TransactionType.class) {
+            return TransactionType.TOP_UP;
+        }
+        if (type == Role.class) {
+            return Role.ADMIN;
+        }
+        if (type == String.class && name.equals("status")) {
+            return ListingStatus.APPROVED.name();
+        }
+        if (type == Sort.class) {
+            return Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        }
+        if (type == Limit.class) {
+            return Limit.of(200);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 13, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        }
+        throw new IllegalStateException("No plan-test argument for " + type.getSimpleName() + " " + name
+                + " in " + method + "; add one to RepositoryQueryPlanTest#arguments");
+    }
+}
@@ -0,0 +1,198 @@
+package com.gameaccountshop.repository;
+
+import com.gameaccountshop.exception.InsufficientBalanceException;
+import com.gameaccountshop.service.EmailService;
+import com.gameaccountshop.service.WalletService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+
+/**
+ * Concurrent writes to one wallet: WalletService (guarded balance UPDATE + ledger entry) vs SELECT ... FOR UPDATE
+ * Run with: mvn test -Pbenchmark -Dtest=WalletDebitBenchmarkTest
+ *
+ * Debits: the wallet is funded for exactly half of the attempted debits, so every run also checks that
+ * no debit is lost and none overdraws: exactly that many succeed and the balance ends at zero.
+ * Credits: every credit must land, so the balance ends at the sum of all of them.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(WalletService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WalletDebitBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int DEBITS_PER_THREAD = 500;
+    private static final BigDecimal AMOUNT = new BigDecimal("1000.00");
+    private static final String BUYER = "bench_wallet_buyer";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long userId;
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("INSERT IGNORE INTO users (username, password, email, role) VALUES (?, 'x', ?, 'USER')",
+                BUYER, BUYER + "@bench.local");
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, BUYER);
+        jdbcTemplate.update("INSERT IGNORE INTO wallets (user_id, balance) VALUES (?, 0)", userId);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void guardedDebitVersusSelectForUpdate() throws Exception {
+        // Baseline writes the same ledger entry, so only the balance check differs
+        double locking = runDebits("SELECT ... FOR UPDATE", () -> transactionTemplate.execute(status -> {
+            BigDecimal balance = jdbcTemplate.queryForObject(
+                    "SELECT balance FROM wallets WHERE user_id = ? FOR UPDATE", BigDecimal.class, userId);
+            if (balance.compareTo(AMOUNT) < 0) {
+                return false;
+            }
+            jdbcTemplate.update("UPDATE wallets SET balance = ? WHERE user_id = ?", balance.subtract(AMOUNT), userId);
+            jdbcTemplate.update("INSERT INTO wallet_ledger (user_id, entry_type, amount) VALUES (?, 'DEBIT', ?)",
+                    userId, AMOUNT.negate());
+            return true;
+        }));
+
+        double guarded = runDebits("guarded UPDATE", () -> {
+            try {
+                walletService.deductBalance(userId, AMOUNT, null);
+                return true;
+            } catch (InsufficientBalanceException e) {
+                return false;
+            }
+        });
+
+        assertTrue(guarded >= locking, "the conditional UPDATE should be at least as fast as SELECT ... FOR UPDATE");
+    }
+
+    @Test
+    void creditWithLedgerEntryVersusBareUpdate() throws Exception {
+        double bare = runCredits("UPDATE balance + ?", () -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE wallets SET balance = balance + ? WHERE user_id = ?", AMOUNT, userId)));
+
+        double withEntry = runCredits("UPDATE + CREDIT entry", () -> walletService.addBalance(userId, AMOUNT, null));
+
+        assertTrue(withEntry >= bare * 0.5, "the ledger entry should cost credits at most half their throughput");
+    }
+
+    /**
+     * Fund the wallet for half the attempts, race THREADS x DEBITS_PER_THREAD debits and return debits/s
+     */
+    private double runDebits(String label, Supplier<Boolean> debit) throws Exception {
+        int attempts = THREADS * DEBITS_PER_THREAD;
+        int affordable = attempts / 2;
+        reset(AMOUNT.multiply(BigDecimal.valueOf(affordable)));
+
+        AtomicInteger succeeded = new AtomicInteger();
+        double seconds = race(() -> {
+            if (Boolean.TRUE.equals(debit.get())) {
+                succeeded.incrementAndGet();
+            }
+        });
+
+        BigDecimal balance = walletService.getBalance(userId);
+        System.out.printf("%-22s %6d debits in %6.2fs = %8.0f/s (ok=%d, final balance=%s)%n",
+                label, attempts, seconds, attempts / seconds, succeeded.get(), balance);
+
+        assertEquals(affordable, succeeded.get(), label + ": every affordable debit succeeds, no more");
+        assertEquals(0, balance.signum(), label + ": no lost update and no overdraft");
+        return attempts / seconds;
+    }
+
+    /**
+     * Start from zero, race THREADS x DEBITS_PER_THREAD credits and return credits/s
+     */
+    private double runCredits(String label, Runnable credit) throws Exception {
+        int attempts = THREADS * DEBITS_PER_THREAD;
+        reset(BigDecimal.ZERO);
+
+        double seconds = race(credit);
+
+        BigDecimal balance = walletService.getBalance(userId);
+        System.out.printf("%-22s %6d credits in %6.2fs = %8.0f/s (final balance=%s)%n",
+                label, attempts, seconds, attempts / seconds, balance);
+
+        assertEquals(0, AMOUNT.multiply(BigDecimal.valueOf(attempts)).compareTo(balance), label + ": no lost credit");
+        return attempts / seconds;
+    }
+
+    private void reset(BigDecimal balance) {
+        jdbcTemplate.update("DELETE FROM wallet_ledger WHERE user_id = ?", userId);
+        jdbcTemplate.update("UPDATE wallets SET balance = ?, snapshot_balance = ?, snapshot_entry_id = 0 WHERE user_id = ?",
+                balance, balance, userId);
+    }
+
+    /**
+     * Run the operation DEBITS_PER_THREAD times on each of THREADS threads, started together; returns seconds
+     */
+    private double race(Runnable operation) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DEBITS_PER_THREAD; i++) {
+                        operation.run();
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return (System.nanoTime() - begin) / 1e9;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyKeySchedulerTest {
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @InjectMocks
+    private IdempotencyKeyScheduler idempotencyKeyScheduler;
+
+    @Test
+    void purgeExpiredKeys_DeletesKeysOlderThanRetention() {
+        // When
+        idempotencyKeyScheduler.purgeExpiredKeys();
+
+        // Then
+        verify(idempotencyService).purgeOlderThan(IdempotencyKeyScheduler.RETENTION);
+    }
+
+    @Test
+    void purgeExpiredKeys_HandlesException() {
+        // Given
+        when(idempotencyService.purgeOlderThan(IdempotencyKeyScheduler.RETENTION))
+                .thenThrow(new RuntimeException("Database error"));
+
+        // When - should not throw
+        idempotencyKeyScheduler.purgeExpiredKeys();
+
+        // Then
+        verify(idempotencyService).purgeOlderThan(IdempotencyKeyScheduler.RETENTION);
+    }
+}
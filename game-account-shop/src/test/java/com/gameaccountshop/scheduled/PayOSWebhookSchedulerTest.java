@@ -0,0 +1,51 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.PayOSWebhookService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayOSWebhookSchedulerTest {
+
+    @Mock
+    private PayOSWebhookService payOSWebhookService;
+
+    @InjectMocks
+    private PayOSWebhookScheduler payOSWebhookScheduler;
+
+    @Test
+    void settlePendingWebhooks_RetriesEachPendingOrderCode() {
+        // Given
+        when(payOSWebhookService.findUnsettled(PayOSWebhookScheduler.RETRY_WINDOW, PayOSWebhookScheduler.BATCH_SIZE))
+                .thenReturn(List.of(11L, 12L));
+        when(payOSWebhookService.settle(11L)).thenThrow(new RuntimeException("Lock wait timeout"));
+        when(payOSWebhookService.settle(12L)).thenReturn(true);
+
+        // When - one failure does not stop the batch
+        payOSWebhookScheduler.settlePendingWebhooks();
+
+        // Then
+        verify(payOSWebhookService).settle(11L);
+        verify(payOSWebhookService).settle(12L);
+    }
+
+    @Test
+    void settlePendingWebhooks_HandlesException() {
+        // Given
+        when(payOSWebhookService.findUnsettled(PayOSWebhookScheduler.RETRY_WINDOW, PayOSWebhookScheduler.BATCH_SIZE))
+                .thenThrow(new RuntimeException("Database error"));
+
+        // When - should not throw
+        payOSWebhookScheduler.settlePendingWebhooks();
+
+        // Then
+        verify(payOSWebhookService, never()).settle(any());
+    }
+}
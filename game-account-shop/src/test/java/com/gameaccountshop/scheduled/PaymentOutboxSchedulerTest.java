@@ -0,0 +1,55 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.entity.PaymentOutbox;
+import com.gameaccountshop.service.PaymentOutboxService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxSchedulerTest {
+
+    @Mock
+    private PaymentOutboxService paymentOutboxService;
+
+    @InjectMocks
+    private PaymentOutboxScheduler paymentOutboxScheduler;
+
+    @Test
+    void relayPaymentOutbox_RelaysEachDueRow() {
+        // Given
+        PaymentOutbox first = new PaymentOutbox();
+        first.setTransactionId(1L);
+        PaymentOutbox second = new PaymentOutbox();
+        second.setTransactionId(2L);
+        when(paymentOutboxService.findDue(PaymentOutboxScheduler.BATCH_SIZE)).thenReturn(List.of(first, second));
+        when(paymentOutboxService.relay(first)).thenThrow(new RuntimeException("Lock wait timeout"));
+        when(paymentOutboxService.relay(second)).thenReturn(true);
+
+        // When - one failure does not stop the batch
+        paymentOutboxScheduler.relayPaymentOutbox();
+
+        // Then
+        verify(paymentOutboxService).relay(first);
+        verify(paymentOutboxService).relay(second);
+    }
+
+    @Test
+    void relayPaymentOutbox_HandlesException() {
+        // Given
+        when(paymentOutboxService.findDue(PaymentOutboxScheduler.BATCH_SIZE))
+                .thenThrow(new RuntimeException("Database error"));
+
+        // When - should not throw
+        paymentOutboxScheduler.relayPaymentOutbox();
+
+        // Then
+        verify(paymentOutboxService, never()).relay(any());
+    }
+}
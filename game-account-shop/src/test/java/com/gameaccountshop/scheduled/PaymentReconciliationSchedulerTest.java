@@ -0,0 +1,48 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.dto.ReconciliationStatsDto;
+import com.gameaccountshop.service.PaymentReconciler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationSchedulerTest {
+
+    @Mock
+    private PaymentReconciler paymentReconciler;
+
+    @InjectMocks
+    private PaymentReconciliationScheduler paymentReconciliationScheduler;
+
+    @Test
+    void reconcilePendingPayments_RunsReconciler() {
+        // Given
+        when(paymentReconciler.reconcile()).thenReturn(new ReconciliationStatsDto(LocalDateTime.now(), 10,
+                3, 3, 0, 1, 1, 1, 20.0, 30.0, 30.0, 30.0));
+
+        // When
+        paymentReconciliationScheduler.reconcilePendingPayments();
+
+        // Then
+        verify(paymentReconciler).reconcile();
+    }
+
+    @Test
+    void reconcilePendingPayments_HandlesException() {
+        // Given
+        when(paymentReconciler.reconcile()).thenThrow(new RuntimeException("Database error"));
+
+        // When - should not throw
+        paymentReconciliationScheduler.reconcilePendingPayments();
+
+        // Then
+        verify(paymentReconciler).reconcile();
+    }
+}
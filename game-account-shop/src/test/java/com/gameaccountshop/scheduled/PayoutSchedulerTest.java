@@ -43,4 +43,25 @@ class PayoutSchedulerTest {
         // Then - service was still called
         verify(payoutService, times(1)).createMonthlyPayouts();
     }
+
+    @Test
+    void resumeMonthlyPayouts_ResumesThroughService() {
+        // When
+        payoutScheduler.resumeMonthlyPayouts();
+
+        // Then
+        verify(payoutService).resumeMonthlyPayouts();
+    }
+
+    @Test
+    void resumeMonthlyPayouts_HandlesException() {
+        // Given
+        doThrow(new RuntimeException("Database error")).when(payoutService).resumeMonthlyPayouts();
+
+        // When - should not throw
+        payoutScheduler.resumeMonthlyPayouts();
+
+        // Then
+        verify(payoutService).resumeMonthlyPayouts();
+    }
 }
@@ -0,0 +1,136 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.LockProvider;
+import com.gameaccountshop.service.PayoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.support.AopUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for @SchedulerLocked: SchedulerLockPostProcessor proxies the scheduler and
+ * SchedulerLockInterceptor takes the lock around each run
+ */
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockInterceptorTest {
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private LockProvider.Lease lease;
+
+    @Mock
+    private PayoutService payoutService;
+
+    private PayoutScheduler payoutScheduler;
+
+    @BeforeEach
+    void setUp() {
+        SchedulerLockPostProcessor postProcessor = new SchedulerLockPostProcessor(() -> lockProvider);
+        payoutScheduler = (PayoutScheduler) postProcessor.postProcessAfterInitialization(
+                new PayoutScheduler(payoutService), "payoutScheduler");
+    }
+
+    @Test
+    void postProcessor_ProxiesLockedScheduler() {
+        assertTrue(AopUtils.isCglibProxy(payoutScheduler));
+    }
+
+    @Test
+    void lockedRun_LockTaken_RunsAndReleases() {
+        // Given
+        when(lockProvider.tryAcquire("monthly-payouts", Duration.ofMinutes(2), Duration.ofSeconds(10)))
+                .thenReturn(Optional.of(lease));
+
+        // When
+        payoutScheduler.createMonthlyPayouts();
+
+        // Then
+        verify(payoutService).createMonthlyPayouts();
+        verify(lease).close();
+    }
+
+    @Test
+    void lockedRun_HeldByAnotherNode_Skips() {
+        // Given
+        when(lockProvider.tryAcquire(any(), any(), any())).thenReturn(Optional.empty());
+
+        // When
+        payoutScheduler.createMonthlyPayouts();
+
+        // Then
+        verifyNoInteractions(payoutService);
+    }
+
+    @Test
+    void lockedRun_JobFails_StillReleases() {
+        // Given - a job that throws past its own catch
+        when(lockProvider.tryAcquire(any(), any(), any())).thenReturn(Optional.of(lease));
+        LockedJob job = (LockedJob) new SchedulerLockPostProcessor(() -> lockProvider)
+                .postProcessAfterInitialization(new LockedJob(), "lockedJob");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, job::failingRun);
+        verify(lease).close();
+    }
+
+    @Test
+    void lockedRun_LockProviderDown_SkipsRun() {
+        // Given
+        when(lockProvider.tryAcquire(any(), any(), any())).thenThrow(new RuntimeException("Communications link failure"));
+
+        // When - should not throw
+        payoutScheduler.resumeMonthlyPayouts();
+
+        // Then
+        verifyNoInteractions(payoutService);
+    }
+
+    @Test
+    void lockName_DefaultsToClassAndMethod() {
+        // Given
+        when(lockProvider.tryAcquire(any(), any(), any())).thenReturn(Optional.of(lease));
+        LockedJob job = (LockedJob) new SchedulerLockPostProcessor(() -> lockProvider)
+                .postProcessAfterInitialization(new LockedJob(), "lockedJob");
+
+        // When
+        job.run();
+        job.unlocked();
+
+        // Then - only the annotated method takes a lock
+        verify(lockProvider).tryAcquire("LockedJob.run", Duration.ofSeconds(30), Duration.ZERO);
+        assertEquals(2, job.runs());
+    }
+
+    static class LockedJob {
+        int runs;
+
+        @SchedulerLocked(leaseFor = "PT30S", holdAtLeast = "PT0S")
+        public void run() {
+            runs++;
+        }
+
+        public void unlocked() {
+            runs++;
+        }
+
+        public int runs() {
+            return runs;
+        }
+
+        @SchedulerLocked
+        public void failingRun() {
+            throw new IllegalStateException("Deadlock found when trying to get lock");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.dto.EarningsVerificationStatsDto;
+import com.gameaccountshop.service.SellerEarningsVerifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SellerEarningsVerificationSchedulerTest {
+
+    @Mock
+    private SellerEarningsVerifier sellerEarningsVerifier;
+
+    @InjectMocks
+    private SellerEarningsVerificationScheduler sellerEarningsVerificationScheduler;
+
+    @Test
+    void verifySellerEarnings_RunsVerifier() {
+        // Given
+        when(sellerEarningsVerifier.verify()).thenReturn(new EarningsVerificationStatsDto(LocalDateTime.now(), 40,
+                3, 0, 120, 1, 1));
+
+        // When
+        sellerEarningsVerificationScheduler.verifySellerEarnings();
+
+        // Then
+        verify(sellerEarningsVerifier).verify();
+    }
+
+    @Test
+    void verifySellerEarnings_HandlesException() {
+        // Given
+        when(sellerEarningsVerifier.verify()).thenThrow(new RuntimeException("Database error"));
+
+        // When - should not throw
+        sellerEarningsVerificationScheduler.verifySellerEarnings();
+
+        // Then
+        verify(sellerEarningsVerifier).verify();
+    }
+}
@@ -0,0 +1,56 @@
+package com.gameaccountshop.scheduled;
+
+import com.gameaccountshop.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletSnapshotSchedulerTest {
+
+    @Mock
+    private WalletService walletService;
+
+    @InjectMocks
+    private WalletSnapshotScheduler walletSnapshotScheduler;
+
+    @Test
+    void foldLedgerSnapshots_PagesThroughWalletsByUserId() {
+        // Given - one full batch, then a partial one
+        List<Long> firstBatch = LongStream.rangeClosed(1, WalletSnapshotScheduler.BATCH_SIZE).boxed().toList();
+        long lastOfFirst = WalletSnapshotScheduler.BATCH_SIZE;
+        when(walletService.findWalletsToFold(0L, WalletSnapshotScheduler.BATCH_SIZE)).thenReturn(firstBatch);
+        when(walletService.findWalletsToFold(lastOfFirst, WalletSnapshotScheduler.BATCH_SIZE))
+                .thenReturn(List.of(500L));
+        when(walletService.foldLedger(anyLong())).thenReturn(true);
+
+        // When
+        walletSnapshotScheduler.foldLedgerSnapshots();
+
+        // Then
+        verify(walletService, times(WalletSnapshotScheduler.BATCH_SIZE + 1)).foldLedger(anyLong());
+        verify(walletService).foldLedger(500L);
+        verify(walletService, times(2)).findWalletsToFold(anyLong(), anyInt());
+    }
+
+    @Test
+    void foldLedgerSnapshots_FailedWalletDoesNotStopTheRun() {
+        // Given
+        when(walletService.findWalletsToFold(0L, WalletSnapshotScheduler.BATCH_SIZE)).thenReturn(List.of(1L, 2L));
+        when(walletService.foldLedger(1L)).thenThrow(new RuntimeException("Lock wait timeout"));
+        when(walletService.foldLedger(2L)).thenReturn(true);
+
+        // When - should not throw
+        walletSnapshotScheduler.foldLedgerSnapshots();
+
+        // Then
+        verify(walletService).foldLedger(2L);
+    }
+}
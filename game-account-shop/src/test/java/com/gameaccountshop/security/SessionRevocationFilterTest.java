@@ -3,6 +3,7 @@ package com.gameaccountshop.security;
 import com.gameaccountshop.entity.User;
 import com.gameaccountshop.enums.Role;
 import com.gameaccountshop.repository.UserRepository;
+import com.gameaccountshop.service.UserSummaryCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,6 +37,9 @@ class SessionRevocationFilterTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserSummaryCache userSummaryCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -94,6 +98,7 @@ class SessionRevocationFilterTest {
         verify(filterChain, never()).doFilter(any(), any());
         verify(response).sendRedirect("/game-account-shop/auth/login?expired");
         assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userSummaryCache).evictByUsername("deleteduser");
     }
 
     @Test
@@ -0,0 +1,200 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.BatchChunkExecution;
+import com.gameaccountshop.entity.BatchJobExecution;
+import com.gameaccountshop.enums.BatchStatus;
+import com.gameaccountshop.repository.BatchChunkExecutionRepository;
+import com.gameaccountshop.repository.BatchJobExecutionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchCheckpointService
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchCheckpointServiceTest {
+
+    @Mock
+    private BatchJobExecutionRepository batchJobExecutionRepository;
+
+    @Mock
+    private BatchChunkExecutionRepository batchChunkExecutionRepository;
+
+    @InjectMocks
+    private BatchCheckpointService batchCheckpointService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void begin_NewExecution_PlansChunksOverIdRange() {
+        // Given
+        when(batchJobExecutionRepository.findByJobNameAndJobKey("monthly-payouts", "2026-02"))
+                .thenReturn(Optional.empty());
+        when(batchJobExecutionRepository.save(any(BatchJobExecution.class))).thenAnswer(invocation -> {
+            BatchJobExecution saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+        ArgumentCaptor<List<BatchChunkExecution>> chunks = ArgumentCaptor.forClass(List.class);
+
+        // When
+        BatchJobExecution execution = batchCheckpointService.begin("monthly-payouts", "2026-02", () -> 250L, 100);
+
+        // Then - [1, 101) [101, 201) [201, 251)
+        verify(batchChunkExecutionRepository).saveAll(chunks.capture());
+        assertEquals(List.of(1L, 101L, 201L), chunks.getValue().stream().map(BatchChunkExecution::getFromId).toList());
+        assertEquals(List.of(101L, 201L, 251L), chunks.getValue().stream().map(BatchChunkExecution::getToId).toList());
+        assertTrue(chunks.getValue().stream().allMatch(chunk -> chunk.getJobExecutionId() == 7L));
+        assertEquals(250L, execution.getMaxId());
+        assertEquals(1, execution.getRuns());
+        assertEquals(BatchStatus.PENDING, execution.getStatus());
+    }
+
+    @Test
+    void begin_StoppedExecution_ResumesWithOriginalPlan() {
+        // Given
+        BatchJobExecution stopped = new BatchJobExecution("monthly-payouts", "2026-02", 250L, 100);
+        stopped.setStatus(BatchStatus.FAILED);
+        stopped.setRuns(1);
+        when(batchJobExecutionRepository.findByJobNameAndJobKey("monthly-payouts", "2026-02"))
+                .thenReturn(Optional.of(stopped));
+
+        // When - more users registered since; the plan keeps its original range
+        BatchJobExecution execution = batchCheckpointService.begin("monthly-payouts", "2026-02", () -> 900L, 100);
+
+        // Then
+        assertSame(stopped, execution);
+        assertEquals(250L, execution.getMaxId());
+        assertEquals(2, execution.getRuns());
+        assertEquals(BatchStatus.PENDING, execution.getStatus());
+        verify(batchJobExecutionRepository, never()).save(any());
+        verify(batchChunkExecutionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void unfinishedJobKeys_ReturnsKeysOfExecutionsNotCompleted() {
+        // Given
+        BatchJobExecution failed = new BatchJobExecution("monthly-payouts", "2026-01", 250L, 100);
+        failed.setStatus(BatchStatus.FAILED);
+        BatchJobExecution crashed = new BatchJobExecution("monthly-payouts", "2026-02", 250L, 100);
+        when(batchJobExecutionRepository.findByJobNameAndStatusNotOrderByJobKey("monthly-payouts",
+                BatchStatus.COMPLETED)).thenReturn(List.of(failed, crashed));
+
+        // When & Then
+        assertEquals(List.of("2026-01", "2026-02"), batchCheckpointService.unfinishedJobKeys("monthly-payouts"));
+    }
+
+    @Test
+    void begin_CompletedExecution_ReturnsItUnchanged() {
+        // Given
+        BatchJobExecution completed = new BatchJobExecution("monthly-payouts", "2026-02", 250L, 100);
+        completed.setStatus(BatchStatus.COMPLETED);
+        completed.setRuns(1);
+        when(batchJobExecutionRepository.findByJobNameAndJobKey("monthly-payouts", "2026-02"))
+                .thenReturn(Optional.of(completed));
+
+        // When
+        BatchJobExecution execution = batchCheckpointService.begin("monthly-payouts", "2026-02", () -> 250L, 100);
+
+        // Then
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        assertEquals(1, execution.getRuns());
+    }
+
+    @Test
+    void begin_NoExecutionToResume_ReturnsNull() {
+        // Given
+        when(batchJobExecutionRepository.findByJobNameAndJobKey("monthly-payouts", "2026-02"))
+                .thenReturn(Optional.empty());
+
+        // When & Then
+        assertNull(batchCheckpointService.begin("monthly-payouts", "2026-02", null, 100));
+        verify(batchJobExecutionRepository, never()).save(any());
+    }
+
+    @Test
+    void runChunk_ClaimsChunkBeforeProcessing() {
+        // Given
+        BatchChunkExecution chunk = chunk();
+        List<String> calls = new ArrayList<>();
+        when(batchChunkExecutionRepository.claim(3L)).thenAnswer(invocation -> {
+            calls.add("claim");
+            return 1;
+        });
+
+        // When
+        Integer items = batchCheckpointService.runChunk(chunk, (fromId, toId) -> {
+            calls.add("process " + fromId + "-" + toId);
+            return 42;
+        });
+
+        // Then - the checkpoint is written in the same transaction as the chunk's rows
+        assertEquals(42, items);
+        assertEquals(List.of("claim", "process 201-251"), calls);
+        verify(batchChunkExecutionRepository).recordCompletion(eq(3L), eq(42), anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void runChunk_AlreadyCompleted_SkipsProcessor() {
+        // Given - another run committed the chunk while we waited for its lock
+        when(batchChunkExecutionRepository.claim(3L)).thenReturn(0);
+        BatchJobRunner.ChunkProcessor processor = mock(BatchJobRunner.ChunkProcessor.class);
+
+        // When
+        Integer items = batchCheckpointService.runChunk(chunk(), processor);
+
+        // Then
+        assertNull(items);
+        verifyNoInteractions(processor);
+        verify(batchChunkExecutionRepository, never()).recordCompletion(any(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void runChunk_ProcessorFails_Propagates() {
+        // Given
+        when(batchChunkExecutionRepository.claim(3L)).thenReturn(1);
+
+        // When & Then - the exception rolls back the claim together with the chunk's rows
+        assertThrows(IllegalStateException.class, () -> batchCheckpointService.runChunk(chunk(), (fromId, toId) -> {
+            throw new IllegalStateException("Lock wait timeout exceeded");
+        }));
+        verify(batchChunkExecutionRepository, never()).recordCompletion(any(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void recordChunkFailure_TruncatesErrorToColumn() {
+        // When
+        batchCheckpointService.recordChunkFailure(3L, new RuntimeException("x".repeat(400)));
+
+        // Then
+        verify(batchChunkExecutionRepository).recordFailure(3L, "x".repeat(255));
+    }
+
+    @Test
+    void finish_StoresStatus() {
+        // When
+        batchCheckpointService.finish(7L, BatchStatus.COMPLETED);
+
+        // Then
+        verify(batchJobExecutionRepository).finish(eq(7L), eq(BatchStatus.COMPLETED), any(LocalDateTime.class));
+    }
+
+    private static BatchChunkExecution chunk() {
+        BatchChunkExecution chunk = new BatchChunkExecution(7L, 201L, 251L);
+        chunk.setId(3L);
+        return chunk;
+    }
+}
@@ -0,0 +1,211 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.BatchJobStatsDto;
+import com.gameaccountshop.entity.BatchChunkExecution;
+import com.gameaccountshop.entity.BatchJobExecution;
+import com.gameaccountshop.enums.BatchStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchJobRunner
+ * Chunks run on the runner's real pool; checkpoints are mocked
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchJobRunnerTest {
+
+    private static final String JOB = "monthly-payouts";
+    private static final String KEY = "2026-02";
+
+    @Mock
+    private BatchCheckpointService batchCheckpointService;
+
+    private BatchJobRunner batchJobRunner;
+
+    private final List<Long> processedFromIds = Collections.synchronizedList(new ArrayList<>());
+    private final BatchJobRunner.ChunkProcessor processor = (fromId, toId) -> {
+        processedFromIds.add(fromId);
+        return (int) (toId - fromId) / 10;
+    };
+
+    @BeforeEach
+    void setUp() {
+        batchJobRunner = new BatchJobRunner(batchCheckpointService, 100, 2);
+    }
+
+    @Test
+    void run_NewExecution_ProcessesEveryChunkAndCompletes() {
+        // Given - ids 1..250 planned as [1, 101) [101, 201) [201, 251)
+        BatchJobExecution execution = execution(BatchStatus.PENDING, 1);
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), any(), eq(100))).thenReturn(execution);
+        when(batchCheckpointService.unfinishedChunks(7L))
+                .thenReturn(List.of(chunk(1, 1L, 101L), chunk(2, 101L, 201L), chunk(3, 201L, 251L)));
+        runChunksForReal();
+
+        // When
+        BatchJobStatsDto stats = batchJobRunner.run(JOB, KEY, () -> 250L, processor);
+
+        // Then
+        assertEquals(List.of(1L, 101L, 201L), processedFromIds.stream().sorted().toList());
+        verify(batchCheckpointService).finish(7L, BatchStatus.COMPLETED);
+        assertFalse(stats.resumed());
+        assertEquals(3, stats.chunks());
+        assertEquals(0, stats.chunksSkipped());
+        assertEquals(3, stats.chunksCompleted());
+        assertEquals(0, stats.chunksFailed());
+        assertEquals(25, stats.itemsWritten());
+        assertSame(stats, batchJobRunner.lastRuns().get(JOB));
+    }
+
+    @Test
+    void run_FailedChunk_RecordsFailureAndLeavesExecutionForNextRun() {
+        // Given
+        BatchJobExecution execution = execution(BatchStatus.PENDING, 1);
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), any(), eq(100))).thenReturn(execution);
+        BatchChunkExecution failing = chunk(2, 101L, 201L);
+        when(batchCheckpointService.unfinishedChunks(7L))
+                .thenReturn(List.of(chunk(1, 1L, 101L), failing, chunk(3, 201L, 251L)));
+        RuntimeException deadlock = new RuntimeException("Deadlock found when trying to get lock");
+        when(batchCheckpointService.runChunk(any(), any())).thenAnswer(invocation -> {
+            BatchChunkExecution chunk = invocation.getArgument(0);
+            if (chunk == failing) {
+                throw deadlock;
+            }
+            return processor.process(chunk.getFromId(), chunk.getToId());
+        });
+
+        // When
+        BatchJobStatsDto stats = batchJobRunner.run(JOB, KEY, () -> 250L, processor);
+
+        // Then - the other chunks still commit
+        verify(batchCheckpointService).recordChunkFailure(2L, deadlock);
+        verify(batchCheckpointService).finish(7L, BatchStatus.FAILED);
+        assertEquals(2, stats.chunksCompleted());
+        assertEquals(1, stats.chunksFailed());
+        assertEquals(15, stats.itemsWritten());
+    }
+
+    @Test
+    void resume_StoppedExecution_ProcessesOnlyUnfinishedChunks() {
+        // Given - the first run completed [1, 101) and [101, 201)
+        BatchJobExecution execution = execution(BatchStatus.FAILED, 2);
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), isNull(), eq(100))).thenReturn(execution);
+        when(batchCheckpointService.unfinishedChunks(7L)).thenReturn(List.of(chunk(3, 201L, 251L)));
+        runChunksForReal();
+
+        // When
+        BatchJobStatsDto stats = batchJobRunner.resume(JOB, KEY, processor);
+
+        // Then
+        assertEquals(List.of(201L), processedFromIds);
+        verify(batchCheckpointService).finish(7L, BatchStatus.COMPLETED);
+        assertTrue(stats.resumed());
+        assertEquals(3, stats.chunks());
+        assertEquals(2, stats.chunksSkipped());
+        assertEquals(1, stats.chunksCompleted());
+    }
+
+    @Test
+    void resume_NoExecution_DoesNothing() {
+        // Given
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), isNull(), eq(100))).thenReturn(null);
+
+        // When
+        BatchJobStatsDto stats = batchJobRunner.resume(JOB, KEY, processor);
+
+        // Then
+        assertNull(stats);
+        verify(batchCheckpointService, never()).unfinishedChunks(any());
+    }
+
+    @Test
+    void run_CompletedExecution_DoesNothing() {
+        // Given - this month's payouts were already created
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), any(), eq(100)))
+                .thenReturn(execution(BatchStatus.COMPLETED, 1));
+
+        // When
+        BatchJobStatsDto stats = batchJobRunner.run(JOB, KEY, () -> 250L, processor);
+
+        // Then
+        assertNull(stats);
+        verify(batchCheckpointService, never()).unfinishedChunks(any());
+        verify(batchCheckpointService, never()).finish(any(), any());
+    }
+
+    @Test
+    void run_ExecutionCreatedConcurrently_JoinsIt() {
+        // Given - another instance inserted the execution between our lookup and insert
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), notNull(), eq(100)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_job_name_key'"));
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), isNull(), eq(100)))
+                .thenReturn(execution(BatchStatus.PENDING, 2));
+        when(batchCheckpointService.unfinishedChunks(7L)).thenReturn(List.of());
+
+        // When
+        BatchJobStatsDto stats = batchJobRunner.run(JOB, KEY, () -> 250L, processor);
+
+        // Then
+        assertEquals(3, stats.chunksSkipped());
+        verify(batchCheckpointService).finish(7L, BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void run_ChunkCompletedByAnotherRun_IsNotCountedTwice() {
+        // Given
+        when(batchCheckpointService.begin(eq(JOB), eq(KEY), any(), eq(100)))
+                .thenReturn(execution(BatchStatus.PENDING, 1));
+        when(batchCheckpointService.unfinishedChunks(7L)).thenReturn(List.of(chunk(1, 1L, 101L)));
+        when(batchCheckpointService.runChunk(any(), any())).thenReturn(null);
+
+        // When
+        BatchJobStatsDto stats = batchJobRunner.run(JOB, KEY, () -> 250L, processor);
+
+        // Then
+        assertEquals(0, stats.chunksCompleted());
+        assertEquals(0, stats.chunksFailed());
+        assertEquals(0, stats.itemsWritten());
+    }
+
+    @Test
+    void constructor_NonPositiveParallelism_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchJobRunner(batchCheckpointService, 100, 0));
+    }
+
+    /**
+     * runChunk calls the processor, as the real checkpoint service does inside the chunk's transaction
+     */
+    private void runChunksForReal() {
+        when(batchCheckpointService.runChunk(any(), any())).thenAnswer(invocation -> {
+            BatchChunkExecution chunk = invocation.getArgument(0);
+            BatchJobRunner.ChunkProcessor chunkProcessor = invocation.getArgument(1);
+            return chunkProcessor.process(chunk.getFromId(), chunk.getToId());
+        });
+    }
+
+    private static BatchJobExecution execution(BatchStatus status, int runs) {
+        BatchJobExecution execution = new BatchJobExecution(JOB, KEY, 250L, 100);
+        execution.setId(7L);
+        execution.setStatus(status);
+        execution.setRuns(runs);
+        return execution;
+    }
+
+    private static BatchChunkExecution chunk(long id, Long fromId, Long toId) {
+        BatchChunkExecution chunk = new BatchChunkExecution(7L, fromId, toId);
+        chunk.setId(id);
+        return chunk;
+    }
+}
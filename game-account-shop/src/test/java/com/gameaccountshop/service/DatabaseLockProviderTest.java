@@ -0,0 +1,196 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DatabaseLockProvider
+ * The heartbeat runs on the provider's real thread with short leases
+ */
+@ExtendWith(MockitoExtension.class)
+class DatabaseLockProviderTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(2);
+    private static final Duration HOLD = Duration.ofSeconds(10);
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private DatabaseLockProvider lockProvider;
+
+    @BeforeEach
+    void setUp() {
+        lockProvider = new DatabaseLockProvider(schedulerLockRepository, "node-a");
+    }
+
+    @AfterEach
+    void tearDown() {
+        lockProvider.shutdown();
+    }
+
+    @Test
+    void tryAcquire_NewLock_InsertsLease() {
+        // Given
+        when(schedulerLockRepository.insertIfAbsent(eq("monthly-payouts"), eq("node-a"), anyString(), eq(120_000L)))
+                .thenReturn(1);
+
+        // When
+        Optional<LockProvider.Lease> lease = lockProvider.tryAcquire("monthly-payouts", LEASE, HOLD);
+
+        // Then
+        assertTrue(lease.isPresent());
+        assertTrue(lease.get().isHeld());
+        verify(schedulerLockRepository, never()).takeOverExpired(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void tryAcquire_ExpiredLease_TakesItOver() {
+        // Given - the row exists; its node released it or died
+        when(schedulerLockRepository.insertIfAbsent(any(), any(), any(), anyLong())).thenReturn(0);
+        when(schedulerLockRepository.takeOverExpired(eq("monthly-payouts"), eq("node-a"), anyString(), eq(120_000L)))
+                .thenReturn(1);
+
+        // When & Then
+        assertTrue(lockProvider.tryAcquire("monthly-payouts", LEASE, HOLD).isPresent());
+    }
+
+    @Test
+    void tryAcquire_HeldByAnotherNode_ReturnsEmpty() {
+        // Given
+        when(schedulerLockRepository.insertIfAbsent(any(), any(), any(), anyLong())).thenReturn(0);
+        when(schedulerLockRepository.takeOverExpired(any(), any(), any(), anyLong())).thenReturn(0);
+
+        // When & Then
+        assertTrue(lockProvider.tryAcquire("monthly-payouts", LEASE, HOLD).isEmpty());
+    }
+
+    @Test
+    void close_ReleasesOwnLeaseWithMinimumHold() {
+        // Given
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        when(schedulerLockRepository.insertIfAbsent(eq("monthly-payouts"), eq("node-a"), token.capture(), anyLong()))
+                .thenReturn(1);
+        LockProvider.Lease lease = lockProvider.tryAcquire("monthly-payouts", LEASE, HOLD).orElseThrow();
+
+        // When
+        lease.close();
+        lease.close();
+
+        // Then - released once, by this lease's token only
+        verify(schedulerLockRepository, times(1)).release("monthly-payouts", token.getValue(), 10_000L);
+        assertFalse(lease.isHeld());
+    }
+
+    @Test
+    void tokens_DifferPerLease() {
+        // Given
+        ArgumentCaptor<String> tokens = ArgumentCaptor.forClass(String.class);
+        when(schedulerLockRepository.insertIfAbsent(any(), any(), tokens.capture(), anyLong())).thenReturn(1);
+
+        // When
+        lockProvider.tryAcquire("a", LEASE, HOLD).orElseThrow().close();
+        lockProvider.tryAcquire("a", LEASE, HOLD).orElseThrow().close();
+
+        // Then
+        assertNotEquals(tokens.getAllValues().get(0), tokens.getAllValues().get(1));
+    }
+
+    @Test
+    void heartbeat_RenewsLeaseUntilClosed() {
+        // Given - renewed every third of the lease
+        when(schedulerLockRepository.insertIfAbsent(any(), any(), any(), anyLong())).thenReturn(1);
+        when(schedulerLockRepository.renew(eq("verify"), anyString(), eq(90L))).thenReturn(1);
+        LockProvider.Lease lease = lockProvider.tryAcquire("verify", Duration.ofMillis(90), Duration.ZERO)
+                .orElseThrow();
+
+        // When
+        verify(schedulerLockRepository, timeout(2_000).atLeast(3)).renew(eq("verify"), anyString(), eq(90L));
+        lease.close();
+
+        // Then
+        assertTrue(lease.name().equals("verify"));
+        verify(schedulerLockRepository).release(eq("verify"), anyString(), eq(0L));
+    }
+
+    @Test
+    void heartbeat_LeaseTakenOver_MarksLeaseLost() {
+        // Given - the lease expired during a long pause and another node took the lock
+        when(schedulerLockRepository.insertIfAbsent(any(), any(), any(), anyLong())).thenReturn(1);
+        when(schedulerLockRepository.renew(any(), any(), anyLong())).thenReturn(0);
+        LockProvider.Lease lease = lockProvider.tryAcquire("verify", Duration.ofMillis(90), Duration.ZERO)
+                .orElseThrow();
+
+        // When
+        verify(schedulerLockRepository, timeout(2_000)).renew(any(), any(), anyLong());
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (lease.isHeld() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        lease.close();
+
+        // Then - the other node's lease is left alone
+        assertFalse(lease.isHeld());
+        verify(schedulerLockRepository, never()).release(any(), any(), anyLong());
+    }
+
+    @Test
+    void heartbeat_RenewalsFail_LeaseLapsesLocally() {
+        // Given - the database is unreachable, so no renewal lands
+        when(schedulerLockRepository.insertIfAbsent(any(), any(), any(), anyLong())).thenReturn(1);
+        when(schedulerLockRepository.renew(any(), any(), anyLong())).thenThrow(new IllegalStateException("db down"));
+        LockProvider.Lease lease = lockProvider.tryAcquire("verify", Duration.ofMillis(90), Duration.ZERO)
+                .orElseThrow();
+
+        // When - wait past the lease
+        verify(schedulerLockRepository, timeout(2_000).atLeast(3)).renew(any(), any(), anyLong());
+
+        // Then - not held any more, although no renewal saw it taken over
+        assertFalse(lease.isHeld());
+        lease.close();
+    }
+
+    @Test
+    void isHeld_RenewalStalledPastLease_ReturnsFalse() throws InterruptedException {
+        // Given - the first renewal hangs (e.g. a pause or a stuck connection) and never returns in time
+        CountDownLatch stalled = new CountDownLatch(1);
+        when(schedulerLockRepository.insertIfAbsent(any(), any(), any(), anyLong())).thenReturn(1);
+        when(schedulerLockRepository.renew(any(), any(), anyLong())).thenAnswer(invocation -> {
+            stalled.await(2, TimeUnit.SECONDS);
+            return 1;
+        });
+        LockProvider.Lease lease = lockProvider.tryAcquire("verify", Duration.ofMillis(90), Duration.ZERO)
+                .orElseThrow();
+
+        try {
+            // When
+            verify(schedulerLockRepository, timeout(2_000)).renew(any(), any(), anyLong());
+            Thread.sleep(120);
+
+            // Then
+            assertFalse(lease.isHeld());
+        } finally {
+            stalled.countDown();
+        }
+    }
+
+    @Test
+    void tryAcquire_LeaseTooShort_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> lockProvider.tryAcquire("verify", Duration.ofMillis(1), Duration.ZERO));
+    }
+}
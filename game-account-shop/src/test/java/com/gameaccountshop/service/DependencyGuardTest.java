@@ -0,0 +1,226 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.DependencyGuardStatsDto;
+import com.gameaccountshop.exception.DependencyUnavailableException;
+import com.gameaccountshop.exception.DependencyUnavailableException.Reason;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DependencyGuard
+ * The breaker runs on a hand-driven clock; bulkhead and deadline use real threads
+ */
+class DependencyGuardTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private DependencyGuard.Settings settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new DependencyGuard.Settings();
+        settings.setMaxConcurrentCalls(2);
+        settings.setDeadline(Duration.ofMillis(200));
+        settings.setFailureRateThreshold(50);
+        settings.setMinimumCalls(4);
+        settings.setWindow(Duration.ofSeconds(10));
+        settings.setOpenDuration(Duration.ofSeconds(30));
+        settings.setHalfOpenCalls(2);
+    }
+
+    @Test
+    void call_FailureRateAboveThreshold_ShouldOpenAndShortCircuit() throws Exception {
+        // Arrange
+        DependencyGuard guard = guard(e -> true);
+        guard.call(() -> "ok");
+        guard.call(() -> "ok");
+        failCall(guard);
+        assertEquals(DependencyGuard.State.CLOSED, guard.getState(), "below minimumCalls");
+
+        // Act - 2 of 4 calls failed
+        failCall(guard);
+
+        // Assert
+        assertEquals(DependencyGuard.State.OPEN, guard.getState());
+        DependencyUnavailableException refused = assertThrows(DependencyUnavailableException.class,
+                () -> guard.call(() -> "never runs"));
+        assertEquals(Reason.CIRCUIT_OPEN, refused.getReason());
+        assertEquals(1, guard.stats().shortCircuited());
+    }
+
+    @Test
+    void call_FailuresOutsideWindow_ShouldNotCount() throws Exception {
+        // Arrange
+        DependencyGuard guard = guard(e -> true);
+        failCall(guard);
+        failCall(guard);
+        failCall(guard);
+        clock.addAndGet(11_000);
+
+        // Act
+        guard.call(() -> "ok");
+
+        // Assert
+        assertEquals(DependencyGuard.State.CLOSED, guard.getState());
+        assertEquals(1, guard.stats().windowCalls());
+    }
+
+    @Test
+    void call_AfterOpenDuration_ShouldCloseWhenProbesSucceed() throws Exception {
+        // Arrange
+        DependencyGuard guard = openGuard();
+        clock.addAndGet(30_000);
+        assertEquals(DependencyGuard.State.HALF_OPEN, guard.getState());
+
+        // Act
+        guard.call(() -> "probe 1");
+        guard.call(() -> "probe 2");
+
+        // Assert
+        assertEquals(DependencyGuard.State.CLOSED, guard.getState());
+        assertEquals(0, guard.stats().windowCalls(), "closing starts a fresh window");
+    }
+
+    @Test
+    void call_FailedProbe_ShouldReopen() throws Exception {
+        // Arrange
+        DependencyGuard guard = openGuard();
+        clock.addAndGet(30_000);
+
+        // Act
+        failCall(guard);
+
+        // Assert
+        assertEquals(DependencyGuard.State.OPEN, guard.getState());
+        assertThrows(DependencyUnavailableException.class, () -> guard.call(() -> "refused"));
+    }
+
+    @Test
+    void call_RejectedRequests_ShouldNotOpen() {
+        // Arrange - the provider answered, it just said no
+        DependencyGuard guard = guard(e -> !(e instanceof IllegalArgumentException));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IllegalArgumentException.class, () -> guard.call(() -> {
+                throw new IllegalArgumentException("unknown order code");
+            }));
+        }
+
+        // Assert
+        assertEquals(DependencyGuard.State.CLOSED, guard.getState());
+        assertEquals(10, guard.stats().succeeded());
+    }
+
+    @Test
+    void call_AllSlotsTaken_ShouldRejectWithoutWaiting() throws Exception {
+        // Arrange
+        settings.setDeadline(Duration.ofSeconds(5));
+        DependencyGuard guard = guard(e -> true);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2; i++) {
+                callers.submit(() -> guard.call(() -> {
+                    started.countDown();
+                    return release.await(5, TimeUnit.SECONDS);
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            long begin = System.nanoTime();
+            DependencyUnavailableException refused = assertThrows(DependencyUnavailableException.class,
+                    () -> guard.call(() -> "third"));
+
+            // Assert
+            assertEquals(Reason.BULKHEAD_FULL, refused.getReason());
+            assertTrue(System.nanoTime() - begin < TimeUnit.MILLISECONDS.toNanos(100), "fails fast");
+            assertEquals(2, guard.stats().inFlight());
+            assertEquals(1, guard.stats().rejectedByBulkhead());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void call_SlowCall_ShouldBeAbandonedAtDeadlineButKeepItsSlot() throws Exception {
+        // Arrange
+        DependencyGuard guard = guard(e -> true);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        long begin = System.nanoTime();
+        DependencyUnavailableException refused = assertThrows(DependencyUnavailableException.class,
+                () -> guard.call(() -> {
+                    // Ignores interruption, like a socket read
+                    while (release.getCount() > 0) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException ignored) {
+                            // keep running
+                        }
+                    }
+                    return "late";
+                }));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        // Assert
+        assertEquals(Reason.DEADLINE_EXCEEDED, refused.getReason());
+        assertTrue(waitedMillis >= 200 && waitedMillis < 2_000, "waited " + waitedMillis + " ms");
+        DependencyGuardStatsDto stats = guard.stats();
+        assertEquals(1, stats.timedOut());
+        assertEquals(1, stats.inFlight(), "the abandoned call still occupies a slot");
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (guard.stats().inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, guard.stats().inFlight());
+    }
+
+    @Test
+    void call_CheckedException_ShouldPropagateUnchanged() {
+        // Arrange
+        DependencyGuard guard = guard(e -> true);
+
+        // Act & Assert
+        IOException thrown = assertThrows(IOException.class, () -> guard.call(() -> {
+            throw new IOException("connection reset");
+        }));
+        assertEquals("connection reset", thrown.getMessage());
+        assertEquals(1, guard.stats().failed());
+    }
+
+    private DependencyGuard guard(Predicate<Throwable> isFailure) {
+        return new DependencyGuard("stub", settings, isFailure, clock::get);
+    }
+
+    private DependencyGuard openGuard() {
+        DependencyGuard guard = guard(e -> true);
+        for (int i = 0; i < settings.getMinimumCalls(); i++) {
+            failCall(guard);
+        }
+        assertEquals(DependencyGuard.State.OPEN, guard.getState());
+        return guard;
+    }
+
+    private static void failCall(DependencyGuard guard) {
+        assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+            throw new IllegalStateException("503");
+        }));
+    }
+}
@@ -2,23 +2,35 @@ package com.gameaccountshop.service;
 
 import com.gameaccountshop.dto.AdminListingDto;
 import com.gameaccountshop.dto.GameAccountDto;
+import com.gameaccountshop.dto.ListingCursor;
 import com.gameaccountshop.dto.ListingDetailDto;
 import com.gameaccountshop.dto.ListingDisplayDto;
+import com.gameaccountshop.dto.ListingFilter;
+import com.gameaccountshop.dto.ListingPageDto;
+import com.gameaccountshop.dto.ListingSearchHit;
 import com.gameaccountshop.dto.MyListingDto;
 import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.entity.SellerEarnings;
 import com.gameaccountshop.entity.User;
+import com.gameaccountshop.enums.ListingSort;
 import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
 import com.gameaccountshop.repository.GameAccountRepository;
+import com.gameaccountshop.repository.SellerEarningsRepository;
 import com.gameaccountshop.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -41,7 +53,21 @@ class GameAccountServiceTest {
     @Mock
     private ImageUploadService imageUploadService;
 
-    @InjectMocks
+    @Mock
+    private ListingSearchIndex listingSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SellerEarningsRepository sellerEarningsRepository;
+
+    // Real landing page cache; the catalog version never moves unless a test invalidates it
+    @Spy
+    private HomeListingCache homeListingCache = new HomeListingCache(
+            mock(ListingVersionRegistry.class, invocation -> new ListingVersionRegistry.Version("\"c-1\"", 0L)),
+            Duration.ofMinutes(1));
+
     private GameAccountService gameAccountService;
 
     private GameAccountDto testDto;
@@ -50,6 +76,11 @@ class GameAccountServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Real seller cache and earnings service over the mocked repositories
+        gameAccountService = new GameAccountService(gameAccountRepository, userRepository, imageUploadService, null,
+                listingSearchIndex, eventPublisher, homeListingCache, new UserSummaryCache(userRepository, 100),
+                new SellerEarningsService(sellerEarningsRepository));
+
         testDto = new GameAccountDto();
         testDto.setAccountRank("Gold III");
         testDto.setPrice(500000L);
@@ -301,6 +332,377 @@ class GameAccountServiceTest {
         ));
     }
 
+    // ========================================================================
+    // Keyset pagination - findApprovedListingsPage Tests
+    // ========================================================================
+
+    private List<ListingDisplayDto> approvedListings(int count, long firstId) {
+        List<ListingDisplayDto> listings = new java.util.ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            listings.add(new ListingDisplayDto(firstId + i, "Liên Minh Huyền Thoại", "Gold III", 100000L + i * 1000L,
+                    "Tài khoản Gold", null, LocalDateTime.of(2026, 1, 18, 10, 0).minusMinutes(i), "seller1"));
+        }
+        return listings;
+    }
+
+    @Test
+    void findApprovedListingsPage_FirstPage_FetchesOneExtraRowAndReturnsNextCursorOnly() {
+        // Given - 13 rows returned for a page size of 12
+        when(gameAccountRepository.findListingCards(ListingFilter.NONE, ListingSort.NEWEST, null, false, 13))
+            .thenReturn(approvedListings(13, 100L));
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(null, null, null, null, null);
+
+        // Then
+        assertEquals(12, page.listings().size());
+        assertNotNull(page.nextCursor());
+        assertNull(page.prevCursor());
+        verify(gameAccountRepository).findListingCards(ListingFilter.NONE, ListingSort.NEWEST, null, false, 13);
+    }
+
+    @Test
+    void findApprovedListingsPage_AfterCursor_SeeksFromLastListingOfPreviousPage() {
+        // Given
+        List<ListingDisplayDto> firstPage = approvedListings(13, 100L);
+        when(gameAccountRepository.findListingCards(ListingFilter.NONE, ListingSort.NEWEST, null, false, 13))
+            .thenReturn(firstPage);
+        String next = gameAccountService.findApprovedListingsPage(null, null, null, null, null).nextCursor();
+
+        ListingDisplayDto lastShown = firstPage.get(11);
+        when(gameAccountRepository.findListingCards(ListingFilter.NONE, ListingSort.NEWEST,
+                ListingCursor.of(ListingSort.NEWEST, lastShown), false, 13))
+            .thenReturn(approvedListings(1, 200L));
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(null, null, null, next, null);
+
+        // Then
+        assertEquals(1, page.listings().size());
+        assertNull(page.nextCursor());
+        assertNotNull(page.prevCursor());
+    }
+
+    @Test
+    void findApprovedListingsPage_BeforeCursorOnPriceAsc_WalksBackwardAndRestoresOrder() {
+        // Given - cursor for price_asc pointing at a listing priced 500000 with id 50
+        String before = new ListingCursor(ListingSort.PRICE_ASC, "500000", 50L).encode();
+        // Backward query returns rows in descending price order
+        List<ListingDisplayDto> rows = approvedListings(2, 10L);
+        java.util.Collections.reverse(rows);
+        ListingCursor cursor = new ListingCursor(ListingSort.PRICE_ASC, "500000", 50L);
+        when(gameAccountRepository.findListingCards(ListingFilter.NONE, ListingSort.PRICE_ASC, cursor, true, 13))
+            .thenReturn(rows);
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(null, null, "price_asc", null, before);
+
+        // Then - ascending price again, next page exists, no earlier page
+        assertEquals(2, page.listings().size());
+        assertTrue(page.listings().get(0).getPrice() < page.listings().get(1).getPrice());
+        assertNotNull(page.nextCursor());
+        assertNull(page.prevCursor());
+        verify(gameAccountRepository).findListingCards(ListingFilter.NONE, ListingSort.PRICE_ASC, cursor, true, 13);
+    }
+
+    @Test
+    void findApprovedListingsPage_CursorFromOtherSort_IsIgnored() {
+        // Given - a NEWEST cursor replayed on the price_desc order
+        String foreign = new ListingCursor(ListingSort.NEWEST, LocalDateTime.now().toString(), 5L).encode();
+        when(gameAccountRepository.findListingCards(ListingFilter.NONE, ListingSort.PRICE_DESC, null, false, 13))
+            .thenReturn(List.of());
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(null, null, "price_desc", foreign, null);
+
+        // Then - treated as the first page
+        assertTrue(page.listings().isEmpty());
+        assertNull(page.nextCursor());
+        assertNull(page.prevCursor());
+    }
+
+    @Test
+    void findApprovedListingsPage_AliasSearch_MapsAliasBeforeQuerying() {
+        // Given
+        ListingFilter mapped = ListingFilter.of("Liên Minh Huyền Thoại", null);
+        when(gameAccountRepository.findListingCards(mapped, ListingSort.NEWEST, null, false, 13))
+            .thenReturn(List.of());
+
+        // When
+        gameAccountService.findApprovedListingsPage("lmht", null, null, null, null);
+
+        // Then
+        verify(gameAccountRepository).findListingCards(mapped, ListingSort.NEWEST, null, false, 13);
+    }
+
+    @Test
+    void findApprovedListingsPage_IndexMode_AnswersSearchFromIndexAndHydratesPageOnly() {
+        // Given - index holds 3 matches; newest-first order is 300, 200, 100
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "index");
+        LocalDateTime base = LocalDateTime.of(2026, 1, 18, 10, 0);
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(listingSearchIndex.searchAnyRank("vang", List.of())).thenReturn(List.of(
+                new ListingSearchHit(100L, 300000L, base.minusHours(2), null),
+                new ListingSearchHit(200L, 200000L, base.minusHours(1), null),
+                new ListingSearchHit(300L, 100000L, base, null)));
+        List<ListingDisplayDto> rows = approvedListings(3, 100L);
+        rows.get(0).setId(300L);
+        rows.get(1).setId(200L);
+        rows.get(2).setId(100L);
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(300L, 200L, 100L), ListingStatus.APPROVED)).thenReturn(rows);
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage("vang", null, null, null, null);
+
+        // Then - no LIKE query, order follows the hits
+        assertEquals(List.of(300L, 200L, 100L), page.listings().stream().map(ListingDisplayDto::getId).toList());
+        assertNull(page.nextCursor());
+        verify(gameAccountRepository, never()).findListingCards(any(), any(), any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void findApprovedListingsPage_IndexMode_SeeksPastCursorInMemory() {
+        // Given - price_asc cursor at (200000, id 200)
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "index");
+        LocalDateTime now = LocalDateTime.now();
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(listingSearchIndex.searchAnyRank("gold", List.of("Gold"))).thenReturn(List.of(
+                new ListingSearchHit(100L, 100000L, now, null),
+                new ListingSearchHit(150L, 200000L, now, null),
+                new ListingSearchHit(200L, 200000L, now, null),
+                new ListingSearchHit(250L, 200000L, now, null),
+                new ListingSearchHit(300L, 300000L, now, null)));
+        ListingDisplayDto id250 = approvedListings(1, 250L).get(0);
+        ListingDisplayDto id300 = approvedListings(1, 300L).get(0);
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(250L, 300L), ListingStatus.APPROVED)).thenReturn(List.of(id300, id250));
+        String after = new ListingCursor(ListingSort.PRICE_ASC, "200000", 200L).encode();
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage("gold", "Gold", "price_asc", after, null);
+
+        // Then
+        assertEquals(List.of(250L, 300L), page.listings().stream().map(ListingDisplayDto::getId).toList());
+        assertNotNull(page.prevCursor());
+    }
+
+    @Test
+    void findApprovedListingsPage_IndexNotReady_FallsBackToLikeQuery() {
+        // Given
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "index");
+        when(listingSearchIndex.isReady()).thenReturn(false);
+        when(gameAccountRepository.findListingCards(ListingFilter.of("vang", null), ListingSort.NEWEST, null, false, 13))
+            .thenReturn(List.of());
+
+        // When
+        gameAccountService.findApprovedListingsPage("vang", null, null, null, null);
+
+        // Then
+        verify(listingSearchIndex, never()).searchAnyRank(any(), any());
+    }
+
+    private static ListingSearchHit fulltextHit(Long id, Long price, double score) {
+        return new ListingSearchHit(id, price, LocalDateTime.of(2026, 1, 18, 10, 0), score);
+    }
+
+    @Test
+    void findApprovedListingsPage_FulltextModeWithoutSort_OrdersByRelevance() {
+        // Given
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "fulltext");
+        List<ListingSearchHit> hits = List.of(
+                fulltextHit(2L, 200000L, 2.0),
+                fulltextHit(3L, 300000L, 1.0),
+                fulltextHit(1L, 100000L, 0.5));
+        when(gameAccountRepository.findFulltextHits("+skin +hiếm", "skin hiếm", ListingFilter.of("skin hiếm", null),
+                ListingSort.RELEVANCE, null, false, 13))
+                .thenReturn(hits);
+        List<ListingDisplayDto> rows = approvedListings(3, 1L);
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(2L, 3L, 1L), ListingStatus.APPROVED)).thenReturn(rows);
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage("skin hiếm", null, null, null, null);
+
+        // Then - in the query's relevance order, no LIKE query
+        assertEquals(List.of(2L, 3L, 1L), page.listings().stream().map(ListingDisplayDto::getId).toList());
+        verify(gameAccountRepository, never()).findListingCards(any(), any(), any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void findApprovedListingsPage_FulltextModeWithRelevanceCursor_ContinuesBelowCursorScore() {
+        // Given - cursor at score 2.0 / id 2
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "fulltext");
+        ListingCursor cursor = new ListingCursor(ListingSort.RELEVANCE, "2.0", 2L);
+        when(gameAccountRepository.findFulltextHits(eq("+skin"), eq("skin"), any(), eq(ListingSort.RELEVANCE),
+                eq(cursor), eq(false), eq(13)))
+                .thenReturn(List.of(fulltextHit(3L, 300000L, 1.0), fulltextHit(1L, 100000L, 0.5)));
+        List<ListingDisplayDto> rows = approvedListings(3, 1L);
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(3L, 1L), ListingStatus.APPROVED)).thenReturn(List.of(rows.get(0), rows.get(2)));
+        String after = cursor.encode();
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage("skin", null, "relevance", after, null);
+
+        // Then - the cursor is passed to the query, which pages in SQL
+        assertEquals(List.of(3L, 1L), page.listings().stream().map(ListingDisplayDto::getId).toList());
+        assertNotNull(page.prevCursor());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findApprovedListingsPage_FulltextModeWithBeforeCursor_WalksBackwardInSql() {
+        // Given - the query returns the previous page nearest-first
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "fulltext");
+        ListingCursor cursor = new ListingCursor(ListingSort.PRICE_ASC, "300000", 3L);
+        when(gameAccountRepository.findFulltextHits(eq("+skin"), eq("skin"), any(), eq(ListingSort.PRICE_ASC),
+                eq(cursor), eq(true), eq(13)))
+                .thenReturn(List.of(fulltextHit(2L, 200000L, 2.0), fulltextHit(1L, 100000L, 0.5)));
+        List<ListingDisplayDto> rows = approvedListings(2, 1L);
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(2L, 1L), ListingStatus.APPROVED))
+                .thenReturn(List.of(rows.get(1), rows.get(0)));
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage("skin", null, "price_asc", null, cursor.encode());
+
+        // Then - flipped back to display order
+        assertEquals(List.of(1L, 2L), page.listings().stream().map(ListingDisplayDto::getId).toList());
+        assertNotNull(page.nextCursor());
+        assertNull(page.prevCursor());
+    }
+
+    @Test
+    void findApprovedListingsPage_RelevanceSortInLikeMode_FallsBackToNewest() {
+        // Given
+        when(gameAccountRepository.findListingCards(ListingFilter.NONE, ListingSort.NEWEST, null, false, 13))
+            .thenReturn(List.of());
+
+        // When
+        gameAccountService.findApprovedListingsPage(null, null, "relevance", null, null);
+
+        // Then
+        verify(gameAccountRepository, never()).findFulltextHits(any(), any(), any(), any(), any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void findApprovedListingsPage_UnfilteredFirstPage_ServedFromCacheUntilInvalidated() {
+        // Given
+        when(gameAccountRepository.findListingCards(ListingFilter.NONE, ListingSort.NEWEST, null, false, 13))
+            .thenReturn(approvedListings(2, 100L));
+
+        // When - two landing page views
+        ListingPageDto first = gameAccountService.findApprovedListingsPage(null, null, null, null, null);
+        ListingPageDto second = gameAccountService.findApprovedListingsPage("", "", null, null, null);
+
+        // Then - one DB round trip
+        assertSame(first, second);
+        verify(gameAccountRepository, times(1)).findListingCards(any(), any(), any(), anyBoolean(), anyInt());
+        verifyNoInteractions(userRepository);
+        assertEquals(1, homeListingCache.stats().hits());
+
+        // When - a listing is sold
+        homeListingCache.onListingStatusChanged(new ListingStatusChangedEvent(100L, ListingStatus.APPROVED, ListingStatus.SOLD));
+        gameAccountService.findApprovedListingsPage(null, null, null, null, null);
+
+        // Then - reloaded
+        verify(gameAccountRepository, times(2)).findListingCards(any(), any(), any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void findApprovedListingsPage_FilteredOrCursorRequests_BypassCache() {
+        // Given
+        when(gameAccountRepository.findListingCards(any(), any(), any(), anyBoolean(), anyInt()))
+            .thenReturn(List.of());
+        String after = new ListingCursor(ListingSort.NEWEST, LocalDateTime.now().toString(), 5L).encode();
+
+        // When
+        gameAccountService.findApprovedListingsPage(null, "Gold", null, null, null);
+        gameAccountService.findApprovedListingsPage(null, null, null, after, null);
+
+        // Then
+        verify(homeListingCache, never()).get(any(), any());
+    }
+
+    @Test
+    void findApprovedListingsPage_PriceRangeAndRanks_PassedToRepositoryAsOneFilter() {
+        // Given
+        ListingFilter filter = new ListingFilter(null, List.of("Gold", "Diamond"), 100000L, 500000L);
+        when(gameAccountRepository.findListingCards(filter, ListingSort.PRICE_ASC, null, false, 13))
+            .thenReturn(approvedListings(2, 100L));
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(filter, "price_asc", null, null);
+
+        // Then - filtered pages never touch the landing page cache
+        assertEquals(2, page.listings().size());
+        verify(homeListingCache, never()).get(any(), any());
+    }
+
+    @Test
+    void findApprovedListingsPage_IndexModeWithPriceRange_DropsHitsOutsideRange() {
+        // Given
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "index");
+        LocalDateTime now = LocalDateTime.now();
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(listingSearchIndex.searchAnyRank("gold", List.of("Gold", "Diamond"))).thenReturn(List.of(
+                new ListingSearchHit(100L, 50000L, now, null),
+                new ListingSearchHit(200L, 200000L, now, null),
+                new ListingSearchHit(300L, 900000L, now, null)));
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(200L), ListingStatus.APPROVED))
+                .thenReturn(approvedListings(1, 200L));
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(
+                new ListingFilter("gold", List.of("Gold", "Diamond"), 100000L, 500000L), null, null, null);
+
+        // Then
+        assertEquals(List.of(200L), page.listings().stream().map(ListingDisplayDto::getId).toList());
+    }
+
+    @Test
+    void findApprovedListingsPage_IndexModeWithStaleHit_DropsItAndTopsUpThePage() {
+        // Given - 14 indexed hits, newest first; listing 5 was sold on another node
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "index");
+        LocalDateTime base = LocalDateTime.of(2026, 1, 18, 10, 0);
+        List<ListingSearchHit> hits = new java.util.ArrayList<>();
+        List<ListingDisplayDto> cards = new java.util.ArrayList<>();
+        for (long id = 1; id <= 14; id++) {
+            hits.add(new ListingSearchHit(id, 100000L, base.minusMinutes(id), null));
+            cards.add(new ListingDisplayDto(id, "Liên Minh Huyền Thoại", "Gold III", 100000L, "Tài khoản Gold", null,
+                    base.minusMinutes(id), "seller1"));
+        }
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(listingSearchIndex.searchAnyRank("gold", List.of())).thenReturn(hits);
+        List<Long> firstIds = java.util.stream.LongStream.rangeClosed(1, 13).boxed().toList();
+        when(gameAccountRepository.findListingCardsByIdIn(firstIds, ListingStatus.APPROVED))
+                .thenReturn(cards.stream().filter(card -> card.getId() <= 13 && card.getId() != 5).toList());
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(14L), ListingStatus.APPROVED))
+                .thenReturn(List.of(cards.get(13)));
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage("gold", null, null, null, null);
+
+        // Then - a full page and a next cursor, and the stale hit is gone from the index
+        assertEquals(12, page.listings().size());
+        assertFalse(page.listings().stream().anyMatch(listing -> listing.getId() == 5L));
+        assertNotNull(page.nextCursor());
+        verify(listingSearchIndex).remove(5L);
+    }
+
+    @Test
+    void findApprovedListingsPage_FulltextModeWithRanksAndPriceRange_PassesThemToTheQuery() {
+        // Given
+        ReflectionTestUtils.setField(gameAccountService, "searchMode", "fulltext");
+        ListingFilter filter = new ListingFilter("skin", List.of("gold", "Diamond"), 100000L, 500000L);
+        when(gameAccountRepository.findFulltextHits("+skin", "skin", filter, ListingSort.RELEVANCE, null, false, 13))
+                .thenReturn(List.of(fulltextHit(1L, 100000L, 1.0)));
+        when(gameAccountRepository.findListingCardsByIdIn(List.of(1L), ListingStatus.APPROVED))
+                .thenReturn(approvedListings(1, 1L));
+
+        // When
+        ListingPageDto page = gameAccountService.findApprovedListingsPage(filter, null, null, null);
+
+        // Then - rank and price are SQL predicates of the paged query, not filters on its rows
+        assertEquals(List.of(1L), page.listings().stream().map(ListingDisplayDto::getId).toList());
+    }
+
     // ========================================================================
     // Story 2.3: Listing Details Page - getListingDetail Tests
     // ========================================================================
@@ -463,36 +865,14 @@ class GameAccountServiceTest {
 
     @Test
     void findPendingListings_ExistingPendingListings_ReturnsListOfDtosOrderedByCreatedAtAsc() {
-        // Given
-        User user1 = new User();
-        user1.setId(1L);
-        user1.setUsername("seller1");
-
-        User user2 = new User();
-        user2.setId(2L);
-        user2.setUsername("seller2");
-
-        GameAccount pending1 = new GameAccount();
-        pending1.setId(1L);
-        pending1.setGameName("Liên Minh Huyền Thoại");
-        pending1.setAccountRank("Gold III");
-        pending1.setPrice(500000L);
-        pending1.setSellerId(1L);
-        pending1.setStatus(ListingStatus.PENDING);
-        pending1.setCreatedAt(LocalDateTime.of(2026, 1, 18, 10, 0)); // Later
-
-        GameAccount pending2 = new GameAccount();
-        pending2.setId(2L);
-        pending2.setGameName("Liên Minh Huyền Thoại");
-        pending2.setAccountRank("Diamond II");
-        pending2.setPrice(1000000L);
-        pending2.setSellerId(2L);
-        pending2.setStatus(ListingStatus.PENDING);
-        pending2.setCreatedAt(LocalDateTime.of(2026, 1, 18, 9, 0)); // Earlier - should come first (FIFO)
-
-        when(gameAccountRepository.findByStatusOrderByCreatedAtAsc(ListingStatus.PENDING))
+        // Given - projection already joins the seller and orders by created_at ASC
+        AdminListingDto pending2 = new AdminListingDto(2L, "Liên Minh Huyền Thoại", "Diamond II", 1000000L,
+            "Tài khoản Diamond", "seller2", LocalDateTime.of(2026, 1, 18, 9, 0), null); // Earlier - should come first (FIFO)
+        AdminListingDto pending1 = new AdminListingDto(1L, "Liên Minh Huyền Thoại", "Gold III", 500000L,
+            "Tài khoản Gold", "seller1", LocalDateTime.of(2026, 1, 18, 10, 0), null); // Later
+
+        when(gameAccountRepository.findReviewCardsByStatus(ListingStatus.PENDING))
             .thenReturn(Arrays.asList(pending2, pending1));
-        when(userRepository.findAllById(Arrays.asList(2L, 1L))).thenReturn(Arrays.asList(user2, user1));
 
         // When
         List<AdminListingDto> result = gameAccountService.findPendingListings();
@@ -504,14 +884,14 @@ class GameAccountServiceTest {
         assertEquals(1L, result.get(1).id()); // Later listing comes second
         assertEquals("seller2", result.get(0).sellerUsername()); // Username for sellerId=2
         assertEquals("seller1", result.get(1).sellerUsername()); // Username for sellerId=1
-        verify(gameAccountRepository, times(1)).findByStatusOrderByCreatedAtAsc(ListingStatus.PENDING);
-        verify(userRepository, times(1)).findAllById(any());
+        verify(gameAccountRepository, times(1)).findReviewCardsByStatus(ListingStatus.PENDING);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void findPendingListings_NoPendingListings_ReturnsEmptyList() {
         // Given
-        when(gameAccountRepository.findByStatusOrderByCreatedAtAsc(ListingStatus.PENDING))
+        when(gameAccountRepository.findReviewCardsByStatus(ListingStatus.PENDING))
             .thenReturn(Collections.emptyList());
 
         // When
@@ -520,7 +900,7 @@ class GameAccountServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userRepository, never()).findAllById(any());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -544,6 +924,7 @@ class GameAccountServiceTest {
         assertEquals(ListingStatus.APPROVED, pendingListing.getStatus());
         verify(gameAccountRepository, times(1)).findById(listingId);
         verify(gameAccountRepository, times(1)).save(pendingListing);
+        verify(eventPublisher).publishEvent(new ListingStatusChangedEvent(listingId, ListingStatus.PENDING, ListingStatus.APPROVED));
     }
 
     @Test
@@ -602,6 +983,7 @@ class GameAccountServiceTest {
         assertEquals(reason, pendingListing.getRejectionReason());
         verify(gameAccountRepository, times(1)).findById(listingId);
         verify(gameAccountRepository, times(1)).save(pendingListing);
+        verify(eventPublisher).publishEvent(new ListingStatusChangedEvent(listingId, ListingStatus.PENDING, ListingStatus.REJECTED));
     }
 
     @Test
@@ -655,16 +1037,38 @@ class GameAccountServiceTest {
         approvedListing.setStatus(ListingStatus.APPROVED);
 
         when(gameAccountRepository.findById(listingId)).thenReturn(Optional.of(approvedListing));
-        when(gameAccountRepository.save(any(GameAccount.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(gameAccountRepository.markSoldIfApproved(eq(listingId), any(LocalDateTime.class))).thenReturn(1);
 
         // When
         gameAccountService.markAsSold(listingId);
 
-        // Then
-        assertEquals(ListingStatus.SOLD, approvedListing.getStatus());
-        assertNotNull(approvedListing.getSoldAt());
+        // Then - status is written by the guarded UPDATE, not by saving the loaded entity
         verify(gameAccountRepository, times(1)).findById(listingId);
-        verify(gameAccountRepository, times(1)).save(approvedListing);
+        verify(gameAccountRepository, times(1)).markSoldIfApproved(eq(listingId), any(LocalDateTime.class));
+        verify(gameAccountRepository, never()).save(any(GameAccount.class));
+        verify(sellerEarningsRepository).accrue(1L, 500000L, new BigDecimal("450000.00"), BigDecimal.ZERO, BigDecimal.ZERO);
+        verify(eventPublisher).publishEvent(new ListingStatusChangedEvent(listingId, ListingStatus.APPROVED, ListingStatus.SOLD));
+    }
+
+    @Test
+    void markAsSold_SoldConcurrently_ThrowsAndRecordsNoSale() {
+        // Given - a buyer's purchase claimed the listing after it was read
+        Long listingId = 1L;
+        GameAccount approvedListing = new GameAccount();
+        approvedListing.setId(listingId);
+        approvedListing.setPrice(500000L);
+        approvedListing.setSellerId(1L);
+        approvedListing.setStatus(ListingStatus.APPROVED);
+
+        when(gameAccountRepository.findById(listingId)).thenReturn(Optional.of(approvedListing));
+        when(gameAccountRepository.markSoldIfApproved(eq(listingId), any(LocalDateTime.class))).thenReturn(0);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            gameAccountService.markAsSold(listingId);
+        });
+        verifyNoInteractions(sellerEarningsRepository);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -845,23 +1249,22 @@ class GameAccountServiceTest {
     void calculateProfit_WithSoldListings_ReturnsNetProfitAfter10PercentCommission() {
         // Given - Total earnings from sold listings: 1,000,000 VNĐ
         Long sellerId = 100L;
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(1000000L);
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings(sellerId, 1000000L)));
 
         // When
         Long profit = gameAccountService.calculateProfit(sellerId);
 
-        // Then - Profit = 1,000,000 * 0.90 = 900,000
+        // Then - Profit = 1,000,000 * 0.90 = 900,000, one primary-key read
         assertEquals(900000L, profit);
-        verify(gameAccountRepository, times(1)).sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD);
+        verify(sellerEarningsRepository, times(1)).findById(sellerId);
+        verify(gameAccountRepository, never()).sumPriceBySellerIdAndStatus(any(), any());
     }
 
     @Test
     void calculateProfit_WithNoSoldListings_ReturnsZero() {
         // Given
         Long sellerId = 100L;
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(0L);
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings(sellerId, 0L)));
 
         // When
         Long profit = gameAccountService.calculateProfit(sellerId);
@@ -871,11 +1274,10 @@ class GameAccountServiceTest {
     }
 
     @Test
-    void calculateProfit_WithNullEarnings_ReturnsZero() {
-        // Given
+    void calculateProfit_WithNoEarningsRow_ReturnsZero() {
+        // Given - seller has never sold anything
         Long sellerId = 100L;
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(null);
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.empty());
 
         // When
         Long profit = gameAccountService.calculateProfit(sellerId);
@@ -888,8 +1290,7 @@ class GameAccountServiceTest {
     void calculateProfit_WithMultipleSoldListings_CalculatesCorrectly() {
         // Given - Multiple sold listings totaling 1,500,000 VNĐ
         Long sellerId = 100L;
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(1500000L);
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings(sellerId, 1500000L)));
 
         // When
         Long profit = gameAccountService.calculateProfit(sellerId);
@@ -904,18 +1305,26 @@ class GameAccountServiceTest {
         Long sellerId = 100L;
 
         // Test 1: 500,000 -> 450,000 (10% off)
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(500000L);
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings(sellerId, 500000L)));
         assertEquals(450000L, gameAccountService.calculateProfit(sellerId));
 
         // Test 2: 1,000,000 -> 900,000 (10% off)
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(1000000L);
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings(sellerId, 1000000L)));
         assertEquals(900000L, gameAccountService.calculateProfit(sellerId));
 
         // Test 3: 100,000 -> 90,000 (10% off)
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(100000L);
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings(sellerId, 100000L)));
         assertEquals(90000L, gameAccountService.calculateProfit(sellerId));
+
+        // Test 4: 5,555 -> 4,999.50 is rounded down to 4,999, as (5,555 * 90) / 100 was
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings(sellerId, 5555L)));
+        assertEquals(4999L, gameAccountService.calculateProfit(sellerId));
+    }
+
+    private static SellerEarnings earnings(Long sellerId, long grossSold) {
+        SellerEarnings earnings = new SellerEarnings(sellerId);
+        earnings.setGrossSold(grossSold);
+        earnings.setNetEarnings(SellerEarningsService.netOf(grossSold));
+        return earnings;
     }
 }
@@ -0,0 +1,116 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.ListingPageDto;
+import com.gameaccountshop.enums.ListingSort;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HomeListingCache
+ */
+@ExtendWith(MockitoExtension.class)
+class HomeListingCacheTest {
+
+    private static final ListingVersionRegistry.Version V1 = new ListingVersionRegistry.Version("\"c-1\"", 1_000L);
+    private static final ListingVersionRegistry.Version V2 = new ListingVersionRegistry.Version("\"c-2\"", 2_000L);
+
+    @Mock
+    private ListingVersionRegistry listingVersionRegistry;
+
+    private HomeListingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(listingVersionRegistry.catalogVersion()).thenReturn(V1);
+        cache = new HomeListingCache(listingVersionRegistry, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_CachesPerSortAndCountsHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+        cache.get(ListingSort.PRICE_ASC, () -> page(loads));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(2, cache.stats().misses());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void onListingStatusChanged_ClearsEverySort() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+        cache.get(ListingSort.PRICE_DESC, () -> page(loads));
+
+        cache.onListingStatusChanged(new ListingStatusChangedEvent(1L, ListingStatus.PENDING, ListingStatus.APPROVED));
+
+        assertEquals(0, cache.stats().size());
+        assertEquals(2, cache.stats().evictions());
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_InvalidatedWhileLoading_DoesNotStoreStalePage() {
+        // Invalidation lands while the loader is still reading the old data
+        ListingPageDto stale = cache.get(ListingSort.NEWEST, () -> {
+            cache.invalidate();
+            return ListingPageDto.empty();
+        });
+
+        assertNotNull(stale);
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void get_CatalogChangedOnAnotherNode_Reloads() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+
+        // When - no event here, but the shared catalog version moved
+        when(listingVersionRegistry.catalogVersion()).thenReturn(V2);
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+
+        // Then - reloaded once, then cached at the new version
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void get_OlderThanTtl_Reloads() {
+        // Given
+        cache = new HomeListingCache(listingVersionRegistry, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+        cache.get(ListingSort.NEWEST, () -> page(loads));
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    private ListingPageDto page(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new ListingPageDto(List.of(), null, null);
+    }
+}
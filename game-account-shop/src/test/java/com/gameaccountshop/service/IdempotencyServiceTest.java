@@ -0,0 +1,247 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.IdempotencyKey;
+import com.gameaccountshop.repository.IdempotencyKeyRepository;
+import com.gameaccountshop.service.IdempotencyService.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyService
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "9b1deb4d-3b7d-4bad-9bdd-2b0d7b3dcb6d";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, 100);
+    }
+
+    @Test
+    void execute_FirstSubmission_RunsAndRecordsResult() {
+        // Given
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.PURCHASE)).thenReturn(1);
+
+        // When
+        String result = idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                () -> Outcome.succeeded("redirect:/purchase-success"), () -> "redirect:/listings/5");
+
+        // Then
+        assertEquals("redirect:/purchase-success", result);
+        verify(idempotencyKeyRepository).complete(eq(10L), eq(KEY), eq("redirect:/purchase-success"), any());
+    }
+
+    @Test
+    void execute_RepeatedKey_ReplaysWithoutRunningAgain() {
+        // Given
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.PURCHASE)).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                () -> Outcome.succeeded("redirect:/purchase-success" + runs.incrementAndGet()), () -> "in-progress");
+        String replay = idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                () -> Outcome.succeeded("redirect:/purchase-success" + runs.incrementAndGet()), () -> "in-progress");
+
+        // Then - answered from memory: no second claim
+        assertEquals("redirect:/purchase-success1", replay);
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyRepository, times(1)).claim(any(), any(), any());
+    }
+
+    @Test
+    void execute_ConcurrentDoubleClick_SecondWaitsAndReplays() throws Exception {
+        // Given
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.TOP_UP)).thenReturn(1);
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<String> first = pool.submit(() -> idempotencyService.execute(10L, KEY, IdempotencyService.TOP_UP,
+                    () -> {
+                        runs.incrementAndGet();
+                        firstRunning.countDown();
+                        await(releaseFirst);
+                        return Outcome.succeeded("redirect:/wallet/topup/pending");
+                    }, () -> "in-progress"));
+            assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+            Future<String> second = pool.submit(() -> idempotencyService.execute(10L, KEY, IdempotencyService.TOP_UP,
+                    () -> Outcome.succeeded("redirect:/second-run" + runs.incrementAndGet()), () -> "in-progress"));
+            releaseFirst.countDown();
+
+            // Then
+            assertEquals("redirect:/wallet/topup/pending", first.get(5, TimeUnit.SECONDS));
+            assertEquals("redirect:/wallet/topup/pending", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_KeyCompletedOnAnotherInstance_ReplaysStoredRedirect() {
+        // Given
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setStatus(IdempotencyKey.COMPLETED);
+        stored.setResultRedirect("redirect:/wallet/topup/pending");
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.TOP_UP)).thenReturn(0);
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(10L, KEY)).thenReturn(Optional.of(stored));
+
+        // When
+        String result = idempotencyService.execute(10L, KEY, IdempotencyService.TOP_UP,
+                () -> fail("must not run twice"), () -> "in-progress");
+
+        // Then
+        assertEquals("redirect:/wallet/topup/pending", result);
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), any(), any());
+    }
+
+    @Test
+    void execute_KeyStillRunningOnAnotherInstance_ReturnsInProgress() {
+        // Given
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setStatus(IdempotencyKey.IN_PROGRESS);
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.PURCHASE)).thenReturn(0);
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(10L, KEY)).thenReturn(Optional.of(stored));
+
+        // When
+        String result = idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                () -> fail("must not run twice"), () -> "in-progress");
+
+        // Then
+        assertEquals("in-progress", result);
+    }
+
+    @Test
+    void execute_HandlerThrows_ReleasesKeySoItCanBeRetried() {
+        // Given
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.PURCHASE)).thenReturn(1);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(10L, KEY,
+                IdempotencyService.PURCHASE, () -> {
+                    throw new IllegalStateException("boom");
+                }, () -> "in-progress"));
+        verify(idempotencyKeyRepository).release(10L, KEY);
+
+        // A retry with the same key runs again
+        assertEquals("redirect:/ok", idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                () -> Outcome.succeeded("redirect:/ok"), () -> "in-progress"));
+    }
+
+    @Test
+    void execute_HandlerFails_ReleasesKeyInsteadOfRecordingTheFailure() {
+        // Given - e.g. insufficient balance: the handler set its error flash and redirects back
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.PURCHASE)).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        // When - the double-click runs too, so it shows its own error instead of a bare replay
+        String first = idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                () -> Outcome.failed("redirect:/listings/5#" + runs.incrementAndGet()), () -> "in-progress");
+        String second = idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                () -> Outcome.failed("redirect:/listings/5#" + runs.incrementAndGet()), () -> "in-progress");
+
+        // Then
+        assertEquals("redirect:/listings/5#1", first);
+        assertEquals("redirect:/listings/5#2", second);
+        verify(idempotencyKeyRepository, times(2)).release(10L, KEY);
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), any(), any());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicateOfFailedSubmission_RunsItself() throws Exception {
+        // Given
+        when(idempotencyKeyRepository.claim(10L, KEY, IdempotencyService.PURCHASE)).thenReturn(1);
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            // When - the original fails (deadlock) while the duplicate waits on it
+            Future<String> first = pool.submit(() -> idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                    () -> {
+                        firstRunning.countDown();
+                        await(releaseFirst);
+                        return Outcome.failed("redirect:/listings/5");
+                    }, () -> "in-progress"));
+            assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+            Future<String> second = pool.submit(() -> idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE,
+                    () -> Outcome.succeeded("redirect:/purchase-success"), () -> "in-progress"));
+            releaseFirst.countDown();
+
+            // Then
+            assertEquals("redirect:/listings/5", first.get(5, TimeUnit.SECONDS));
+            assertEquals("redirect:/purchase-success", second.get(5, TimeUnit.SECONDS));
+            verify(idempotencyKeyRepository).complete(eq(10L), eq(KEY), eq("redirect:/purchase-success"), any());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WithoutKey_RunsWithoutTracking() {
+        assertEquals("redirect:/ok", idempotencyService.execute(10L, null, IdempotencyService.PURCHASE,
+                () -> Outcome.succeeded("redirect:/ok"), () -> "in-progress"));
+        assertEquals("redirect:/ok", idempotencyService.execute(10L, "x".repeat(65), IdempotencyService.PURCHASE,
+                () -> Outcome.succeeded("redirect:/ok"), () -> "in-progress"));
+
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_KeysAreScopedPerUser() {
+        // Given
+        when(idempotencyKeyRepository.claim(any(), eq(KEY), any())).thenReturn(1);
+
+        // When
+        idempotencyService.execute(10L, KEY, IdempotencyService.PURCHASE, () -> Outcome.succeeded("redirect:/a"), () -> "in-progress");
+        String other = idempotencyService.execute(11L, KEY, IdempotencyService.PURCHASE, () -> Outcome.succeeded("redirect:/b"), () -> "in-progress");
+
+        // Then
+        assertEquals("redirect:/b", other);
+    }
+
+    @Test
+    void purgeOlderThan_DeletesByCreationTime() {
+        // Given
+        when(idempotencyKeyRepository.deleteCreatedBefore(any())).thenReturn(4);
+
+        // When & Then
+        assertEquals(4, idempotencyService.purgeOlderThan(Duration.ofDays(1)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.exception.DependencyUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ImageUploadService against a local stub of the ImgBB upload API
+ */
+class ImageUploadServiceTest {
+
+    private StubHttpServer imgbb;
+    private DependencyGuard imgbbGuard;
+    private ImageUploadService imageUploadService;
+
+    private final MockMultipartFile image =
+            new MockMultipartFile("image", "rank.png", "image/png", new byte[] {1, 2, 3});
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imgbb = new StubHttpServer();
+        DependencyGuard.Settings settings = new DependencyGuard.Settings();
+        settings.setMaxConcurrentCalls(2);
+        settings.setDeadline(Duration.ofMillis(500));
+        settings.setMinimumCalls(3);
+        imgbbGuard = new DependencyGuard("imgbb", settings, failure -> true);
+        imageUploadService = new ImageUploadService("test-key", imgbb.url("/1/upload"), imgbbGuard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imgbb.close();
+    }
+
+    @Test
+    void uploadImage_ShouldReturnImgBBUrl() throws IOException {
+        // Arrange
+        imgbb.respond(200, "{\"data\":{\"url\":\"https://i.ibb.co/abc/rank.png\"},\"success\":true}");
+
+        // Act & Assert
+        assertEquals("https://i.ibb.co/abc/rank.png", imageUploadService.uploadImage(image));
+    }
+
+    @Test
+    void uploadImage_RejectedImage_ShouldFailWithoutOpeningCircuit() {
+        // Arrange
+        imgbb.respond(400, "{\"status_code\":400,\"error\":{\"message\":\"Invalid image\"}}");
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IOException.class, () -> imageUploadService.uploadImage(image));
+        }
+
+        // Assert
+        assertEquals(DependencyGuard.State.CLOSED, imgbbGuard.getState());
+        assertEquals(5, imgbb.requests());
+    }
+
+    @Test
+    void uploadImage_ImgBBDown_ShouldOpenCircuitAndStopCallingIt() {
+        // Arrange
+        imgbb.respond(503, "{\"error\":\"maintenance\"}");
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IOException.class, () -> imageUploadService.uploadImage(image));
+        }
+        assertEquals(DependencyGuard.State.OPEN, imgbbGuard.getState());
+
+        // Act
+        IOException thrown = assertThrows(IOException.class, () -> imageUploadService.uploadImage(image));
+
+        // Assert - failed fast without reaching ImgBB
+        assertInstanceOf(DependencyUnavailableException.class, thrown.getCause());
+        assertEquals(3, imgbb.requests());
+    }
+
+    @Test
+    void uploadImage_ImgBBSlow_ShouldGiveUpAtDeadline() {
+        // Arrange
+        imgbb.latency(3_000).respond(200, "{\"data\":{\"url\":\"https://i.ibb.co/late.png\"}}");
+
+        // Act
+        long begin = System.nanoTime();
+        IOException thrown = assertThrows(IOException.class, () -> imageUploadService.uploadImage(image));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        // Assert
+        DependencyUnavailableException cause = assertInstanceOf(DependencyUnavailableException.class, thrown.getCause());
+        assertEquals(DependencyUnavailableException.Reason.DEADLINE_EXCEEDED, cause.getReason());
+        assertTrue(waitedMillis < 2_000, "waited " + waitedMillis + " ms");
+        assertEquals(1, imgbbGuard.stats().timedOut());
+    }
+
+    @Test
+    void uploadImage_ImgBBSlow_ShouldReleaseSlotAtDeadline() throws InterruptedException {
+        // Arrange
+        imgbb.latency(3_000).respond(200, "{\"data\":{\"url\":\"https://i.ibb.co/late.png\"}}");
+        assertThrows(IOException.class, () -> imageUploadService.uploadImage(image));
+
+        // Act - the request itself times out at the deadline, well before ImgBB would answer
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1_500);
+        while (imgbbGuard.stats().inFlight() > 0 && System.nanoTime() < until) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertEquals(0, imgbbGuard.stats().inFlight());
+    }
+}
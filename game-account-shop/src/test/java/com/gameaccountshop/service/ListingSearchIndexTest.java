@@ -0,0 +1,212 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.ListingSearchHit;
+import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.entity.User;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.repository.GameAccountRepository;
+import com.gameaccountshop.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ListingSearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class ListingSearchIndexTest {
+
+    @Mock
+    private GameAccountRepository gameAccountRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ListingSearchIndex listingSearchIndex;
+
+    private GameAccount gold;
+    private GameAccount diamond;
+
+    @BeforeEach
+    void setUp() {
+        listingSearchIndex = new ListingSearchIndex(gameAccountRepository, userRepository, Duration.ofSeconds(10));
+        gold = listing(1L, "Gold III", "Tài khoản nhiều tướng, skin hiếm", 10L);
+        diamond = listing(2L, "Kim Cương I", "Đủ tướng, rank cao", 20L);
+
+        when(gameAccountRepository.findByStatusOrderByCreatedAtDesc(ListingStatus.APPROVED))
+                .thenReturn(List.of(diamond, gold));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(10L, "NguyenVanA"), user(20L, "tranb")));
+        listingSearchIndex.rebuild();
+    }
+
+    private GameAccount listing(Long id, String rank, String description, Long sellerId) {
+        GameAccount ga = new GameAccount();
+        ga.setId(id);
+        ga.setGameName("Liên Minh Huyền Thoại");
+        ga.setAccountRank(rank);
+        ga.setDescription(description);
+        ga.setPrice(id * 100000L);
+        ga.setSellerId(sellerId);
+        ga.setStatus(ListingStatus.APPROVED);
+        ga.setCreatedAt(LocalDateTime.of(2026, 1, 18, 10, 0).plusMinutes(id));
+        return ga;
+    }
+
+    private User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+
+    private List<Long> ids(List<ListingSearchHit> hits) {
+        return hits.stream().map(ListingSearchHit::id).toList();
+    }
+
+    @Test
+    void rebuild_IndexesAllApprovedListings() {
+        assertTrue(listingSearchIndex.isReady());
+        assertEquals(2, listingSearchIndex.size());
+    }
+
+    @Test
+    void search_WithoutDiacritics_MatchesVietnameseText() {
+        assertEquals(List.of(1L, 2L), ids(listingSearchIndex.search("lien minh", null)));
+        assertEquals(List.of(2L), ids(listingSearchIndex.search("kim cuong", null)));
+        assertEquals(List.of(2L), ids(listingSearchIndex.search("du tuong", null)));
+    }
+
+    @Test
+    void search_LastTokenMatchesAsPrefix() {
+        assertEquals(List.of(1L), ids(listingSearchIndex.search("skin hi", null)));
+        assertEquals(List.of(), ids(listingSearchIndex.search("hi skin", null)));
+    }
+
+    @Test
+    void search_MatchesSellerUsernameCaseInsensitively() {
+        assertEquals(List.of(1L), ids(listingSearchIndex.search("nguyenvana", null)));
+    }
+
+    @Test
+    void search_WithRankFilter_KeepsOnlyRankPrefixMatches() {
+        assertEquals(List.of(2L), ids(listingSearchIndex.search("tuong", "Kim")));
+    }
+
+    @Test
+    void searchAnyRank_KeepsListingsMatchingAnyRankPrefix() {
+        assertEquals(List.of(1L, 2L), ids(listingSearchIndex.searchAnyRank("tuong", List.of("Gold", "Kim"))));
+        assertEquals(List.of(1L), ids(listingSearchIndex.searchAnyRank("tuong", List.of("gold", "Bạch Kim"))));
+        assertEquals(List.of(1L, 2L), ids(listingSearchIndex.searchAnyRank("tuong", List.of())));
+    }
+
+    @Test
+    void search_ReturnsSortKeysForPaging() {
+        ListingSearchHit hit = listingSearchIndex.search("gold", null).get(0);
+
+        assertEquals(100000L, hit.price());
+        assertEquals(gold.getCreatedAt(), hit.createdAt());
+    }
+
+    @Test
+    void onListingStatusChanged_Sold_RemovesListing() {
+        listingSearchIndex.onListingStatusChanged(
+                new ListingStatusChangedEvent(1L, ListingStatus.APPROVED, ListingStatus.SOLD));
+
+        assertEquals(List.of(), ids(listingSearchIndex.search("gold", null)));
+        assertEquals(List.of(2L), ids(listingSearchIndex.search("lien minh", null)));
+    }
+
+    @Test
+    void onListingStatusChanged_Approved_AddsListing() {
+        GameAccount platinum = listing(3L, "Bạch Kim II", "Acc trắng thông tin", 10L);
+        when(gameAccountRepository.findById(3L)).thenReturn(Optional.of(platinum));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, "NguyenVanA")));
+
+        listingSearchIndex.onListingStatusChanged(
+                new ListingStatusChangedEvent(3L, ListingStatus.PENDING, ListingStatus.APPROVED));
+
+        assertEquals(List.of(3L), ids(listingSearchIndex.search("bach kim", null)));
+        assertEquals(List.of(1L, 3L), ids(listingSearchIndex.search("nguyenvana", null)));
+    }
+
+    @Test
+    void syncChanges_ListingSoldOnAnotherNode_RemovedWithoutAnEvent() {
+        // Given - no event on this node, only the changed row in the shared database
+        gold.setStatus(ListingStatus.SOLD);
+        gold.setUpdatedAt(LocalDateTime.of(2026, 1, 19, 9, 0));
+        when(gameAccountRepository.findChangedSince(any())).thenReturn(List.of(gold));
+
+        // When
+        listingSearchIndex.syncChanges();
+
+        // Then
+        assertEquals(List.of(), ids(listingSearchIndex.search("gold", null)));
+        assertEquals(List.of(2L), ids(listingSearchIndex.search("lien minh", null)));
+    }
+
+    @Test
+    void syncChanges_StartsOverlapBeforeNewestAppliedRow() {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.of(2026, 1, 19, 9, 0);
+        diamond.setUpdatedAt(changedAt);
+        when(gameAccountRepository.findChangedSince(any())).thenReturn(List.of(diamond), List.of());
+
+        // When
+        listingSearchIndex.syncChanges();
+        listingSearchIndex.syncChanges();
+
+        // Then - the second catch-up re-reads the overlap window behind the newest row it applied
+        verify(gameAccountRepository).findChangedSince(changedAt.minusSeconds(10));
+    }
+
+    @Test
+    void rebuild_StatusChangeWhileBuilding_ReplayedAfterSwap() {
+        // Given - gold is sold (and its event handled) while the fresh index is still loading
+        LocalDateTime buildFrom = LocalDateTime.of(2026, 1, 19, 9, 0);
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(buildFrom);
+        when(gameAccountRepository.findByStatusOrderByCreatedAtDesc(ListingStatus.APPROVED)).thenAnswer(invocation -> {
+            listingSearchIndex.onListingStatusChanged(
+                    new ListingStatusChangedEvent(1L, ListingStatus.APPROVED, ListingStatus.SOLD));
+            return List.of(diamond, gold);
+        });
+        GameAccount sold = listing(1L, "Gold III", "Tài khoản nhiều tướng, skin hiếm", 10L);
+        sold.setStatus(ListingStatus.SOLD);
+        sold.setUpdatedAt(buildFrom.plusSeconds(1));
+        when(gameAccountRepository.findChangedSince(buildFrom.minusSeconds(10))).thenReturn(List.of(sold));
+
+        // When
+        listingSearchIndex.rebuild();
+
+        // Then - the swap dropped the event, the replay did not
+        assertEquals(List.of(), ids(listingSearchIndex.search("gold", null)));
+        assertEquals(1, listingSearchIndex.size());
+    }
+
+    @Test
+    void intersect_ReturnsCommonIdsInOrder() {
+        long[] result = ListingSearchIndex.intersect(new long[] {2, 5, 9}, new long[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertArrayEquals(new long[] {2, 5}, result);
+    }
+
+    @Test
+    void insertAndDelete_KeepPostingsSortedAndUnique() {
+        long[] ids = ListingSearchIndex.insert(new long[] {1, 5}, 3);
+        ids = ListingSearchIndex.insert(ids, 3);
+        assertArrayEquals(new long[] {1, 3, 5}, ids);
+
+        assertArrayEquals(new long[] {1, 5}, ListingSearchIndex.delete(ids, 3));
+    }
+}
@@ -0,0 +1,211 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.SuggestionDto;
+import com.gameaccountshop.dto.UserSummaryDto;
+import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.enums.SuggestionType;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.repository.GameAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ListingSuggestionIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class ListingSuggestionIndexTest {
+
+    @Mock
+    private GameAccountRepository gameAccountRepository;
+
+    @Mock
+    private UserSummaryCache userSummaryCache;
+
+    private ListingSuggestionIndex listingSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        listingSuggestionIndex = new ListingSuggestionIndex(gameAccountRepository, userSummaryCache, 20, Duration.ofSeconds(10));
+        when(gameAccountRepository.findSuggestionTerms(ListingStatus.APPROVED)).thenReturn(List.of(
+                term(1L, "Gold III", "goldseller"),
+                term(2L, "Gold III", "goldseller"),
+                term(3L, "Gold III", "goldseller"),
+                term(8L, "Gold I", "goldseller")));
+        listingSuggestionIndex.rebuild();
+    }
+
+    private GameAccountRepository.SuggestionTerm term(Long id, String rank, String username) {
+        return new GameAccountRepository.SuggestionTerm() {
+            public Long getId() { return id; }
+            public String getAccountRank() { return rank; }
+            public String getSellerUsername() { return username; }
+        };
+    }
+
+    private GameAccount listing(Long id, String rank, Long sellerId, ListingStatus status) {
+        GameAccount listing = new GameAccount();
+        listing.setId(id);
+        listing.setAccountRank(rank);
+        listing.setSellerId(sellerId);
+        listing.setStatus(status);
+        return listing;
+    }
+
+    @Test
+    void suggest_CombinesRanksAndSellersByListingCount() {
+        assertEquals(List.of(
+                new SuggestionDto("goldseller", SuggestionType.SELLER),
+                new SuggestionDto("Gold III", SuggestionType.RANK),
+                new SuggestionDto("Gold I", SuggestionType.RANK)),
+                listingSuggestionIndex.suggest("gol", 10));
+    }
+
+    @Test
+    void suggest_GameAliasesRankFirst() {
+        List<SuggestionDto> result = listingSuggestionIndex.suggest("l", 10);
+
+        assertEquals(SuggestionType.GAME, result.get(0).type());
+        assertTrue(result.stream().map(SuggestionDto::text).toList().containsAll(GameAccountService.GAME_ALIASES.keySet()));
+    }
+
+    @Test
+    void suggest_BlankQuery_ReturnsEmptyWithoutLookup() {
+        assertTrue(listingSuggestionIndex.suggest("  ", 10).isEmpty());
+        assertTrue(listingSuggestionIndex.suggest(null, 10).isEmpty());
+    }
+
+    @Test
+    void suggest_LimitIsCappedByMaxLimit() {
+        ListingSuggestionIndex capped = new ListingSuggestionIndex(gameAccountRepository, userSummaryCache, 1, Duration.ofSeconds(10));
+        capped.rebuild();
+
+        assertEquals(1, capped.suggest("gol", 100).size());
+    }
+
+    @Test
+    void onListingStatusChanged_Approved_AddsRankAndSeller() {
+        when(gameAccountRepository.findById(7L)).thenReturn(Optional.of(listing(7L, "Bạch Kim II", 42L, ListingStatus.APPROVED)));
+        when(userSummaryCache.getAll(List.of(42L)))
+                .thenReturn(Map.of(42L, new UserSummaryDto(42L, "bachkimshop", "bk@example.com")));
+
+        listingSuggestionIndex.onListingStatusChanged(
+                new ListingStatusChangedEvent(7L, ListingStatus.PENDING, ListingStatus.APPROVED));
+
+        assertEquals(Set.of(new SuggestionDto("Bạch Kim II", SuggestionType.RANK),
+                new SuggestionDto("bachkimshop", SuggestionType.SELLER)),
+                Set.copyOf(listingSuggestionIndex.suggest("bach", 10)));
+    }
+
+    @Test
+    void onListingStatusChanged_Sold_DecrementsAndHidesExhaustedTerms() {
+        when(gameAccountRepository.findById(8L)).thenReturn(Optional.of(listing(8L, "Gold I", 9L, ListingStatus.SOLD)));
+        when(userSummaryCache.getAll(List.of(9L)))
+                .thenReturn(Map.of(9L, new UserSummaryDto(9L, "goldseller", "g@example.com")));
+
+        listingSuggestionIndex.onListingStatusChanged(
+                new ListingStatusChangedEvent(8L, ListingStatus.APPROVED, ListingStatus.SOLD));
+
+        // "Gold I" had a single listing; the seller still has the three Gold III ones
+        assertEquals(List.of(new SuggestionDto("Gold III", SuggestionType.RANK)),
+                listingSuggestionIndex.suggest("gold i", 10));
+        assertEquals(Set.of(new SuggestionDto("goldseller", SuggestionType.SELLER),
+                new SuggestionDto("Gold III", SuggestionType.RANK)),
+                Set.copyOf(listingSuggestionIndex.suggest("gol", 10)));
+    }
+
+    @Test
+    void onListingStatusChanged_SameChangeSeenTwice_CountsOnce() {
+        // Given - an approval seen by the event and again by the catch-up, then the sale seen by the catch-up
+        GameAccount approved = listing(7L, "Bạch Kim II", 42L, ListingStatus.APPROVED);
+        GameAccount sold = listing(7L, "Bạch Kim II", 42L, ListingStatus.SOLD);
+        when(gameAccountRepository.findById(7L)).thenReturn(Optional.of(approved));
+        when(gameAccountRepository.findChangedSince(any())).thenReturn(List.of(approved), List.of(sold));
+        when(userSummaryCache.getAll(List.of(42L)))
+                .thenReturn(Map.of(42L, new UserSummaryDto(42L, "bachkimshop", "bk@example.com")));
+
+        // When
+        listingSuggestionIndex.onListingStatusChanged(
+                new ListingStatusChangedEvent(7L, ListingStatus.PENDING, ListingStatus.APPROVED));
+        listingSuggestionIndex.syncChanges();
+        listingSuggestionIndex.syncChanges();
+
+        // Then - counted once, so one sale removes it
+        assertTrue(listingSuggestionIndex.suggest("bach", 10).isEmpty());
+    }
+
+    @Test
+    void syncChanges_ListingChangedOnAnotherNode_AppliedWithoutRebuild() {
+        // Given - the last Gold I listing was sold elsewhere, so no event reached this node
+        when(gameAccountRepository.findChangedSince(any())).thenReturn(List.of(listing(8L, "Gold I", 9L, ListingStatus.SOLD)));
+
+        // When
+        listingSuggestionIndex.syncChanges();
+
+        // Then
+        assertEquals(List.of(new SuggestionDto("Gold III", SuggestionType.RANK)),
+                listingSuggestionIndex.suggest("gold i", 10));
+        verify(gameAccountRepository, times(1)).findSuggestionTerms(ListingStatus.APPROVED);
+    }
+
+    @Test
+    void syncChanges_StartsOverlapBeforeNewestAppliedRow() {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.of(2026, 1, 19, 9, 0);
+        GameAccount approved = listing(9L, "Kim Cương", 9L, ListingStatus.APPROVED);
+        approved.setUpdatedAt(changedAt);
+        when(gameAccountRepository.findChangedSince(any())).thenReturn(List.of(approved), List.of());
+
+        // When
+        listingSuggestionIndex.syncChanges();
+        listingSuggestionIndex.syncChanges();
+
+        // Then - the second catch-up re-reads the overlap window behind the newest row it applied
+        verify(gameAccountRepository).findChangedSince(changedAt.minusSeconds(10));
+    }
+
+    @Test
+    void rebuild_SaleWhileBuilding_ReplayedAfterSwap() {
+        // Given - listing 8 is sold (and its event handled on the old trie) while the counts are loading
+        LocalDateTime buildFrom = LocalDateTime.of(2026, 1, 19, 9, 0);
+        GameAccount sold = listing(8L, "Gold I", 9L, ListingStatus.SOLD);
+        sold.setUpdatedAt(buildFrom.plusSeconds(1));
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(buildFrom);
+        when(gameAccountRepository.findById(8L)).thenReturn(Optional.of(sold));
+        when(gameAccountRepository.findSuggestionTerms(ListingStatus.APPROVED)).thenAnswer(invocation -> {
+            listingSuggestionIndex.onListingStatusChanged(
+                    new ListingStatusChangedEvent(8L, ListingStatus.APPROVED, ListingStatus.SOLD));
+            return List.of(term(1L, "Gold III", "goldseller"), term(8L, "Gold I", "goldseller"));
+        });
+        when(gameAccountRepository.findChangedSince(buildFrom.minusSeconds(10))).thenReturn(List.of(sold));
+
+        // When
+        listingSuggestionIndex.rebuild();
+
+        // Then - the swap dropped the event, the replay did not
+        assertEquals(List.of(new SuggestionDto("Gold III", SuggestionType.RANK)),
+                listingSuggestionIndex.suggest("gold i", 10));
+    }
+
+    @Test
+    void onListingStatusChanged_Rejected_DoesNothing() {
+        listingSuggestionIndex.onListingStatusChanged(
+                new ListingStatusChangedEvent(5L, ListingStatus.PENDING, ListingStatus.REJECTED));
+
+        verify(gameAccountRepository, never()).findById(any());
+    }
+}
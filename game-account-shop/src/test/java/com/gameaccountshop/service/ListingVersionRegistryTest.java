@@ -0,0 +1,111 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.repository.GameAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ListingVersionRegistry
+ */
+@ExtendWith(MockitoExtension.class)
+class ListingVersionRegistryTest {
+
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2026, 1, 18, 10, 0, 0, 123_456_000);
+
+    @Mock
+    private GameAccountRepository gameAccountRepository;
+
+    private ListingVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ListingVersionRegistry(gameAccountRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void listingVersion_FollowsThePersistedRow() {
+        // Given
+        when(gameAccountRepository.findUpdatedAtById(1L))
+                .thenReturn(Optional.of(CHANGED_AT), Optional.of(CHANGED_AT), Optional.of(CHANGED_AT.plusNanos(1_000)));
+        when(gameAccountRepository.findUpdatedAtById(2L)).thenReturn(Optional.of(CHANGED_AT));
+
+        // When
+        ListingVersionRegistry.Version first = registry.listingVersion(1L);
+
+        // Then - stable until the row changes, even by a microsecond (e.g. on another node)
+        assertEquals(first, registry.listingVersion(1L));
+        assertNotEquals(first.etag(), registry.listingVersion(1L).etag());
+        assertNotEquals(first.etag(), registry.listingVersion(2L).etag());
+    }
+
+    @Test
+    void catalogVersion_ReadOncePerTtl() {
+        // Given
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(CHANGED_AT);
+
+        // When
+        ListingVersionRegistry.Version version = registry.catalogVersion();
+
+        // Then
+        assertEquals(version, registry.catalogVersion());
+        verify(gameAccountRepository, times(1)).findLatestUpdatedAt();
+    }
+
+    @Test
+    void catalogVersion_ChangedOnAnotherNode_SeenAfterTtl() {
+        // Given - no TTL
+        registry = new ListingVersionRegistry(gameAccountRepository, Duration.ZERO);
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(CHANGED_AT, CHANGED_AT.plusSeconds(1));
+
+        // When & Then
+        assertNotEquals(registry.catalogVersion().etag(), registry.catalogVersion().etag());
+    }
+
+    @Test
+    void onListingStatusChanged_RereadsCatalogVersionAtOnce() {
+        // Given
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(CHANGED_AT, CHANGED_AT.plusSeconds(1));
+        ListingVersionRegistry.Version before = registry.catalogVersion();
+
+        // When
+        registry.onListingStatusChanged(new ListingStatusChangedEvent(1L, ListingStatus.PENDING, ListingStatus.APPROVED));
+
+        // Then
+        assertNotEquals(before.etag(), registry.catalogVersion().etag());
+        assertTrue(registry.catalogVersion().lastModified() > before.lastModified());
+    }
+
+    @Test
+    void etags_AreQuotedAndDifferAcrossRestarts() throws InterruptedException {
+        // Given
+        when(gameAccountRepository.findLatestUpdatedAt()).thenReturn(CHANGED_AT);
+        String etag = registry.catalogVersion().etag();
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+
+        // When
+        Thread.sleep(2);
+        ListingVersionRegistry restarted = new ListingVersionRegistry(gameAccountRepository, Duration.ofMinutes(1));
+
+        // Then
+        assertNotEquals(etag, restarted.catalogVersion().etag());
+    }
+
+    @Test
+    void listingVersion_UnknownListing_StillQuoted() {
+        when(gameAccountRepository.findUpdatedAtById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(registry.listingVersion(99L).etag().startsWith("\"l-99-"));
+    }
+}
@@ -0,0 +1,270 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.BatchJobStatsDto;
+import com.gameaccountshop.entity.Payout;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.enums.PayoutStatus;
+import com.gameaccountshop.repository.GameAccountRepository;
+import com.gameaccountshop.repository.PayoutRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+
+/**
+ * Monthly payout generation for 100k sellers: the former per-seller loop vs the chunked batch job
+ * (grouped query + JDBC batch per seller range, ranges in parallel)
+ * Run with: mvn test -Pbenchmark -Dtest=MonthlyPayoutBenchmarkTest
+ *
+ * Reports run time and lock hold time: while a run is in flight, information_schema.innodb_trx is polled and
+ * the time between the first observed row lock of a writing transaction and the last commit is measured.
+ * Both runs must create exactly the same payouts; a second run in the same month creates none, and neither
+ * does a resumed run whose checkpoints were lost after the payouts committed.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({PayoutService.class, UserSummaryCache.class, SellerEarningsService.class, BatchJobRunner.class,
+        BatchCheckpointService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonthlyPayoutBenchmarkTest {
+
+    private static final int SELLERS = 100_000;
+    private static final String PREFIX = "bench_payout_";
+    private static final int SEED_BATCH = 5_000;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private PayoutService payoutService;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private GameAccountRepository gameAccountRepository;
+
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private LocalDateTime monthStart;
+
+    /**
+     * Every seller has two sold listings and one approved listing; every 3rd seller has a RECEIVED payout,
+     * every 10th already has this month's NEEDS_PAYMENT payout and every 50th has been paid out in full
+     */
+    @BeforeAll
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        cleanUp();
+
+        List<Object[]> users = new ArrayList<>(SELLERS);
+        for (int i = 0; i < SELLERS; i++) {
+            users.add(new Object[] {PREFIX + i, PREFIX + i + "@bench.local"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email, role) VALUES (?, 'x', ?, 'USER')",
+                users, SEED_BATCH, (statement, row) -> {
+                    statement.setString(1, (String) row[0]);
+                    statement.setString(2, (String) row[1]);
+                });
+        List<Long> sellerIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id",
+                Long.class, PREFIX + "%");
+
+        List<Object[]> listings = new ArrayList<>(sellerIds.size() * 3);
+        List<Object[]> payouts = new ArrayList<>();
+        for (int i = 0; i < sellerIds.size(); i++) {
+            Long sellerId = sellerIds.get(i);
+            long price = 100_000L + (i % 97) * 1_000L;
+            listings.add(new Object[] {sellerId, price, "SOLD"});
+            listings.add(new Object[] {sellerId, price * 2, "SOLD"});
+            listings.add(new Object[] {sellerId, price * 5, "APPROVED"});
+            if (i % 50 == 0) {
+                payouts.add(new Object[] {sellerId, BigDecimal.valueOf(price * 3).multiply(new BigDecimal("0.90")),
+                        "RECEIVED", monthStart.minusMonths(1)});
+            } else if (i % 3 == 0) {
+                payouts.add(new Object[] {sellerId, BigDecimal.valueOf(price), "RECEIVED", monthStart.minusMonths(1)});
+            }
+            if (i % 10 == 1) {
+                payouts.add(new Object[] {sellerId, BigDecimal.valueOf(price), "NEEDS_PAYMENT", monthStart});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO game_accounts (game_name, account_rank, price, description, status, " +
+                "seller_id) VALUES ('Liên Minh Huyền Thoại', 'Gold III', ?, 'bench payout', ?, ?)",
+                listings, SEED_BATCH, (statement, row) -> {
+                    statement.setLong(1, (Long) row[1]);
+                    statement.setString(2, (String) row[2]);
+                    statement.setLong(3, (Long) row[0]);
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO payouts (seller_id, amount, status, created_at) VALUES (?, ?, ?, ?)",
+                payouts, SEED_BATCH, (statement, row) -> {
+                    statement.setLong(1, (Long) row[0]);
+                    statement.setBigDecimal(2, (BigDecimal) row[1]);
+                    statement.setString(3, (String) row[2]);
+                    statement.setObject(4, row[3]);
+                });
+        jdbcTemplate.execute("ANALYZE TABLE users, game_accounts, payouts");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        // Listings and payouts cascade from the users, chunk checkpoints from their execution
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM batch_job_executions WHERE job_name = ? AND job_key = ?",
+                PayoutService.MONTHLY_PAYOUT_JOB, YearMonth.now().toString());
+    }
+
+    @Test
+    void perSellerLoopVsGroupedAggregation() throws Exception {
+        // Former implementation: 3-4 statements per seller and one INSERT per payout, in one transaction
+        LocalDateTime loopStart = LocalDateTime.now().withNano(0);
+        Run loop = measure(() -> transactionTemplate.executeWithoutResult(status -> {
+            for (Long sellerId : gameAccountRepository.findDistinctSellerIdsByStatus(ListingStatus.SOLD)) {
+                if (payoutRepository.existsBySellerIdAndStatusCreatedBetween(
+                        sellerId, PayoutStatus.NEEDS_PAYMENT, monthStart, monthStart.plusMonths(1))) {
+                    continue;
+                }
+                BigDecimal unpaid = BigDecimal.valueOf(gameAccountRepository.sumPriceBySellerIdAndStatus(
+                                sellerId, ListingStatus.SOLD))
+                        .multiply(new BigDecimal("0.90"))
+                        .subtract(payoutRepository.sumAmountBySellerIdAndStatus(sellerId, PayoutStatus.RECEIVED));
+                if (unpaid.compareTo(BigDecimal.ZERO) > 0) {
+                    Payout payout = new Payout();
+                    payout.setSellerId(sellerId);
+                    payout.setAmount(unpaid);
+                    payout.setStatus(PayoutStatus.NEEDS_PAYMENT);
+                    payoutRepository.save(payout);
+                }
+            }
+        }));
+        Map<Long, BigDecimal> byLoop = createdSince(loopStart);
+        report("per-seller loop ", loop, byLoop.size());
+        deleteCreatedSince(loopStart);
+
+        LocalDateTime groupedStart = LocalDateTime.now().withNano(0);
+        Run grouped = measure(payoutService::createMonthlyPayouts);
+        Map<Long, BigDecimal> byGrouped = createdSince(groupedStart);
+        report("chunked batch   ", grouped, byGrouped.size());
+        BatchJobStatsDto job = batchJobRunner.lastRuns().get(PayoutService.MONTHLY_PAYOUT_JOB);
+        System.out.printf("  %d chunks, chunk time p50 %.1f ms, p95 %.1f ms, max %.1f ms%n",
+                job.chunksCompleted(), job.chunkP50Ms(), job.chunkP95Ms(), job.chunkMaxMs());
+        assertEquals(0, job.chunksFailed());
+
+        // Every 10th seller already had a payout, every 50th has nothing left to pay (the two sets are disjoint)
+        assertEquals(SELLERS - SELLERS / 10 - SELLERS / 50, byGrouped.size());
+        assertEquals(byLoop.size(), byGrouped.size(), "same sellers paid");
+        byLoop.forEach((sellerId, amount) -> assertEquals(0, amount.compareTo(byGrouped.get(sellerId)),
+                "same amount for seller " + sellerId));
+
+        // Same month again: every seller now has a NEEDS_PAYMENT payout
+        LocalDateTime againStart = LocalDateTime.now().withNano(0);
+        payoutService.createMonthlyPayouts();
+        assertTrue(createdSince(againStart).isEmpty(), "second run in the same month creates nothing");
+
+        // Crash after the payouts committed but with half the checkpoints lost: the resumed chunks find
+        // every seller already paid this month
+        jdbcTemplate.update("UPDATE batch_chunk_executions c " +
+                "JOIN batch_job_executions e ON e.id = c.job_execution_id " +
+                "SET c.status = 'PENDING', e.status = 'PENDING' " +
+                "WHERE e.job_name = ? AND e.job_key = ? AND MOD(c.id, 2) = 0",
+                PayoutService.MONTHLY_PAYOUT_JOB, YearMonth.now().toString());
+        payoutService.resumeMonthlyPayouts();
+        BatchJobStatsDto resumed = batchJobRunner.lastRuns().get(PayoutService.MONTHLY_PAYOUT_JOB);
+        assertTrue(resumed.resumed());
+        assertEquals(0, resumed.itemsWritten(), "resumed chunks create nothing twice");
+        assertTrue(createdSince(againStart).isEmpty());
+    }
+
+    private record Run(double seconds, long lockHoldMillis, long maxRowsLocked) {
+    }
+
+    /**
+     * Run the task while a second connection samples innodb_trx for transactions holding row locks
+     */
+    private Run measure(Runnable task) throws InterruptedException {
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong firstLocked = new AtomicLong();
+        AtomicLong lastLocked = new AtomicLong();
+        AtomicLong maxRowsLocked = new AtomicLong();
+        Thread sampler = new Thread(() -> {
+            while (!done.get()) {
+                Long locked = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(MAX(trx_rows_locked), 0) FROM information_schema.innodb_trx " +
+                        "WHERE trx_mysql_thread_id <> CONNECTION_ID()", Long.class);
+                if (locked != null && locked > 0) {
+                    long now = System.nanoTime();
+                    firstLocked.compareAndSet(0, now);
+                    lastLocked.set(now);
+                    maxRowsLocked.accumulateAndGet(locked, Math::max);
+                }
+            }
+        }, "payout-lock-sampler");
+
+        sampler.start();
+        long begin = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            done.set(true);
+            sampler.join();
+        }
+        long end = System.nanoTime();
+        // Locks are released at commit, at most one sample after the last one that saw them
+        long lockHold = firstLocked.get() == 0 ? 0 : (lastLocked.get() - firstLocked.get()) / 1_000_000;
+        return new Run((end - begin) / 1e9, lockHold, maxRowsLocked.get());
+    }
+
+    private static void report(String label, Run run, int created) {
+        System.out.printf("%s: %d sellers, %d payouts in %.2fs, row locks held %d ms (max %d rows)%n",
+                label, SELLERS, created, run.seconds(), run.lockHoldMillis(), run.maxRowsLocked());
+    }
+
+    private Map<Long, BigDecimal> createdSince(LocalDateTime since) {
+        return jdbcTemplate.query("SELECT p.seller_id, p.amount FROM payouts p JOIN users u ON u.id = p.seller_id " +
+                        "WHERE u.username LIKE ? AND p.status = 'NEEDS_PAYMENT' AND p.created_at >= ?",
+                (rs, rowNum) -> Map.entry(rs.getLong(1), rs.getBigDecimal(2)), PREFIX + "%", since)
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private void deleteCreatedSince(LocalDateTime since) {
+        jdbcTemplate.update("DELETE p FROM payouts p JOIN users u ON u.id = p.seller_id " +
+                "WHERE u.username LIKE ? AND p.status = 'NEEDS_PAYMENT' AND p.created_at >= ?", PREFIX + "%", since);
+    }
+}
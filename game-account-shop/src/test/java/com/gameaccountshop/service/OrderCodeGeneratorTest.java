@@ -0,0 +1,201 @@
+package com.gameaccountshop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderCodeGenerator
+ */
+class OrderCodeGeneratorTest {
+
+    private static final long NOW = OrderCodeGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    void nextOrderCode_ManyThreads_ShouldNeverRepeat() throws Exception {
+        // Arrange - 2 million codes from 8 threads on the real clock
+        int threads = 8;
+        int perThread = 250_000;
+        OrderCodeGenerator generator = new OrderCodeGenerator(3);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> results = new ArrayList<>(threads);
+
+        // Act
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long[] codes = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        codes[i] = generator.nextOrderCode();
+                    }
+                    return codes;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[threads * perThread];
+            int offset = 0;
+            for (Future<long[]> result : results) {
+                long[] codes = result.get();
+                System.arraycopy(codes, 0, all, offset, codes.length);
+                offset += codes.length;
+            }
+
+            // Assert
+            Arrays.sort(all);
+            assertTrue(all[0] > 0);
+            assertTrue(all[all.length - 1] <= OrderCodeGenerator.MAX_ORDER_CODE, "codes fit in 53 bits");
+            for (int i = 1; i < all.length; i++) {
+                assertNotEquals(all[i - 1], all[i], "duplicate order code");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void nextOrderCode_SameMillisecond_ShouldIncrementSequence() {
+        // Arrange
+        OrderCodeGenerator generator = new OrderCodeGenerator(0, () -> NOW);
+
+        // Act
+        long first = generator.nextOrderCode();
+        long second = generator.nextOrderCode();
+
+        // Assert
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void nextOrderCode_SequenceExhausted_ShouldWaitForNextMillisecond() {
+        // Arrange - the clock reads NOW for the first 512 codes and the start of the 513th, then moves on
+        AtomicInteger reads = new AtomicInteger();
+        OrderCodeGenerator generator = new OrderCodeGenerator(0,
+                () -> reads.incrementAndGet() <= OrderCodeGenerator.MAX_SEQUENCE + 2 ? NOW : NOW + 1);
+        for (int i = 0; i <= OrderCodeGenerator.MAX_SEQUENCE; i++) {
+            generator.nextOrderCode();
+        }
+
+        // Act
+        long next = generator.nextOrderCode();
+
+        // Assert - sequence restarts at 0 in the next millisecond
+        assertEquals(0, next & OrderCodeGenerator.MAX_SEQUENCE);
+        assertEquals(NOW + 1 - OrderCodeGenerator.EPOCH_MILLIS,
+                next >>> (OrderCodeGenerator.NODE_BITS + OrderCodeGenerator.SEQUENCE_BITS));
+    }
+
+    @Test
+    void nextOrderCode_ClockMovesBack_ShouldStayIncreasing() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderCodeGenerator generator = new OrderCodeGenerator(0, clock::get);
+        long before = generator.nextOrderCode();
+
+        // Act
+        clock.set(NOW - 5_000);
+        long after = generator.nextOrderCode();
+
+        // Assert
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextOrderCode_DifferentNodes_ShouldNotCollideInSameMillisecond() {
+        // Arrange
+        OrderCodeGenerator node1 = new OrderCodeGenerator(1, () -> NOW);
+        OrderCodeGenerator node2 = new OrderCodeGenerator(2, () -> NOW);
+
+        // Act & Assert
+        for (int i = 0; i <= OrderCodeGenerator.MAX_SEQUENCE; i++) {
+            assertNotEquals(node1.nextOrderCode(), node2.nextOrderCode());
+        }
+    }
+
+    @Test
+    void constructor_NodeIdOutOfRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderCodeGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new OrderCodeGenerator(OrderCodeGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void constructor_NodeIdUnset_ShouldClaimFirstFreeId() {
+        // Arrange - ids 0 and 1 are held by running nodes
+        LockProvider lockProvider = mock(LockProvider.class);
+        LockProvider.Lease lease = mock(LockProvider.Lease.class);
+        when(lease.name()).thenReturn("payos-node-id-2");
+        when(lease.isHeld()).thenReturn(true);
+        when(lockProvider.tryAcquire(startsWith("payos-node-id-"), any(), any())).thenReturn(Optional.empty());
+        when(lockProvider.tryAcquire(eq("payos-node-id-2"), any(), any())).thenReturn(Optional.of(lease));
+
+        // Act
+        OrderCodeGenerator generator = new OrderCodeGenerator(-1, lockProvider);
+        long code = generator.nextOrderCode();
+
+        // Assert
+        assertEquals(2, (code >>> OrderCodeGenerator.SEQUENCE_BITS) & OrderCodeGenerator.MAX_NODE_ID);
+        verify(lockProvider, never()).tryAcquire(eq("payos-node-id-3"), any(), any());
+    }
+
+    @Test
+    void constructor_ConfiguredNodeIdInUse_ShouldFailStartup() {
+        // Arrange
+        LockProvider lockProvider = mock(LockProvider.class);
+        when(lockProvider.tryAcquire(any(), any(), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new OrderCodeGenerator(0, lockProvider));
+        verify(lockProvider).tryAcquire(eq("payos-node-id-0"), any(), any());
+    }
+
+    @Test
+    void constructor_AllNodeIdsInUse_ShouldFailStartup() {
+        // Arrange
+        LockProvider lockProvider = mock(LockProvider.class);
+        when(lockProvider.tryAcquire(any(), any(), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new OrderCodeGenerator(-1, lockProvider));
+        verify(lockProvider, times((int) OrderCodeGenerator.MAX_NODE_ID + 1)).tryAcquire(any(), any(), any());
+    }
+
+    @Test
+    void nextOrderCode_NodeLeaseLost_ShouldThrow() {
+        // Arrange
+        LockProvider lockProvider = mock(LockProvider.class);
+        LockProvider.Lease lease = mock(LockProvider.Lease.class);
+        when(lease.name()).thenReturn("payos-node-id-5");
+        when(lockProvider.tryAcquire(eq("payos-node-id-5"), any(), any())).thenReturn(Optional.of(lease));
+        OrderCodeGenerator generator = new OrderCodeGenerator(5, lockProvider);
+
+        // Act
+        when(lease.isHeld()).thenReturn(false);
+
+        // Assert
+        assertThrows(IllegalStateException.class, generator::nextOrderCode);
+    }
+
+    @Test
+    void nextOrderCode_ClockBeforeEpoch_ShouldThrow() {
+        // Arrange
+        OrderCodeGenerator generator = new OrderCodeGenerator(0, () -> OrderCodeGenerator.EPOCH_MILLIS - 1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, generator::nextOrderCode);
+    }
+}
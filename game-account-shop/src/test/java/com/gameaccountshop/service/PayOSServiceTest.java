@@ -0,0 +1,136 @@
+package com.gameaccountshop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gameaccountshop.exception.DependencyUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vn.payos.PayOS;
+import vn.payos.core.ClientOptions;
+import vn.payos.crypto.CryptoProviderImpl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PayOSService through the real PayOS SDK, against a local stub of the PayOS API
+ */
+class PayOSServiceTest {
+
+    private static final String CHECKSUM_KEY = "test-checksum-key";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubHttpServer payOSApi;
+    private DependencyGuard payOSGuard;
+    private PayOSService payOSService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        payOSApi = new StubHttpServer();
+        DependencyGuard.Settings settings = new DependencyGuard.Settings();
+        settings.setMaxConcurrentCalls(4);
+        settings.setDeadline(Duration.ofMillis(500));
+        settings.setMinimumCalls(4);
+        payOSGuard = new DependencyGuard("payos", settings, PayOSService::isProviderFailure);
+        PayOS payOS = new PayOS(ClientOptions.builder()
+                .clientId("test-client")
+                .apiKey("test-api-key")
+                .checksumKey(CHECKSUM_KEY)
+                .baseURL(payOSApi.url(""))
+                .timeoutMs(5_000)
+                .maxRetries(0)
+                .build());
+        payOSService = new PayOSService(payOS, payOSGuard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        payOSApi.close();
+    }
+
+    @Test
+    void findPaymentLinkId_ExistingLink_ShouldReturnItsId() throws Exception {
+        // Arrange
+        ObjectNode link = objectMapper.createObjectNode()
+                .put("id", "abc")
+                .put("orderCode", 9001L)
+                .put("amount", 50000)
+                .put("amountPaid", 0)
+                .put("amountRemaining", 50000)
+                .put("status", "PENDING")
+                .put("createdAt", "2026-10-17T10:00:00+07:00");
+        payOSApi.respond(200, signed(link));
+
+        // Act & Assert
+        assertEquals(Optional.of("abc"), payOSService.findPaymentLinkId(9001L));
+    }
+
+    @Test
+    void findPaymentLinkId_UnknownOrderCode_ShouldBeEmptyAndNotCountAsOutage() {
+        // Arrange
+        payOSApi.respond(404, "{\"code\":\"101\",\"desc\":\"Không tìm thấy thông tin đơn hàng\",\"data\":null}");
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            assertEquals(Optional.empty(), payOSService.findPaymentLinkId(9001L));
+        }
+
+        // Assert
+        assertEquals(DependencyGuard.State.CLOSED, payOSGuard.getState());
+        assertEquals(6, payOSApi.requests());
+    }
+
+    @Test
+    void checkPaymentStatus_PayOSDown_ShouldOpenCircuitAndAnswerErrorWithoutCalling() {
+        // Arrange
+        payOSApi.respond(502, "{\"code\":\"502\",\"desc\":\"Bad Gateway\"}");
+        for (int i = 0; i < 4; i++) {
+            assertEquals("ERROR", payOSService.checkPaymentStatus(9001L));
+        }
+        assertEquals(DependencyGuard.State.OPEN, payOSGuard.getState());
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ERROR", payOSService.checkPaymentStatus(9001L));
+        }
+
+        // Assert - the fallback answered, PayOS was not called again
+        assertEquals(4, payOSApi.requests());
+        assertEquals(10, payOSGuard.stats().shortCircuited());
+    }
+
+    @Test
+    void createTopUpPayment_PayOSSlow_ShouldFailAtDeadline() {
+        // Arrange
+        payOSApi.latency(3_000).respond(200, "{}");
+
+        // Act
+        long begin = System.nanoTime();
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> payOSService.createTopUpPayment(new BigDecimal("50000"), 9001L, "TOPUP7", "Nap vi 50000"));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        // Assert
+        DependencyUnavailableException cause = assertInstanceOf(DependencyUnavailableException.class, thrown.getCause());
+        assertEquals(DependencyUnavailableException.Reason.DEADLINE_EXCEEDED, cause.getReason());
+        assertTrue(waitedMillis < 2_000, "waited " + waitedMillis + " ms");
+    }
+
+    /**
+     * PayOS response envelope, with the data signed the way PayOS signs response bodies
+     */
+    private String signed(ObjectNode data) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("code", "00")
+                .put("desc", "success");
+        body.set("data", data);
+        body.put("signature", new CryptoProviderImpl().createSignatureFromObj(data, CHECKSUM_KEY));
+        return objectMapper.writeValueAsString(body);
+    }
+}
@@ -0,0 +1,138 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.PayOSWebhookEvent;
+import com.gameaccountshop.repository.PayOSWebhookEventRepository;
+import com.gameaccountshop.service.WalletService.TopUpSettlement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.payos.model.webhooks.WebhookData;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PayOSWebhookService
+ */
+@ExtendWith(MockitoExtension.class)
+class PayOSWebhookServiceTest {
+
+    @Mock
+    private PayOSWebhookEventRepository webhookEventRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @InjectMocks
+    private PayOSWebhookService payOSWebhookService;
+
+    private PayOSWebhookEvent event;
+
+    @BeforeEach
+    void setUp() {
+        event = new PayOSWebhookEvent();
+        event.setOrderCode(9001L);
+        event.setAmount(500000L);
+    }
+
+    @Test
+    void record_PaidWebhook_ShouldInsertIntoInbox() {
+        // Arrange
+        when(webhookEventRepository.record(9001L, 500000L, "FT9001")).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(payOSWebhookService.record(paid()));
+        verify(webhookEventRepository).record(9001L, 500000L, "FT9001");
+    }
+
+    @Test
+    void record_Redelivery_ShouldStillAskToSettle() {
+        // Arrange - the first delivery may not have been settled yet
+        when(webhookEventRepository.record(9001L, 500000L, "FT9001")).thenReturn(0);
+
+        // Act & Assert
+        assertTrue(payOSWebhookService.record(paid()));
+    }
+
+    @Test
+    void record_UnsuccessfulPayment_ShouldBeIgnored() {
+        // Arrange
+        WebhookData data = paid();
+        data.setCode("01");
+
+        // Act & Assert
+        assertFalse(payOSWebhookService.record(data));
+        verifyNoInteractions(webhookEventRepository);
+    }
+
+    @Test
+    void settle_ShouldCreditAndMarkProcessed() {
+        // Arrange
+        when(webhookEventRepository.findByOrderCode(9001L)).thenReturn(Optional.of(event));
+        when(walletService.settlePaidTopUp(9001L, 500000L)).thenReturn(TopUpSettlement.CREDITED);
+
+        // Act & Assert
+        assertTrue(payOSWebhookService.settle(9001L));
+        verify(webhookEventRepository).markProcessed(eq(9001L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void settle_AmountMismatch_ShouldMarkProcessedWithoutRetry() {
+        // Arrange - WalletService left the top-up pending with a note for the admins
+        when(webhookEventRepository.findByOrderCode(9001L)).thenReturn(Optional.of(event));
+        when(walletService.settlePaidTopUp(9001L, 500000L)).thenReturn(TopUpSettlement.AMOUNT_MISMATCH);
+
+        // Act & Assert
+        assertTrue(payOSWebhookService.settle(9001L));
+        verify(webhookEventRepository).markProcessed(eq(9001L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void settle_WebhookBeforeTransactionCommit_ShouldStayPendingUntilRetry() {
+        // Arrange - first attempt: transaction not visible yet; the scheduler's retry finds it
+        when(webhookEventRepository.findByOrderCode(9001L)).thenReturn(Optional.of(event));
+        when(walletService.settlePaidTopUp(9001L, 500000L)).thenReturn(TopUpSettlement.NOT_FOUND, TopUpSettlement.CREDITED);
+
+        // Act & Assert
+        assertFalse(payOSWebhookService.settle(9001L));
+        verify(webhookEventRepository, never()).markProcessed(any(), any());
+
+        assertTrue(payOSWebhookService.settle(9001L));
+        verify(webhookEventRepository).markProcessed(eq(9001L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void settle_AlreadyProcessed_ShouldNotTouchWallet() {
+        // Arrange
+        event.setProcessedAt(LocalDateTime.now());
+        when(webhookEventRepository.findByOrderCode(9001L)).thenReturn(Optional.of(event));
+
+        // Act & Assert
+        assertTrue(payOSWebhookService.settle(9001L));
+        verify(walletService, never()).settlePaidTopUp(any(), anyLong());
+    }
+
+    private static WebhookData paid() {
+        return WebhookData.builder()
+                .orderCode(9001L)
+                .amount(500000L)
+                .description("Nap vi 500000")
+                .accountNumber("12345678")
+                .reference("FT9001")
+                .transactionDateTime("2026-01-18 14:30:00")
+                .currency("VND")
+                .paymentLinkId("link-9001")
+                .code("00")
+                .desc("success")
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.PaymentOutbox;
+import com.gameaccountshop.entity.Transaction;
+import com.gameaccountshop.enums.PaymentOutboxStatus;
+import com.gameaccountshop.repository.PaymentOutboxRepository;
+import com.gameaccountshop.repository.TransactionRepository;
+import com.gameaccountshop.service.PayOSService.PayOSData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PaymentOutboxService
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxServiceTest {
+
+    @Mock
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PayOSService payOSService;
+
+    @Mock
+    private OrderCodeGenerator orderCodeGenerator;
+
+    @InjectMocks
+    private PaymentOutboxService paymentOutboxService;
+
+    private Transaction transaction;
+    private PaymentOutbox row;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new Transaction();
+        transaction.setId(7L);
+        transaction.setBuyerId(100L);
+        transaction.setAmount(new BigDecimal("50000"));
+        transaction.setOrderCode(9001L);
+
+        row = new PaymentOutbox();
+        row.setTransactionId(7L);
+        row.setOrderCode(9001L);
+    }
+
+    @Test
+    void enqueue_ShouldSaveTransactionWithOrderCodeAndDueOutboxRow() {
+        // Arrange
+        Transaction pending = new Transaction();
+        when(orderCodeGenerator.nextOrderCode()).thenReturn(9001L);
+        when(transactionRepository.save(pending)).thenAnswer(invocation -> {
+            pending.setId(7L);
+            return pending;
+        });
+
+        // Act
+        Transaction saved = paymentOutboxService.enqueue(pending);
+
+        // Assert
+        assertEquals(9001L, saved.getOrderCode());
+        ArgumentCaptor<PaymentOutbox> captor = ArgumentCaptor.forClass(PaymentOutbox.class);
+        verify(paymentOutboxRepository).save(captor.capture());
+        PaymentOutbox outboxRow = captor.getValue();
+        assertEquals(7L, outboxRow.getTransactionId());
+        assertEquals(9001L, outboxRow.getOrderCode());
+        assertEquals(PaymentOutboxStatus.PENDING, outboxRow.getStatus());
+        assertTrue(outboxRow.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(4)),
+                "the request that enqueued the row gets the first go");
+    }
+
+    @Test
+    void dispatch_ShouldStoreLinkThenMarkSent() {
+        // Arrange
+        PayOSData link = new PayOSData("qr", "https://pay.payos.vn/web/abc", "abc", 9001L, 50000L);
+
+        // Act
+        Transaction result = paymentOutboxService.dispatch(transaction, pending -> link);
+
+        // Assert
+        assertEquals("abc", result.getPaymentLinkId());
+        assertEquals("qr", result.getQrCode());
+        assertEquals("https://pay.payos.vn/web/abc", result.getCheckoutUrl());
+        var inOrder = inOrder(transactionRepository, paymentOutboxRepository);
+        inOrder.verify(transactionRepository).attachPaymentLink(7L, "abc", "qr", "https://pay.payos.vn/web/abc");
+        inOrder.verify(paymentOutboxRepository).markSent(eq(7L), any());
+    }
+
+    @Test
+    void dispatch_WhenPayOSFails_ShouldLeaveRowForRelayAndRethrow() {
+        // Act & Assert
+        RuntimeException failure = new RuntimeException("Read timed out");
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> paymentOutboxService.dispatch(transaction, pending -> { throw failure; }));
+        assertSame(failure, thrown);
+        verify(paymentOutboxRepository).recordFailure(eq(7L), eq("Read timed out"), any());
+        verify(paymentOutboxRepository, never()).markSent(any(), any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void relay_WhenPayOSCreatedTheLink_ShouldStoreIt() {
+        // Arrange - the request died after PayOS answered
+        when(payOSService.findPaymentLinkId(9001L)).thenReturn(Optional.of("abc"));
+
+        // Act & Assert
+        assertTrue(paymentOutboxService.relay(row));
+        verify(transactionRepository).attachPaymentLink(7L, "abc", null, null);
+        verify(paymentOutboxRepository).markSent(eq(7L), any());
+        verify(transactionRepository, never()).rejectPending(any(), any());
+    }
+
+    @Test
+    void relay_WhenPayOSHasNoLink_ShouldRejectTransaction() {
+        // Arrange - the request died before PayOS created anything
+        when(payOSService.findPaymentLinkId(9001L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(paymentOutboxService.relay(row));
+        verify(transactionRepository).rejectPending(List.of(7L), PaymentOutboxService.NO_LINK_REASON);
+        verify(paymentOutboxRepository).close(eq(7L), eq(PaymentOutboxStatus.FAILED), anyString());
+        verify(transactionRepository, never()).attachPaymentLink(any(), any(), any(), any());
+    }
+
+    @Test
+    void relay_WhenLookupFails_ShouldBackOff() {
+        // Arrange
+        row.setAttempts(2);
+        when(payOSService.findPaymentLinkId(9001L)).thenThrow(new RuntimeException("503"));
+
+        // Act & Assert
+        assertFalse(paymentOutboxService.relay(row));
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentOutboxRepository).recordFailure(eq(7L), eq("503"), next.capture());
+        assertTrue(next.getValue().isAfter(LocalDateTime.now().plusMinutes(39)), "delay doubles per attempt");
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void relay_WhenLookupKeepsFailing_ShouldGiveUpAndLeaveTransactionPending() {
+        // Arrange
+        row.setAttempts(PaymentOutboxService.MAX_ATTEMPTS - 1);
+        when(payOSService.findPaymentLinkId(9001L)).thenThrow(new RuntimeException("503"));
+
+        // Act & Assert
+        assertFalse(paymentOutboxService.relay(row));
+        verify(paymentOutboxRepository).close(7L, PaymentOutboxStatus.FAILED, "503");
+        verify(paymentOutboxRepository, never()).recordFailure(any(), any(), any());
+        verifyNoInteractions(transactionRepository);
+    }
+}
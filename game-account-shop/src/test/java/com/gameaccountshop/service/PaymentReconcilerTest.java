@@ -0,0 +1,247 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.PendingPaymentDto;
+import com.gameaccountshop.dto.ReconciliationStatsDto;
+import com.gameaccountshop.enums.TransactionStatus;
+import com.gameaccountshop.enums.TransactionType;
+import com.gameaccountshop.repository.TransactionRepository;
+import com.gameaccountshop.service.WalletService.TopUpSettlement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PaymentReconciler, against StubPayOSService
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentReconcilerTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 18, 14, 30);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    private StubPayOSService payOS;
+
+    @BeforeEach
+    void setUp() {
+        payOS = new StubPayOSService();
+    }
+
+    @Test
+    void reconcile_AppliesPayOSStatusesInBatches() {
+        // Arrange
+        List<PendingPaymentDto> page = List.of(
+                payment(1L, 101L, TransactionType.TOP_UP),
+                payment(2L, 102L, TransactionType.TOP_UP),
+                payment(3L, 103L, TransactionType.TOP_UP),
+                payment(4L, 104L, TransactionType.TOP_UP),
+                payment(5L, 105L, TransactionType.TOP_UP),
+                payment(6L, 106L, TransactionType.PURCHASE));
+        payOS.status(101L, "PAID").status(102L, "CANCELLED").status(103L, "EXPIRED")
+                .status(104L, "PENDING").status(105L, "CANCELLED").status(106L, "PAID");
+        when(transactionRepository.findPaymentsToReconcile(eq(TransactionStatus.PENDING), any(), any(), any(), any()))
+                .thenReturn(page);
+        when(transactionRepository.rejectPending(eq(List.of(2L, 5L)), anyString())).thenReturn(2);
+        when(transactionRepository.rejectPending(eq(List.of(3L)), anyString())).thenReturn(1);
+        when(walletService.settlePaidTopUp(101L, 500000L)).thenReturn(TopUpSettlement.CREDITED);
+
+        PaymentReconciler reconciler = reconciler(100, 4, 1000);
+
+        // Act
+        ReconciliationStatsDto stats = reconciler.reconcile();
+
+        // Assert - one UPDATE per terminal status, PAID top-ups credited, PAID purchases left alone
+        verify(transactionRepository).rejectPending(eq(List.of(2L, 5L)), anyString());
+        verify(transactionRepository).rejectPending(eq(List.of(3L)), anyString());
+        verify(walletService).settlePaidTopUp(101L, 500000L);
+        verify(walletService, never()).settlePaidTopUp(eq(106L), anyLong());
+        assertEquals(6, stats.rowsScanned());
+        assertEquals(6, stats.callsMade());
+        assertEquals(0, stats.callErrors());
+        assertEquals(1, stats.paid());
+        assertEquals(2, stats.cancelled());
+        assertEquals(1, stats.expired());
+        assertSame(stats, reconciler.lastRun());
+    }
+
+    @Test
+    void reconcile_PaidAmountMismatch_NotCountedAsPaid() {
+        // Arrange
+        when(transactionRepository.findPaymentsToReconcile(eq(TransactionStatus.PENDING), any(), any(), any(), any()))
+                .thenReturn(List.of(payment(1L, 101L, TransactionType.TOP_UP)));
+        payOS.status(101L, "PAID");
+        when(walletService.settlePaidTopUp(101L, 500000L)).thenReturn(TopUpSettlement.AMOUNT_MISMATCH);
+
+        // Act
+        ReconciliationStatsDto stats = reconciler(100, 4, 1000).reconcile();
+
+        // Assert
+        verify(walletService).settlePaidTopUp(101L, 500000L);
+        assertEquals(0, stats.paid());
+    }
+
+    @Test
+    void reconcile_PagesWithKeysetCursor() {
+        // Arrange - a full page means another page may follow
+        PendingPaymentDto first = payment(1L, 101L, TransactionType.TOP_UP);
+        PendingPaymentDto second = payment(2L, 102L, TransactionType.TOP_UP);
+        PendingPaymentDto third = payment(3L, 103L, TransactionType.TOP_UP);
+        when(transactionRepository.findPaymentsToReconcile(eq(TransactionStatus.PENDING), any(), eq(0L), any(), any()))
+                .thenReturn(List.of(first, second));
+        when(transactionRepository.findPaymentsToReconcile(eq(TransactionStatus.PENDING), eq(second.createdAt()),
+                eq(2L), any(), any()))
+                .thenReturn(List.of(third));
+
+        // Act
+        ReconciliationStatsDto stats = reconciler(2, 4, 1000).reconcile();
+
+        // Assert - unknown codes come back as ERROR and stay PENDING
+        assertEquals(3, stats.rowsScanned());
+        assertEquals(3, stats.callErrors());
+        verify(transactionRepository, never()).rejectPending(any(), any());
+        verify(transactionRepository, times(2)).findPaymentsToReconcile(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void reconcile_BulkheadCapsConcurrentCalls() {
+        // Arrange
+        List<PendingPaymentDto> page = payments(24);
+        page.forEach(p -> payOS.status(p.orderCode(), "PENDING"));
+        payOS.latency(40);
+        when(transactionRepository.findPaymentsToReconcile(any(), any(), any(), any(), any())).thenReturn(page);
+
+        // Act
+        reconciler(100, 4, 10_000).reconcile();
+
+        // Assert
+        assertEquals(24, payOS.calls());
+        assertTrue(payOS.maxInFlight() <= 4, "at most 4 PayOS calls in flight, saw " + payOS.maxInFlight());
+        assertTrue(payOS.maxInFlight() > 1, "calls should run concurrently");
+    }
+
+    @Test
+    void reconcile_RateLimitPacesCalls() {
+        // Arrange - 11 calls at 50/s need at least 10 intervals of 20 ms
+        List<PendingPaymentDto> page = payments(11);
+        page.forEach(p -> payOS.status(p.orderCode(), "PENDING"));
+        when(transactionRepository.findPaymentsToReconcile(any(), any(), any(), any(), any())).thenReturn(page);
+
+        // Act
+        long begin = System.nanoTime();
+        reconciler(100, 11, 50).reconcile();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - begin).toMillis();
+
+        // Assert
+        assertTrue(elapsedMillis >= 180, "11 calls at 50/s took only " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void reconcile_SlowCallTimesOutAsError() {
+        // Arrange
+        PendingPaymentDto payment = payment(1L, 101L, TransactionType.TOP_UP);
+        payOS.status(101L, "CANCELLED").latency(2_000);
+        when(transactionRepository.findPaymentsToReconcile(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(payment));
+        PaymentReconciler reconciler = new PaymentReconciler(transactionRepository, payOS, walletService,
+                100, 1, 1000, Duration.ofMillis(100), Duration.ofMinutes(2));
+
+        // Act
+        ReconciliationStatsDto stats = reconciler.reconcile();
+
+        // Assert
+        assertEquals(1, stats.callErrors());
+        verify(transactionRepository, never()).rejectPending(any(), any());
+    }
+
+    @Test
+    void reconcile_SlowPage_WaitsOneDeadlineNotOnePerCall() {
+        // Arrange - 10 calls in one bulkhead wave, each far slower than the 200 ms call timeout
+        List<PendingPaymentDto> page = payments(10);
+        page.forEach(payment -> payOS.status(payment.orderCode(), "CANCELLED"));
+        payOS.latency(2_000);
+        when(transactionRepository.findPaymentsToReconcile(any(), any(), any(), any(), any())).thenReturn(page);
+        PaymentReconciler reconciler = new PaymentReconciler(transactionRepository, payOS, walletService,
+                100, 10, 1000, Duration.ofMillis(200), Duration.ofMinutes(2));
+
+        // Act
+        ReconciliationStatsDto stats = reconciler.reconcile();
+
+        // Assert - about one call timeout for the page, not 10 x 200 ms
+        assertEquals(10, stats.callErrors());
+        assertTrue(stats.durationMs() < 1_000, "took " + stats.durationMs() + " ms");
+    }
+
+    @Test
+    void reconcile_ReportsLatencyPercentiles() {
+        // Arrange
+        List<PendingPaymentDto> page = payments(10);
+        page.forEach(p -> payOS.status(p.orderCode(), "PENDING"));
+        payOS.latency(20);
+        when(transactionRepository.findPaymentsToReconcile(any(), any(), any(), any(), any())).thenReturn(page);
+
+        // Act
+        ReconciliationStatsDto stats = reconciler(100, 10, 10_000).reconcile();
+
+        // Assert
+        assertTrue(stats.p50Ms() >= 20.0, "p50 " + stats.p50Ms());
+        assertTrue(stats.p50Ms() <= stats.p95Ms());
+        assertTrue(stats.p95Ms() <= stats.p99Ms());
+        assertTrue(stats.p99Ms() <= stats.maxMs());
+    }
+
+    @Test
+    void reconcile_NothingPending_ReportsEmptyRun() {
+        // Arrange
+        when(transactionRepository.findPaymentsToReconcile(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        ReconciliationStatsDto stats = reconciler(100, 4, 20).reconcile();
+
+        // Assert
+        assertEquals(0, stats.rowsScanned());
+        assertEquals(0, payOS.calls());
+        assertEquals(0.0, stats.p99Ms());
+    }
+
+    @Test
+    void constructor_InvalidLimits_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> reconciler(100, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> reconciler(100, 4, 0));
+    }
+
+    private PaymentReconciler reconciler(int batchSize, int maxConcurrentCalls, double callsPerSecond) {
+        return new PaymentReconciler(transactionRepository, payOS, walletService, batchSize,
+                maxConcurrentCalls, callsPerSecond, Duration.ofSeconds(10), Duration.ofMinutes(2));
+    }
+
+    private static PendingPaymentDto payment(long id, long orderCode, TransactionType type) {
+        return new PendingPaymentDto(id, orderCode, type, new BigDecimal("500000"), CREATED.plusSeconds(id));
+    }
+
+    private static List<PendingPaymentDto> payments(int count) {
+        List<PendingPaymentDto> page = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            page.add(payment(id, 100 + id, TransactionType.TOP_UP));
+        }
+        return page;
+    }
+}
@@ -2,26 +2,30 @@ package com.gameaccountshop.service;
 
 import com.gameaccountshop.dto.AdminPayoutDto;
 import com.gameaccountshop.entity.Payout;
+import com.gameaccountshop.entity.SellerEarnings;
 import com.gameaccountshop.entity.User;
-import com.gameaccountshop.enums.ListingStatus;
 import com.gameaccountshop.enums.PayoutStatus;
 import com.gameaccountshop.enums.Role;
-import com.gameaccountshop.repository.GameAccountRepository;
 import com.gameaccountshop.repository.PayoutRepository;
+import com.gameaccountshop.repository.SellerEarningsRepository;
 import com.gameaccountshop.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,7 +38,7 @@ class PayoutServiceTest {
     private PayoutRepository payoutRepository;
 
     @Mock
-    private GameAccountRepository gameAccountRepository;
+    private SellerEarningsRepository sellerEarningsRepository;
 
     @Mock
     private UserRepository userRepository;
@@ -42,7 +46,9 @@ class PayoutServiceTest {
     @Mock
     private EmailService emailService;
 
-    @InjectMocks
+    @Mock
+    private BatchJobRunner batchJobRunner;
+
     private PayoutService payoutService;
 
     private User testSeller;
@@ -51,6 +57,10 @@ class PayoutServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Real cache and earnings service over the mocked repositories, so lookups still reach them
+        payoutService = new PayoutService(payoutRepository, new SellerEarningsService(sellerEarningsRepository),
+                userRepository, emailService, new UserSummaryCache(userRepository, 100), batchJobRunner);
+
         testSeller = new User();
         testSeller.setId(1L);
         testSeller.setUsername("testseller");
@@ -71,71 +81,144 @@ class PayoutServiceTest {
     }
 
     @Test
-    void testCreateMonthlyPayouts_CreatesNeedsPaymentRecords() {
+    void testCreateMonthlyPayouts_RunsMonthAsBatchJob() {
         // Given
-        LocalDate now = LocalDate.now();
-        List<Long> sellerIds = Arrays.asList(1L, 2L);
-
-        when(gameAccountRepository.findDistinctSellerIdsByStatus(ListingStatus.SOLD))
-            .thenReturn(sellerIds);
-        when(payoutRepository.existsBySellerIdAndStatusAndMonth(eq(1L), eq(PayoutStatus.NEEDS_PAYMENT), anyInt(), anyInt()))
-            .thenReturn(false);
-        when(payoutRepository.existsBySellerIdAndStatusAndMonth(eq(2L), eq(PayoutStatus.NEEDS_PAYMENT), anyInt(), anyInt()))
-            .thenReturn(false);
-        when(payoutRepository.save(any(Payout.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-        // Mock calculateUnpaidEarnings for each seller
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(eq(1L), eq(ListingStatus.SOLD)))
-            .thenReturn(1000000L); // 1,000,000 * 0.90 = 900,000
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(eq(2L), eq(ListingStatus.SOLD)))
-            .thenReturn(500000L);  // 500,000 * 0.90 = 450,000
-        when(payoutRepository.sumAmountBySellerIdAndStatus(anyLong(), eq(PayoutStatus.RECEIVED)))
-            .thenReturn(BigDecimal.ZERO);
+        ArgumentCaptor<LongSupplier> maxId = ArgumentCaptor.forClass(LongSupplier.class);
+        when(userRepository.findMaxId()).thenReturn(2500L);
 
         // When
         payoutService.createMonthlyPayouts();
 
-        // Then
-        verify(payoutRepository, times(2)).save(any(Payout.class));
-        verify(gameAccountRepository, times(2)).sumPriceBySellerIdAndStatus(anyLong(), eq(ListingStatus.SOLD));
+        // Then - one execution per month, over every user id
+        verify(batchJobRunner).run(eq("monthly-payouts"), eq(YearMonth.now().toString()), maxId.capture(), any());
+        assertEquals(2500L, maxId.getValue().getAsLong());
+    }
+
+    @Test
+    void testCreateMonthlyPayouts_CreatesNeedsPaymentRecords() {
+        // Given - 1,000,000 * 0.90 = 900,000 and 500,000 * 0.90 = 450,000
+        List<PayoutRepository.SellerAmount> unpaid = List.of(
+                new UnpaidRow(1L, new BigDecimal("900000.00")),
+                new UnpaidRow(2L, new BigDecimal("450000.00")));
+        when(payoutRepository.findUnpaidEarningsWithoutPayoutBetween(any(), any(), eq(1L), eq(1001L)))
+                .thenReturn(unpaid);
+
+        // When
+        int written = monthlyPayoutChunk().process(1L, 1001L);
+
+        // Then - one batched insert for the seller range, no per-seller queries
+        assertEquals(2, written);
+        verify(payoutRepository).insertNeedsPayment(eq(unpaid), any(LocalDateTime.class));
+        verify(payoutRepository, never()).save(any(Payout.class));
     }
 
     @Test
     void testCreateMonthlyPayouts_AvoidsDuplicates() {
-        // Given
-        List<Long> sellerIds = Arrays.asList(1L);
-        when(gameAccountRepository.findDistinctSellerIdsByStatus(ListingStatus.SOLD))
-            .thenReturn(sellerIds);
-        when(payoutRepository.existsBySellerIdAndStatusAndMonth(eq(1L), eq(PayoutStatus.NEEDS_PAYMENT), anyInt(), anyInt()))
-            .thenReturn(true); // Already exists for this month
+        // Given - sellers that already have this month's payout are filtered out by the query
+        when(payoutRepository.findUnpaidEarningsWithoutPayoutBetween(any(), any(), anyLong(), anyLong()))
+                .thenReturn(List.of());
 
         // When
-        payoutService.createMonthlyPayouts();
+        int written = monthlyPayoutChunk().process(1L, 1001L);
 
         // Then - should not create new payout
+        assertEquals(0, written);
+        verify(payoutRepository, never()).insertNeedsPayment(any(), any());
         verify(payoutRepository, never()).save(any(Payout.class));
     }
 
     @Test
-    void testCalculateUnpaidEarnings_ExcludesReceivedOnly() {
+    void testCreateMonthlyPayouts_ChecksDuplicatesOverCurrentMonthRange() {
         // Given
-        Long sellerId = 1L;
-        Long totalSold = 1000000L; // 1,000,000 VND
-        BigDecimal receivedAmount = new BigDecimal("450000"); // 450,000 VND received
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        when(payoutRepository.findUnpaidEarningsWithoutPayoutBetween(any(), any(), anyLong(), anyLong()))
+                .thenReturn(List.of());
 
-        when(gameAccountRepository.sumPriceBySellerIdAndStatus(sellerId, ListingStatus.SOLD))
-            .thenReturn(totalSold);
-        when(payoutRepository.sumAmountBySellerIdAndStatus(sellerId, PayoutStatus.RECEIVED))
-            .thenReturn(receivedAmount);
-        // Note: PAID payouts are NOT used in calculateUnpaidEarnings calculation
+        // When
+        monthlyPayoutChunk().process(1001L, 2001L);
+
+        // Then - [first day of month, first day of next month), sellers of the chunk only
+        verify(payoutRepository).findUnpaidEarningsWithoutPayoutBetween(monthStart, monthStart.plusMonths(1),
+                1001L, 2001L);
+    }
+
+    @Test
+    void testResumeMonthlyPayouts_ResumesEveryUnfinishedExecution() {
+        // Given - last month's run failed on its final day, this month's crashed halfway
+        String lastMonth = YearMonth.now().minusMonths(1).toString();
+        String thisMonth = YearMonth.now().toString();
+        when(batchJobRunner.unfinishedJobKeys("monthly-payouts")).thenReturn(List.of(lastMonth, thisMonth));
+
+        // When
+        payoutService.resumeMonthlyPayouts();
+
+        // Then - oldest first, never a new execution
+        InOrder order = inOrder(batchJobRunner);
+        order.verify(batchJobRunner).resume(eq("monthly-payouts"), eq(lastMonth), any());
+        order.verify(batchJobRunner).resume(eq("monthly-payouts"), eq(thisMonth), any());
+        verify(batchJobRunner, never()).run(any(), any(), any(), any());
+    }
+
+    @Test
+    void testResumeMonthlyPayouts_NothingUnfinished_ResumesNothing() {
+        // Given
+        when(batchJobRunner.unfinishedJobKeys("monthly-payouts")).thenReturn(List.of());
+
+        // When
+        payoutService.resumeMonthlyPayouts();
+
+        // Then
+        verify(batchJobRunner, never()).resume(any(), any(), any());
+    }
+
+    @Test
+    void testResumeMonthlyPayouts_PastMonth_ChecksDuplicatesUpToNow() {
+        // Given - last month resumed after this month's run may already have paid some of its sellers
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        LocalDateTime lastMonthStart = lastMonth.atDay(1).atStartOfDay();
+        when(batchJobRunner.unfinishedJobKeys("monthly-payouts")).thenReturn(List.of(lastMonth.toString()));
+        ArgumentCaptor<BatchJobRunner.ChunkProcessor> processor =
+                ArgumentCaptor.forClass(BatchJobRunner.ChunkProcessor.class);
+        payoutService.resumeMonthlyPayouts();
+        verify(batchJobRunner).resume(eq("monthly-payouts"), eq(lastMonth.toString()), processor.capture());
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(payoutRepository.findUnpaidEarningsWithoutPayoutBetween(eq(lastMonthStart), to.capture(), eq(1L), eq(1001L)))
+                .thenReturn(List.of());
+
+        // When
+        LocalDateTime before = LocalDateTime.now();
+        processor.getValue().process(1L, 1001L);
+
+        // Then - payouts created since last month ended count as duplicates too
+        assertFalse(to.getValue().isBefore(before));
+    }
+
+    @Test
+    void testCalculateUnpaidEarnings_ExcludesReceivedOnly() {
+        // Given - 1,000,000 VND sold, 450,000 received, 200,000 paid but not yet confirmed
+        Long sellerId = 1L;
+        SellerEarnings earnings = new SellerEarnings(sellerId);
+        earnings.setGrossSold(1000000L);
+        earnings.setNetEarnings(new BigDecimal("900000.00"));
+        earnings.setReceivedAmount(new BigDecimal("450000"));
+        earnings.setPaidPendingAmount(new BigDecimal("200000"));
+        when(sellerEarningsRepository.findById(sellerId)).thenReturn(Optional.of(earnings));
 
         // When
         BigDecimal result = payoutService.calculateUnpaidEarnings(sellerId);
 
-        // Then: 1,000,000 * 0.90 - 450,000 = 900,000 - 450,000 = 450,000
+        // Then: 1,000,000 * 0.90 - 450,000 = 900,000 - 450,000 = 450,000 (PAID does not count)
         assertEquals(0, new BigDecimal("450000").compareTo(result));
-        // Verify only RECEIVED was queried
-        verify(payoutRepository).sumAmountBySellerIdAndStatus(sellerId, PayoutStatus.RECEIVED);
+        verify(payoutRepository, never()).sumAmountBySellerIdAndStatus(any(), any());
+    }
+
+    @Test
+    void testCalculateUnpaidEarnings_NoEarningsRow_ReturnsZero() {
+        // Given
+        when(sellerEarningsRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertEquals(0, BigDecimal.ZERO.compareTo(payoutService.calculateUnpaidEarnings(1L)));
     }
 
     @Test
@@ -145,6 +228,8 @@ class PayoutServiceTest {
         Long adminId = 2L;
 
         when(payoutRepository.findById(payoutId)).thenReturn(Optional.of(testPayout));
+        when(payoutRepository.markPaidIfNeedsPayment(eq(payoutId), eq(adminId), any(LocalDateTime.class)))
+                .thenReturn(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testSeller));
         doNothing().when(emailService).sendPayoutPaidEmail(any(), any(), any());
 
@@ -152,10 +237,9 @@ class PayoutServiceTest {
         payoutService.markAsPaid(payoutId, adminId);
 
         // Then
-        assertEquals(PayoutStatus.PAID, testPayout.getStatus());
-        assertEquals(adminId, testPayout.getAdminId());
-        assertNotNull(testPayout.getPaidAt());
-        verify(payoutRepository).save(testPayout);
+        verify(payoutRepository).markPaidIfNeedsPayment(eq(payoutId), eq(adminId), any(LocalDateTime.class));
+        verify(payoutRepository, never()).save(any());
+        verify(sellerEarningsRepository).accrue(1L, 0L, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("900000"));
         verify(emailService).sendPayoutPaidEmail(eq("seller@example.com"), eq(new BigDecimal("900000")), any());
     }
 
@@ -181,6 +265,8 @@ class PayoutServiceTest {
         testPayout.setSellerId(sellerId);
 
         when(payoutRepository.findById(payoutId)).thenReturn(Optional.of(testPayout));
+        when(payoutRepository.markReceivedIfPaid(eq(payoutId), eq(sellerId), any(LocalDateTime.class)))
+                .thenReturn(1);
         when(userRepository.findById(sellerId)).thenReturn(Optional.of(testSeller));
         when(userRepository.findByRole(Role.ADMIN)).thenReturn(Arrays.asList(testAdmin));
         doNothing().when(emailService).sendPayoutReceivedEmail(any(), any(), any());
@@ -189,12 +275,42 @@ class PayoutServiceTest {
         payoutService.markAsReceived(payoutId, sellerId);
 
         // Then
-        assertEquals(PayoutStatus.RECEIVED, testPayout.getStatus());
-        assertNotNull(testPayout.getReceivedAt());
-        verify(payoutRepository).save(testPayout);
+        verify(payoutRepository).markReceivedIfPaid(eq(payoutId), eq(sellerId), any(LocalDateTime.class));
+        verify(payoutRepository, never()).save(any());
+        verify(sellerEarningsRepository).accrue(1L, 0L, BigDecimal.ZERO, new BigDecimal("900000"), new BigDecimal("-900000"));
         verify(emailService).sendPayoutReceivedEmail(eq("admin@example.com"), eq("testseller"), eq(new BigDecimal("900000")));
     }
 
+    @Test
+    void testMarkAsPaid_DoubleSubmit_RecordsPayoutOnce() {
+        // Given - both requests read NEEDS_PAYMENT; the second loses the guarded UPDATE
+        when(payoutRepository.findById(1L)).thenReturn(Optional.of(testPayout));
+        when(payoutRepository.markPaidIfNeedsPayment(eq(1L), eq(2L), any(LocalDateTime.class)))
+                .thenReturn(1, 0);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testSeller));
+
+        // When
+        payoutService.markAsPaid(1L, 2L);
+        assertThrows(IllegalStateException.class, () -> payoutService.markAsPaid(1L, 2L));
+
+        // Then
+        verify(sellerEarningsRepository, times(1)).accrue(any(), anyLong(), any(), any(), any());
+        verify(emailService, times(1)).sendPayoutPaidEmail(any(), any(), any());
+    }
+
+    @Test
+    void testMarkAsReceived_DoubleClick_RecordsReceiptOnce() {
+        // Given
+        testPayout.setStatus(PayoutStatus.PAID);
+        when(payoutRepository.findById(1L)).thenReturn(Optional.of(testPayout));
+        when(payoutRepository.markReceivedIfPaid(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(0);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> payoutService.markAsReceived(1L, 1L));
+        verifyNoInteractions(sellerEarningsRepository);
+        verifyNoInteractions(emailService);
+    }
+
     @Test
     void testMarkAsReceived_PayoutNotInPaidStatus_ThrowsException() {
         // Given
@@ -288,6 +404,28 @@ class PayoutServiceTest {
         assertEquals("seller@example.com", result.get(0).sellerEmail());
     }
 
+    @Test
+    void testGetPayoutsByStatus_SecondCall_ServesSellerFromCache() {
+        // Given
+        Payout payout1 = new Payout();
+        payout1.setId(1L);
+        payout1.setSellerId(1L);
+        payout1.setAmount(new BigDecimal("900000"));
+        payout1.setStatus(PayoutStatus.NEEDS_PAYMENT);
+
+        when(payoutRepository.findByStatusOrderByCreatedAtDesc(PayoutStatus.NEEDS_PAYMENT))
+            .thenReturn(Arrays.asList(payout1));
+        when(userRepository.findAllById(List.of(1L))).thenReturn(Arrays.asList(testSeller));
+
+        // When
+        payoutService.getPayoutsByStatus(PayoutStatus.NEEDS_PAYMENT);
+        List<AdminPayoutDto> result = payoutService.getPayoutsByStatus(PayoutStatus.NEEDS_PAYMENT);
+
+        // Then - one user lookup for two page views
+        assertEquals("testseller", result.get(0).sellerUsername());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
     @Test
     void testGetPayoutsByStatus_WithMissingSeller() {
         // Given
@@ -322,4 +460,27 @@ class PayoutServiceTest {
         // Then
         assertTrue(result.isEmpty());
     }
+
+    /**
+     * The chunk processor createMonthlyPayouts hands to the batch engine
+     */
+    private BatchJobRunner.ChunkProcessor monthlyPayoutChunk() {
+        ArgumentCaptor<BatchJobRunner.ChunkProcessor> processor =
+                ArgumentCaptor.forClass(BatchJobRunner.ChunkProcessor.class);
+        payoutService.createMonthlyPayouts();
+        verify(batchJobRunner).run(eq("monthly-payouts"), eq(YearMonth.now().toString()), any(), processor.capture());
+        return processor.getValue();
+    }
+
+    private record UnpaidRow(Long sellerId, BigDecimal amount) implements PayoutRepository.SellerAmount {
+        @Override
+        public Long getSellerId() {
+            return sellerId;
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.repository.PlatformRevenueRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+
+/**
+ * Commission accrual under concurrent sales: one revenue row vs K stripes
+ * Run with: mvn test -Pbenchmark -Dtest=PlatformRevenueBenchmarkTest
+ *
+ * Each accrual commits in its own transaction, like the last step of a purchase. With one row every
+ * sale waits for the previous commit; with stripes throughput should grow with the number of buyers.
+ * Every run checks that the stripes sum to exactly the commission accrued.
+ * The stripe table is restored afterwards.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlatformRevenueBenchmarkTest {
+
+    private static final int[] CONCURRENCY = {1, 2, 4, 8, 16, 32};
+    private static final int ACCRUALS_PER_THREAD = 300;
+    private static final int STRIPES = 16;
+    private static final BigDecimal COMMISSION = new BigDecimal("10000.00");
+
+    @Autowired
+    private PlatformRevenueRepository platformRevenueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private List<Map<String, Object>> savedStripes;
+    private final AtomicLong transactionIds = new AtomicLong();
+
+    @BeforeAll
+    void saveStripes() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        savedStripes = jdbcTemplate.queryForList(
+                "SELECT stripe_id, commission_total, sale_count FROM platform_revenue_stripes");
+    }
+
+    @AfterAll
+    void restoreStripes() {
+        jdbcTemplate.update("DELETE FROM platform_revenue_stripes");
+        jdbcTemplate.batchUpdate("INSERT INTO platform_revenue_stripes (stripe_id, commission_total, sale_count) " +
+                "VALUES (?, ?, ?)", savedStripes.stream().map(row -> new Object[] {
+                        row.get("stripe_id"), row.get("commission_total"), row.get("sale_count")}).toList());
+    }
+
+    @Test
+    void stripedAccrualScalesWithConcurrentSales() throws Exception {
+        PlatformRevenueService singleRow = new PlatformRevenueService(platformRevenueRepository, 1);
+        PlatformRevenueService striped = new PlatformRevenueService(platformRevenueRepository, STRIPES);
+
+        double singleAtMax = 0;
+        double stripedAtOne = 0;
+        double stripedAtMax = 0;
+        for (int threads : CONCURRENCY) {
+            double single = run(singleRow, threads);
+            double spread = run(striped, threads);
+            System.out.printf("%2d buyers: 1 row %8.0f accruals/s | %d stripes %8.0f accruals/s%n",
+                    threads, single, STRIPES, spread);
+            singleAtMax = single;
+            stripedAtMax = spread;
+            if (threads == 1) {
+                stripedAtOne = spread;
+            }
+        }
+        int maxThreads = CONCURRENCY[CONCURRENCY.length - 1];
+        System.out.printf("striped scaling at %d buyers: %.1fx of 1 buyer (%.0f%% of linear)%n",
+                maxThreads, stripedAtMax / stripedAtOne, 100 * stripedAtMax / stripedAtOne / Math.min(maxThreads, STRIPES));
+
+        assertTrue(stripedAtMax > singleAtMax, "stripes should out-accrue one row under concurrent sales");
+    }
+
+    /**
+     * Race threads x ACCRUALS_PER_THREAD committed accruals; returns accruals/s
+     */
+    private double run(PlatformRevenueService service, int threads) throws Exception {
+        BigDecimal before = total();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ACCRUALS_PER_THREAD; i++) {
+                        transactionTemplate.executeWithoutResult(status ->
+                                service.accrueCommission(transactionIds.incrementAndGet(), COMMISSION));
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            int accruals = threads * ACCRUALS_PER_THREAD;
+            BigDecimal accrued = total().subtract(before);
+            assertEquals(0, COMMISSION.multiply(BigDecimal.valueOf(accruals)).compareTo(accrued),
+                    "stripes sum to exactly the commission accrued");
+            return accruals / seconds;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BigDecimal total() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(commission_total), 0) FROM platform_revenue_stripes", BigDecimal.class);
+    }
+}
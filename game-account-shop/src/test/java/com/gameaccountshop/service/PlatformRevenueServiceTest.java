@@ -0,0 +1,87 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.PlatformRevenueDto;
+import com.gameaccountshop.entity.PlatformRevenueStripe;
+import com.gameaccountshop.repository.PlatformRevenueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PlatformRevenueService
+ */
+@ExtendWith(MockitoExtension.class)
+class PlatformRevenueServiceTest {
+
+    @Mock
+    private PlatformRevenueRepository platformRevenueRepository;
+
+    private PlatformRevenueService platformRevenueService;
+
+    @BeforeEach
+    void setUp() {
+        platformRevenueService = new PlatformRevenueService(platformRevenueRepository, 4);
+    }
+
+    @Test
+    void accrueCommission_AddsToTheTransactionsStripe() {
+        // When
+        platformRevenueService.accrueCommission(10L, new BigDecimal("50000"));
+
+        // Then - 10 mod 4
+        verify(platformRevenueRepository).accrue(2, new BigDecimal("50000"));
+    }
+
+    @Test
+    void stripeFor_ConsecutiveTransactionsUseEveryStripe() {
+        Set<Integer> used = new HashSet<>();
+        for (long id = 100; id < 104; id++) {
+            used.add(platformRevenueService.stripeFor(id));
+        }
+        assertEquals(Set.of(0, 1, 2, 3), used);
+    }
+
+    @Test
+    void getRevenue_SumsAllStripes() {
+        // Given
+        when(platformRevenueRepository.findAllByOrderByStripeIdAsc()).thenReturn(List.of(
+                stripe(0, "150000", 3), stripe(1, "20000", 1), stripe(2, "0", 0)));
+
+        // When
+        PlatformRevenueDto revenue = platformRevenueService.getRevenue();
+
+        // Then
+        assertEquals(0, new BigDecimal("170000").compareTo(revenue.totalCommission()));
+        assertEquals(4, revenue.saleCount());
+        assertEquals(3, revenue.stripes().size());
+        assertEquals(1, revenue.stripes().get(1).stripeId());
+    }
+
+    @Test
+    void commissionOf_IsTenPercentOfPrice() {
+        assertEquals(0, new BigDecimal("50000").compareTo(PlatformRevenueService.commissionOf(new BigDecimal("500000"))));
+    }
+
+    @Test
+    void constructor_RejectsZeroStripes() {
+        assertThrows(IllegalArgumentException.class, () -> new PlatformRevenueService(platformRevenueRepository, 0));
+    }
+
+    private static PlatformRevenueStripe stripe(int id, String total, long sales) {
+        PlatformRevenueStripe stripe = new PlatformRevenueStripe();
+        stripe.setStripeId(id);
+        stripe.setCommissionTotal(new BigDecimal(total));
+        stripe.setSaleCount(sales);
+        return stripe;
+    }
+}
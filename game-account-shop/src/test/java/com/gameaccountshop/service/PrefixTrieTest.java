@@ -0,0 +1,80 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.SuggestionDto;
+import com.gameaccountshop.enums.SuggestionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PrefixTrie
+ */
+class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new PrefixTrie();
+        trie.adjust("Kim Cương I", SuggestionType.RANK, 5);
+        trie.adjust("Kim Cương IV", SuggestionType.RANK, 2);
+        trie.adjust("Kiếm Sĩ", SuggestionType.SELLER, 9);
+        trie.adjust("Gold III", SuggestionType.RANK, 7);
+    }
+
+    private List<String> texts(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::text).toList();
+    }
+
+    @Test
+    void complete_ReturnsMatchesByDescendingWeight() {
+        assertEquals(List.of("Kiếm Sĩ", "Kim Cương I", "Kim Cương IV"), texts(trie.complete("ki", 10)));
+    }
+
+    @Test
+    void complete_IgnoresCaseDiacriticsAndExtraSpaces() {
+        assertEquals(List.of("Kim Cương I", "Kim Cương IV"), texts(trie.complete("KIM  cuong", 10)));
+    }
+
+    @Test
+    void complete_RespectsLimit() {
+        assertEquals(List.of("Kiếm Sĩ"), texts(trie.complete("k", 1)));
+    }
+
+    @Test
+    void complete_UnknownPrefix_ReturnsEmpty() {
+        assertTrue(trie.complete("platinum", 10).isEmpty());
+        assertTrue(trie.complete("   ", 10).isEmpty());
+    }
+
+    @Test
+    void adjust_SameTextDifferentType_KeepsBoth() {
+        trie.adjust("gold iii", SuggestionType.SELLER, 1);
+
+        List<SuggestionDto> result = trie.complete("gold", 10);
+
+        assertEquals(List.of(new SuggestionDto("Gold III", SuggestionType.RANK),
+                new SuggestionDto("gold iii", SuggestionType.SELLER)), result);
+    }
+
+    @Test
+    void adjust_WeightDroppingToZero_HidesSuggestionAndReordersParents() {
+        trie.adjust("Kiếm Sĩ", SuggestionType.SELLER, -9);
+
+        assertEquals(List.of("Kim Cương I", "Kim Cương IV"), texts(trie.complete("ki", 10)));
+        assertTrue(trie.complete("kie", 10).isEmpty());
+    }
+
+    @Test
+    void isEmpty_AfterRemovingEverything_ReturnsTrue() {
+        trie.adjust("Kim Cương I", SuggestionType.RANK, -5);
+        trie.adjust("Kim Cương IV", SuggestionType.RANK, -2);
+        trie.adjust("Kiếm Sĩ", SuggestionType.SELLER, -9);
+        trie.adjust("Gold III", SuggestionType.RANK, -7);
+
+        assertTrue(trie.isEmpty());
+    }
+}
@@ -0,0 +1,219 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+
+/**
+ * Buyers racing through PurchaseService
+ * Run with: mvn test -Pbenchmark -Dtest=PurchaseContentionBenchmarkTest
+ *
+ * One listing: every round all buyers hit the same listing; exactly one wins and pays.
+ * Many listings: buyers spread over a large catalogue; every listing is sold once and
+ * the wallets lose exactly the prices of the listings sold.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({PurchaseService.class, WalletService.class, PlatformRevenueService.class, SellerEarningsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PurchaseContentionBenchmarkTest {
+
+    private static final int BUYERS = 32;
+    private static final int ROUNDS = 50;
+    private static final int LISTINGS = 3_200;
+    private static final long PRICE = 100_000L;
+    private static final String PREFIX = "bench_purchase_";
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long sellerId;
+    private List<Long> buyerIds;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO users (username, password, email, role) VALUES (?, 'x', ?, 'USER')",
+                PREFIX + "seller", PREFIX + "seller@bench.local");
+        sellerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, PREFIX + "seller");
+
+        List<Object[]> buyers = new ArrayList<>(BUYERS);
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(new Object[] {PREFIX + "buyer" + i, PREFIX + "buyer" + i + "@bench.local"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email, role) VALUES (?, 'x', ?, 'USER')", buyers);
+        buyerIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class,
+                PREFIX + "buyer%");
+        jdbcTemplate.batchUpdate("INSERT INTO wallets (user_id, balance) VALUES (?, 0)",
+                buyerIds.stream().map(id -> new Object[] {id}).toList());
+    }
+
+    @AfterAll
+    void cleanUp() {
+        // Listings, wallets, ledger entries and transactions cascade from the users
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void buyersRacingForOneListing() throws Exception {
+        long fundedEach = ROUNDS * PRICE;
+        fundBuyers(fundedEach);
+        List<Long> listings = createListings(ROUNDS);
+
+        AtomicInteger sold = new AtomicInteger();
+        long begin = System.nanoTime();
+        for (Long listingId : listings) {
+            sold.addAndGet(race(buyer -> purchaseService.purchase(listingId, buyer)));
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("one listing   : %d rounds x %d buyers in %.2fs = %.1f ms/round%n",
+                ROUNDS, BUYERS, seconds, seconds * 1000 / ROUNDS);
+
+        assertEquals(ROUNDS, sold.get(), "exactly one winner per listing");
+        assertInvariants(listings, fundedEach);
+    }
+
+    @Test
+    void buyersSpreadOverManyListings() throws Exception {
+        long fundedEach = LISTINGS * PRICE;
+        fundBuyers(fundedEach);
+        List<Long> listings = createListings(LISTINGS);
+
+        AtomicInteger next = new AtomicInteger();
+        long begin = System.nanoTime();
+        int sold = race(buyer -> {
+            int bought = 0;
+            for (int i = next.getAndIncrement(); i < listings.size(); i = next.getAndIncrement()) {
+                purchaseService.purchase(listings.get(i), buyer);
+                bought++;
+            }
+            return bought;
+        });
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("many listings : %d purchases by %d buyers in %.2fs = %.0f purchases/s%n",
+                sold, BUYERS, seconds, sold / seconds);
+
+        assertEquals(LISTINGS, sold, "every listing sold once");
+        assertInvariants(listings, fundedEach);
+    }
+
+    private interface Attempt {
+        Object run(Long buyerId);
+    }
+
+    /**
+     * Start all buyers at once and count successful attempts (an Integer result counts as that many)
+     */
+    private int race(Attempt attempt) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>(BUYERS);
+            for (Long buyerId : buyerIds) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        Object result = attempt.run(buyerId);
+                        return result instanceof Integer count ? count : 1;
+                    } catch (IllegalStateException | InsufficientBalanceException e) {
+                        return 0;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                succeeded += result.get();
+            }
+            return succeeded;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void fundBuyers(long each) {
+        jdbcTemplate.update("DELETE FROM wallet_ledger WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)",
+                PREFIX + "buyer%");
+        jdbcTemplate.update("UPDATE wallets SET balance = ?, snapshot_balance = balance, snapshot_entry_id = 0 " +
+                "WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)", BigDecimal.valueOf(each), PREFIX + "buyer%");
+    }
+
+    private List<Long> createListings(int count) {
+        Long before = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM game_accounts", Long.class);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {PRICE, "bench purchase " + i, sellerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO game_accounts (game_name, account_rank, price, description, status, seller_id) " +
+                "VALUES ('Liên Minh Huyền Thoại', 'Gold III', ?, ?, 'APPROVED', ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM game_accounts WHERE seller_id = ? AND id > ? ORDER BY id",
+                Long.class, sellerId, before);
+    }
+
+    /**
+     * Each listing SOLD with exactly one PURCHASE row and one DEBIT entry, and buyers paid exactly for what they got
+     */
+    private void assertInvariants(List<Long> listings, long fundedEach) {
+        String ids = String.join(",", listings.stream().map(String::valueOf).toList());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM game_accounts WHERE id IN (" + ids + ") AND status <> 'SOLD'", Integer.class));
+        assertEquals(listings.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE listing_id IN (" + ids + ") AND transaction_type = 'PURCHASE'",
+                Integer.class));
+        assertEquals(listings.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT listing_id) FROM transactions WHERE listing_id IN (" + ids + ")", Integer.class));
+
+        BigDecimal paid = jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM transactions WHERE listing_id IN (" + ids + ")", BigDecimal.class);
+        assertEquals(listings.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM wallet_ledger l JOIN transactions t ON t.id = l.transaction_id " +
+                "WHERE t.listing_id IN (" + ids + ") AND l.entry_type = 'DEBIT' AND l.amount = -t.amount", Integer.class),
+                "one matching DEBIT entry per purchase");
+
+        BigDecimal remaining = jdbcTemplate.queryForObject(
+                "SELECT SUM(w.balance) FROM wallets w JOIN users u ON u.id = w.user_id WHERE u.username LIKE ?",
+                BigDecimal.class, PREFIX + "buyer%");
+        BigDecimal funded = BigDecimal.valueOf(fundedEach).multiply(BigDecimal.valueOf(BUYERS));
+        assertEquals(0, funded.subtract(paid).compareTo(remaining), "wallets lost exactly the amount paid");
+
+        // Checkpoints start at entry 0 (see fundBuyers), so the ledger must explain the whole difference
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(l.amount), 0) FROM wallet_ledger l JOIN users u ON u.id = l.user_id " +
+                "WHERE u.username LIKE ?", BigDecimal.class, PREFIX + "buyer%");
+        assertEquals(0, paid.negate().compareTo(ledger), "ledger entries match the balance changes");
+        assertEquals(0, paid.compareTo(BigDecimal.valueOf(listings.size() * PRICE)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.PurchaseReceipt;
+import com.gameaccountshop.entity.GameAccount;
+import com.gameaccountshop.entity.Transaction;
+import com.gameaccountshop.enums.ListingStatus;
+import com.gameaccountshop.enums.TransactionStatus;
+import com.gameaccountshop.enums.TransactionType;
+import com.gameaccountshop.event.ListingStatusChangedEvent;
+import com.gameaccountshop.exception.InsufficientBalanceException;
+import com.gameaccountshop.repository.GameAccountRepository;
+import com.gameaccountshop.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PurchaseService
+ */
+@ExtendWith(MockitoExtension.class)
+class PurchaseServiceTest {
+
+    @Mock
+    private GameAccountRepository gameAccountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private PlatformRevenueService platformRevenueService;
+
+    @Mock
+    private SellerEarningsService sellerEarningsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PurchaseService purchaseService;
+
+    private GameAccount listing;
+
+    @BeforeEach
+    void setUp() {
+        listing = new GameAccount();
+        listing.setId(5L);
+        listing.setSellerId(20L);
+        listing.setGameName("Liên Minh Huyền Thoại");
+        listing.setAccountRank("Gold III");
+        listing.setPrice(500000L);
+        listing.setStatus(ListingStatus.APPROVED);
+    }
+
+    @Test
+    void purchase_ClaimsDebitsAndRecordsTransaction() {
+        // Given
+        when(gameAccountRepository.findById(5L)).thenReturn(Optional.of(listing));
+        when(gameAccountRepository.markSoldIfApproved(eq(5L), any())).thenReturn(1);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            saved.setId(77L);
+            return saved;
+        });
+
+        // When
+        PurchaseReceipt receipt = purchaseService.purchase(5L, 10L);
+
+        // Then
+        assertEquals(77L, receipt.transactionId());
+        assertEquals(new BigDecimal("500000"), receipt.amount());
+        assertSame(listing, receipt.listing());
+        verify(walletService).deductBalance(10L, new BigDecimal("500000"), 77L);
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(captor.capture());
+        Transaction transaction = captor.getValue();
+        assertEquals(10L, transaction.getBuyerId());
+        assertEquals(20L, transaction.getSellerId());
+        assertEquals(0, new BigDecimal("50000").compareTo(transaction.getCommission()));
+        assertEquals(TransactionStatus.COMPLETED, transaction.getStatus());
+        assertEquals(TransactionType.PURCHASE, transaction.getTransactionType());
+        verify(platformRevenueService).accrueCommission(77L, transaction.getCommission());
+        verify(sellerEarningsService).recordSale(20L, 500000L);
+        verify(eventPublisher).publishEvent(new ListingStatusChangedEvent(5L, ListingStatus.APPROVED, ListingStatus.SOLD));
+    }
+
+    @Test
+    void purchase_ClaimLostToConcurrentBuyer_FailsWithoutDebit() {
+        // Given - listing still looked APPROVED when read, but another buyer's claim committed first
+        when(gameAccountRepository.findById(5L)).thenReturn(Optional.of(listing));
+        when(gameAccountRepository.markSoldIfApproved(eq(5L), any())).thenReturn(0);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> purchaseService.purchase(5L, 10L));
+        verifyNoInteractions(walletService, transactionRepository, platformRevenueService, sellerEarningsService,
+                eventPublisher);
+    }
+
+    @Test
+    void purchase_InsufficientBalance_PropagatesSoClaimRollsBack() {
+        // Given
+        when(gameAccountRepository.findById(5L)).thenReturn(Optional.of(listing));
+        when(gameAccountRepository.markSoldIfApproved(eq(5L), any())).thenReturn(1);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new InsufficientBalanceException("Số dư không đủ"))
+                .when(walletService).deductBalance(eq(10L), eq(new BigDecimal("500000")), any());
+
+        // When & Then
+        assertThrows(InsufficientBalanceException.class, () -> purchaseService.purchase(5L, 10L));
+        verifyNoInteractions(platformRevenueService, sellerEarningsService, eventPublisher);
+    }
+
+    @Test
+    void purchase_OwnListing_IsRejectedBeforeClaim() {
+        // Given
+        when(gameAccountRepository.findById(5L)).thenReturn(Optional.of(listing));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> purchaseService.purchase(5L, 20L));
+        verify(gameAccountRepository, never()).markSoldIfApproved(any(), any());
+    }
+
+    @Test
+    void purchase_ListingNotApproved_IsRejectedBeforeClaim() {
+        // Given
+        listing.setStatus(ListingStatus.SOLD);
+        when(gameAccountRepository.findById(5L)).thenReturn(Optional.of(listing));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> purchaseService.purchase(5L, 10L));
+        verify(gameAccountRepository, never()).markSoldIfApproved(any(), any());
+        verifyNoInteractions(walletService);
+    }
+}
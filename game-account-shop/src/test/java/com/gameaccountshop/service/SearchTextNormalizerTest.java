@@ -0,0 +1,37 @@
+package com.gameaccountshop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchTextNormalizer
+ */
+class SearchTextNormalizerTest {
+
+    @Test
+    void fold_RemovesVietnameseDiacritics() {
+        assertEquals("lien minh huyen thoai", SearchTextNormalizer.fold("Liên Minh Huyền Thoại"));
+        assertEquals("dong doi", SearchTextNormalizer.fold("Đồng đội"));
+    }
+
+    @Test
+    void tokenize_SplitsOnPunctuationAndWhitespace() {
+        assertEquals(List.of("kim", "cuong", "i", "30", "tuong"), SearchTextNormalizer.tokenize("Kim Cương I - 30 tướng!"));
+        assertTrue(SearchTextNormalizer.tokenize("  ").isEmpty());
+    }
+
+    @Test
+    void toBooleanModeQuery_RequiresEveryWordAndStripsOperators() {
+        assertEquals("+liên +minh", SearchTextNormalizer.toBooleanModeQuery("Liên -Minh*"));
+        assertEquals("+gold", SearchTextNormalizer.toBooleanModeQuery("gold \"I\""));
+    }
+
+    @Test
+    void toBooleanModeQuery_NoIndexableWord_ReturnsNull() {
+        assertNull(SearchTextNormalizer.toBooleanModeQuery("a + b"));
+        assertNull(SearchTextNormalizer.toBooleanModeQuery(null));
+    }
+}
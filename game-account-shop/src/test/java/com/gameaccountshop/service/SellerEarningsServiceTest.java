@@ -0,0 +1,161 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.entity.SellerEarnings;
+import com.gameaccountshop.repository.SellerEarningsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SellerEarningsService
+ */
+@ExtendWith(MockitoExtension.class)
+class SellerEarningsServiceTest {
+
+    @Mock
+    private SellerEarningsRepository sellerEarningsRepository;
+
+    @InjectMocks
+    private SellerEarningsService sellerEarningsService;
+
+    @Test
+    void recordSale_AddsGrossAndNetOfCommission() {
+        // When
+        sellerEarningsService.recordSale(20L, 500000L);
+
+        // Then - 500,000 * 0.90
+        verify(sellerEarningsRepository).accrue(20L, 500000L, new BigDecimal("450000.00"),
+                BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Test
+    void recordPayoutTransitions_MoveAmountFromPaidPendingToReceived() {
+        // When
+        sellerEarningsService.recordPayoutPaid(20L, new BigDecimal("450000"));
+        sellerEarningsService.recordPayoutReceived(20L, new BigDecimal("450000"));
+
+        // Then
+        InOrder inOrder = inOrder(sellerEarningsRepository);
+        inOrder.verify(sellerEarningsRepository).accrue(20L, 0L, BigDecimal.ZERO, BigDecimal.ZERO,
+                new BigDecimal("450000"));
+        inOrder.verify(sellerEarningsRepository).accrue(20L, 0L, BigDecimal.ZERO, new BigDecimal("450000"),
+                new BigDecimal("-450000"));
+    }
+
+    @Test
+    void getEarnings_NoRow_ReturnsZeroEarnings() {
+        // Given
+        when(sellerEarningsRepository.findById(20L)).thenReturn(Optional.empty());
+
+        // When
+        SellerEarnings earnings = sellerEarningsService.getEarnings(20L);
+
+        // Then
+        assertEquals(20L, earnings.getSellerId());
+        assertEquals(0L, earnings.getGrossSold());
+        assertEquals(0, BigDecimal.ZERO.compareTo(earnings.getUnpaidAmount()));
+    }
+
+    @Test
+    void checkRange_MatchingRows_ReportsNoDrift() {
+        // Given
+        when(sellerEarningsRepository.sumSoldPricesBySellerRange(1L, 100L))
+                .thenReturn(List.of(total(20L, "SOLD", "1000000")));
+        when(sellerEarningsRepository.sumPayoutAmountsBySellerRange(1L, 100L))
+                .thenReturn(List.of(total(20L, "RECEIVED", "450000.00"), total(20L, "PAID", "200000.00")));
+        when(sellerEarningsRepository.findBySellerIdRange(1L, 100L))
+                .thenReturn(List.of(row(20L, 1000000L, "900000.00", "450000.00", "200000.00")));
+
+        // When
+        SellerEarningsService.RangeCheck check = sellerEarningsService.checkRange(1L, 100L);
+
+        // Then
+        assertEquals(1, check.sellersChecked());
+        assertTrue(check.drifted().isEmpty());
+    }
+
+    @Test
+    void checkRange_WrongOrMissingRows_ReportsDrift() {
+        // Given - seller 20's row missed a sale, seller 30 has no row, seller 40 has a row but no source data
+        when(sellerEarningsRepository.sumSoldPricesBySellerRange(1L, 100L))
+                .thenReturn(List.of(total(20L, "SOLD", "1500000"), total(30L, "SOLD", "300000")));
+        when(sellerEarningsRepository.sumPayoutAmountsBySellerRange(1L, 100L)).thenReturn(List.of());
+        when(sellerEarningsRepository.findBySellerIdRange(1L, 100L)).thenReturn(List.of(
+                row(20L, 1000000L, "900000.00", "0", "0"),
+                row(40L, 100000L, "90000.00", "0", "0")));
+
+        // When
+        SellerEarningsService.RangeCheck check = sellerEarningsService.checkRange(1L, 100L);
+
+        // Then
+        assertEquals(3, check.sellersChecked());
+        assertEquals(List.of(20L, 30L, 40L), check.drifted().stream().map(SellerEarningsService.Drift::sellerId).toList());
+        SellerEarningsService.Drift seller20 = check.drifted().get(0);
+        assertEquals(1000000L, seller20.stored().getGrossSold());
+        assertEquals(1500000L, seller20.expected().getGrossSold());
+        assertEquals(0, new BigDecimal("1350000").compareTo(seller20.expected().getNetEarnings()));
+        assertEquals(0L, check.drifted().get(1).stored().getGrossSold());
+        assertEquals(0L, check.drifted().get(2).expected().getGrossSold());
+    }
+
+    @Test
+    void repair_LocksRowBeforeRecomputingAndOverwrites() {
+        // Given
+        when(sellerEarningsRepository.sumSoldPricesBySellerRange(20L, 21L))
+                .thenReturn(List.of(total(20L, "SOLD", "1000000")));
+        when(sellerEarningsRepository.sumPayoutAmountsBySellerRange(20L, 21L))
+                .thenReturn(List.of(total(20L, "PAID", "900000.00")));
+
+        // When
+        SellerEarnings repaired = sellerEarningsService.repair(20L);
+
+        // Then - the zero-delta accrue takes the row lock before the source tables are read
+        InOrder inOrder = inOrder(sellerEarningsRepository);
+        inOrder.verify(sellerEarningsRepository).accrue(20L, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        inOrder.verify(sellerEarningsRepository).sumSoldPricesBySellerRange(20L, 21L);
+        inOrder.verify(sellerEarningsRepository).overwrite(20L, 1000000L, new BigDecimal("900000.00"),
+                BigDecimal.ZERO, new BigDecimal("900000.00"));
+        assertEquals(0, new BigDecimal("900000").compareTo(repaired.getUnpaidAmount()));
+    }
+
+    private static SellerEarningsRepository.SourceTotal total(Long sellerId, String status, String total) {
+        return new SourceRow(sellerId, status, new BigDecimal(total));
+    }
+
+    private static SellerEarnings row(Long sellerId, long gross, String net, String received, String paidPending) {
+        SellerEarnings earnings = new SellerEarnings(sellerId);
+        earnings.setGrossSold(gross);
+        earnings.setNetEarnings(new BigDecimal(net));
+        earnings.setReceivedAmount(new BigDecimal(received));
+        earnings.setPaidPendingAmount(new BigDecimal(paidPending));
+        return earnings;
+    }
+
+    private record SourceRow(Long sellerId, String status, BigDecimal total)
+            implements SellerEarningsRepository.SourceTotal {
+        @Override
+        public Long getSellerId() {
+            return sellerId;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.EarningsVerificationStatsDto;
+import com.gameaccountshop.entity.SellerEarnings;
+import com.gameaccountshop.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SellerEarningsVerifier
+ */
+@ExtendWith(MockitoExtension.class)
+class SellerEarningsVerifierTest {
+
+    @Mock
+    private SellerEarningsService sellerEarningsService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void verify_SplitsSellerIdsIntoChunks() {
+        // Given - ids 1..250 in chunks of 100
+        when(userRepository.findMaxId()).thenReturn(250L);
+        when(sellerEarningsService.checkRange(anyLong(), anyLong()))
+                .thenReturn(new SellerEarningsService.RangeCheck(10, List.of()));
+
+        // When
+        EarningsVerificationStatsDto stats = verifier(true).verify();
+
+        // Then
+        verify(sellerEarningsService).checkRange(1L, 101L);
+        verify(sellerEarningsService).checkRange(101L, 201L);
+        verify(sellerEarningsService).checkRange(201L, 251L);
+        assertEquals(3, stats.chunks());
+        assertEquals(0, stats.failedChunks());
+        assertEquals(30, stats.sellersChecked());
+        assertEquals(0, stats.drifted());
+        verify(sellerEarningsService, never()).repair(anyLong());
+    }
+
+    @Test
+    void verify_Drift_RepairsDriftedSellers() {
+        // Given
+        when(userRepository.findMaxId()).thenReturn(100L);
+        when(sellerEarningsService.checkRange(1L, 101L))
+                .thenReturn(new SellerEarningsService.RangeCheck(5, List.of(drift(20L), drift(30L))));
+        when(sellerEarningsService.repair(20L)).thenReturn(new SellerEarnings(20L));
+        when(sellerEarningsService.repair(30L)).thenThrow(new RuntimeException("Lock wait timeout"));
+
+        // When
+        EarningsVerificationStatsDto stats = verifier(true).verify();
+
+        // Then - a failed repair is logged and does not fail the chunk
+        verify(sellerEarningsService).repair(20L);
+        assertEquals(2, stats.drifted());
+        assertEquals(1, stats.repaired());
+        assertEquals(0, stats.failedChunks());
+    }
+
+    @Test
+    void verify_RepairDisabled_OnlyReportsDrift() {
+        // Given
+        when(userRepository.findMaxId()).thenReturn(100L);
+        when(sellerEarningsService.checkRange(1L, 101L))
+                .thenReturn(new SellerEarningsService.RangeCheck(5, List.of(drift(20L))));
+
+        // When
+        EarningsVerificationStatsDto stats = verifier(false).verify();
+
+        // Then
+        assertEquals(1, stats.drifted());
+        assertEquals(0, stats.repaired());
+        verify(sellerEarningsService, never()).repair(anyLong());
+    }
+
+    @Test
+    void verify_FailedChunk_CountsItAndChecksTheRest() {
+        // Given
+        when(userRepository.findMaxId()).thenReturn(200L);
+        when(sellerEarningsService.checkRange(1L, 101L)).thenThrow(new RuntimeException("Database error"));
+        when(sellerEarningsService.checkRange(101L, 201L))
+                .thenReturn(new SellerEarningsService.RangeCheck(7, List.of()));
+
+        // When
+        EarningsVerificationStatsDto stats = verifier(true).verify();
+
+        // Then
+        assertEquals(2, stats.chunks());
+        assertEquals(1, stats.failedChunks());
+        assertEquals(7, stats.sellersChecked());
+    }
+
+    @Test
+    void verify_StoresLastRun() {
+        // Given
+        when(userRepository.findMaxId()).thenReturn(0L);
+        SellerEarningsVerifier verifier = verifier(true);
+        assertNull(verifier.lastRun());
+
+        // When
+        EarningsVerificationStatsDto stats = verifier.verify();
+
+        // Then - no users, nothing to check
+        assertEquals(0, stats.chunks());
+        assertSame(stats, verifier.lastRun());
+        verifyNoInteractions(sellerEarningsService);
+    }
+
+    @Test
+    void constructor_NonPositiveChunkSize_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SellerEarningsVerifier(sellerEarningsService, userRepository, 0, 4, true));
+    }
+
+    private SellerEarningsVerifier verifier(boolean repair) {
+        return new SellerEarningsVerifier(sellerEarningsService, userRepository, 100, 2, repair);
+    }
+
+    private static SellerEarningsService.Drift drift(Long sellerId) {
+        SellerEarnings expected = new SellerEarnings(sellerId);
+        expected.setGrossSold(100000L);
+        return new SellerEarningsService.Drift(sellerId, new SellerEarnings(sellerId), expected);
+    }
+}
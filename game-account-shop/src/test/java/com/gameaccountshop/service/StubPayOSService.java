@@ -0,0 +1,61 @@
+package com.gameaccountshop.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the PayOS payment-link status API
+ * Answers checkPaymentStatus from a table of order codes, after a configurable latency,
+ * and records how many calls were in flight at once and how many were made
+ */
+class StubPayOSService extends PayOSService {
+
+    private final Map<Long, String> statuses = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile long latencyMillis;
+
+    StubPayOSService() {
+        super(null, null);
+    }
+
+    StubPayOSService status(long orderCode, String status) {
+        statuses.put(orderCode, status);
+        return this;
+    }
+
+    StubPayOSService latency(long millis) {
+        this.latencyMillis = millis;
+        return this;
+    }
+
+    /**
+     * Same contract as PayOS: the link's status, or "ERROR" when PayOS cannot answer (unknown order code here)
+     */
+    @Override
+    public String checkPaymentStatus(Long orderCode) {
+        calls.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            return statuses.getOrDefault(orderCode, "ERROR");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR";
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+}
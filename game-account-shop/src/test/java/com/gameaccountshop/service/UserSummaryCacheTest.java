@@ -0,0 +1,141 @@
+package com.gameaccountshop.service;
+
+import com.gameaccountshop.dto.UserSummaryDto;
+import com.gameaccountshop.entity.User;
+import com.gameaccountshop.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserSummaryCache
+ */
+@ExtendWith(MockitoExtension.class)
+class UserSummaryCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserSummaryCache(userRepository, 2);
+    }
+
+    private User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+
+    @Test
+    void getAll_LoadsOnlyMissingIds() {
+        // Given
+        when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user(1L, "alice")));
+        when(userRepository.findAllById(List.of(2L))).thenReturn(List.of(user(2L, "bob")));
+        cache.getAll(List.of(1L));
+
+        // When
+        Map<Long, UserSummaryDto> result = cache.getAll(Arrays.asList(1L, 2L, 2L, null));
+
+        // Then
+        assertEquals("alice", result.get(1L).username());
+        assertEquals("bob@example.com", result.get(2L).email());
+        verify(userRepository).findAllById(List.of(2L));
+        assertEquals(1, cache.stats().hits());
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    void getAll_AllCached_NoQuery() {
+        // Given
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(1L, "alice")));
+        cache.getAll(List.of(1L));
+
+        // When
+        cache.getAll(List.of(1L));
+
+        // Then
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void getAll_UnknownId_IsNotCached() {
+        // Given
+        when(userRepository.findAllById(List.of(9L))).thenReturn(List.of());
+
+        // When
+        cache.getAll(List.of(9L));
+        Map<Long, UserSummaryDto> result = cache.getAll(List.of(9L));
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(userRepository, times(2)).findAllById(List.of(9L));
+    }
+
+    @Test
+    void getAll_OverMaxSize_EvictsLeastRecentlyUsed() {
+        // Given - capacity 2
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<User> users = new java.util.ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                users.add(user(id, "user" + id));
+            }
+            return users;
+        });
+        cache.getAll(List.of(1L));
+        cache.getAll(List.of(2L));
+        cache.getAll(List.of(1L)); // 1 is now most recently used
+
+        // When
+        cache.getAll(List.of(3L));
+
+        // Then - 2 was evicted, 1 was kept
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+        cache.getAll(List.of(1L));
+        verify(userRepository, times(1)).findAllById(List.of(1L));
+        cache.getAll(List.of(2L));
+        verify(userRepository, times(2)).findAllById(List.of(2L));
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        // Given
+        when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user(1L, "alice")));
+        cache.getAll(List.of(1L));
+
+        // When
+        cache.evict(1L);
+        cache.getAll(List.of(1L));
+
+        // Then
+        verify(userRepository, times(2)).findAllById(List.of(1L));
+    }
+
+    @Test
+    void evictByUsername_RemovesMatchingUser() {
+        // Given
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(1L, "alice"), user(2L, "bob")));
+        cache.getAll(List.of(1L, 2L));
+
+        // When
+        cache.evictByUsername("alice");
+
+        // Then
+        assertEquals(1, cache.stats().size());
+    }
+}
@@ -1,25 +1,42 @@
 package com.gameaccountshop.service;
 
+import com.gameaccountshop.dto.WalletCursor;
+import com.gameaccountshop.dto.WalletHistoryPageDto;
+import com.gameaccountshop.dto.WalletTransactionDto;
 import com.gameaccountshop.entity.Transaction;
 import com.gameaccountshop.entity.User;
 import com.gameaccountshop.entity.Wallet;
+import com.gameaccountshop.entity.WalletLedgerEntry;
+import com.gameaccountshop.enums.LedgerEntryType;
 import com.gameaccountshop.enums.TransactionStatus;
 import com.gameaccountshop.enums.TransactionType;
+import com.gameaccountshop.exception.InsufficientBalanceException;
 import com.gameaccountshop.repository.TransactionRepository;
 import com.gameaccountshop.repository.UserRepository;
+import com.gameaccountshop.repository.WalletLedgerRepository;
+import com.gameaccountshop.repository.WalletLedgerRepository.LedgerTail;
 import com.gameaccountshop.repository.WalletRepository;
+import com.gameaccountshop.service.WalletService.TopUpSettlement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +45,9 @@ class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private WalletLedgerRepository walletLedgerRepository;
+
     @Mock
     private TransactionRepository transactionRepository;
 
@@ -37,6 +57,9 @@ class WalletServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private PaymentOutboxService paymentOutboxService;
+
     @InjectMocks
     private WalletService walletService;
 
@@ -70,9 +93,13 @@ class WalletServiceTest {
     @Test
     void approveTopUp_WhenValidTransaction_ShouldAddBalanceAndUpdateStatus() {
         // Arrange
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTransaction));
         when(walletRepository.findByUserId(100L)).thenReturn(Optional.of(testWallet));
-        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletLedgerRepository.save(any(WalletLedgerEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletRepository.credit(100L, new BigDecimal("500000"))).thenAnswer(invocation -> {
+            testWallet.setBalance(testWallet.getBalance().add(invocation.getArgument(1)));
+            return 1;
+        });
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(userRepository.findById(100L)).thenReturn(Optional.of(testUser));
         doNothing().when(emailService).sendTopUpApprovedEmail(any(), any(), any(), any());
@@ -84,7 +111,15 @@ class WalletServiceTest {
         assertEquals(TransactionStatus.COMPLETED, testTransaction.getStatus());
         assertEquals(1L, testTransaction.getApprovedBy());
         assertNotNull(testTransaction.getApprovedAt());
-        assertEquals(new BigDecimal("500000"), testWallet.getBalance());
+
+        ArgumentCaptor<WalletLedgerEntry> entry = ArgumentCaptor.forClass(WalletLedgerEntry.class);
+        verify(walletLedgerRepository).save(entry.capture());
+        assertEquals(LedgerEntryType.CREDIT, entry.getValue().getEntryType());
+        assertEquals(new BigDecimal("500000"), entry.getValue().getAmount());
+        assertEquals(1L, entry.getValue().getTransactionId());
+        // The balance moves by an in-place increment, never by saving the loaded wallet
+        verify(walletRepository).credit(100L, new BigDecimal("500000"));
+        verify(walletRepository, never()).save(any(Wallet.class));
 
         verify(emailService, times(1)).sendTopUpApprovedEmail(
                 eq("user@example.com"),
@@ -97,9 +132,13 @@ class WalletServiceTest {
     @Test
     void approveTopUp_WhenEmailServiceThrowsException_ShouldStillCompleteApproval() {
         // Arrange
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTransaction));
         when(walletRepository.findByUserId(100L)).thenReturn(Optional.of(testWallet));
-        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletLedgerRepository.save(any(WalletLedgerEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletRepository.credit(100L, new BigDecimal("500000"))).thenAnswer(invocation -> {
+            testWallet.setBalance(testWallet.getBalance().add(invocation.getArgument(1)));
+            return 1;
+        });
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(userRepository.findById(100L)).thenReturn(Optional.of(testUser));
         doThrow(new RuntimeException("Email error")).when(emailService).sendTopUpApprovedEmail(any(), any(), any(), any());
@@ -109,13 +148,13 @@ class WalletServiceTest {
 
         // Assert - transaction should still be approved
         assertEquals(TransactionStatus.COMPLETED, testTransaction.getStatus());
-        assertEquals(new BigDecimal("500000"), testWallet.getBalance());
+        verify(walletLedgerRepository).save(any(WalletLedgerEntry.class));
     }
 
     @Test
     void rejectTopUp_WhenValidTransaction_ShouldUpdateStatusWithReason() {
         // Arrange
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTransaction));
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(userRepository.findById(100L)).thenReturn(Optional.of(testUser));
         doNothing().when(emailService).sendTopUpRejectedEmail(any(), any(), any(), any());
@@ -140,7 +179,7 @@ class WalletServiceTest {
     @Test
     void rejectTopUp_WhenEmailServiceThrowsException_ShouldStillCompleteRejection() {
         // Arrange
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTransaction));
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(userRepository.findById(100L)).thenReturn(Optional.of(testUser));
         doThrow(new RuntimeException("Email error")).when(emailService).sendTopUpRejectedEmail(any(), any(), any(), any());
@@ -156,7 +195,7 @@ class WalletServiceTest {
     @Test
     void approveTopUp_WhenTransactionNotFound_ShouldThrowException() {
         // Arrange
-        when(transactionRepository.findById(999L)).thenReturn(Optional.empty());
+        when(transactionRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> walletService.approveTopUp(999L, 1L));
@@ -166,7 +205,7 @@ class WalletServiceTest {
     void approveTopUp_WhenTransactionNotTopUpType_ShouldThrowException() {
         // Arrange
         testTransaction.setTransactionType(TransactionType.PURCHASE);
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTransaction));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> walletService.approveTopUp(1L, 1L));
@@ -176,9 +215,333 @@ class WalletServiceTest {
     void approveTopUp_WhenTransactionNotPending_ShouldThrowException() {
         // Arrange
         testTransaction.setStatus(TransactionStatus.COMPLETED);
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTransaction));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> walletService.approveTopUp(1L, 1L));
     }
+
+    @Test
+    void getBalance_ShouldReadLiveBalanceOnly() {
+        // Arrange
+        testWallet.setBalance(new BigDecimal("180000"));
+        testWallet.setSnapshotBalance(new BigDecimal("300000"));
+        testWallet.setSnapshotEntryId(40L);
+        when(walletRepository.findByUserId(100L)).thenReturn(Optional.of(testWallet));
+
+        // Act & Assert - one row read; the ledger is not summed
+        assertEquals(new BigDecimal("180000"), walletService.getBalance(100L));
+        verifyNoInteractions(walletLedgerRepository);
+    }
+
+    @Test
+    void deductBalance_WhenGuardedDebitSucceeds_ShouldAppendDebit() {
+        // Arrange
+        when(walletRepository.debit(100L, new BigDecimal("200000"))).thenReturn(1);
+
+        // Act
+        walletService.deductBalance(100L, new BigDecimal("200000"), 7L);
+
+        // Assert
+        ArgumentCaptor<WalletLedgerEntry> entry = ArgumentCaptor.forClass(WalletLedgerEntry.class);
+        verify(walletLedgerRepository).save(entry.capture());
+        assertEquals(LedgerEntryType.DEBIT, entry.getValue().getEntryType());
+        assertEquals(new BigDecimal("-200000"), entry.getValue().getAmount());
+        assertEquals(7L, entry.getValue().getTransactionId());
+        // No row lock: the conditional UPDATE is the balance check
+        verify(walletRepository, never()).findByUserIdForUpdate(any());
+        verify(walletRepository, never()).save(any(Wallet.class));
+    }
+
+    @Test
+    void deductBalance_WhenBalanceTooLow_ShouldThrowWithoutAppending() {
+        // Arrange
+        when(walletRepository.debit(100L, new BigDecimal("200000"))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InsufficientBalanceException.class,
+                () -> walletService.deductBalance(100L, new BigDecimal("200000"), 7L));
+        verify(walletLedgerRepository, never()).save(any());
+    }
+
+    @Test
+    void deductBalance_WhenNoWallet_ShouldThrowInsufficientBalance() {
+        // Arrange - no wallet row: the guarded UPDATE matches nothing
+        when(walletRepository.debit(100L, new BigDecimal("200000"))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InsufficientBalanceException.class,
+                () -> walletService.deductBalance(100L, new BigDecimal("200000"), 7L));
+        verifyNoInteractions(walletLedgerRepository);
+    }
+
+    @Test
+    void deductBalance_WhenAmountNotPositive_ShouldRejectWithoutTouchingWallet() {
+        assertThrows(IllegalArgumentException.class, () -> walletService.deductBalance(100L, BigDecimal.ZERO, 7L));
+        assertThrows(IllegalArgumentException.class, () -> walletService.deductBalance(100L, new BigDecimal("-5"), 7L));
+
+        verifyNoInteractions(walletRepository, walletLedgerRepository);
+    }
+
+    @Test
+    void foldLedger_ShouldMoveCheckpointToLiveBalance() {
+        // Arrange
+        testWallet.setBalance(new BigDecimal("70000"));
+        testWallet.setSnapshotBalance(new BigDecimal("100000"));
+        testWallet.setSnapshotEntryId(40L);
+        when(walletRepository.findByUserIdForUpdate(100L)).thenReturn(Optional.of(testWallet));
+        when(walletLedgerRepository.lockTail(100L, 40L)).thenReturn(tail("-30000", 45L));
+
+        // Act
+        assertTrue(walletService.foldLedger(100L));
+
+        // Assert - the live balance is left as it is
+        assertEquals(new BigDecimal("70000"), testWallet.getBalance());
+        assertEquals(new BigDecimal("70000"), testWallet.getSnapshotBalance());
+        assertEquals(45L, testWallet.getSnapshotEntryId());
+        verify(walletRepository).save(testWallet);
+    }
+
+    @Test
+    void foldLedger_WhenLedgerDisagrees_ShouldKeepLiveBalance() {
+        // Arrange - entries add up to 80000 but the balance says 70000
+        testWallet.setBalance(new BigDecimal("70000"));
+        testWallet.setSnapshotBalance(new BigDecimal("100000"));
+        testWallet.setSnapshotEntryId(40L);
+        when(walletRepository.findByUserIdForUpdate(100L)).thenReturn(Optional.of(testWallet));
+        when(walletLedgerRepository.lockTail(100L, 40L)).thenReturn(tail("-20000", 45L));
+
+        // Act
+        assertTrue(walletService.foldLedger(100L));
+
+        // Assert - logged; the guarded balance stays the source of truth
+        assertEquals(new BigDecimal("70000"), testWallet.getBalance());
+        assertEquals(new BigDecimal("70000"), testWallet.getSnapshotBalance());
+    }
+
+    @Test
+    void foldLedger_WhenNoNewEntries_ShouldLeaveSnapshot() {
+        // Arrange
+        testWallet.setSnapshotEntryId(40L);
+        when(walletRepository.findByUserIdForUpdate(100L)).thenReturn(Optional.of(testWallet));
+        when(walletLedgerRepository.lockTail(100L, 40L)).thenReturn(tail("0", 40L));
+
+        // Act & Assert
+        assertFalse(walletService.foldLedger(100L));
+        verify(walletRepository, never()).save(any(Wallet.class));
+    }
+
+    @Test
+    void settlePaidTopUp_WhenPendingAndAmountMatches_ShouldCreditWithoutAdmin() {
+        // Arrange
+        testTransaction.setOrderCode(9001L);
+        when(transactionRepository.findByOrderCodeForUpdate(9001L)).thenReturn(Optional.of(testTransaction));
+        when(walletRepository.findByUserId(100L)).thenReturn(Optional.of(testWallet));
+        when(walletLedgerRepository.save(any(WalletLedgerEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletRepository.credit(100L, new BigDecimal("500000"))).thenAnswer(invocation -> {
+            testWallet.setBalance(testWallet.getBalance().add(invocation.getArgument(1)));
+            return 1;
+        });
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findById(100L)).thenReturn(Optional.of(testUser));
+
+        // Act
+        TopUpSettlement settlement = walletService.settlePaidTopUp(9001L, 500000L);
+
+        // Assert
+        assertEquals(TopUpSettlement.CREDITED, settlement);
+        assertEquals(TransactionStatus.COMPLETED, testTransaction.getStatus());
+        assertNull(testTransaction.getApprovedBy());
+        assertNotNull(testTransaction.getVerifiedAt());
+        verify(walletLedgerRepository).save(any(WalletLedgerEntry.class));
+        verify(emailService).sendTopUpApprovedEmail(eq("user@example.com"), any(), any(), eq("TXN1"));
+    }
+
+    @Test
+    void settlePaidTopUp_WhenAlreadyCompleted_ShouldNotCreditAgain() {
+        // Arrange - redelivered webhook, or an admin approved first
+        testTransaction.setStatus(TransactionStatus.COMPLETED);
+        when(transactionRepository.findByOrderCodeForUpdate(9001L)).thenReturn(Optional.of(testTransaction));
+
+        // Act & Assert
+        assertEquals(TopUpSettlement.NOT_CREDITED, walletService.settlePaidTopUp(9001L, 500000L));
+        verify(walletLedgerRepository, never()).save(any(WalletLedgerEntry.class));
+    }
+
+    @Test
+    void settlePaidTopUp_WhenTransactionNotVisibleYet_ShouldAskForRetry() {
+        // Arrange - the webhook overtook the commit that stores the order code
+        when(transactionRepository.findByOrderCodeForUpdate(9001L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(TopUpSettlement.NOT_FOUND, walletService.settlePaidTopUp(9001L, 500000L));
+        verify(walletLedgerRepository, never()).save(any(WalletLedgerEntry.class));
+    }
+
+    @Test
+    void settlePaidTopUp_WhenAmountDiffers_ShouldLeavePendingForAdminWithNote() {
+        // Arrange
+        when(transactionRepository.findByOrderCodeForUpdate(9001L)).thenReturn(Optional.of(testTransaction));
+
+        // Act & Assert
+        assertEquals(TopUpSettlement.AMOUNT_MISMATCH, walletService.settlePaidTopUp(9001L, 10000L));
+        assertEquals(TransactionStatus.PENDING, testTransaction.getStatus());
+        assertEquals("PayOS nhận 10000 VNĐ, khác số tiền yêu cầu nạp 500000 VNĐ", testTransaction.getRejectionReason());
+        verify(transactionRepository).save(testTransaction);
+        verify(walletLedgerRepository, never()).save(any(WalletLedgerEntry.class));
+    }
+
+    @Test
+    void settlePaidTopUp_WhenRejected_ShouldNotCredit() {
+        // Arrange
+        testTransaction.setStatus(TransactionStatus.REJECTED);
+        when(transactionRepository.findByOrderCodeForUpdate(9001L)).thenReturn(Optional.of(testTransaction));
+
+        // Act & Assert
+        assertEquals(TopUpSettlement.NOT_CREDITED, walletService.settlePaidTopUp(9001L, 500000L));
+        assertEquals(TransactionStatus.REJECTED, testTransaction.getStatus());
+        verify(walletLedgerRepository, never()).save(any(WalletLedgerEntry.class));
+    }
+
+    @Test
+    void getHistoryPage_FirstPage_ShouldTrimExtraRowAndOfferOlderPage() {
+        // Arrange - one row more than a page means there is an older page
+        List<WalletTransactionDto> rows = historyRows(WalletService.HISTORY_PAGE_SIZE + 1, 500L);
+        when(transactionRepository.findWalletHistory(eq(100L), any())).thenReturn(rows);
+
+        // Act
+        WalletHistoryPageDto page = walletService.getHistoryPage(100L, null, null);
+
+        // Assert
+        assertEquals(WalletService.HISTORY_PAGE_SIZE, page.transactions().size());
+        assertNull(page.prevCursor());
+        WalletCursor next = WalletCursor.decode(page.nextCursor());
+        WalletTransactionDto last = rows.get(WalletService.HISTORY_PAGE_SIZE - 1);
+        assertEquals(last.id(), next.id());
+        assertEquals(last.createdAt(), next.createdAt());
+    }
+
+    @Test
+    void getHistoryPage_After_ShouldSeekOlderRowsFromCursor() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 18, 14, 30);
+        String after = new WalletCursor(createdAt, 480L).encode();
+        when(transactionRepository.findWalletHistoryBefore(eq(100L), eq(createdAt), eq(480L), any()))
+                .thenReturn(historyRows(3, 479L));
+
+        // Act
+        WalletHistoryPageDto page = walletService.getHistoryPage(100L, after, null);
+
+        // Assert - last page: nothing older, but the newer page is reachable
+        assertEquals(3, page.transactions().size());
+        assertNull(page.nextCursor());
+        assertEquals(479L, WalletCursor.decode(page.prevCursor()).id());
+    }
+
+    @Test
+    void getHistoryPage_Before_ShouldReverseNewerRowsIntoDisplayOrder() {
+        // Arrange - newer rows come back oldest first
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 18, 14, 30);
+        String before = new WalletCursor(createdAt, 10L).encode();
+        List<WalletTransactionDto> ascending = new ArrayList<>(historyRows(2, 12L));
+        Collections.reverse(ascending);
+        when(transactionRepository.findWalletHistoryAfter(eq(100L), eq(createdAt), eq(10L), any()))
+                .thenReturn(ascending);
+
+        // Act
+        WalletHistoryPageDto page = walletService.getHistoryPage(100L, null, before);
+
+        // Assert - first page again: newest first, no newer page
+        assertEquals(12L, page.transactions().get(0).id());
+        assertEquals(11L, page.transactions().get(1).id());
+        assertNull(page.prevCursor());
+        assertEquals(11L, WalletCursor.decode(page.nextCursor()).id());
+    }
+
+    @Test
+    void getHistoryPage_TamperedCursor_ShouldFallBackToFirstPage() {
+        // Arrange
+        when(transactionRepository.findWalletHistory(eq(100L), any())).thenReturn(List.of());
+
+        // Act
+        WalletHistoryPageDto page = walletService.getHistoryPage(100L, "not-a-cursor", null);
+
+        // Assert
+        assertTrue(page.transactions().isEmpty());
+        verify(transactionRepository, never()).findWalletHistoryBefore(any(), any(), any(), any());
+    }
+
+    @Test
+    void countHistory_ShouldUseCappedCount() {
+        // Arrange
+        when(transactionRepository.countByBuyerIdCapped(100L, WalletService.HISTORY_COUNT_CAP)).thenReturn(42L);
+
+        // Act & Assert
+        assertEquals(42L, walletService.countHistory(100L));
+    }
+
+    /**
+     * count rows newest first, ids counting down from newestId, one minute apart
+     */
+    private static List<WalletTransactionDto> historyRows(int count, long newestId) {
+        LocalDateTime newest = LocalDateTime.of(2026, 1, 18, 14, 30);
+        List<WalletTransactionDto> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new WalletTransactionDto(newestId - i, TransactionType.PURCHASE, TransactionStatus.COMPLETED,
+                    new BigDecimal("100000"), newest.minusMinutes(i)));
+        }
+        return rows;
+    }
+
+    @Test
+    void createTopUpTransaction_ShouldCommitThenCreateLinkForStoredOrderCode() {
+        // Arrange
+        PayOSService payOSService = mock(PayOSService.class);
+        TransactionService transactionService = mock(TransactionService.class);
+        when(transactionService.getPayOSService()).thenReturn(payOSService);
+        when(paymentOutboxService.enqueue(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction pending = invocation.getArgument(0);
+            pending.setId(7L);
+            pending.setOrderCode(9001L);
+            return pending;
+        });
+        when(paymentOutboxService.dispatch(any(Transaction.class), any())).thenAnswer(invocation -> {
+            Function<Transaction, PayOSService.PayOSData> createLink = invocation.getArgument(1);
+            createLink.apply(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        Transaction created = walletService.createTopUpTransaction(100L, new BigDecimal("50000"), transactionService);
+
+        // Assert
+        assertEquals(TransactionStatus.PENDING, created.getStatus());
+        assertEquals(TransactionType.TOP_UP, created.getTransactionType());
+        InOrder inOrder = inOrder(paymentOutboxService, payOSService);
+        inOrder.verify(paymentOutboxService).enqueue(created);
+        inOrder.verify(payOSService).createTopUpPayment(new BigDecimal("50000"), 9001L, "TOPUP7", "Nap vi 50000");
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void createTopUpTransaction_WhenAmountTooLow_ShouldNotEnqueue() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> walletService.createTopUpTransaction(100L, new BigDecimal("5000"), mock(TransactionService.class)));
+        verifyNoInteractions(paymentOutboxService);
+    }
+
+    private static LedgerTail tail(String total, Long lastEntryId) {
+        return new LedgerTail() {
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(total);
+            }
+
+            @Override
+            public Long getLastEntryId() {
+                return lastEntryId;
+            }
+        };
+    }
 }